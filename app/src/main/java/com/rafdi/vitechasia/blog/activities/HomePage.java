@@ -42,6 +42,8 @@ import com.rafdi.vitechasia.blog.fragments.PopularFragment;
 import com.rafdi.vitechasia.blog.fragments.ProfileFragment;
 import com.rafdi.vitechasia.blog.fragments.SearchResultsFragment;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.repository.ArticleChangeSet;
+import com.rafdi.vitechasia.blog.utils.DataHandler;
 import com.rafdi.vitechasia.blog.utils.SessionManager;
 import com.rafdi.vitechasia.blog.utils.ThemeManager;
 import com.rafdi.vitechasia.blog.adapters.ArticleVerticalAdapter;
@@ -53,6 +55,7 @@ import com.rafdi.vitechasia.blog.adapters.ArticleVerticalAdapter;
 public class HomePage extends AppCompatActivity implements ArticleVerticalAdapter.OnArticleClickListener, HomeFragment.NavigationCallback {
 
     private static final String TAG = "HomePage";
+    private static final int MAX_SUGGESTIONS = 5;
     private SessionManager sessionManager;
     private SwipeRefreshLayout swipeRefreshLayout;
     private Article currentArticle;
@@ -61,6 +64,7 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
     private EditText searchText;
     private ImageButton searchButton;
     private PopupWindow searchDropdown;
+    private SearchHistoryAdapter searchDropdownAdapter;
     private SearchHistoryManager searchHistoryManager;
 
     @Override
@@ -232,6 +236,7 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
     private void reloadCurrentFragment() {
         if (swipeRefreshLayout == null) return;
 
+        boolean syncing = false;
         try {
             Fragment currentFragment = getSupportFragmentManager().findFragmentById(R.id.fragment_container);
 
@@ -242,12 +247,12 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
                         // Reload the article detail fragment
                         loadArticleDetailFragment(currentArticle);
                     }
-                } else if (currentFragment instanceof HomeFragment) {
-                    loadHomeFragment();
-                } else if (currentFragment instanceof LatestFragment) {
-                    loadLatestFragment();
-                } else if (currentFragment instanceof PopularFragment) {
-                    loadPopularFragment();
+                } else if (currentFragment instanceof HomeFragment
+                        || currentFragment instanceof LatestFragment
+                        || currentFragment instanceof PopularFragment) {
+                    // Feed lists pull only what changed and patch themselves through change listeners
+                    syncing = true;
+                    syncArticleChanges(currentFragment);
                 } else if (currentFragment instanceof BookmarkFragment) {
                     loadBookmarkFragment();
                 } else if (currentFragment instanceof ProfileFragment) {
@@ -257,17 +262,51 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
         } catch (Exception e) {
             e.printStackTrace();
         } finally {
-            // Always stop the refresh indicator
-            if (swipeRefreshLayout != null) {
-                swipeRefreshLayout.postDelayed(() -> {
-                    if (swipeRefreshLayout != null) {
-                        swipeRefreshLayout.setRefreshing(false);
-                    }
-                }, 500);
+            // Always stop the refresh indicator; a sync stops it when it finishes
+            if (!syncing) {
+                stopRefreshing(500);
             }
         }
     }
 
+    private void syncArticleChanges(Fragment fragment) {
+        DataHandler.getInstance().syncChanges(new DataHandler.SyncListener() {
+            @Override
+            public void onSyncComplete(ArticleChangeSet changes) {
+                stopRefreshing(0);
+            }
+
+            @Override
+            public void onError(String message) {
+                // No delta available (offline, first run without a data source, server error): reload in full
+                if (!isFinishing() && fragment.isAdded()) {
+                    reloadFeedFragment(fragment);
+                }
+                stopRefreshing(500);
+            }
+        });
+    }
+
+    private void reloadFeedFragment(Fragment fragment) {
+        if (fragment instanceof HomeFragment) {
+            loadHomeFragment();
+        } else if (fragment instanceof LatestFragment) {
+            loadLatestFragment();
+        } else if (fragment instanceof PopularFragment) {
+            loadPopularFragment();
+        }
+    }
+
+    private void stopRefreshing(long delayMillis) {
+        if (swipeRefreshLayout != null) {
+            swipeRefreshLayout.postDelayed(() -> {
+                if (swipeRefreshLayout != null) {
+                    swipeRefreshLayout.setRefreshing(false);
+                }
+            }, delayMillis);
+        }
+    }
+
     private void setupSearch() {
         if (searchButton == null || searchText == null) {
             android.util.Log.e("HomePage", "Search components not properly initialized");
@@ -319,17 +358,30 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
             }
         });
 
-        // Clear search and return to home when search text is empty
+        // Search as the user types; clear search and return to home when search text is empty
         searchText.addTextChangedListener(new android.text.TextWatcher() {
             @Override
             public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
 
             @Override
             public void onTextChanged(CharSequence s, int start, int before, int count) {
-                if (s.toString().trim().isEmpty() &&
-                    getSupportFragmentManager().findFragmentById(R.id.fragment_container) instanceof SearchResultsFragment) {
-                    // If search is cleared and we're on search results, go back to home
-                    loadHomeFragment();
+                String query = s.toString().trim();
+                Fragment current = getSupportFragmentManager().findFragmentById(R.id.fragment_container);
+                if (searchText.hasFocus()) {
+                    // Completions from titles, authors and history; recent searches when empty
+                    showSearchDropdown(query.isEmpty() ? searchHistoryManager.getSearchHistory()
+                            : DataHandler.getSearchSuggestions().suggest(query, MAX_SUGGESTIONS));
+                }
+                if (query.isEmpty()) {
+                    if (current instanceof SearchResultsFragment) {
+                        // If search is cleared and we're on search results, go back to home
+                        loadHomeFragment();
+                    }
+                } else if (current instanceof SearchResultsFragment) {
+                    // Debounced in the fragment's search pipeline
+                    ((SearchResultsFragment) current).updateQuery(query);
+                } else if (searchText.hasFocus()) {
+                    showSearchResults(query);
                 }
             }
 
@@ -371,29 +423,33 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
             return;
         }
 
-        // Get the dropdown content view
-        View dropdownView = searchDropdown.getContentView();
-        RecyclerView recyclerView = dropdownView.findViewById(R.id.recyclerView);
-
-        // Limit to 5 recent searches as requested
-        List<String> limitedSearches = recentSearches.size() > 5 ?
-                recentSearches.subList(0, 5) : recentSearches;
-
-        // Setup adapter
-        SearchHistoryAdapter adapter = new SearchHistoryAdapter(limitedSearches,
-                query -> {
-                    // Set the search text and perform search
-                    searchText.setText(query);
-                    performSearch(query);
-                    searchDropdown.dismiss();
-
-                    // Hide keyboard after selection
-                    InputMethodManager imm = (InputMethodManager) getSystemService(INPUT_METHOD_SERVICE);
-                    imm.hideSoftInputFromWindow(searchText.getWindowToken(), 0);
-                });
-
-        recyclerView.setLayoutManager(new LinearLayoutManager(this));
-        recyclerView.setAdapter(adapter);
+        // Limit to 5 recent searches or suggestions as requested
+        List<String> limitedSearches = recentSearches.size() > MAX_SUGGESTIONS ?
+                recentSearches.subList(0, MAX_SUGGESTIONS) : recentSearches;
+
+        if (searchDropdownAdapter == null) {
+            // Get the dropdown content view
+            View dropdownView = searchDropdown.getContentView();
+            RecyclerView recyclerView = dropdownView.findViewById(R.id.recyclerView);
+
+            // Setup adapter once; later keystrokes only diff the rows
+            searchDropdownAdapter = new SearchHistoryAdapter(limitedSearches,
+                    query -> {
+                        // Set the search text and perform search
+                        searchText.setText(query);
+                        performSearch(query);
+                        searchDropdown.dismiss();
+
+                        // Hide keyboard after selection
+                        InputMethodManager imm = (InputMethodManager) getSystemService(INPUT_METHOD_SERVICE);
+                        imm.hideSoftInputFromWindow(searchText.getWindowToken(), 0);
+                    });
+
+            recyclerView.setLayoutManager(new LinearLayoutManager(this));
+            recyclerView.setAdapter(searchDropdownAdapter);
+        } else {
+            searchDropdownAdapter.updateSearchHistory(limitedSearches);
+        }
 
         // Show popup below the search bar if not already showing
         if (!searchDropdown.isShowing()) {
@@ -416,6 +472,16 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
         SearchHistoryManager searchHistoryManager = SearchHistoryManager.getInstance(this);
         searchHistoryManager.addSearchQuery(query);
 
+        Fragment current = getSupportFragmentManager().findFragmentById(R.id.fragment_container);
+        if (current instanceof SearchResultsFragment) {
+            // Already showing results as the user typed; run the final query at once
+            ((SearchResultsFragment) current).submitQuery(query);
+            return;
+        }
+        showSearchResults(query);
+    }
+
+    private void showSearchResults(String query) {
         // Create and show the search results fragment
         SearchResultsFragment fragment = SearchResultsFragment.newInstance(query);
         getSupportFragmentManager().beginTransaction()
@@ -423,6 +489,8 @@ public class HomePage extends AppCompatActivity implements ArticleVerticalAdapte
                 .setTransition(FragmentTransaction.TRANSIT_FRAGMENT_FADE)
                 .addToBackStack("search")
                 .commit();
+        // Let the next keystroke or submit find the new fragment instead of opening another
+        getSupportFragmentManager().executePendingTransactions();
     }
 
     public void updateBottomNavSelection(int itemId) {
@@ -1,10 +1,20 @@
 package com.rafdi.vitechasia.blog.adapters;
 
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+
 /**
  * Utility class for formatting article-related text and data.
  * Provides consistent formatting across all article adapters.
  */
 public class ArticleFormatter {
+    private static final String DATE_PATTERN = "MMM d, yyyy";
+    private static final int WORDS_PER_MINUTE = 200;
+
+    // DateTimeFormatter is immutable and thread-safe; rebuilt only when the locale changes
+    private static volatile DateTimeFormatter dateFormatter;
 
     /**
      * Format category name with proper capitalization.
@@ -68,6 +78,61 @@ public class ArticleFormatter {
         return date.trim();
     }
 
+    /**
+     * Format a publish date as e.g. "Jan 5, 2025", reusing a cached formatter.
+     * @param date The date to format
+     * @return Formatted date string or empty string if date is null
+     */
+    public static String formatDate(Date date) {
+        if (date == null) {
+            return "";
+        }
+        Locale locale = Locale.getDefault();
+        DateTimeFormatter formatter = dateFormatter;
+        if (formatter == null || !locale.equals(formatter.getLocale())) {
+            formatter = DateTimeFormatter.ofPattern(DATE_PATTERN, locale);
+            dateFormatter = formatter;
+        }
+        return formatter.format(date.toInstant().atZone(ZoneId.systemDefault()));
+    }
+
+    /**
+     * Estimate reading time from the number of words in the content.
+     * @param content Article body, may be null
+     * @return Whole minutes, rounded up; 0 for empty content
+     */
+    public static int estimateReadingMinutes(String content) {
+        return readingMinutesForWords(countWords(content));
+    }
+
+    /**
+     * Reading time for a known word count, e.g. one reported with an article summary.
+     * @return Whole minutes, rounded up; 0 for no words
+     */
+    public static int readingMinutesForWords(int words) {
+        if (words <= 0) return 0;
+        return (words + WORDS_PER_MINUTE - 1) / WORDS_PER_MINUTE;
+    }
+
+    /**
+     * Count whitespace-separated words.
+     * @param content Text to count, may be null
+     */
+    public static int countWords(String content) {
+        if (content == null) return 0;
+
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < content.length(); i++) {
+            boolean whitespace = Character.isWhitespace(content.charAt(i));
+            if (!whitespace && !inWord) {
+                words++;
+            }
+            inWord = !whitespace;
+        }
+        return words;
+    }
+
     /**
      * Format reading time in a human-readable format.
      * @param minutes Reading time in minutes
@@ -24,22 +24,22 @@ public class ArticleHorizontalAdapter extends BaseArticleAdapter<ArticleHorizont
     public ArticleViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_article_horizontal, parent, false);
-        return new ArticleViewHolder(view);
+        ArticleViewHolder holder = new ArticleViewHolder(view);
+
+        // Set click listener for the entire item once, instead of on every bind
+        view.setOnClickListener(v -> {
+            Article article = getArticle(holder.getBindingAdapterPosition());
+            if (listener != null && article != null) {
+                listener.onArticleClick(article);
+            }
+        });
+        return holder;
     }
 
     @Override
     public void onBindViewHolder(@NonNull ArticleViewHolder holder, int position) {
-        Article article = articles.get(position);
-
         // Use base adapter's common binding
-        bindArticleData(holder, article);
-
-        // Set click listener for the entire item
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onArticleClick(article);
-            }
-        });
+        bindArticleData(holder, position);
     }
 
     static class ArticleViewHolder extends BaseArticleAdapter.ArticleViewHolder {
@@ -0,0 +1,78 @@
+package com.rafdi.vitechasia.blog.adapters;
+
+import androidx.annotation.NonNull;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable presentation model for an article card.
+ * Every displayed string is formatted once, off the main thread, when a list is submitted
+ * to {@link BaseArticleAdapter}, so binding a view holder only assigns precomputed values.
+ */
+public final class ArticleUiModel {
+    @NonNull public final Article article;
+    @NonNull public final String id;
+    @NonNull public final String title;
+    @NonNull public final String authorName;
+    @NonNull public final String formattedDate;
+    @NonNull public final String categoryLabel;
+    @NonNull public final String subcategoryLabel;
+    @NonNull public final String likeCountText;
+    @NonNull public final String viewCountText;
+    @NonNull public final String readingTimeText;
+    public final String imageUrl;
+
+    private ArticleUiModel(@NonNull Article article) {
+        this.article = article;
+        this.id = article.getId() != null ? article.getId() : "";
+        this.title = article.getTitle() != null ? article.getTitle() : "";
+        this.authorName = article.getAuthorName() != null ? article.getAuthorName() : "";
+        this.formattedDate = ArticleFormatter.formatDate(article.getPublishDate());
+        this.categoryLabel = ArticleFormatter.formatCategory(article.getCategoryId());
+        this.subcategoryLabel = ArticleFormatter.formatSubcategory(article.getSubcategoryId());
+        this.likeCountText = ArticleFormatter.formatViewCount(article.getLikeCount());
+        this.viewCountText = ArticleFormatter.formatViewCount(article.getViewCount());
+        // Summaries from list endpoints have no body, only the server's word count
+        this.readingTimeText = ArticleFormatter.formatReadingTime(article.hasContent()
+                ? ArticleFormatter.estimateReadingMinutes(article.getContent())
+                : ArticleFormatter.readingMinutesForWords(article.getWordCount()));
+        this.imageUrl = article.getImageUrl();
+    }
+
+    /**
+     * Builds the presentation model for an article. The article's current values are captured;
+     * later changes to the article are only shown once a new model is built.
+     */
+    @NonNull
+    public static ArticleUiModel from(@NonNull Article article) {
+        return new ArticleUiModel(article);
+    }
+
+    @NonNull
+    public static List<ArticleUiModel> fromArticles(@NonNull List<Article> articles) {
+        List<ArticleUiModel> models = new ArrayList<>(articles.size());
+        for (Article article : articles) {
+            models.add(new ArticleUiModel(article));
+        }
+        return models;
+    }
+
+    /**
+     * True if both models would render identically.
+     */
+    public boolean hasSameContent(@NonNull ArticleUiModel other) {
+        return title.equals(other.title)
+                && authorName.equals(other.authorName)
+                && formattedDate.equals(other.formattedDate)
+                && categoryLabel.equals(other.categoryLabel)
+                && subcategoryLabel.equals(other.subcategoryLabel)
+                && likeCountText.equals(other.likeCountText)
+                && viewCountText.equals(other.viewCountText)
+                && readingTimeText.equals(other.readingTimeText)
+                && Objects.equals(imageUrl, other.imageUrl);
+    }
+}
@@ -32,9 +32,8 @@ public class ArticleVerticalAdapter extends BaseArticleAdapter<ArticleVerticalAd
 
     @Override
     public void onBindViewHolder(@NonNull ArticleViewHolder holder, int position) {
-        Article article = articles.get(position);
         // Use base adapter's common binding
-        bindArticleData(holder, article);
+        bindArticleData(holder, position);
     }
 
     public static class ArticleViewHolder extends BaseArticleAdapter.ArticleViewHolder {
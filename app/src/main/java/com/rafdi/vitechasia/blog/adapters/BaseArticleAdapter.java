@@ -15,6 +15,7 @@ import com.bumptech.glide.load.resource.drawable.DrawableTransitionOptions;
 import com.rafdi.vitechasia.blog.R;
 import androidx.annotation.Nullable;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.utils.AppExecutors;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,6 +26,7 @@ import androidx.recyclerview.widget.DiffUtil;
 /**
  * Base adapter class for article adapters that provides common functionality.
  * Reduces code duplication between ArticleVerticalAdapter and ArticleHorizontalAdapter.
+ * List updates are diffed off the main thread; see {@link #setArticles(List, Runnable)}.
  */
 public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
     extends RecyclerView.Adapter<VH> {
@@ -33,8 +35,19 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
     private static final int DEFAULT_IMAGE_PLACEHOLDER = R.drawable.ic_placeholder_image;
     private static final int DEFAULT_IMAGE_ERROR = R.drawable.error_image;
 
+    // Payload keys for partial rebinds
+    private static final String PAYLOAD_TITLE = "title";
+    private static final String PAYLOAD_IMAGE = "image";
+    private static final String PAYLOAD_LIKE_COUNT = "like_count";
+    private static final String PAYLOAD_VIEW_COUNT = "view_count";
+
     protected List<Article> articles = new ArrayList<>();
+    // Parallel to articles: the preformatted text each card shows
+    private final List<ArticleUiModel> uiModels = new ArrayList<>();
     protected OnArticleClickListener listener;
+    // Main-thread only: bumped per setArticles call and per in-place edit respectively
+    private int submitGeneration;
+    private int listVersion;
 
     public interface OnArticleClickListener {
         void onArticleClick(Article article);
@@ -49,66 +62,119 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
      * @param newArticles New list of articles to display
      */
     public void setArticles(List<Article> newArticles) {
-        if (newArticles == null) {
-            newArticles = new ArrayList<>();
+        setArticles(newArticles, null);
+    }
+
+    /**
+     * Updates the list of articles, computing the diff on a background thread.
+     * Must be called on the main thread. The adapter keeps showing the current list until the
+     * diff is ready; if another list is submitted in the meantime, the older diff is dropped.
+     *
+     * @param newArticles New list of articles to display
+     * @param onCommitted Optional callback run on the main thread once this list is displayed;
+     *                    not run if a newer list replaces it first
+     */
+    public void setArticles(List<Article> newArticles, @Nullable Runnable onCommitted) {
+        final List<Article> newList = newArticles != null ? new ArrayList<>(newArticles) : new ArrayList<>();
+        final int generation = ++submitGeneration;
+
+        if (newList.isEmpty()) {
+            // Nothing to format or diff; commit right away
+            int oldSize = articles.size();
+            articles.clear();
+            uiModels.clear();
+            if (oldSize > 0) {
+                notifyItemRangeRemoved(0, oldSize);
+            }
+            runCommitted(onCommitted);
+            return;
+        }
+
+        final List<ArticleUiModel> oldModels = new ArrayList<>(uiModels);
+        final int listVersion = this.listVersion;
+        AppExecutors executors = AppExecutors.getInstance();
+        executors.background().execute(() -> {
+            // Format every card once here, so binding on the main thread allocates nothing
+            List<ArticleUiModel> newModels = ArticleUiModel.fromArticles(newList);
+            DiffUtil.DiffResult diffResult = oldModels.isEmpty()
+                    ? null : DiffUtil.calculateDiff(new ArticleDiffCallback(oldModels, newModels));
+            executors.mainThread().execute(() -> {
+                if (generation != submitGeneration) {
+                    return; // A newer list was submitted while this diff was running
+                }
+                int oldSize = articles.size();
+                articles.clear();
+                articles.addAll(newList);
+                uiModels.clear();
+                uiModels.addAll(newModels);
+                if (listVersion != this.listVersion) {
+                    // The list was edited in place since the snapshot, so the diff no longer applies
+                    notifyDataSetChanged();
+                } else if (diffResult != null) {
+                    diffResult.dispatchUpdatesTo(this);
+                } else {
+                    if (oldSize > 0) {
+                        notifyItemRangeRemoved(0, oldSize);
+                    }
+                    notifyItemRangeInserted(0, newList.size());
+                }
+                runCommitted(onCommitted);
+            });
+        });
+    }
+
+    private static void runCommitted(@Nullable Runnable onCommitted) {
+        if (onCommitted != null) {
+            onCommitted.run();
         }
-        
-        // Use DiffUtil to calculate the differences
-        ArticleDiffCallback diffCallback = new ArticleDiffCallback(this.articles, newArticles);
-        DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(diffCallback);
-        
-        // Update the data
-        this.articles.clear();
-        this.articles.addAll(newArticles);
-        
-        // Dispatch the updates
-        diffResult.dispatchUpdatesTo(this);
     }
 
     /**
      * Common method to bind article data to view holder.
      * Subclasses should call this and then add their specific binding logic.
+     * Only assigns the preformatted values of the position's {@link ArticleUiModel}.
      */
-    protected void bindArticleData(ArticleViewHolder holder, Article article) {
-        if (article == null || holder == null) {
+    protected void bindArticleData(ArticleViewHolder holder, int position) {
+        ArticleUiModel model = getUiModel(position);
+        if (model == null || holder == null) {
             Log.w(TAG, "Article or holder is null in bindArticleData");
             return;
         }
-        
+
         // Bind text views
-        bindTextViews(holder, article);
-        
+        bindTextViews(holder, model);
+
         // Load and bind image
-        bindImageView(holder, article);
-        
-        // Set category and subcategory with proper formatting
-        bindCategories(holder, article);
-        
+        bindImageView(holder, model);
+
+        // Set category and subcategory labels
+        bindCategories(holder, model);
+
         // Bind social stats
-        bindSocialStats(holder, article);
+        bindSocialStats(holder, model);
     }
-    
+
     /**
      * Bind text-related views for the article
      */
-    private void bindTextViews(ArticleViewHolder holder, Article article) {
-        // Safe text setting with null checks
-        holder.articleTitle.setText(article.getTitle() != null ? article.getTitle() : "");
-        holder.articleAuthor.setText(article.getAuthorName() != null ? article.getAuthorName() : "");
-        
-        if (article.getPublishDate() != null) {
-            holder.articleDate.setText(article.getFormattedDate());
-        } else {
-            holder.articleDate.setText("");
+    private void bindTextViews(ArticleViewHolder holder, ArticleUiModel model) {
+        if (holder.articleTitle != null) {
+            holder.articleTitle.setText(model.title);
+        }
+        if (holder.articleAuthor != null) {
+            holder.articleAuthor.setText(model.authorName);
+        }
+        if (holder.articleDate != null) {
+            holder.articleDate.setText(model.formattedDate);
         }
     }
-    
+
     /**
      * Bind image view with the article's image
      */
-    private void bindImageView(ArticleViewHolder holder, Article article) {
+    private void bindImageView(ArticleViewHolder holder, ArticleUiModel model) {
         if (holder.articleImage != null) {
-            loadArticleImage(holder.articleImage, article.getImageUrl());
+            loadArticleImage(holder.articleImage, model.imageUrl);
         }
     }
 
@@ -140,51 +206,25 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
     /**
      * Bind social statistics views
      */
-    private void bindSocialStats(ArticleViewHolder holder, Article article) {
-        if (article == null || holder == null) {
-            return;
-        }
-        // Bind like count
+    private void bindSocialStats(ArticleViewHolder holder, ArticleUiModel model) {
         if (holder.likeCount != null) {
-            int likes = article.getLikeCount();
-            holder.likeCount.setText(String.valueOf(likes));
+            holder.likeCount.setText(model.likeCountText);
         }
-
-// Bind view count
         if (holder.viewCount != null) {
-            int views = article.getViewCount();
-            holder.viewCount.setText(String.valueOf(views));
+            holder.viewCount.setText(model.viewCountText);
         }
     }
 
     /**
-     * Set category and subcategory text with null safety
+     * Set category and subcategory labels
      */
-    private void bindCategories(ArticleViewHolder holder, Article article) {
-        if (article == null || holder == null) {
-            return;
-        }
-
-        String category = "";
-        String subcategory = "";
-
-        try {
-            if (article.getCategoryId() != null) {
-                category = ArticleFormatter.formatCategory(article.getCategoryId());
-            }
-            if (article.getSubcategoryId() != null) {
-                subcategory = ArticleFormatter.formatSubcategory(article.getSubcategoryId());
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error formatting categories", e);
-        }
-
+    private void bindCategories(ArticleViewHolder holder, ArticleUiModel model) {
         if (holder.articleCategory != null) {
-            holder.articleCategory.setText(category);
+            holder.articleCategory.setText(model.categoryLabel);
         }
         if (holder.articleSubcategory != null) {
-            holder.articleSubcategory.setText(subcategory);
-            holder.articleSubcategory.setVisibility(subcategory.isEmpty() ? View.GONE : View.VISIBLE);
+            holder.articleSubcategory.setText(model.subcategoryLabel);
+            holder.articleSubcategory.setVisibility(model.subcategoryLabel.isEmpty() ? View.GONE : View.VISIBLE);
         }
     }
 
@@ -195,6 +235,8 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
         int position = articles.indexOf(article);
         if (position != -1) {
             articles.remove(position);
+            uiModels.remove(position);
+            listVersion++;
             notifyItemRemoved(position);
         }
     }
@@ -207,27 +249,16 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
         for (int i = 0; i < articles.size(); i++) {
             Article article = articles.get(i);
             if (article.getId().equals(updatedArticle.getId())) {
-                // Create a list of changes
-                List<Object> payloads = new ArrayList<>();
-                
-                // Check which fields changed
-                if (article.getLikeCount() != updatedArticle.getLikeCount()) {
-                    payloads.add("like_count");
-                }
-                if (article.getViewCount() != updatedArticle.getViewCount()) {
-                    payloads.add("view_count");
-                }
-                if (!Objects.equals(article.getTitle(), updatedArticle.getTitle())) {
-                    payloads.add("title");
-                }
-                if (!Objects.equals(article.getImageUrl(), updatedArticle.getImageUrl())) {
-                    payloads.add("image");
-                }
-                
+                // Compare formatted values: the article may have been mutated in place
+                ArticleUiModel updatedModel = ArticleUiModel.from(updatedArticle);
+                List<String> payloads = changedFields(uiModels.get(i), updatedModel);
+
                 // Update the article
                 articles.set(i, updatedArticle);
+                uiModels.set(i, updatedModel);
+                listVersion++;
                 
-                if (payloads.isEmpty()) {
+                if (payloads == null) {
                     // If no specific payloads, do a full update
                     notifyItemChanged(i);
                 } else {
@@ -239,13 +270,39 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
         }
     }
 
+    /**
+     * Lists the payload keys for fields that can be rebound on their own.
+     * @return The changed keys, or null if none of them changed
+     */
+    @Nullable
+    private static List<String> changedFields(ArticleUiModel oldModel, ArticleUiModel newModel) {
+        List<String> changes = new ArrayList<>();
+        if (!oldModel.title.equals(newModel.title)) {
+            changes.add(PAYLOAD_TITLE);
+        }
+        if (!Objects.equals(oldModel.imageUrl, newModel.imageUrl)) {
+            changes.add(PAYLOAD_IMAGE);
+        }
+        if (!oldModel.likeCountText.equals(newModel.likeCountText)) {
+            changes.add(PAYLOAD_LIKE_COUNT);
+        }
+        if (!oldModel.viewCountText.equals(newModel.viewCountText)) {
+            changes.add(PAYLOAD_VIEW_COUNT);
+        }
+        return changes.isEmpty() ? null : changes;
+    }
+
     /**
      * Clear all articles from the adapter.
      */
     public void clearArticles() {
         int size = articles.size();
+        // Also drops any diff still in flight
+        submitGeneration++;
         if (size > 0) {
             articles.clear();
+            uiModels.clear();
+            listVersion++;
             notifyItemRangeRemoved(0, size);
         }
     }
@@ -257,6 +314,17 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
         return new ArrayList<>(articles);
     }
 
+    /**
+     * Get the presentation model at a specific position.
+     */
+    @Nullable
+    protected ArticleUiModel getUiModel(int position) {
+        if (position >= 0 && position < uiModels.size()) {
+            return uiModels.get(position);
+        }
+        return null;
+    }
+
     /**
      * Get article at specific position.
      */
@@ -279,106 +347,81 @@ public abstract class BaseArticleAdapter<VH extends RecyclerView.ViewHolder>
             onBindViewHolder(holder, position);
         } else if (holder instanceof ArticleViewHolder) {
             // Partial update
-            Article article = articles.get(position);
+            ArticleUiModel model = uiModels.get(position);
             ArticleViewHolder viewHolder = (ArticleViewHolder) holder;
-            
+
             for (Object payload : payloads) {
-                if (payload instanceof String) {
-                    String change = (String) payload;
-                    switch (change) {
-                        case "like_count":
-                            if (viewHolder.likeCount != null) {
-                                viewHolder.likeCount.setText(String.valueOf(article.getLikeCount()));
-                            }
-                            break;
-                        case "view_count":
-                            if (viewHolder.viewCount != null) {
-                                viewHolder.viewCount.setText(String.valueOf(article.getViewCount()));
-                            }
-                            break;
-                        case "title":
-                            if (viewHolder.articleTitle != null) {
-                                viewHolder.articleTitle.setText(article.getTitle() != null ? article.getTitle() : "");
-                            }
-                            break;
-                        case "image":
-                            if (viewHolder.articleImage != null) {
-                                loadArticleImage(viewHolder.articleImage, article.getImageUrl());
-                            }
-                            break;
+                if (payload instanceof List) {
+                    for (Object change : (List<?>) payload) {
+                        bindChange(viewHolder, model, change);
                     }
+                } else {
+                    bindChange(viewHolder, model, payload);
                 }
             }
         }
     }
+
+    /**
+     * Rebinds the single field named by a payload key.
+     */
+    private void bindChange(ArticleViewHolder viewHolder, ArticleUiModel model, Object change) {
+        if (PAYLOAD_LIKE_COUNT.equals(change)) {
+            if (viewHolder.likeCount != null) {
+                viewHolder.likeCount.setText(model.likeCountText);
+            }
+        } else if (PAYLOAD_VIEW_COUNT.equals(change)) {
+            if (viewHolder.viewCount != null) {
+                viewHolder.viewCount.setText(model.viewCountText);
+            }
+        } else if (PAYLOAD_TITLE.equals(change)) {
+            if (viewHolder.articleTitle != null) {
+                viewHolder.articleTitle.setText(model.title);
+            }
+        } else if (PAYLOAD_IMAGE.equals(change)) {
+            if (viewHolder.articleImage != null) {
+                loadArticleImage(viewHolder.articleImage, model.imageUrl);
+            }
+        }
+    }
     
     /**
-     * Callback for calculating the diff between two non-null items in a list.
+     * Callback for calculating the diff between two lists of presentation models.
+     * Contents are compared on the formatted values, so only changes the user can see count.
      */
     private static class ArticleDiffCallback extends DiffUtil.Callback {
-        private final List<Article> oldArticles;
-        private final List<Article> newArticles;
+        private final List<ArticleUiModel> oldModels;
+        private final List<ArticleUiModel> newModels;
 
-        public ArticleDiffCallback(List<Article> oldArticles, List<Article> newArticles) {
-            this.oldArticles = oldArticles != null ? oldArticles : new ArrayList<>();
-            this.newArticles = newArticles != null ? newArticles : new ArrayList<>();
+        public ArticleDiffCallback(List<ArticleUiModel> oldModels, List<ArticleUiModel> newModels) {
+            this.oldModels = oldModels != null ? oldModels : new ArrayList<>();
+            this.newModels = newModels != null ? newModels : new ArrayList<>();
         }
 
         @Override
         public int getOldListSize() {
-            return oldArticles.size();
+            return oldModels.size();
         }
 
         @Override
         public int getNewListSize() {
-            return newArticles.size();
+            return newModels.size();
         }
 
         @Override
         public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
-            Article oldArticle = oldArticles.get(oldItemPosition);
-            Article newArticle = newArticles.get(newItemPosition);
-            return oldArticle.getId().equals(newArticle.getId());
+            return oldModels.get(oldItemPosition).id.equals(newModels.get(newItemPosition).id);
         }
 
         @Override
         public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
-            Article oldArticle = oldArticles.get(oldItemPosition);
-            Article newArticle = newArticles.get(newItemPosition);
-            
-            // Compare the fields that affect the UI
-            return Objects.equals(oldArticle.getTitle(), newArticle.getTitle()) &&
-                   oldArticle.getLikeCount() == newArticle.getLikeCount() &&
-                   oldArticle.getViewCount() == newArticle.getViewCount() &&
-                   Objects.equals(oldArticle.getImageUrl(), newArticle.getImageUrl()) &&
-                   Objects.equals(oldArticle.getAuthorName(), newArticle.getAuthorName()) &&
-                   Objects.equals(oldArticle.getPublishDate(), newArticle.getPublishDate()) &&
-                   Objects.equals(oldArticle.getCategoryId(), newArticle.getCategoryId()) &&
-                   Objects.equals(oldArticle.getSubcategoryId(), newArticle.getSubcategoryId());
+            return oldModels.get(oldItemPosition).hasSameContent(newModels.get(newItemPosition));
         }
 
         @Nullable
         @Override
         public Object getChangePayload(int oldItemPosition, int newItemPosition) {
-            Article oldArticle = oldArticles.get(oldItemPosition);
-            Article newArticle = newArticles.get(newItemPosition);
-            
-            List<String> changes = new ArrayList<>();
-            
-            if (!Objects.equals(oldArticle.getTitle(), newArticle.getTitle())) {
-                changes.add("title");
-            }
-            if (!Objects.equals(oldArticle.getImageUrl(), newArticle.getImageUrl())) {
-                changes.add("image");
-            }
-            if (oldArticle.getLikeCount() != newArticle.getLikeCount()) {
-                changes.add("like_count");
-            }
-            if (oldArticle.getViewCount() != newArticle.getViewCount()) {
-                changes.add("view_count");
-            }
-            
-            return changes.isEmpty() ? null : changes;
+            return changedFields(oldModels.get(oldItemPosition), newModels.get(newItemPosition));
         }
     }
 
@@ -176,13 +176,8 @@ public class SubcategoryAdapter extends RecyclerView.Adapter<SubcategoryAdapter.
             // Use the subcategory name as ID since we don't have separate IDs in this context
             String subcategoryId = subcategoryName != null ? 
                 subcategoryName.toLowerCase().replace(" ", "") : "";
-            List<Article> articles = DataHandler.getDummyArticlesBySubcategory(subcategoryId);
-            if (articles != null && !articles.isEmpty()) {
-                int count = Math.min(5, articles.size());
-                articlesAdapter.setArticles(articles.subList(0, count));
-            } else {
-                articlesAdapter.setArticles(new ArrayList<>());
-            }
+            // Bucketed lookup, so binding a card costs O(5) instead of a corpus scan
+            articlesAdapter.setArticles(DataHandler.getLocalArticlesBySubcategory(subcategoryId, 5));
 
             // Set button color based on category
             int colorResId = getCategoryColor(categoryId);
@@ -1,56 +1,182 @@
 package com.rafdi.vitechasia.blog.api;
 
+import android.content.Context;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.rafdi.vitechasia.blog.BuildConfig;
+
+import java.io.File;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
+import okhttp3.Protocol;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
-import java.util.concurrent.TimeUnit;
 
 /**
  * A singleton class that provides a configured Retrofit instance and API service instances.
- * This class handles the network client configuration including timeouts and logging.
- * 
- * <p>Use {@link #getClient()} to get a configured Retrofit instance or
+ * This class handles the network client configuration including connection pooling,
+ * concurrency limits, timeouts, logging and the on-disk HTTP cache.
+ *
+ * <p>Call {@link #initialize(Context)} once so responses are cached under the app's cache
+ * directory; without it the client still works but every request goes to the network.
+ * {@link #configure(NetworkConfig)} replaces the default tuning and, like
+ * {@link #initialize(Context)}, only takes effect before the client is first built.
+ * Use {@link #getClient()} to get a configured Retrofit instance or
  * {@link #getArticleApiService()} to get a ready-to-use ArticleApiService instance.
+ * All methods are thread-safe and every caller shares one client and connection pool.
  */
 
 public class ApiClient {
     private static final String BASE_URL = "https://your-api-url.com/api/v1/";
-    private static Retrofit retrofit = null;
-    
+    private static final String CACHE_DIRECTORY = "http_cache";
+    private static final long CACHE_SIZE_BYTES = 10L * 1024 * 1024;
+    // Debug builds log full bodies for one call in this many; the rest get a one-line summary
+    private static final int BODY_LOG_SAMPLE_RATE = 20;
+
+    private static final HttpCacheStats cacheStats = new HttpCacheStats();
+    private static final NetworkMetrics networkMetrics = new NetworkMetrics();
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new ArticleTypeAdapterFactory())
+            .create();
+    private static File cacheDirectory = null;
+    private static NetworkConfig networkConfig = new NetworkConfig();
+    private static volatile Retrofit retrofit = null;
+    private static volatile ArticleApiService articleApiService = null;
+
+    /**
+     * Enables the disk cache under the application's cache directory.
+     * Must be called before the first {@link #getClient()} call to take effect.
+     *
+     * @param context Any context; only its cache directory is used
+     */
+    public static synchronized void initialize(Context context) {
+        if (cacheDirectory == null && context != null) {
+            cacheDirectory = new File(context.getApplicationContext().getCacheDir(), CACHE_DIRECTORY);
+        }
+    }
+
+    /**
+     * Replaces the connection pool, concurrency, protocol and timeout settings.
+     * Must be called before the first {@link #getClient()} call to take effect.
+     *
+     * @param config Settings read once, when the client is built
+     */
+    public static synchronized void configure(NetworkConfig config) {
+        if (config != null) {
+            networkConfig = config;
+        }
+    }
+
     /**
      * Gets the singleton Retrofit instance, creating it if necessary.
-     * The client is configured with a 30-second timeout and HTTP logging.
+     * The client is configured from the current {@link NetworkConfig}, records per-endpoint
+     * metrics and, once {@link #initialize(Context)} has been called, uses a 10 MB disk cache.
      *
      * @return Configured Retrofit instance
      */
     public static Retrofit getClient() {
         if (retrofit == null) {
-            HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-            logging.setLevel(HttpLoggingInterceptor.Level.BODY);
-            
-            OkHttpClient.Builder httpClient = new OkHttpClient.Builder()
-                    .connectTimeout(30, TimeUnit.SECONDS)
-                    .readTimeout(30, TimeUnit.SECONDS)
-                    .writeTimeout(30, TimeUnit.SECONDS)
-                    .addInterceptor(logging);
-            
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .client(httpClient.build())
-                    .build();
+            synchronized (ApiClient.class) {
+                if (retrofit == null) {
+                    Cache cache = cacheDirectory != null ? new Cache(cacheDirectory, CACHE_SIZE_BYTES) : null;
+                    retrofit = createRetrofit(BASE_URL,
+                            buildHttpClient(cache, cacheStats, networkMetrics, networkConfig));
+                }
+            }
         }
         return retrofit;
     }
-    
+
     /**
-     * Gets a ready-to-use instance of ArticleApiService.
+     * Builds the OkHttp client used for API calls.
+     * Every call is recorded in {@code metrics}; request logging is only installed in debug
+     * builds, where bodies are logged for a sample of calls.
+     *
+     * @param cache Disk cache for responses, or null to disable caching
+     * @param stats Receives cache hit, conditional hit and miss events
+     * @param metrics Receives per-endpoint latency, size, status and cache source
+     * @param config Pool, dispatcher, protocol and timeout settings
+     */
+    static OkHttpClient buildHttpClient(Cache cache, HttpCacheStats stats, NetworkMetrics metrics,
+                                        NetworkConfig config) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(config.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(config.getMaxRequestsPerHost());
+        NetworkConfig.EndpointClass defaults = NetworkConfig.EndpointClass.LIST;
+
+        OkHttpClient.Builder httpClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(config.getMaxIdleConnections(),
+                        config.getKeepAliveMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .protocols(config.isHttp2Enabled()
+                        ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : Collections.singletonList(Protocol.HTTP_1_1))
+                .connectTimeout(config.getConnectTimeoutMillis(defaults), TimeUnit.MILLISECONDS)
+                .readTimeout(config.getReadTimeoutMillis(defaults), TimeUnit.MILLISECONDS)
+                .writeTimeout(config.getWriteTimeoutMillis(defaults), TimeUnit.MILLISECONDS)
+                .cache(cache)
+                .eventListener(stats)
+                .addInterceptor(new NetworkMetricsInterceptor(metrics))
+                .addInterceptor(new EndpointTimeoutInterceptor(config));
+        if (BuildConfig.DEBUG) {
+            httpClient.addInterceptor(new SampledBodyLoggingInterceptor(BODY_LOG_SAMPLE_RATE));
+        }
+        httpClient.addNetworkInterceptor(new RevalidateInterceptor());
+        return httpClient.build();
+    }
+
+    static Retrofit createRetrofit(String baseUrl, OkHttpClient client) {
+        return new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .client(client)
+                .build();
+    }
+
+    /**
+     * Gson instance used for API payloads, with the non-reflective article adapters registered.
+     * Use it to decode bodies that are read as a stream instead of through Retrofit.
+     */
+    public static Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * Per-endpoint latency, byte, status code and cache source counters for API calls.
+     */
+    public static NetworkMetrics getNetworkMetrics() {
+        return networkMetrics;
+    }
+
+    /**
+     * Hit, conditional hit (304) and miss counters for the disk cache.
+     */
+    public static HttpCacheStats getCacheStats() {
+        return cacheStats;
+    }
+
+    /**
+     * Gets the shared instance of ArticleApiService, creating it on first use.
      * This is a convenience method that uses the shared Retrofit client.
      *
      * @return Configured ArticleApiService instance
      */
     public static ArticleApiService getArticleApiService() {
-        return getClient().create(ArticleApiService.class);
+        if (articleApiService == null) {
+            synchronized (ApiClient.class) {
+                if (articleApiService == null) {
+                    articleApiService = getClient().create(ArticleApiService.class);
+                }
+            }
+        }
+        return articleApiService;
     }
 }
@@ -1,13 +1,17 @@
 package com.rafdi.vitechasia.blog.api;
 
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.models.ArticleChanges;
+import com.rafdi.vitechasia.blog.models.ArticleSummary;
 
 import java.util.List;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.GET;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 /**
  * Retrofit service interface for the Article API endpoints.
@@ -19,26 +23,108 @@ import retrofit2.http.Query;
 
 public interface ArticleApiService {
     /**
-     * Fetches a paginated list of articles, optionally filtered by category.
+     * Value for the {@code fields} parameter of list endpoints that asks for
+     * {@link ArticleSummary} rows instead of full articles.
+     */
+    String FIELDS_SUMMARY = "summary";
+
+    /**
+     * Largest number of ids sent in one {@link #getArticlesByIds} call, keeping the URL short.
+     */
+    int MAX_IDS_PER_BATCH = 50;
+
+    /** Values for the {@code sort} parameter of {@link #getArticles}. */
+    String SORT_PUBLISHED = "published";
+    String SORT_VIEWS = "views";
+
+    /** Value for the {@code order} parameter of {@link #getArticles}: best or newest first. */
+    String ORDER_DESC = "desc";
+
+    /**
+     * Fetches a paginated list of article summaries, optionally filtered by category and
+     * sorted on the server.
      *
      * @param category Optional category to filter articles. Can be null to get all articles.
+     * @param sort Field to sort by, e.g. {@link #SORT_VIEWS}, or null for the server's default order.
+     * @param order Sort direction, e.g. {@link #ORDER_DESC}, or null for the server's default.
      * @param page The page number for pagination (starting from 1).
      * @param limit The maximum number of articles to return per page.
-     * @return A {@link Call} that represents the HTTP request for a list of articles.
+     * @param fields Field projection, normally {@link #FIELDS_SUMMARY}.
+     * @return A {@link Call} that represents the HTTP request for a list of article summaries.
      */
     @GET("articles")
-    Call<List<Article>> getArticles(
+    Call<List<ArticleSummary>> getArticles(
             @Query("category") String category,
+            @Query("sort") String sort,
+            @Query("order") String order,
             @Query("page") int page,
-            @Query("limit") int limit
+            @Query("limit") int limit,
+            @Query("fields") String fields
     );
     
     /**
-     * Fetches a single article by its unique identifier.
+     * Fetches the page of articles that follows a keyset cursor in newest-first order
+     * (publish date descending, then id descending). Omitting both cursor parameters
+     * returns the head of the feed; unlike page offsets, later pages stay stable while
+     * new articles are published.
+     *
+     * @param category Optional category to filter articles. Can be null to get all articles.
+     * @param beforeDate Publish date (epoch millis) of the last article already loaded, or null.
+     * @param beforeId Id of the last article already loaded, or null.
+     * @param limit The maximum number of articles to return.
+     * @param fields Field projection, normally {@link #FIELDS_SUMMARY}.
+     * @return A {@link Call} for the raw JSON array of article summaries. The body is not
+     *         buffered, so it can be decoded with {@link JsonArrayStream} as it downloads and
+     *         must be read off the main thread and closed.
+     */
+    @Streaming
+    @GET("articles")
+    Call<ResponseBody> getArticlesBefore(
+            @Query("category") String category,
+            @Query("before_date") Long beforeDate,
+            @Query("before_id") String beforeId,
+            @Query("limit") int limit,
+            @Query("fields") String fields
+    );
+
+    /**
+     * Fetches several articles by id in one request. Ids the server does not know are
+     * left out of the response; the order of the result is unspecified.
+     * Callers should send at most {@link #MAX_IDS_PER_BATCH} ids per call.
+     *
+     * @param ids Comma-separated article ids.
+     * @param fields Field projection, normally {@link #FIELDS_SUMMARY}.
+     * @return A {@link Call} that represents the HTTP request for a list of article summaries.
+     */
+    @GET("articles/batch")
+    Call<List<ArticleSummary>> getArticlesByIds(
+            @Query("ids") String ids,
+            @Query("fields") String fields
+    );
+
+    /**
+     * Fetches the articles created, edited or deleted after a sync token. Omitting
+     * {@code since} returns no changes, only the current token to start syncing from.
+     * When {@link ArticleChanges#hasMore} is set, call again with the returned token.
+     *
+     * @param since {@link ArticleChanges#syncedAt} of the previous sync, or null.
+     * @param fields Field projection for upserted articles, normally {@link #FIELDS_SUMMARY}.
+     * @return A {@link Call} that represents the HTTP request for one page of changes.
+     */
+    @Timeouts(NetworkConfig.EndpointClass.SYNC)
+    @GET("articles/changes")
+    Call<ArticleChanges> getArticleChanges(
+            @Query("since") Long since,
+            @Query("fields") String fields
+    );
+
+    /**
+     * Fetches a single article, including its content, by its unique identifier.
      *
      * @param id The unique identifier of the article to retrieve.
      * @return A {@link Call} that represents the HTTP request for a single article.
      */
+    @Timeouts(NetworkConfig.EndpointClass.DETAIL)
     @GET("articles/{id}")
     Call<Article> getArticleById(@Path("id") String id);
 }
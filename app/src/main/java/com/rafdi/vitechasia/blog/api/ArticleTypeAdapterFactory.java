@@ -0,0 +1,163 @@
+package com.rafdi.vitechasia.blog.api;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.models.ArticleSummary;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Hand-written Gson adapters for {@link Article} and {@link ArticleSummary}.
+ *
+ * <p>Gson's default adapter for these classes reflects over every field and boxes values
+ * through {@code Field.set}; these read the token stream straight into the objects instead.
+ * Both accept the fields the API sends, skip unknown names and leave fields that are null or
+ * missing at their defaults. Dates use Gson's own date adapter, so the wire format is unchanged.
+ * Client-side state such as bookmarks and reading progress is never read from or written to JSON.
+ */
+public class ArticleTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType == Article.class) {
+            return (TypeAdapter<T>) new ArticleAdapter(gson.getAdapter(Date.class)).nullSafe();
+        }
+        if (rawType == ArticleSummary.class) {
+            return (TypeAdapter<T>) new SummaryAdapter(gson.getAdapter(Date.class)).nullSafe();
+        }
+        return null;
+    }
+
+    private static final class ArticleAdapter extends TypeAdapter<Article> {
+        private final TypeAdapter<Date> dates;
+
+        ArticleAdapter(TypeAdapter<Date> dates) {
+            this.dates = dates;
+        }
+
+        @Override
+        public Article read(JsonReader in) throws IOException {
+            Article article = new Article();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id": article.setId(in.nextString()); break;
+                    case "title": article.setTitle(in.nextString()); break;
+                    case "content": article.setContent(in.nextString()); break;
+                    case "imageUrl": article.setImageUrl(in.nextString()); break;
+                    case "categoryId": article.setCategoryId(in.nextString()); break;
+                    case "subcategoryId": article.setSubcategoryId(in.nextString()); break;
+                    case "authorId": article.setAuthorId(in.nextString()); break;
+                    case "authorName": article.setAuthorName(in.nextString()); break;
+                    case "authorImageUrl": article.setAuthorImageUrl(in.nextString()); break;
+                    case "publishDate": article.setPublishDate(dates.read(in)); break;
+                    case "viewCount": article.setViewCount(in.nextInt()); break;
+                    case "likeCount": article.setLikeCount(in.nextInt()); break;
+                    case "shareCount": article.setShareCount(in.nextInt()); break;
+                    case "commentCount": article.setCommentCount(in.nextInt()); break;
+                    case "wordCount": article.setWordCount(in.nextInt()); break;
+                    default: in.skipValue(); break;
+                }
+            }
+            in.endObject();
+            return article;
+        }
+
+        @Override
+        public void write(JsonWriter out, Article article) throws IOException {
+            out.beginObject();
+            out.name("id").value(article.getId());
+            out.name("title").value(article.getTitle());
+            out.name("content").value(article.getContent());
+            out.name("imageUrl").value(article.getImageUrl());
+            out.name("categoryId").value(article.getCategoryId());
+            out.name("subcategoryId").value(article.getSubcategoryId());
+            out.name("authorId").value(article.getAuthorId());
+            out.name("authorName").value(article.getAuthorName());
+            out.name("authorImageUrl").value(article.getAuthorImageUrl());
+            out.name("publishDate");
+            dates.write(out, article.getPublishDate());
+            out.name("viewCount").value(article.getViewCount());
+            out.name("likeCount").value(article.getLikeCount());
+            out.name("shareCount").value(article.getShareCount());
+            out.name("commentCount").value(article.getCommentCount());
+            out.name("wordCount").value(article.getWordCount());
+            out.endObject();
+        }
+    }
+
+    private static final class SummaryAdapter extends TypeAdapter<ArticleSummary> {
+        private final TypeAdapter<Date> dates;
+
+        SummaryAdapter(TypeAdapter<Date> dates) {
+            this.dates = dates;
+        }
+
+        @Override
+        public ArticleSummary read(JsonReader in) throws IOException {
+            ArticleSummary summary = new ArticleSummary();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id": summary.id = in.nextString(); break;
+                    case "title": summary.title = in.nextString(); break;
+                    case "imageUrl": summary.imageUrl = in.nextString(); break;
+                    case "categoryId": summary.categoryId = in.nextString(); break;
+                    case "subcategoryId": summary.subcategoryId = in.nextString(); break;
+                    case "authorId": summary.authorId = in.nextString(); break;
+                    case "authorName": summary.authorName = in.nextString(); break;
+                    case "authorImageUrl": summary.authorImageUrl = in.nextString(); break;
+                    case "publishDate": summary.publishDate = dates.read(in); break;
+                    case "viewCount": summary.viewCount = in.nextInt(); break;
+                    case "likeCount": summary.likeCount = in.nextInt(); break;
+                    case "shareCount": summary.shareCount = in.nextInt(); break;
+                    case "commentCount": summary.commentCount = in.nextInt(); break;
+                    case "wordCount": summary.wordCount = in.nextInt(); break;
+                    default: in.skipValue(); break;
+                }
+            }
+            in.endObject();
+            return summary;
+        }
+
+        @Override
+        public void write(JsonWriter out, ArticleSummary summary) throws IOException {
+            out.beginObject();
+            out.name("id").value(summary.id);
+            out.name("title").value(summary.title);
+            out.name("imageUrl").value(summary.imageUrl);
+            out.name("categoryId").value(summary.categoryId);
+            out.name("subcategoryId").value(summary.subcategoryId);
+            out.name("authorId").value(summary.authorId);
+            out.name("authorName").value(summary.authorName);
+            out.name("authorImageUrl").value(summary.authorImageUrl);
+            out.name("publishDate");
+            dates.write(out, summary.publishDate);
+            out.name("viewCount").value(summary.viewCount);
+            out.name("likeCount").value(summary.likeCount);
+            out.name("shareCount").value(summary.shareCount);
+            out.name("commentCount").value(summary.commentCount);
+            out.name("wordCount").value(summary.wordCount);
+            out.endObject();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.rafdi.vitechasia.blog.api;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * Application interceptor that applies the timeouts of the calling service method's
+ * {@link NetworkConfig.EndpointClass}, so one shared client can give a feed page, an article
+ * body and a background sync different limits.
+ */
+public class EndpointTimeoutInterceptor implements Interceptor {
+    private final NetworkConfig config;
+
+    public EndpointTimeoutInterceptor(NetworkConfig config) {
+        this.config = config;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        NetworkConfig.EndpointClass endpointClass = endpointClassOf(chain.request().tag(Invocation.class));
+        return chain
+                .withConnectTimeout((int) config.getConnectTimeoutMillis(endpointClass), TimeUnit.MILLISECONDS)
+                .withReadTimeout((int) config.getReadTimeoutMillis(endpointClass), TimeUnit.MILLISECONDS)
+                .withWriteTimeout((int) config.getWriteTimeoutMillis(endpointClass), TimeUnit.MILLISECONDS)
+                .proceed(chain.request());
+    }
+
+    static NetworkConfig.EndpointClass endpointClassOf(Invocation invocation) {
+        Timeouts timeouts = invocation != null ? invocation.method().getAnnotation(Timeouts.class) : null;
+        return timeouts != null ? timeouts.value() : NetworkConfig.EndpointClass.LIST;
+    }
+}
@@ -0,0 +1,108 @@
+package com.rafdi.vitechasia.blog.api;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Response;
+
+/**
+ * Counts how requests were served by the OkHttp disk cache.
+ *
+ * <ul>
+ *   <li>hit: served from the cache without touching the network</li>
+ *   <li>conditional hit: revalidated with If-None-Match / If-Modified-Since and the server
+ *       answered 304, so the cached body was reused</li>
+ *   <li>miss: the full response came from the network</li>
+ * </ul>
+ *
+ * OkHttp reports a conditional request before its outcome is known and then reports either a
+ * hit (304) or a miss (200), so validating calls are tracked until that outcome arrives and
+ * each call is counted exactly once.
+ *
+ * Register it with {@link okhttp3.OkHttpClient.Builder#eventListener(EventListener)}.
+ */
+public class HttpCacheStats extends EventListener {
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong conditionalHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final Set<Call> validatingCalls = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    @Override
+    public void cacheConditionalHit(@NonNull Call call, @NonNull Response cachedResponse) {
+        validatingCalls.add(call);
+    }
+
+    @Override
+    public void cacheHit(@NonNull Call call, @NonNull Response response) {
+        if (validatingCalls.remove(call)) {
+            conditionalHitCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void cacheMiss(@NonNull Call call) {
+        validatingCalls.remove(call);
+        missCount.incrementAndGet();
+    }
+
+    @Override
+    public void callEnd(@NonNull Call call) {
+        validatingCalls.remove(call);
+    }
+
+    @Override
+    public void callFailed(@NonNull Call call, @NonNull IOException ioe) {
+        validatingCalls.remove(call);
+    }
+
+    @Override
+    public void canceled(@NonNull Call call) {
+        validatingCalls.remove(call);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getConditionalHitCount() {
+        return conditionalHitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Share of requests that avoided downloading a body: hits plus conditional hits.
+     *
+     * @return A ratio between 0 and 1, or 0 before any request
+     */
+    public double getSavedRatio() {
+        long saved = hitCount.get() + conditionalHitCount.get();
+        long total = saved + missCount.get();
+        return total == 0 ? 0 : (double) saved / total;
+    }
+
+    public void reset() {
+        hitCount.set(0);
+        conditionalHitCount.set(0);
+        missCount.set(0);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "HttpCacheStats{hits=" + getHitCount()
+                + ", conditionalHits=" + getConditionalHitCount()
+                + ", misses=" + getMissCount() + "}";
+    }
+}
@@ -0,0 +1,48 @@
+package com.rafdi.vitechasia.blog.api;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * Reads a JSON array one element at a time and hands each element over as soon as it has been
+ * decoded, so callers can act on the first items while the rest of the body is still arriving.
+ * Only the element being decoded is held in memory by the reader itself.
+ */
+public final class JsonArrayStream {
+
+    /**
+     * Receives each decoded element, in array order.
+     */
+    public interface ItemConsumer<T> {
+        void accept(T item);
+    }
+
+    private JsonArrayStream() {
+    }
+
+    /**
+     * Reads the array at the reader's current position. Null elements are skipped.
+     *
+     * @param in       Reader positioned at the start of an array
+     * @param adapter  Adapter for a single element
+     * @param consumer Receives each element as soon as it is decoded
+     * @return Number of elements handed to {@code consumer}
+     * @throws IOException If the stream fails or is not a well-formed array of elements
+     */
+    public static <T> int read(JsonReader in, TypeAdapter<T> adapter, ItemConsumer<? super T> consumer)
+            throws IOException {
+        int count = 0;
+        in.beginArray();
+        while (in.hasNext()) {
+            T item = adapter.read(in);
+            if (item != null) {
+                consumer.accept(item);
+                count++;
+            }
+        }
+        in.endArray();
+        return count;
+    }
+}
@@ -0,0 +1,128 @@
+package com.rafdi.vitechasia.blog.api;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tunables for the shared OkHttp client built by {@link ApiClient}: connection pool,
+ * dispatcher concurrency, protocol selection and timeouts per {@link EndpointClass}.
+ *
+ * <p>Setters return {@code this} so a config can be set up in one expression. The values are
+ * read once, when the client is first built; pass the config to
+ * {@link ApiClient#configure(NetworkConfig)} before any API call.
+ */
+public class NetworkConfig {
+
+    /**
+     * Groups of endpoints that share timeouts. Service methods pick theirs with
+     * {@link Timeouts}; unannotated methods use {@link #LIST}.
+     */
+    public enum EndpointClass {
+        /** Feed pages and batch lookups that a screen is waiting on. */
+        LIST,
+        /** A single full article, including its body, opened by the user. */
+        DETAIL,
+        /** Background synchronisation that nobody is watching a spinner for. */
+        SYNC
+    }
+
+    private int maxIdleConnections = 5;
+    private long keepAliveMillis = TimeUnit.MINUTES.toMillis(5);
+    private int maxRequests = 64;
+    // The home screen starts one request per section at once; over HTTP/2 they share one connection
+    private int maxRequestsPerHost = 8;
+    private boolean http2Enabled = true;
+    private final Map<EndpointClass, long[]> timeouts = new EnumMap<>(EndpointClass.class);
+
+    public NetworkConfig() {
+        setTimeouts(EndpointClass.LIST, 10_000, 15_000, 15_000);
+        setTimeouts(EndpointClass.DETAIL, 10_000, 20_000, 15_000);
+        setTimeouts(EndpointClass.SYNC, 15_000, 30_000, 30_000);
+    }
+
+    /**
+     * Idle connections kept open for reuse. With HTTP/2 one connection per host is enough.
+     */
+    public NetworkConfig setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = Math.max(0, maxIdleConnections);
+        return this;
+    }
+
+    /**
+     * How long an idle connection stays in the pool before it is closed.
+     */
+    public NetworkConfig setKeepAlive(long duration, TimeUnit unit) {
+        this.keepAliveMillis = Math.max(1, unit.toMillis(duration));
+        return this;
+    }
+
+    /**
+     * Largest number of asynchronous calls running at once; the rest wait in the dispatcher.
+     */
+    public NetworkConfig setMaxRequests(int maxRequests) {
+        this.maxRequests = Math.max(1, maxRequests);
+        return this;
+    }
+
+    /**
+     * Largest number of asynchronous calls running at once against one host.
+     */
+    public NetworkConfig setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = Math.max(1, maxRequestsPerHost);
+        return this;
+    }
+
+    /**
+     * Whether HTTP/2 may be negotiated over TLS. When disabled, only HTTP/1.1 is offered and
+     * parallel requests need a connection each.
+     */
+    public NetworkConfig setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+        return this;
+    }
+
+    /**
+     * Sets the timeouts for one class of endpoints, in milliseconds. 0 means no timeout.
+     */
+    public NetworkConfig setTimeouts(EndpointClass endpointClass, long connectMillis, long readMillis, long writeMillis) {
+        timeouts.put(endpointClass, new long[]{clamp(connectMillis), clamp(readMillis), clamp(writeMillis)});
+        return this;
+    }
+
+    private static long clamp(long millis) {
+        return Math.min(Integer.MAX_VALUE, Math.max(0, millis));
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    public long getConnectTimeoutMillis(EndpointClass endpointClass) {
+        return timeouts.get(endpointClass)[0];
+    }
+
+    public long getReadTimeoutMillis(EndpointClass endpointClass) {
+        return timeouts.get(endpointClass)[1];
+    }
+
+    public long getWriteTimeoutMillis(EndpointClass endpointClass) {
+        return timeouts.get(endpointClass)[2];
+    }
+}
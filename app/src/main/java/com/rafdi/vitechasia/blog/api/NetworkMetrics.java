@@ -0,0 +1,172 @@
+package com.rafdi.vitechasia.blog.api;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint counters for API calls: a latency histogram, bytes sent and received,
+ * response status codes and where each response came from (network, disk cache or a 304
+ * revalidation). Filled in by {@link NetworkMetricsInterceptor}; all methods are thread-safe.
+ *
+ * <p>Latencies are kept in fixed buckets rather than as samples, so memory stays constant no
+ * matter how many calls are made and percentiles resolve to a bucket's upper bound.
+ */
+public class NetworkMetrics {
+    /** Upper bounds of the latency buckets in milliseconds; a final bucket holds everything slower. */
+    static final long[] LATENCY_BUCKETS_MS = {10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000};
+
+    /**
+     * Where a response came from.
+     */
+    public enum Source {
+        /** Fetched from the network without a usable cached copy. */
+        NETWORK,
+        /** Served from the disk cache without contacting the server. */
+        CACHE,
+        /** Revalidated with the server, which answered 304 Not Modified. */
+        CONDITIONAL_CACHE
+    }
+
+    private final Map<String, Counters> endpoints = new TreeMap<>();
+
+    synchronized void recordResponse(String endpoint, long latencyMillis, long bytesOut, int code, Source source) {
+        Counters counters = counters(endpoint);
+        counters.latencies[bucketOf(latencyMillis)]++;
+        counters.calls++;
+        counters.bytesOut += Math.max(0, bytesOut);
+        Integer key = code;
+        Long count = counters.statusCodes.get(key);
+        counters.statusCodes.put(key, count == null ? 1L : count + 1);
+        counters.sources[source.ordinal()]++;
+    }
+
+    synchronized void recordFailure(String endpoint, long latencyMillis, long bytesOut) {
+        Counters counters = counters(endpoint);
+        counters.latencies[bucketOf(latencyMillis)]++;
+        counters.calls++;
+        counters.failures++;
+        counters.bytesOut += Math.max(0, bytesOut);
+    }
+
+    /**
+     * Adds body bytes read from a response; called when the body is exhausted or closed.
+     */
+    synchronized void recordBytesIn(String endpoint, long bytes) {
+        counters(endpoint).bytesIn += bytes;
+    }
+
+    /**
+     * Returns a consistent copy of the counters of every endpoint seen so far, by endpoint name.
+     */
+    public synchronized Map<String, EndpointStats> snapshot() {
+        Map<String, EndpointStats> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, Counters> entry : endpoints.entrySet()) {
+            snapshot.put(entry.getKey(), new EndpointStats(entry.getKey(), entry.getValue()));
+        }
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    public synchronized void reset() {
+        endpoints.clear();
+    }
+
+    private Counters counters(String endpoint) {
+        Counters counters = endpoints.get(endpoint);
+        if (counters == null) {
+            counters = new Counters();
+            endpoints.put(endpoint, counters);
+        }
+        return counters;
+    }
+
+    static int bucketOf(long latencyMillis) {
+        for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+            if (latencyMillis <= LATENCY_BUCKETS_MS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS_MS.length;
+    }
+
+    private static final class Counters {
+        final long[] latencies = new long[LATENCY_BUCKETS_MS.length + 1];
+        final Map<Integer, Long> statusCodes = new TreeMap<>();
+        final long[] sources = new long[Source.values().length];
+        long calls;
+        long failures;
+        long bytesIn;
+        long bytesOut;
+    }
+
+    /**
+     * Immutable copy of one endpoint's counters.
+     */
+    public static final class EndpointStats {
+        public final String endpoint;
+        /** Calls made, including failed ones. */
+        public final long calls;
+        /** Calls that ended without a response, e.g. timeouts or connection errors. */
+        public final long failures;
+        /** Response body bytes read, after decompression. */
+        public final long bytesIn;
+        /** Request body bytes sent. */
+        public final long bytesOut;
+        private final long[] latencies;
+        private final Map<Integer, Long> statusCodes;
+        private final long[] sources;
+
+        private EndpointStats(String endpoint, Counters counters) {
+            this.endpoint = endpoint;
+            this.calls = counters.calls;
+            this.failures = counters.failures;
+            this.bytesIn = counters.bytesIn;
+            this.bytesOut = counters.bytesOut;
+            this.latencies = counters.latencies.clone();
+            this.statusCodes = Collections.unmodifiableMap(new TreeMap<>(counters.statusCodes));
+            this.sources = counters.sources.clone();
+        }
+
+        /**
+         * Number of responses per HTTP status code, in code order.
+         */
+        public Map<Integer, Long> getStatusCodes() {
+            return statusCodes;
+        }
+
+        public long getCount(Source source) {
+            return sources[source.ordinal()];
+        }
+
+        /**
+         * Upper bound of the latency bucket holding the given percentile of calls, or
+         * {@link Long#MAX_VALUE} if it falls in the slowest bucket and 0 if there were no calls.
+         *
+         * @param percentile Between 0 and 100, e.g. 50 for the median or 95
+         */
+        public long latencyPercentileMillis(double percentile) {
+            if (calls == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(calls * Math.min(100, Math.max(0, percentile)) / 100.0);
+            long seen = 0;
+            for (int i = 0; i < latencies.length; i++) {
+                seen += latencies[i];
+                if (seen >= Math.max(1, rank)) {
+                    return i < LATENCY_BUCKETS_MS.length ? LATENCY_BUCKETS_MS[i] : Long.MAX_VALUE;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public String toString() {
+            return endpoint + ": calls=" + calls + " failures=" + failures
+                    + " p50<=" + latencyPercentileMillis(50) + "ms p95<=" + latencyPercentileMillis(95) + "ms"
+                    + " in=" + bytesIn + "B out=" + bytesOut + "B status=" + statusCodes
+                    + " network=" + getCount(Source.NETWORK) + " cache=" + getCount(Source.CACHE)
+                    + " conditional=" + getCount(Source.CONDITIONAL_CACHE);
+        }
+    }
+}
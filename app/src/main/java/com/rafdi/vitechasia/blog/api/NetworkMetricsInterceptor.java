@@ -0,0 +1,139 @@
+package com.rafdi.vitechasia.blog.api;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import retrofit2.Invocation;
+
+/**
+ * Application interceptor that records every call in {@link NetworkMetrics}.
+ *
+ * <p>Calls are grouped by the Retrofit service method that made them, falling back to the
+ * HTTP method and path for requests made outside Retrofit. Latency is measured until the
+ * response headers arrive, so it covers cache lookups and revalidation but not body download.
+ * Received bytes are counted as the body is read, without buffering it, and recorded when the
+ * body is exhausted or closed.
+ */
+public class NetworkMetricsInterceptor implements Interceptor {
+    private final NetworkMetrics metrics;
+
+    public NetworkMetricsInterceptor(NetworkMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = endpointOf(request);
+        long bytesOut = request.body() != null ? request.body().contentLength() : 0;
+        long start = System.nanoTime();
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            metrics.recordFailure(endpoint, elapsedMillis(start), bytesOut);
+            throw e;
+        }
+        metrics.recordResponse(endpoint, elapsedMillis(start), bytesOut, response.code(), sourceOf(response));
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        return response.newBuilder()
+                .body(new CountingResponseBody(body, endpoint, metrics))
+                .build();
+    }
+
+    static String endpointOf(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null) {
+            return invocation.method().getName();
+        }
+        return request.method() + " " + request.url().encodedPath();
+    }
+
+    static NetworkMetrics.Source sourceOf(Response response) {
+        Response networkResponse = response.networkResponse();
+        if (networkResponse == null) {
+            return response.cacheResponse() != null ? NetworkMetrics.Source.CACHE : NetworkMetrics.Source.NETWORK;
+        }
+        if (response.cacheResponse() != null && networkResponse.code() == 304) {
+            return NetworkMetrics.Source.CONDITIONAL_CACHE;
+        }
+        return NetworkMetrics.Source.NETWORK;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Passes the body through unchanged while counting the bytes read from it.
+     */
+    private static final class CountingResponseBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        CountingResponseBody(ResponseBody delegate, String endpoint, NetworkMetrics metrics) {
+            this.delegate = delegate;
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                private long bytesRead;
+                private boolean recorded;
+
+                @Override
+                public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read == -1) {
+                        record();
+                    } else {
+                        bytesRead += read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    record();
+                    super.close();
+                }
+
+                private void record() {
+                    if (!recorded) {
+                        recorded = true;
+                        metrics.recordBytesIn(endpoint, bytesRead);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @NonNull
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.rafdi.vitechasia.blog.api;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Network interceptor that makes validator-only responses revalidate on every use.
+ *
+ * <p>When the server sends an ETag or Last-Modified but no freshness headers, OkHttp would
+ * guess a freshness lifetime from Last-Modified and could serve stale article lists. Marking
+ * such responses {@code no-cache} keeps them in the disk cache but sends a conditional request
+ * (If-None-Match / If-Modified-Since) each time, so unchanged pages cost only a 304.
+ * Responses with their own Cache-Control or Expires are left alone.
+ */
+public class RevalidateInterceptor implements Interceptor {
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        if (!"GET".equals(chain.request().method())
+                || response.header("Cache-Control") != null
+                || response.header("Expires") != null
+                || (response.header("ETag") == null && response.header("Last-Modified") == null)) {
+            return response;
+        }
+        return response.newBuilder()
+                .header("Cache-Control", "no-cache")
+                .build();
+    }
+}
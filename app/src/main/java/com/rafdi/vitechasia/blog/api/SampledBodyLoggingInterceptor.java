@@ -0,0 +1,45 @@
+package com.rafdi.vitechasia.blog.api;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.logging.HttpLoggingInterceptor;
+import retrofit2.Invocation;
+import retrofit2.http.Streaming;
+
+/**
+ * Debug-only request logging that prints full bodies for one call in {@code sampleEvery} and a
+ * one-line summary for the rest. Logging a body means reading all of it into memory first, so
+ * calls to {@link Streaming} endpoints are never body-logged.
+ */
+public class SampledBodyLoggingInterceptor implements Interceptor {
+    private final int sampleEvery;
+    private final AtomicLong calls = new AtomicLong();
+    private final HttpLoggingInterceptor bodyLogger = new HttpLoggingInterceptor();
+    private final HttpLoggingInterceptor summaryLogger = new HttpLoggingInterceptor();
+
+    /**
+     * @param sampleEvery Log the body of every n-th call; 1 logs all of them
+     */
+    public SampledBodyLoggingInterceptor(int sampleEvery) {
+        this.sampleEvery = Math.max(1, sampleEvery);
+        bodyLogger.setLevel(HttpLoggingInterceptor.Level.BODY);
+        summaryLogger.setLevel(HttpLoggingInterceptor.Level.BASIC);
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        boolean sampled = calls.getAndIncrement() % sampleEvery == 0 && !isStreaming(chain);
+        return (sampled ? bodyLogger : summaryLogger).intercept(chain);
+    }
+
+    private static boolean isStreaming(Chain chain) {
+        Invocation invocation = chain.request().tag(Invocation.class);
+        return invocation != null && invocation.method().isAnnotationPresent(Streaming.class);
+    }
+}
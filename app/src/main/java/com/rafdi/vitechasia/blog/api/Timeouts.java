@@ -0,0 +1,19 @@
+package com.rafdi.vitechasia.blog.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the {@link NetworkConfig} timeouts used by an {@link ArticleApiService} method.
+ * Applied by {@link EndpointTimeoutInterceptor}; methods without it use
+ * {@link NetworkConfig.EndpointClass#LIST}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Timeouts {
+    NetworkConfig.EndpointClass value();
+}
@@ -0,0 +1,40 @@
+package com.rafdi.vitechasia.blog.database;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+/**
+ * Room database holding the offline article cache.
+ * Use {@link #getInstance(Context)} to obtain the shared instance.
+ */
+@Database(entities = {ArticleEntity.class}, version = 3, exportSchema = false)
+public abstract class AppDatabase extends RoomDatabase {
+    private static final String DATABASE_NAME = "vitechasia_blog.db";
+    private static volatile AppDatabase instance;
+
+    public abstract ArticleDao articleDao();
+
+    /**
+     * Returns the singleton database, creating it on first use.
+     *
+     * @param context Any context; the application context is used internally
+     * @return The shared AppDatabase instance
+     */
+    public static AppDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (AppDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(),
+                                    AppDatabase.class, DATABASE_NAME)
+                            // The tables are a disposable cache, so a schema change just drops them all
+                            .fallbackToDestructiveMigration(true)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
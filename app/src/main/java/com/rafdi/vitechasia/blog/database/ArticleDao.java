@@ -0,0 +1,131 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Update;
+
+import java.util.List;
+
+/**
+ * Data access object for the cached article table.
+ * All methods block and must be called off the main thread.
+ */
+@Dao
+public interface ArticleDao {
+    /** Every column except {@code content}; list queries never load article bodies. */
+    String SUMMARY_COLUMNS = "id, title, imageUrl, categoryId, subcategoryId, authorId, authorName, "
+            + "authorImageUrl, publishDate, viewCount, likeCount, shareCount, commentCount, wordCount, cachedAt";
+
+    /**
+     * Inserts the given articles, replacing rows with the same id.
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<ArticleEntity> articles);
+
+    @Insert(entity = ArticleEntity.class, onConflict = OnConflictStrategy.IGNORE)
+    void insertSummariesIfAbsent(List<ArticleSummaryEntity> summaries);
+
+    @Update(entity = ArticleEntity.class)
+    void updateSummaries(List<ArticleSummaryEntity> summaries);
+
+    /**
+     * Writes list-row data without touching the content column: new articles are inserted
+     * with no body, existing rows keep the body cached when the article was opened.
+     */
+    @Transaction
+    default void upsertSummaries(List<ArticleSummaryEntity> summaries) {
+        insertSummariesIfAbsent(summaries);
+        updateSummaries(summaries);
+    }
+
+    /**
+     * Returns one page of cached article summaries, newest first.
+     * The category filter matches either the category or the subcategory column,
+     * mirroring how the API's {@code category} query parameter is used.
+     *
+     * @param category Category or subcategory id, or null for all articles
+     * @param limit Maximum number of rows
+     * @param offset Number of rows to skip
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM articles " +
+            "WHERE :category IS NULL OR categoryId = :category OR subcategoryId = :category " +
+            "ORDER BY publishDate DESC LIMIT :limit OFFSET :offset")
+    List<ArticleSummaryEntity> getArticles(String category, int limit, int offset);
+
+    /**
+     * Returns one page of cached article summaries, most viewed first. Only used when the
+     * API cannot be asked, so the order covers just the rows that happen to be cached.
+     *
+     * @param category Category or subcategory id, or null for all articles
+     * @param limit Maximum number of rows
+     * @param offset Number of rows to skip
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM articles " +
+            "WHERE :category IS NULL OR categoryId = :category OR subcategoryId = :category " +
+            "ORDER BY viewCount DESC, id DESC LIMIT :limit OFFSET :offset")
+    List<ArticleSummaryEntity> getMostViewedArticles(String category, int limit, int offset);
+
+    /**
+     * Returns the cached article summaries that follow a keyset cursor, newest first with the id as
+     * tie-breaker. Pass a null {@code beforeDate} to start from the newest article.
+     * Rows without a publish date sort as epoch 0, matching
+     * {@link com.rafdi.vitechasia.blog.repository.ArticleCursor}.
+     *
+     * @param category Category or subcategory id, or null for all articles
+     * @param beforeDate Publish date of the last article already loaded, or null
+     * @param beforeId Id of the last article already loaded
+     * @param limit Maximum number of rows
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM articles " +
+            "WHERE (:category IS NULL OR categoryId = :category OR subcategoryId = :category) " +
+            "AND (:beforeDate IS NULL OR COALESCE(publishDate, 0) < :beforeDate " +
+            "OR (COALESCE(publishDate, 0) = :beforeDate AND id < :beforeId)) " +
+            "ORDER BY COALESCE(publishDate, 0) DESC, id DESC LIMIT :limit")
+    List<ArticleSummaryEntity> getArticlesBefore(String category, Long beforeDate, String beforeId, int limit);
+
+    /**
+     * Returns the cached summaries for the given ids; unknown ids are skipped.
+     * SQLite limits bound parameters, so keep {@code ids} to a few hundred entries per call.
+     */
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM articles WHERE id IN (:ids)")
+    List<ArticleSummaryEntity> getSummariesByIds(List<String> ids);
+
+    /**
+     * Deletes the cached rows for the given ids; unknown ids are ignored.
+     * SQLite limits bound parameters, so keep {@code ids} to a few hundred entries per call.
+     */
+    @Query("DELETE FROM articles WHERE id IN (:ids)")
+    void deleteByIds(List<String> ids);
+
+    /**
+     * Bounds the cache: deletes rows last written before {@code cutoff}, then every row
+     * beyond the {@code maxRows} most recently written.
+     *
+     * @param cutoff Oldest {@code cachedAt} to keep, in epoch millis
+     * @param maxRows Maximum number of rows to keep
+     * @return Number of rows deleted
+     */
+    @Transaction
+    default int prune(long cutoff, int maxRows) {
+        return deleteCachedBefore(cutoff) + deleteAllButNewest(maxRows);
+    }
+
+    @Query("DELETE FROM articles WHERE cachedAt < :cutoff")
+    int deleteCachedBefore(long cutoff);
+
+    @Query("DELETE FROM articles WHERE id NOT IN " +
+            "(SELECT id FROM articles ORDER BY cachedAt DESC, id DESC LIMIT :maxRows)")
+    int deleteAllButNewest(int maxRows);
+
+    @Query("SELECT * FROM articles WHERE id = :id LIMIT 1")
+    ArticleEntity getById(String id);
+
+    @Query("SELECT COUNT(*) FROM articles")
+    int count();
+
+    @Query("DELETE FROM articles")
+    void clear();
+}
@@ -0,0 +1,113 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Room entity holding the locally cached copy of an {@link Article}.
+ * Only server-provided fields are stored; per-user state (bookmarks, likes,
+ * reading progress) stays in the SharedPreferences based managers.
+ */
+@Entity(tableName = "articles",
+        indices = {
+                @Index("categoryId"),
+                @Index("subcategoryId"),
+                @Index("publishDate"),
+                @Index("viewCount"),
+                @Index("cachedAt")
+        })
+public class ArticleEntity {
+    @PrimaryKey
+    @NonNull
+    public String id = "";
+    public String title;
+    public String content;
+    public String imageUrl;
+    public String categoryId;
+    public String subcategoryId;
+    public String authorId;
+    public String authorName;
+    public String authorImageUrl;
+    public Long publishDate;
+    public int viewCount;
+    public int likeCount;
+    public int shareCount;
+    public int commentCount;
+    public int wordCount;
+    /** Time (epoch millis) this row was last written from the network. */
+    public long cachedAt;
+
+    /**
+     * Creates an entity from an API article.
+     *
+     * @param article The article to convert
+     * @param cachedAt The time the article was received from the network
+     * @return The entity, or null if the article has no id
+     */
+    public static ArticleEntity fromArticle(Article article, long cachedAt) {
+        if (article == null || article.getId() == null) {
+            return null;
+        }
+        ArticleEntity entity = new ArticleEntity();
+        entity.id = article.getId();
+        entity.title = article.getTitle();
+        entity.content = article.getContent();
+        entity.imageUrl = article.getImageUrl();
+        entity.categoryId = article.getCategoryId();
+        entity.subcategoryId = article.getSubcategoryId();
+        entity.authorId = article.getAuthorId();
+        entity.authorName = article.getAuthorName();
+        entity.authorImageUrl = article.getAuthorImageUrl();
+        entity.publishDate = article.getPublishDate() != null ? article.getPublishDate().getTime() : null;
+        entity.viewCount = article.getViewCount();
+        entity.likeCount = article.getLikeCount();
+        entity.shareCount = article.getShareCount();
+        entity.commentCount = article.getCommentCount();
+        entity.wordCount = article.getWordCount();
+        entity.cachedAt = cachedAt;
+        return entity;
+    }
+
+    /**
+     * Converts this entity back to the model used by the rest of the app.
+     */
+    public Article toArticle() {
+        Article article = new Article(id, title, content, imageUrl, categoryId, subcategoryId,
+                authorId, authorName, authorImageUrl,
+                publishDate != null ? new Date(publishDate) : null,
+                viewCount, likeCount);
+        article.setShareCount(shareCount);
+        article.setCommentCount(commentCount);
+        article.setWordCount(wordCount);
+        return article;
+    }
+
+    public static List<ArticleEntity> fromArticles(List<Article> articles, long cachedAt) {
+        List<ArticleEntity> entities = new ArrayList<>();
+        if (articles == null) return entities;
+        for (Article article : articles) {
+            ArticleEntity entity = fromArticle(article, cachedAt);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    public static List<Article> toArticles(List<ArticleEntity> entities) {
+        List<Article> articles = new ArrayList<>();
+        if (entities == null) return articles;
+        for (ArticleEntity entity : entities) {
+            articles.add(entity.toArticle());
+        }
+        return articles;
+    }
+}
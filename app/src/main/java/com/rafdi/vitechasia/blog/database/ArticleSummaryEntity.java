@@ -0,0 +1,98 @@
+package com.rafdi.vitechasia.blog.database;
+
+import androidx.annotation.NonNull;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Partial view of the {@link ArticleEntity} table without the {@code content} column.
+ *
+ * <p>List queries read into this class so they never load article bodies, and summary
+ * writes go through it so refreshing a list never clears a body cached when the article
+ * was opened.
+ */
+public class ArticleSummaryEntity {
+    @NonNull
+    public String id = "";
+    public String title;
+    public String imageUrl;
+    public String categoryId;
+    public String subcategoryId;
+    public String authorId;
+    public String authorName;
+    public String authorImageUrl;
+    public Long publishDate;
+    public int viewCount;
+    public int likeCount;
+    public int shareCount;
+    public int commentCount;
+    public int wordCount;
+    public long cachedAt;
+
+    /**
+     * Creates a summary row from an article; its content, if any, is ignored.
+     *
+     * @return The row, or null if the article has no id
+     */
+    public static ArticleSummaryEntity fromArticle(Article article, long cachedAt) {
+        if (article == null || article.getId() == null) {
+            return null;
+        }
+        ArticleSummaryEntity entity = new ArticleSummaryEntity();
+        entity.id = article.getId();
+        entity.title = article.getTitle();
+        entity.imageUrl = article.getImageUrl();
+        entity.categoryId = article.getCategoryId();
+        entity.subcategoryId = article.getSubcategoryId();
+        entity.authorId = article.getAuthorId();
+        entity.authorName = article.getAuthorName();
+        entity.authorImageUrl = article.getAuthorImageUrl();
+        entity.publishDate = article.getPublishDate() != null ? article.getPublishDate().getTime() : null;
+        entity.viewCount = article.getViewCount();
+        entity.likeCount = article.getLikeCount();
+        entity.shareCount = article.getShareCount();
+        entity.commentCount = article.getCommentCount();
+        entity.wordCount = article.getWordCount();
+        entity.cachedAt = cachedAt;
+        return entity;
+    }
+
+    /**
+     * Converts this row to an article whose content is not loaded.
+     */
+    public Article toArticle() {
+        Article article = new Article(id, title, null, imageUrl, categoryId, subcategoryId,
+                authorId, authorName, authorImageUrl,
+                publishDate != null ? new Date(publishDate) : null,
+                viewCount, likeCount);
+        article.setShareCount(shareCount);
+        article.setCommentCount(commentCount);
+        article.setWordCount(wordCount);
+        return article;
+    }
+
+    public static List<ArticleSummaryEntity> fromArticles(List<Article> articles, long cachedAt) {
+        List<ArticleSummaryEntity> entities = new ArrayList<>();
+        if (articles == null) return entities;
+        for (Article article : articles) {
+            ArticleSummaryEntity entity = fromArticle(article, cachedAt);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    public static List<Article> toArticles(List<ArticleSummaryEntity> entities) {
+        List<Article> articles = new ArrayList<>();
+        if (entities == null) return articles;
+        for (ArticleSummaryEntity entity : entities) {
+            articles.add(entity.toArticle());
+        }
+        return articles;
+    }
+}
@@ -20,6 +20,8 @@ import com.rafdi.vitechasia.blog.models.Article;
 import com.rafdi.vitechasia.blog.utils.BookmarkManager;
 import android.widget.ScrollView;
 
+import com.rafdi.vitechasia.blog.utils.DataHandler;
+
 import com.rafdi.vitechasia.blog.utils.ReadingProgressManager;
 import com.rafdi.vitechasia.blog.utils.SocialInteractionManager;
 import com.rafdi.vitechasia.blog.utils.ShareUtils;
@@ -74,6 +76,10 @@ public class ArticleDetailFragment extends Fragment implements SwipeRefreshLayou
             ReadingProgressManager.initialize(getContext());
             SocialInteractionManager.initialize(getContext());
         }
+        // Needed to fetch the body of articles opened from a list
+        if (getActivity() != null) {
+            DataHandler.initialize(getActivity().getApplication());
+        }
     }
     
     @Nullable
@@ -151,6 +157,7 @@ public class ArticleDetailFragment extends Fragment implements SwipeRefreshLayou
                     socialInteractionManager.initializeArticleSocialState(article);
 
                     updateUI();
+                    loadContentIfMissing();
                 }
             }
         } catch (Exception e) {
@@ -161,6 +168,36 @@ public class ArticleDetailFragment extends Fragment implements SwipeRefreshLayou
         }
     }
     
+    /**
+     * List screens pass article summaries without the body; fetch it (and let the repository
+     * cache it) the first time the article is opened, then show a copy of the fetched article
+     * so neither the summary nor the cached instance is modified.
+     */
+    private void loadContentIfMissing() {
+        if (article.hasContent() || article.getId() == null) return;
+
+        String articleId = article.getId();
+        DataHandler.getInstance().getArticleById(articleId, new DataHandler.SingleArticleCallback() {
+            @Override
+            public void onArticleLoaded(Article loaded) {
+                if (getView() == null || article == null || !articleId.equals(article.getId())
+                        || loaded == null || !loaded.hasContent()) {
+                    return;
+                }
+                Article full = new Article(loaded);
+                bookmarkManager.syncArticleBookmarkStatus(full);
+                socialInteractionManager.initializeArticleSocialState(full);
+                article = full;
+                updateUI();
+            }
+
+            @Override
+            public void onError(String message) {
+                // The summary stays on screen; the body is retried next time the article opens
+            }
+        });
+    }
+
     // Simple method to get current article
     public Article getCurrentArticle() {
         return article;
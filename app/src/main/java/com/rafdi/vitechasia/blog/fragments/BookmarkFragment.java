@@ -90,31 +90,46 @@ public class BookmarkFragment extends Fragment {
         showLoading(true);
         emptyView.setVisibility(View.GONE);
         
-        // Simulate network/database call
-        new android.os.Handler().postDelayed(() -> {
-            // Get bookmarked articles from DummyDataGenerator
-            List<Article> bookmarkedArticles = DataHandler.getBookmarkedArticles(requireContext());
-            
-            // Initialize or update pagination
-            if (paginationUtils == null) {
-                paginationUtils = new PaginationUtils<>(bookmarkedArticles, ITEMS_PER_PAGE);
-            } else {
-                paginationUtils.updateData(bookmarkedArticles);
+        // Bookmarks resolve from the local cache first; only unknown ids hit the network
+        DataHandler.getInstance().getBookmarkedArticles(requireContext(), new DataHandler.DataLoadListener() {
+            @Override
+            public void onDataLoaded(List<Article> bookmarkedArticles) {
+                if (!isAdded()) {
+                    return;
+                }
+
+                // Initialize or update pagination
+                if (paginationUtils == null) {
+                    paginationUtils = new PaginationUtils<>(bookmarkedArticles, ITEMS_PER_PAGE);
+                } else {
+                    paginationUtils.updateData(bookmarkedArticles);
+                }
+
+                // Update UI; the empty state depends on the list the adapter has committed
+                updateArticleList(BookmarkFragment.this::updateEmptyState);
+                showLoading(false);
+                updateLoadMoreButton();
             }
-            
-            // Update UI
-            updateArticleList();
-            showLoading(false);
-            updateEmptyState();
-            updateLoadMoreButton();
-            
-        }, 500); // Simulate network delay
+
+            @Override
+            public void onError(String message) {
+                if (!isAdded()) {
+                    return;
+                }
+                showLoading(false);
+                updateEmptyState();
+            }
+        });
     }
     
     private void updateArticleList() {
+        updateArticleList(null);
+    }
+
+    private void updateArticleList(Runnable onCommitted) {
         if (paginationUtils != null) {
             List<Article> currentPage = paginationUtils.getCurrentPageItems();
-            verticalAdapter.setArticles(currentPage);
+            verticalAdapter.setArticles(currentPage, onCommitted);
         }
     }
     
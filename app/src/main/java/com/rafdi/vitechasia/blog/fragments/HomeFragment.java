@@ -19,13 +19,18 @@ import com.google.android.material.button.MaterialButton;
 import com.rafdi.vitechasia.blog.R;
 import com.rafdi.vitechasia.blog.adapters.ArticleHorizontalAdapter;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.repository.ArticleChangeSet;
 import com.rafdi.vitechasia.blog.utils.DataHandler;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Fragment for the home screen displaying featured articles and categories.
  * Shows latest, popular, and bookmarked content sections.
+ * Synced changes are patched into the sections that show the changed articles.
  */
 public class HomeFragment extends Fragment implements ArticleHorizontalAdapter.OnArticleClickListener {
     
@@ -50,6 +55,12 @@ public class HomeFragment extends Fragment implements ArticleHorizontalAdapter.O
     private MaterialButton viewAllTechButton;
     private MaterialButton viewAllNewsButton;
 
+    // Section adapters by section type, for patching in synced changes
+    private final Map<String, ArticleHorizontalAdapter> sectionAdapters = new HashMap<>();
+    // What each section shows; adapters diff asynchronously, so their own lists can lag behind
+    private final Map<String, List<Article>> sectionArticles = new HashMap<>();
+    private final DataHandler.ArticleChangeListener changeListener = this::onArticlesChanged;
+
     public HomeFragment() {
         // Required empty public constructor
     }
@@ -93,6 +104,65 @@ public class HomeFragment extends Fragment implements ArticleHorizontalAdapter.O
         initializeViews(view);
         setupRecyclerViews();
         setupClickListeners();
+        DataHandler.addChangeListener(changeListener);
+    }
+
+    @Override
+    public void onDestroyView() {
+        DataHandler.removeChangeListener(changeListener);
+        sectionAdapters.clear();
+        sectionArticles.clear();
+        super.onDestroyView();
+    }
+
+    private void onArticlesChanged(ArticleChangeSet changes) {
+        if (getView() == null) {
+            return;
+        }
+        for (Map.Entry<String, ArticleHorizontalAdapter> section : sectionAdapters.entrySet()) {
+            String type = section.getKey();
+            ArticleHorizontalAdapter adapter = section.getValue();
+            if ("latest".equals(type)) {
+                // The top views were already rebuilt with the changes; unchanged rows diff to no-ops
+                showSection(type, adapter, DataHandler.getNewestArticles(5));
+            } else if ("popular".equals(type)) {
+                showSection(type, adapter, DataHandler.getMostViewedArticles(5));
+            } else {
+                List<Article> shown = sectionArticles.get(type);
+                if (shown == null) {
+                    continue; // Not loaded yet; it will load with the changes
+                }
+                List<Article> updated = changes.applyTo(shown, null, null);
+                if (updated == shown) {
+                    continue;
+                }
+                if ("bookmarked".equals(type)) {
+                    updated = asBookmarked(updated);
+                }
+                showSection(type, adapter, updated);
+            }
+        }
+    }
+
+    private void showSection(String type, ArticleHorizontalAdapter adapter, List<Article> articles) {
+        sectionArticles.put(type, articles);
+        adapter.setArticles(articles);
+    }
+
+    /**
+     * Marks synced articles as bookmarked on copies, since the originals are shared with
+     * other screens.
+     */
+    private static List<Article> asBookmarked(List<Article> articles) {
+        List<Article> result = new ArrayList<>(articles.size());
+        for (Article article : articles) {
+            if (!article.isBookmarked()) {
+                article = new Article(article);
+                article.setBookmarked(true);
+            }
+            result.add(article);
+        }
+        return result;
     }
 
     private void initializeViews(View view) {
@@ -141,40 +211,63 @@ public class HomeFragment extends Fragment implements ArticleHorizontalAdapter.O
         
         ArticleHorizontalAdapter adapter = new ArticleHorizontalAdapter(this);
         recyclerView.setAdapter(adapter);
+        sectionAdapters.put(type, adapter);
         
         // Load appropriate data based on type
         if ("latest".equals(type)) {
            List<Article> latestArticles = DataHandler.getNewestArticles(5);
-           adapter.setArticles(latestArticles);
+           showSection(type, adapter, latestArticles);
         } else if ("popular".equals(type)) {
            List<Article> popularArticles = DataHandler.getMostViewedArticles(5);
-           adapter.setArticles(popularArticles);
+           showSection(type, adapter, popularArticles);
         } else if ("bookmarked".equals(type)) {
-            List<Article> bookmarkedArticles = DataHandler.getBookmarkedArticles(requireContext());
-            if (bookmarkedArticles.isEmpty()) {
-                recyclerView.setVisibility(View.GONE);
-                View bookmarkedHeader = getView().findViewById(R.id.bookmarkedHeader);
-                if (bookmarkedHeader != null) {
-                    bookmarkedHeader.setVisibility(View.GONE);
+            DataHandler.getInstance().getBookmarkedArticles(requireContext(), new DataHandler.DataLoadListener() {
+                @Override
+                public void onDataLoaded(List<Article> bookmarkedArticles) {
+                    if (getView() == null) {
+                        return;
+                    }
+                    if (bookmarkedArticles.isEmpty()) {
+                        recyclerView.setVisibility(View.GONE);
+                        View bookmarkedHeader = getView().findViewById(R.id.bookmarkedHeader);
+                        if (bookmarkedHeader != null) {
+                            bookmarkedHeader.setVisibility(View.GONE);
+                        }
+                    } else {
+                        recyclerView.setVisibility(View.VISIBLE);
+                        showSection(type, adapter, bookmarkedArticles);
+                    }
                 }
-            } else {
-                recyclerView.setVisibility(View.VISIBLE);
-                adapter.setArticles(bookmarkedArticles);
-            }
+
+                @Override
+                public void onError(String message) {
+                    Log.e("HomeFragment", "Error loading bookmarks: " + message);
+                }
+            });
         } else {
             // This is a category view
-            DataHandler.getInstance().getArticlesByCategory(type, new DataHandler.DataLoadListener() {
+            DataHandler.getInstance().getArticlesByCategory(type, DataHandler.FEED_CACHE_POLICY,
+                    new DataHandler.DataLoadListener() {
                 @Override
                 public void onDataLoaded(List<Article> categoryArticles) {
                     if (getActivity() != null) {
                         getActivity().runOnUiThread(() -> {
                             if (categoryArticles != null && !categoryArticles.isEmpty()) {
-                                adapter.setArticles(categoryArticles.subList(0, Math.min(5, categoryArticles.size())));
+                                showSection(type, adapter,
+                                        categoryArticles.subList(0, Math.min(5, categoryArticles.size())));
                             }
                         });
                     }
                 }
                 
+                @Override
+                public void onDataRefreshed(List<Article> categoryArticles) {
+                    if (getView() == null) {
+                        return;
+                    }
+                    showSection(type, adapter, categoryArticles.subList(0, Math.min(5, categoryArticles.size())));
+                }
+
                 @Override
                 public void onError(String message) {
                     if (getActivity() != null) {
@@ -199,25 +292,38 @@ public class HomeFragment extends Fragment implements ArticleHorizontalAdapter.O
 
         ArticleHorizontalAdapter adapter = new ArticleHorizontalAdapter(this);
         continueReadingRecyclerView.setAdapter(adapter);
+        sectionAdapters.put(NAV_CONTINUE_READING, adapter);
 
         // Load continue reading articles
-        List<Article> continueReadingArticles = DataHandler.getContinueReadingArticles(requireContext(), 5);
-        if (continueReadingArticles.isEmpty()) {
-            // Hide continue reading section if no articles in progress
-            continueReadingRecyclerView.setVisibility(View.GONE);
-            View continueReadingHeader = getView() != null ? getView().findViewById(R.id.continueReadingHeader) : null;
-            if (continueReadingHeader != null) {
-                continueReadingHeader.setVisibility(View.GONE);
+        DataHandler.getInstance().getContinueReadingArticles(requireContext(), 5, new DataHandler.DataLoadListener() {
+            @Override
+            public void onDataLoaded(List<Article> continueReadingArticles) {
+                View root = getView();
+                if (root == null) {
+                    return;
+                }
+                View continueReadingHeader = root.findViewById(R.id.continueReadingHeader);
+                if (continueReadingArticles.isEmpty()) {
+                    // Hide continue reading section if no articles in progress
+                    continueReadingRecyclerView.setVisibility(View.GONE);
+                    if (continueReadingHeader != null) {
+                        continueReadingHeader.setVisibility(View.GONE);
+                    }
+                } else {
+                    // Show continue reading section
+                    continueReadingRecyclerView.setVisibility(View.VISIBLE);
+                    if (continueReadingHeader != null) {
+                        continueReadingHeader.setVisibility(View.VISIBLE);
+                    }
+                    showSection(NAV_CONTINUE_READING, adapter, continueReadingArticles);
+                }
             }
-        } else {
-            // Show continue reading section
-            continueReadingRecyclerView.setVisibility(View.VISIBLE);
-            View continueReadingHeader = getView() != null ? getView().findViewById(R.id.continueReadingHeader) : null;
-            if (continueReadingHeader != null) {
-                continueReadingHeader.setVisibility(View.VISIBLE);
+
+            @Override
+            public void onError(String message) {
+                Log.e("HomeFragment", "Error loading continue reading: " + message);
             }
-            adapter.setArticles(continueReadingArticles);
-        }
+        });
     }
 
     private void setupClickListeners() {
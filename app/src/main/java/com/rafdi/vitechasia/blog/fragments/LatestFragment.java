@@ -16,15 +16,18 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.rafdi.vitechasia.blog.R;
 import com.rafdi.vitechasia.blog.adapters.ArticleVerticalAdapter;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.repository.ArticleChangeSet;
+import com.rafdi.vitechasia.blog.repository.ArticleCursor;
+import com.rafdi.vitechasia.blog.repository.ArticlePagingSource;
 import com.rafdi.vitechasia.blog.utils.DataHandler;
-import com.rafdi.vitechasia.blog.utils.PaginationUtils;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Fragment for displaying the latest articles in chronological order.
- * Supports pagination for loading more content.
+ * Pages are loaded on demand through keyset cursors and appended to the list;
+ * synced changes are patched into the loaded pages instead of reloading them.
  */
 public class LatestFragment extends Fragment {
     
@@ -34,7 +37,9 @@ public class LatestFragment extends Fragment {
     private Button btnLoadMore;
     private ProgressBar progressBar;
     private ArticleVerticalAdapter verticalAdapter;
-    private PaginationUtils<Article> paginationUtils;
+    private ArticlePagingSource pagingSource;
+    private final List<Article> loadedArticles = new ArrayList<>();
+    private final DataHandler.ArticleChangeListener changeListener = this::onArticlesChanged;
     
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
@@ -65,66 +70,109 @@ public class LatestFragment extends Fragment {
         // Set up load more button
         btnLoadMore.setOnClickListener(v -> loadNextPage());
         
-        // Load latest articles
-        loadLatestArticles();
-        
         return view;
     }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        // Started here so a page delivered synchronously already finds the view
+        loadLatestArticles();
+        DataHandler.addChangeListener(changeListener);
+    }
+
+    @Override
+    public void onDestroyView() {
+        DataHandler.removeChangeListener(changeListener);
+        super.onDestroyView();
+    }
+
+    private void onArticlesChanged(ArticleChangeSet changes) {
+        if (getView() == null) {
+            return;
+        }
+        // New articles newer than the last loaded one slot in; older ones come with the next page
+        List<Article> updated = changes.applyTo(loadedArticles, ArticleCursor.NEWEST_FIRST, null);
+        if (updated != loadedArticles) {
+            loadedArticles.clear();
+            loadedArticles.addAll(updated);
+            verticalAdapter.setArticles(new ArrayList<>(loadedArticles));
+        }
+    }
     
     private void loadLatestArticles() {
+        if (pagingSource == null) {
+            // The first page shows cached articles at once and is swapped for fresh ones once they land
+            pagingSource = DataHandler.getInstance().newPagingSource(null, ITEMS_PER_PAGE,
+                    DataHandler.FEED_CACHE_POLICY);
+        } else {
+            pagingSource.refresh();
+        }
+        loadedArticles.clear();
+        loadNextPage();
+    }
+
+    private void loadNextPage() {
+        if (pagingSource.isLoading() || !pagingSource.hasMore()) {
+            return;
+        }
         showLoading(true);
+        btnLoadMore.setEnabled(false);
+        pagingSource.loadNextPage(new ArticlePagingSource.PageCallback() {
+            @Override
+            public void onFirstArticles(List<Article> articles) {
+                if (getView() == null) {
+                    return;
+                }
+                // Shown ahead of the page; onPageLoaded replaces them with the full page
+                List<Article> shown = new ArrayList<>(loadedArticles);
+                shown.addAll(articles);
+                verticalAdapter.setArticles(shown);
+            }
 
-        // Use new DataHandler approach that tries API first, falls back to dummy data
-        DataHandler.getInstance().getLatestArticles(100, new DataHandler.DataLoadListener() {
             @Override
-            public void onDataLoaded(List<Article> articles) {
-                requireActivity().runOnUiThread(() -> {
-                    // Initialize or update pagination
-                    if (paginationUtils == null) {
-                        paginationUtils = new PaginationUtils<>(articles, ITEMS_PER_PAGE);
-                    } else {
-                        paginationUtils.updateData(articles);
-                    }
+            public void onPageLoaded(List<Article> articles, boolean endReached) {
+                if (getView() == null) {
+                    return;
+                }
+                loadedArticles.addAll(articles);
+                verticalAdapter.setArticles(new ArrayList<>(loadedArticles));
+                showLoading(false);
+                updateLoadMoreButton();
+            }
 
-                    // Update UI
-                    updateArticleList();
-                    showLoading(false);
-                    updateLoadMoreButton();
-                });
+            @Override
+            public void onFirstPageRefreshed(List<Article> articles, boolean endReached) {
+                if (getView() == null) {
+                    return;
+                }
+                loadedArticles.clear();
+                loadedArticles.addAll(articles);
+                verticalAdapter.setArticles(new ArrayList<>(loadedArticles));
+                updateLoadMoreButton();
             }
 
             @Override
             public void onError(String message) {
-                requireActivity().runOnUiThread(() -> {
-                    showLoading(false);
-                    // Could show error message to user here if needed
-                    // For now, we'll just hide loading indicator
-                });
+                if (getView() == null) {
+                    return;
+                }
+                // Drop any early rows of the failed page
+                verticalAdapter.setArticles(new ArrayList<>(loadedArticles));
+                showLoading(false);
+                // Keep the button so the user can retry this page
+                updateLoadMoreButton();
             }
         });
     }
-    
-    private void updateArticleList() {
-        if (paginationUtils != null) {
-            List<Article> currentPage = paginationUtils.getCurrentPageItems();
-            verticalAdapter.setArticles(currentPage);
-        }
-    }
-    
+
     private void updateLoadMoreButton() {
-        if (getView() != null && paginationUtils != null) {
-            btnLoadMore.setVisibility(paginationUtils.hasNextPage() ? View.VISIBLE : View.GONE);
-        }
-    }
-    
-    private void loadNextPage() {
-        if (paginationUtils != null && paginationUtils.hasNextPage()) {
-            paginationUtils.loadNextPage();
-            updateArticleList();
-            updateLoadMoreButton();
+        if (getView() != null && pagingSource != null) {
+            btnLoadMore.setEnabled(true);
+            btnLoadMore.setVisibility(pagingSource.hasMore() ? View.VISIBLE : View.GONE);
         }
     }
-    
+
     private void onArticleClick(Article article) {
         // Navigate to article detail
         ArticleDetailFragment articleDetailFragment = ArticleDetailFragment.newInstance(article);
@@ -16,25 +16,36 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.rafdi.vitechasia.blog.R;
 import com.rafdi.vitechasia.blog.adapters.ArticleVerticalAdapter;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.repository.ArticleChangeSet;
+import com.rafdi.vitechasia.blog.repository.CachePolicy;
 import com.rafdi.vitechasia.blog.utils.DataHandler;
-import com.rafdi.vitechasia.blog.utils.PaginationUtils;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Fragment for displaying most popular articles based on view count.
- * Supports pagination for loading more trending content.
+ * Pages come sorted from the API and are fetched one at a time as the user asks for more.
+ * Synced changes are patched into the loaded list instead of reloading it.
  */
 public class PopularFragment extends Fragment {
     
     private static final int ITEMS_PER_PAGE = 10;
+    private static final Comparator<Article> MOST_VIEWED_FIRST =
+            Comparator.comparingInt(Article::getViewCount).reversed();
     
     private RecyclerView recyclerView;
     private Button btnLoadMore;
     private ProgressBar progressBar;
     private ArticleVerticalAdapter verticalAdapter;
-    private PaginationUtils<Article> paginationUtils;
+    private List<Article> popularArticles = new ArrayList<>();
+    private int pagesLoaded;
+    private boolean loadingPage;
+    private boolean endReached;
+    private final DataHandler.ArticleChangeListener changeListener = this::onArticlesChanged;
     
     public PopularFragment() {
         // Required empty public constructor
@@ -71,62 +82,119 @@ public class PopularFragment extends Fragment {
         
         // Load popular articles
         loadPopularArticles();
+        DataHandler.addChangeListener(changeListener);
         
         return view;
     }
+
+    @Override
+    public void onDestroyView() {
+        DataHandler.removeChangeListener(changeListener);
+        super.onDestroyView();
+    }
+
+    private void onArticlesChanged(ArticleChangeSet changes) {
+        if (getView() == null || pagesLoaded == 0) {
+            return;
+        }
+        // Edited view counts re-rank the list; new articles only enter if they beat the last one
+        List<Article> updated = changes.applyTo(popularArticles, MOST_VIEWED_FIRST, null);
+        if (updated != popularArticles) {
+            popularArticles = updated;
+            verticalAdapter.setArticles(updated);
+        }
+    }
     
     private void loadPopularArticles() {
         showLoading(true);
+        loadingPage = true;
 
-        // Use new DataHandler approach that tries API first, falls back to dummy data
-        DataHandler.getInstance().getPopularArticles(100, new DataHandler.DataLoadListener() {
+        // Cached articles show at once; a fresher first page replaces them if the API has one
+        DataHandler.getInstance().getPopularArticlesPage(1, ITEMS_PER_PAGE, DataHandler.FEED_CACHE_POLICY,
+                new DataHandler.DataLoadListener() {
             @Override
             public void onDataLoaded(List<Article> articles) {
-                requireActivity().runOnUiThread(() -> {
-                    // Initialize or update pagination
-                    if (paginationUtils == null) {
-                        paginationUtils = new PaginationUtils<>(articles, ITEMS_PER_PAGE);
-                    } else {
-                        paginationUtils.updateData(articles);
-                    }
+                if (getView() == null) {
+                    return;
+                }
+                loadingPage = false;
+                popularArticles = new ArrayList<>();
+                pagesLoaded = 0;
+                appendPage(articles);
+                showLoading(false);
+            }
 
-                    // Update UI
-                    updateArticleList();
-                    showLoading(false);
-                    updateLoadMoreButton();
-                });
+            @Override
+            public void onDataRefreshed(List<Article> articles) {
+                // Later pages were ranked against the old first page; leave them be
+                if (getView() == null || pagesLoaded != 1 || loadingPage) {
+                    return;
+                }
+                popularArticles = new ArrayList<>();
+                pagesLoaded = 0;
+                appendPage(articles);
             }
 
             @Override
             public void onError(String message) {
-                requireActivity().runOnUiThread(() -> {
-                    showLoading(false);
-                    // Could show error message to user here if needed
-                    // For now, we'll just hide loading indicator
-                });
+                if (getView() == null) {
+                    return;
+                }
+                loadingPage = false;
+                showLoading(false);
             }
         });
     }
     
-    private void updateArticleList() {
-        if (paginationUtils != null) {
-            List<Article> currentPage = paginationUtils.getCurrentPageItems();
-            verticalAdapter.setArticles(currentPage);
+    private void loadNextPage() {
+        if (loadingPage || endReached || pagesLoaded == 0) {
+            return;
         }
+        loadingPage = true;
+        btnLoadMore.setEnabled(false);
+        DataHandler.getInstance().getPopularArticlesPage(pagesLoaded + 1, ITEMS_PER_PAGE,
+                CachePolicy.NETWORK_FIRST, new DataHandler.DataLoadListener() {
+            @Override
+            public void onDataLoaded(List<Article> articles) {
+                if (getView() == null) {
+                    return;
+                }
+                loadingPage = false;
+                btnLoadMore.setEnabled(true);
+                appendPage(articles);
+            }
+
+            @Override
+            public void onError(String message) {
+                if (getView() == null) {
+                    return;
+                }
+                loadingPage = false;
+                btnLoadMore.setEnabled(true);
+            }
+        });
     }
-    
-    private void updateLoadMoreButton() {
-        if (getView() != null && paginationUtils != null) {
-            btnLoadMore.setVisibility(paginationUtils.hasNextPage() ? View.VISIBLE : View.GONE);
+
+    /**
+     * Adds a loaded page, skipping articles already shown: view counts change between
+     * requests, so offset pages can overlap.
+     */
+    private void appendPage(List<Article> page) {
+        Set<String> shown = new HashSet<>();
+        for (Article article : popularArticles) {
+            shown.add(article.getId());
         }
-    }
-    
-    private void loadNextPage() {
-        if (paginationUtils != null && paginationUtils.hasNextPage()) {
-            paginationUtils.loadNextPage();
-            updateArticleList();
-            updateLoadMoreButton();
+        List<Article> updated = new ArrayList<>(popularArticles);
+        for (Article article : page) {
+            if (shown.add(article.getId())) {
+                updated.add(article);
+            }
         }
+        popularArticles = updated;
+        pagesLoaded++;
+        endReached = page.size() < ITEMS_PER_PAGE;
+        verticalAdapter.setArticles(updated);
+        btnLoadMore.setVisibility(endReached ? View.GONE : View.VISIBLE);
     }
     
     private void onArticleClick(Article article) {
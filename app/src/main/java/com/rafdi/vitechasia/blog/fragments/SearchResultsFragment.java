@@ -29,7 +29,9 @@ import com.rafdi.vitechasia.blog.activities.HomePage;
 import com.rafdi.vitechasia.blog.adapters.ArticleVerticalAdapter;
 import com.rafdi.vitechasia.blog.models.Article;
 import com.rafdi.vitechasia.blog.models.Category;
+import com.rafdi.vitechasia.blog.utils.ArticleFilterIndex;
 import com.rafdi.vitechasia.blog.utils.DataHandler;
+import com.rafdi.vitechasia.blog.utils.SearchPipeline;
 import com.rafdi.vitechasia.blog.utils.SearchHistoryManager;
 import com.rafdi.vitechasia.blog.utils.CategoryManager;
 import com.rafdi.vitechasia.blog.utils.PaginationUtils;
@@ -40,6 +42,9 @@ import java.util.List;
 /**
  * Fragment for displaying search results based on user queries.
  * Shows filtered articles with category-based search capabilities and search history.
+ * Results follow the search box as the user types, through a debounced {@link SearchPipeline}.
+ * Filters and sorting go through an {@link ArticleFilterIndex} of the results, so they apply
+ * as soon as they are toggled in the filter dialog.
  */
 public class SearchResultsFragment extends Fragment implements ArticleVerticalAdapter.OnArticleClickListener {
     private static final String ARG_QUERY = "search_query";
@@ -73,12 +78,15 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
     private static final int ITEMS_PER_PAGE = 10;
     
     private List<Article> allSearchResults = new ArrayList<>();
+    private ArticleFilterIndex filterIndex;
     private SearchHistoryManager searchHistoryManager;
     private CategoryManager categoryManager;
     private TextInputLayout dateRangeLayout;
     private Button btnLoadMore;
     private ProgressBar progressBar;
     private PaginationUtils<Article> paginationUtils;
+    private SearchPipeline searchPipeline;
+    private final SearchPipeline.Listener resultsListener = this::onSearchResults;
 
     public static SearchResultsFragment newInstance(String query) {
         SearchResultsFragment fragment = new SearchResultsFragment();
@@ -98,14 +106,10 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
         // Initialize DataHandler to enable API-first functionality
         DataHandler.initialize(requireContext().getApplicationContext());
 
-        // Initialize managers
+        // Initialize managers; submitted queries are added to the history by HomePage
         searchHistoryManager = SearchHistoryManager.getInstance(requireContext());
         categoryManager = CategoryManager.getInstance();
-
-        // Add to search history
-        if (searchQuery != null && !searchQuery.trim().isEmpty()) {
-            searchHistoryManager.addSearchQuery(searchQuery);
-        }
+        searchPipeline = DataHandler.newSearchPipeline();
     }
 
     @Nullable
@@ -145,10 +149,48 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
             // Perform initial search
             performSearch();
         }
+        loadCorpus();
 
         return view;
     }
 
+    @Override
+    public void onDestroyView() {
+        searchPipeline.cancel();
+        super.onDestroyView();
+    }
+
+    /**
+     * Shows results for a query that is still being typed, once typing pauses.
+     */
+    public void updateQuery(String query) {
+        setQuery(query);
+        if (searchQuery.trim().isEmpty()) {
+            searchPipeline.cancel();
+            displaySearchHistory();
+            return;
+        }
+        searchPipeline.submit(searchQuery, resultsListener);
+    }
+
+    /**
+     * Shows results for a submitted query right away.
+     */
+    public void submitQuery(String query) {
+        setQuery(query);
+        performSearch();
+    }
+
+    private void setQuery(String query) {
+        searchQuery = query != null ? query : "";
+        if (getArguments() != null) {
+            getArguments().putString(ARG_QUERY, searchQuery);
+        }
+        if (searchQueryText != null) {
+            searchQueryText.setText(getString(R.string.search_results_for, searchQuery));
+        }
+    }
+
     @Override
     public void onArticleClick(Article article) {
         if (getActivity() instanceof HomePage) {
@@ -190,124 +232,75 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
     }
 
     private void performSearch() {
-        Log.d("SearchResultsFragment", "performSearch called with query: " + searchQuery);
-        
         if (searchQuery == null || searchQuery.trim().isEmpty()) {
-            Log.d("SearchResultsFragment", "Empty search query, showing search history");
+            searchPipeline.cancel();
             displaySearchHistory();
             return;
         }
+        searchPipeline.submitNow(searchQuery, resultsListener);
+    }
 
-        Log.d("SearchResultsFragment", "Fetching all articles to filter by query: " + searchQuery);
-        
-        // Use getAllArticles to get all articles regardless of category
-        DataHandler.getInstance().getAllArticles(new DataHandler.DataLoadListener() {
+    /**
+     * Loads the article corpus into the search index once, then re-runs the current query
+     * so articles that arrived from the API are included.
+     */
+    private void loadCorpus() {
+        DataHandler.getInstance().getAllArticles(DataHandler.FEED_CACHE_POLICY, new DataHandler.DataLoadListener() {
             @Override
             public void onDataLoaded(List<Article> articles) {
-                Log.d("SearchResultsFragment", "Received " + (articles != null ? articles.size() : 0) + " articles from DataHandler");
-                requireActivity().runOnUiThread(() -> {
-                    try {
-                        // Filter articles based on search query
-                        allSearchResults = new ArrayList<>();
-                        int matchCount = 0;
-                        
-                        if (articles != null) {
-                            for (Article article : articles) {
-                                if (matchesSearchQuery(article, searchQuery)) {
-                                    allSearchResults.add(article);
-                                    matchCount++;
-                                }
-                            }
-                        }
-                        
-                        Log.d("SearchResultsFragment", "Found " + matchCount + " articles matching query");
-                        applyFilters();
-                    } catch (Exception e) {
-                        Log.e("SearchResultsFragment", "Error processing search results", e);
-                        showNoResults();
-                    }
-                });
+                // getAllArticles has already added the articles to the search index
+                if (getView() != null) {
+                    performSearch();
+                }
+            }
+
+            @Override
+            public void onDataRefreshed(List<Article> articles) {
+                if (getView() != null) {
+                    performSearch();
+                }
             }
 
             @Override
             public void onError(String message) {
-                requireActivity().runOnUiThread(() -> {
-                    showNoResults();
-                });
+                Log.w("SearchResultsFragment", "Could not load articles to search: " + message);
             }
         });
     }
 
-    private boolean matchesSearchQuery(Article article, String query) {
-        if (article == null || query == null) {
-            Log.d("SearchResultsFragment", "matchesSearchQuery: article or query is null");
-            return false;
+    private void onSearchResults(String query, List<Article> results, ArticleFilterIndex filters) {
+        if (getView() == null || !query.equals(searchQuery)) {
+            return;
         }
-
-        String lowerQuery = query.toLowerCase();
-        boolean matches = (article.getTitle() != null && article.getTitle().toLowerCase().contains(lowerQuery)) ||
-               (article.getContent() != null && article.getContent().toLowerCase().contains(lowerQuery)) ||
-               (article.getAuthorName() != null && article.getAuthorName().toLowerCase().contains(lowerQuery));
-        
-        if (matches) {
-            Log.d("SearchResultsFragment", "Match found in article: " + article.getTitle());
-            Log.d("SearchResultsFragment", "  Title: " + article.getTitle());
-            Log.d("SearchResultsFragment", "  Content: " + (article.getContent() != null ? "[content available]" : "null"));
-            Log.d("SearchResultsFragment", "  Author: " + article.getAuthorName());
+        if (searchHistoryLayout != null) {
+            searchHistoryLayout.removeAllViews();
         }
-        
-        return matches;
+        allSearchResults = results;
+        filterIndex = filters;
+        Log.d("SearchResultsFragment", "Found " + allSearchResults.size() + " articles matching query");
+        applyFilters();
     }
 
     private void applyFilters() {
-        if (allSearchResults == null || allSearchResults.isEmpty()) {
+        if (filterIndex == null || filterIndex.size() == 0) {
             showNoResults();
+            btnLoadMore.setVisibility(View.GONE);
             return;
         }
-        
-        // Initialize or update pagination
+
+        // Bit set intersections plus a date range lookup; RELEVANCE keeps the ranked order
+        long publishedSince = currentDateRange == DateRange.ALL_TIME ? ArticleFilterIndex.ANY_DATE
+                : System.currentTimeMillis() - getTimeRangeInMillis(currentDateRange);
+        List<Article> filteredResults = filterIndex.select(selectedCategory, selectedSubcategory,
+                publishedSince, toOrder(currentSortBy));
+
+        // Paginate what is shown, starting over at the first page
         if (paginationUtils == null) {
-            paginationUtils = new PaginationUtils<>(allSearchResults, ITEMS_PER_PAGE);
+            paginationUtils = new PaginationUtils<>(filteredResults, ITEMS_PER_PAGE);
         } else {
-            paginationUtils.updateData(allSearchResults);
+            paginationUtils.updateData(filteredResults);
         }
 
-        List<Article> filteredResults = new ArrayList<>();
-        long currentTime = System.currentTimeMillis();
-        long timeRange = getTimeRangeInMillis(currentDateRange);
-        
-        // Apply category and subcategory filters
-        for (Article article : allSearchResults) {
-            boolean matchesCategory = selectedCategory == null ||
-                (article.getCategoryId() != null && article.getCategoryId().equalsIgnoreCase(selectedCategory));
-
-            boolean matchesSubcategory = selectedSubcategory == null ||
-                (article.getSubcategoryId() != null && article.getSubcategoryId().equalsIgnoreCase(selectedSubcategory));
-                
-            boolean matchesDateRange = currentDateRange == DateRange.ALL_TIME || 
-                (article.getPublishDate() != null && 
-                 (currentTime - article.getPublishDate().getTime()) <= timeRange);
-
-            if (matchesCategory && matchesSubcategory && matchesDateRange) {
-                filteredResults.add(article);
-            }
-        }
-        
-        // Apply sorting
-        if (currentSortBy == SortBy.DATE_NEWEST) {
-            filteredResults.sort((a1, a2) -> {
-                if (a1.getPublishDate() == null || a2.getPublishDate() == null) return 0;
-                return a2.getPublishDate().compareTo(a1.getPublishDate());
-            });
-        } else if (currentSortBy == SortBy.DATE_OLDEST) {
-            filteredResults.sort((a1, a2) -> {
-                if (a1.getPublishDate() == null || a2.getPublishDate() == null) return 0;
-                return a1.getPublishDate().compareTo(a2.getPublishDate());
-            });
-        } else if (currentSortBy == SortBy.POPULARITY) {
-            filteredResults.sort((a1, a2) -> Integer.compare(a2.getViewCount(), a1.getViewCount()));
-        }
-        
         // Update filter chips
         updateFilterChips();
 
@@ -351,6 +344,11 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
             default:
                 sortByGroup.check(R.id.sortByRelevance);
         }
+        // Filters are cheap to apply, so every change shows up behind the dialog right away
+        sortByGroup.setOnCheckedChangeListener((group, checkedId) -> {
+            currentSortBy = sortByFor(checkedId);
+            applyFilters();
+        });
         
         // Set up categories
         List<Category> categories = DataHandler.getAllCategories();
@@ -375,6 +373,7 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
                         chip.setChecked(false);
                     }
                 }
+                applyFilters();
             }
         });
         categoryChipGroup.addView(allChip);
@@ -401,6 +400,7 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
                     selectedCategory = category.getId();
                     selectedSubcategory = null; // Reset subcategory when category changes
                     updateSubcategoryChips(subcategoryChipGroup, subcategoriesLabel, category.getId());
+                    applyFilters();
                 } else if (selectedCategory != null && selectedCategory.equals(category.getId())) {
                     // If the currently selected category is unchecked, select "All Categories"
                     allChip.setChecked(true);
@@ -433,6 +433,7 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
         dateRangeSpinner.setOnItemClickListener((parent, view, position, id) -> {
             currentDateRange = DateRange.values()[position];
             dateRangeSpinner.dismissDropDown();
+            applyFilters();
         });
         
         // Set up dialog
@@ -451,17 +452,8 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
         
         btnApply.setOnClickListener(v -> {
             // Update sort by
-            int selectedSortId = sortByGroup.getCheckedRadioButtonId();
-            if (selectedSortId == R.id.sortByDateNewest) {
-                currentSortBy = SortBy.DATE_NEWEST;
-            } else if (selectedSortId == R.id.sortByDateOldest) {
-                currentSortBy = SortBy.DATE_OLDEST;
-            } else if (selectedSortId == R.id.sortByPopularity) {
-                currentSortBy = SortBy.POPULARITY;
-            } else {
-                currentSortBy = SortBy.RELEVANCE;
-            }
-            
+            currentSortBy = sortByFor(sortByGroup.getCheckedRadioButtonId());
+
             applyFilters();
             dialog.dismiss();
         });
@@ -517,6 +509,7 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
                 chip.setOnCheckedChangeListener((buttonView, isChecked) -> {
                     if (isChecked) {
                         selectedSubcategory = displayName;
+                        applyFilters();
                     }
                 });
                 subcategoryChipGroup.addView(chip);
@@ -527,6 +520,31 @@ public class SearchResultsFragment extends Fragment implements ArticleVerticalAd
         }
     }
 
+    private static SortBy sortByFor(int checkedId) {
+        if (checkedId == R.id.sortByDateNewest) {
+            return SortBy.DATE_NEWEST;
+        } else if (checkedId == R.id.sortByDateOldest) {
+            return SortBy.DATE_OLDEST;
+        } else if (checkedId == R.id.sortByPopularity) {
+            return SortBy.POPULARITY;
+        }
+        return SortBy.RELEVANCE;
+    }
+
+    private static ArticleFilterIndex.Order toOrder(SortBy sortBy) {
+        switch (sortBy) {
+            case DATE_NEWEST:
+                return ArticleFilterIndex.Order.NEWEST;
+            case DATE_OLDEST:
+                return ArticleFilterIndex.Order.OLDEST;
+            case POPULARITY:
+                return ArticleFilterIndex.Order.MOST_VIEWED;
+            case RELEVANCE:
+            default:
+                return ArticleFilterIndex.Order.RELEVANCE;
+        }
+    }
+
     private long getTimeRangeInMillis(DateRange dateRange) {
         switch (dateRange) {
             case LAST_24_HOURS:
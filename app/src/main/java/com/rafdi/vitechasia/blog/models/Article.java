@@ -28,6 +28,8 @@ public class Article implements Parcelable {
     private int likeCount;
     private int shareCount;
     private int commentCount;
+    // Server-side word count; lets list rows show reading time without the body
+    private int wordCount;
     private boolean isBookmarked;
     private boolean isLikedByUser;
     private boolean isSharedByUser;
@@ -65,6 +67,34 @@ public class Article implements Parcelable {
         this.isInProgress = false;
     }
 
+    /**
+     * Creates a copy of {@code other}, for changing per-screen flags such as
+     * {@link #setBookmarked(boolean)} without touching a shared instance.
+     */
+    public Article(Article other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.content = other.content;
+        this.imageUrl = other.imageUrl;
+        this.categoryId = other.categoryId;
+        this.subcategoryId = other.subcategoryId;
+        this.authorId = other.authorId;
+        this.authorName = other.authorName;
+        this.authorImageUrl = other.authorImageUrl;
+        this.publishDate = other.publishDate;
+        this.viewCount = other.viewCount;
+        this.likeCount = other.likeCount;
+        this.shareCount = other.shareCount;
+        this.commentCount = other.commentCount;
+        this.wordCount = other.wordCount;
+        this.isBookmarked = other.isBookmarked;
+        this.isLikedByUser = other.isLikedByUser;
+        this.isSharedByUser = other.isSharedByUser;
+        this.readingProgress = other.readingProgress;
+        this.lastReadTime = other.lastReadTime;
+        this.isInProgress = other.isInProgress;
+    }
+
     public boolean isBookmarked() {
         return isBookmarked;
     }
@@ -114,6 +144,7 @@ public class Article implements Parcelable {
         likeCount = in.readInt();
         shareCount = in.readInt();
         commentCount = in.readInt();
+        wordCount = in.readInt();
         isBookmarked = in.readByte() != 0;
         isLikedByUser = in.readByte() != 0;
         isSharedByUser = in.readByte() != 0;
@@ -162,6 +193,38 @@ public class Article implements Parcelable {
         this.content = content;
     }
 
+    /**
+     * @return Whether the body has been loaded; list payloads carry only the summary
+     */
+    public boolean hasContent() {
+        return content != null;
+    }
+
+    /**
+     * Returns this article, or a copy of it carrying the body of {@code previous} when only
+     * {@code previous} has one, so that refreshing an article from a list summary keeps the
+     * body loaded earlier. Neither instance is modified.
+     */
+    public Article withContentFrom(Article previous) {
+        if (content != null || previous == null || previous.content == null) {
+            return this;
+        }
+        Article merged = new Article(this);
+        merged.content = previous.content;
+        if (merged.wordCount == 0) {
+            merged.wordCount = previous.wordCount;
+        }
+        return merged;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public void setWordCount(int wordCount) {
+        this.wordCount = wordCount;
+    }
+
     public String getImageUrl() {
         return imageUrl;
     }
@@ -301,6 +364,7 @@ public class Article implements Parcelable {
         dest.writeInt(likeCount);
         dest.writeInt(shareCount);
         dest.writeInt(commentCount);
+        dest.writeInt(wordCount);
         dest.writeByte((byte) (isBookmarked ? 1 : 0));
         dest.writeByte((byte) (isLikedByUser ? 1 : 0));
         dest.writeByte((byte) (isSharedByUser ? 1 : 0));
@@ -0,0 +1,17 @@
+package com.rafdi.vitechasia.blog.models;
+
+import java.util.List;
+
+/**
+ * One page of the API's article change feed: the articles created or edited and the ids
+ * deleted since the requested sync token, in the order the server applied them.
+ * Upserts are {@link ArticleSummary} rows; bodies are still fetched when an article is opened.
+ */
+public class ArticleChanges {
+    public List<ArticleSummary> upserted;
+    public List<String> deleted;
+    /** Token to pass as {@code since} on the next call; covers every change in this page. */
+    public long syncedAt;
+    /** True if more changes are waiting after {@link #syncedAt}. */
+    public boolean hasMore;
+}
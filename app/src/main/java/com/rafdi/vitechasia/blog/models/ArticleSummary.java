@@ -0,0 +1,50 @@
+package com.rafdi.vitechasia.blog.models;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * List-row projection of an {@link Article} as returned by the API with
+ * {@code fields=summary}: everything a card renders, without the body.
+ * The body is fetched on demand when the article is opened.
+ */
+public class ArticleSummary {
+    public String id;
+    public String title;
+    public String imageUrl;
+    public String categoryId;
+    public String subcategoryId;
+    public String authorId;
+    public String authorName;
+    public String authorImageUrl;
+    public Date publishDate;
+    public int viewCount;
+    public int likeCount;
+    public int shareCount;
+    public int commentCount;
+    public int wordCount;
+
+    /**
+     * Converts this summary to an article whose content is not loaded yet.
+     */
+    public Article toArticle() {
+        Article article = new Article(id, title, null, imageUrl, categoryId, subcategoryId,
+                authorId, authorName, authorImageUrl, publishDate, viewCount, likeCount);
+        article.setShareCount(shareCount);
+        article.setCommentCount(commentCount);
+        article.setWordCount(wordCount);
+        return article;
+    }
+
+    public static List<Article> toArticles(List<ArticleSummary> summaries) {
+        List<Article> articles = new ArrayList<>();
+        if (summaries == null) return articles;
+        for (ArticleSummary summary : summaries) {
+            if (summary != null) {
+                articles.add(summary.toArticle());
+            }
+        }
+        return articles;
+    }
+}
@@ -10,6 +10,7 @@ import java.util.List;
  */
 public class SearchFilters {
     public enum SortBy {
+        /** BM25 order as returned by DataHandler.searchArticles */
         RELEVANCE,
         DATE_NEWEST,
         DATE_OLDEST,
@@ -0,0 +1,154 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import androidx.annotation.Nullable;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable result of a delta sync: the articles created or edited and the ids deleted since
+ * the previous sync. An id is never both upserted and deleted; whichever happened last wins.
+ *
+ * <p>Lists on screen patch themselves with {@link #applyTo} instead of reloading, so a refresh
+ * that changed nothing they show leaves them untouched.
+ */
+public final class ArticleChangeSet {
+    private static final ArticleChangeSet EMPTY =
+            new ArticleChangeSet(Collections.emptyMap(), Collections.emptySet());
+
+    private final Map<String, Article> upserted;
+    private final Set<String> deletedIds;
+
+    private ArticleChangeSet(Map<String, Article> upserted, Set<String> deletedIds) {
+        this.upserted = Collections.unmodifiableMap(upserted);
+        this.deletedIds = Collections.unmodifiableSet(deletedIds);
+    }
+
+    public static ArticleChangeSet empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a change set in which deletions are applied after the upserts.
+     * Articles without an id and null ids are skipped.
+     */
+    public static ArticleChangeSet of(Collection<Article> upserted, Collection<String> deletedIds) {
+        return EMPTY.then(upserted, deletedIds);
+    }
+
+    /**
+     * Returns the change set obtained by applying {@code upserts} and then {@code deletions}
+     * after this one. Returns this change set if both are empty.
+     */
+    public ArticleChangeSet then(Collection<Article> upserts, Collection<String> deletions) {
+        if ((upserts == null || upserts.isEmpty()) && (deletions == null || deletions.isEmpty())) {
+            return this;
+        }
+        Map<String, Article> mergedUpserts = new LinkedHashMap<>(upserted);
+        Set<String> mergedDeletions = new LinkedHashSet<>(deletedIds);
+        if (upserts != null) {
+            for (Article article : upserts) {
+                if (article != null && article.getId() != null) {
+                    mergedDeletions.remove(article.getId());
+                    mergedUpserts.put(article.getId(), article);
+                }
+            }
+        }
+        if (deletions != null) {
+            for (String id : deletions) {
+                if (id != null) {
+                    mergedUpserts.remove(id);
+                    mergedDeletions.add(id);
+                }
+            }
+        }
+        return new ArticleChangeSet(mergedUpserts, mergedDeletions);
+    }
+
+    public boolean isEmpty() {
+        return upserted.isEmpty() && deletedIds.isEmpty();
+    }
+
+    /**
+     * Created or edited articles, in the order the changes arrived. The list is a copy.
+     */
+    public List<Article> getUpserted() {
+        return new ArrayList<>(upserted.values());
+    }
+
+    /**
+     * Ids of deleted articles. The set is unmodifiable.
+     */
+    public Set<String> getDeletedIds() {
+        return deletedIds;
+    }
+
+    /**
+     * Applies this change set to a list on screen. Edited articles replace the shown copy,
+     * deleted ones are dropped. When {@code order} is given the result is re-sorted with it,
+     * and new articles accepted by {@code belongs} are inserted if they sort before the last
+     * shown article; later ones are left for the list's next page.
+     *
+     * @param shown   The articles currently shown
+     * @param order   Sort order of the list, or null to keep positions and never insert
+     * @param belongs Filter for new articles, or null to accept all of them
+     * @return A new list, or {@code shown} itself if none of the changes affect it
+     */
+    public List<Article> applyTo(List<Article> shown, @Nullable Comparator<Article> order,
+                                 @Nullable Predicate<Article> belongs) {
+        if (isEmpty() || shown == null) {
+            return shown;
+        }
+
+        boolean changed = false;
+        Set<String> shownIds = new HashSet<>(shown.size() * 2);
+        List<Article> result = new ArrayList<>(shown.size());
+        for (Article article : shown) {
+            String id = article.getId();
+            shownIds.add(id);
+            if (deletedIds.contains(id)) {
+                changed = true;
+                continue;
+            }
+            Article update = upserted.get(id);
+            if (update != null && update != article) {
+                changed = true;
+                result.add(update);
+            } else {
+                result.add(article);
+            }
+        }
+
+        if (order != null && !shown.isEmpty()) {
+            Article tail = shown.get(shown.size() - 1);
+            for (Article article : upserted.values()) {
+                if (!shownIds.contains(article.getId())
+                        && (belongs == null || belongs.test(article))
+                        && order.compare(article, tail) < 0) {
+                    changed = true;
+                    result.add(article);
+                }
+            }
+            if (changed) {
+                result.sort(order);
+            }
+        }
+        return changed ? result : shown;
+    }
+
+    @Override
+    public String toString() {
+        return "ArticleChangeSet{upserted=" + upserted.size() + ", deleted=" + deletedIds.size() + "}";
+    }
+}
@@ -0,0 +1,69 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import androidx.annotation.NonNull;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.Comparator;
+
+/**
+ * Keyset position in the newest-first article feed: the publish date and id of the last
+ * article already loaded.
+ *
+ * <p>The feed is ordered by publish date descending with the id as a tie-breaker, so
+ * "everything after this cursor" is well defined no matter how many articles are inserted
+ * at the head in the meantime. Articles without a publish date sort as epoch 0.
+ */
+public final class ArticleCursor {
+
+    /**
+     * Newest-first feed order that cursors refer to.
+     */
+    public static final Comparator<Article> NEWEST_FIRST = (a, b) -> {
+        int byDate = Long.compare(publishTime(b), publishTime(a));
+        return byDate != 0 ? byDate : compareIds(b.getId(), a.getId());
+    };
+
+    public final long publishDate;
+    @NonNull
+    public final String id;
+
+    public ArticleCursor(long publishDate, @NonNull String id) {
+        this.publishDate = publishDate;
+        this.id = id;
+    }
+
+    /**
+     * Cursor pointing just past {@code article}.
+     */
+    public static ArticleCursor after(@NonNull Article article) {
+        return new ArticleCursor(publishTime(article), article.getId() != null ? article.getId() : "");
+    }
+
+    /**
+     * @return Whether {@code article} comes strictly after this cursor in feed order
+     */
+    public boolean precedes(@NonNull Article article) {
+        long time = publishTime(article);
+        if (time != publishDate) {
+            return time < publishDate;
+        }
+        return compareIds(article.getId(), id) < 0;
+    }
+
+    static long publishTime(Article article) {
+        return article.getPublishDate() != null ? article.getPublishDate().getTime() : 0L;
+    }
+
+    private static int compareIds(String a, String b) {
+        if (a == null) return b == null ? 0 : -1;
+        if (b == null) return 1;
+        return a.compareTo(b);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return publishDate + ":" + id;
+    }
+}
@@ -0,0 +1,106 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import java.util.List;
+
+/**
+ * Abstraction over where article data comes from.
+ * {@link ArticleRepository} is the production implementation; tests can provide their own.
+ *
+ * <p>Implementations must invoke exactly one of {@code onSuccess} and {@code onError} per
+ * request. List requests that serve cached rows first may follow up with one
+ * {@link ArticleRepository.ArticleCallback#onRefreshed} call.
+ */
+public interface ArticleDataSource {
+    /**
+     * Fetches a page of articles, optionally filtered by category.
+     * Serves cached rows first when there are any and refreshes them from the API in the
+     * background, i.e. {@link CachePolicy#CACHE_THEN_NETWORK}.
+     *
+     * @param category The category to filter by, or null for all categories
+     * @param page The page number for pagination (starting from 1)
+     * @param limit The maximum number of articles to return per page
+     * @param callback The callback to handle the response or error
+     */
+    default void getArticles(String category, int page, int limit, ArticleRepository.ArticleCallback callback) {
+        getArticles(category, page, limit, CachePolicy.CACHE_THEN_NETWORK, callback);
+    }
+
+    /**
+     * Fetches a page of articles, optionally filtered by category, reading from the cache,
+     * the API or both as {@code policy} says.
+     *
+     * @param category The category to filter by, or null for all categories
+     * @param page The page number for pagination (starting from 1)
+     * @param limit The maximum number of articles to return per page
+     * @param policy Where to read from
+     * @param callback The callback to handle the response or error
+     */
+    void getArticles(String category, int page, int limit, CachePolicy policy,
+                     ArticleRepository.ArticleCallback callback);
+
+    /**
+     * Fetches one page of articles in the given order, sorted by the API so only that page
+     * is transferred. When the API cannot be asked, cached rows are sorted locally instead.
+     *
+     * @param category The category to filter by, or null for all categories
+     * @param sort The order to page through
+     * @param page The page number for pagination (starting from 1)
+     * @param limit The maximum number of articles to return per page
+     * @param policy Where to read from
+     * @param callback The callback to handle the response or error
+     */
+    void getSortedArticles(String category, ArticleSort sort, int page, int limit, CachePolicy policy,
+                           ArticleRepository.ArticleCallback callback);
+
+    /**
+     * Fetches the articles that follow {@code after} in newest-first feed order.
+     * Asks the API first and falls back to cached rows, i.e. {@link CachePolicy#NETWORK_FIRST}.
+     *
+     * @param category The category to filter by, or null for all categories
+     * @param after Cursor of the last article already loaded, or null for the first page
+     * @param limit The maximum number of articles to return
+     * @param callback The callback to handle the response or error
+     */
+    default void getArticlesPage(String category, ArticleCursor after, int limit,
+                                 ArticleRepository.ArticleCallback callback) {
+        getArticlesPage(category, after, limit, CachePolicy.NETWORK_FIRST, callback);
+    }
+
+    /**
+     * Fetches the articles that follow {@code after} in newest-first feed order, reading from
+     * the cache, the API or both as {@code policy} says.
+     *
+     * @param category The category to filter by, or null for all categories
+     * @param after Cursor of the last article already loaded, or null for the first page
+     * @param limit The maximum number of articles to return
+     * @param policy Where to read from
+     * @param callback The callback to handle the response or error
+     */
+    void getArticlesPage(String category, ArticleCursor after, int limit, CachePolicy policy,
+                         ArticleRepository.ArticleCallback callback);
+
+    /**
+     * Resolves a list of article ids, e.g. bookmarks, to article summaries.
+     * Ids that cannot be resolved are left out.
+     *
+     * @param ids The ids to look up
+     * @param callback Receives the resolved articles in the order of {@code ids}
+     */
+    void getArticlesByIds(List<String> ids, ArticleRepository.ArticleCallback callback);
+
+    /**
+     * Fetches a single article by its ID.
+     *
+     * @param id The ID of the article to fetch
+     * @param callback The callback to handle the response or error
+     */
+    void getArticleById(String id, ArticleRepository.SingleArticleCallback callback);
+
+    /**
+     * Pulls the articles created, edited or deleted since the previous sync and applies
+     * them to the data source's local copy.
+     *
+     * @param callback Receives the changes that were applied, possibly none
+     */
+    void syncChanges(ArticleRepository.SyncCallback callback);
+}
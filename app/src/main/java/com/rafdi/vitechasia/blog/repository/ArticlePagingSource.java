@@ -0,0 +1,217 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads the newest-first article feed one page at a time using keyset cursors.
+ *
+ * <p>Each page is requested after the last article already shown, so articles published while
+ * the user scrolls never shift later pages. Articles seen on an earlier page are dropped, and a
+ * page made up entirely of duplicates is skipped so callers always receive new items or the end
+ * of the feed.
+ *
+ * <p>Not thread-safe: call it from the main thread, where the loader delivers its results.
+ */
+public class ArticlePagingSource {
+
+    /**
+     * Fetches up to {@code limit} articles that come after {@code after} in feed order.
+     * {@link ArticleDataSource#getArticlesPage} matches this shape.
+     */
+    public interface PageLoader {
+        void loadPage(String category, @Nullable ArticleCursor after, int limit,
+                      ArticleRepository.ArticleCallback callback);
+    }
+
+    /**
+     * Receives each loaded page.
+     */
+    public interface PageCallback {
+        /**
+         * @param articles Articles not delivered before, in feed order
+         * @param endReached Whether the feed has no further pages
+         */
+        void onPageLoaded(List<Article> articles, boolean endReached);
+
+        void onError(String message);
+
+        /**
+         * Optionally receives the first new articles of a page that is still loading, so they
+         * can be shown early. {@link #onPageLoaded} later delivers them again with the rest.
+         */
+        default void onFirstArticles(List<Article> articles) {
+        }
+
+        /**
+         * Optionally receives a fresher first page after the loader answered it from a cache.
+         * It replaces everything delivered since the last refresh, and is only sent while the
+         * first page is the only one loaded.
+         *
+         * @param articles The new first page, in feed order
+         * @param endReached Whether the feed has no further pages
+         */
+        default void onFirstPageRefreshed(List<Article> articles, boolean endReached) {
+        }
+    }
+
+    private final PageLoader loader;
+    private final String category;
+    private final int pageSize;
+    private final Set<String> seenIds = new HashSet<>();
+
+    private ArticleCursor cursor;
+    private boolean loading;
+    private boolean endReached;
+    private int generation;
+    private int pagesLoaded;
+
+    /**
+     * @param loader Source of pages
+     * @param category Category or subcategory to page through, or null for all articles
+     * @param pageSize Number of articles to request per page
+     */
+    public ArticlePagingSource(@NonNull PageLoader loader, @Nullable String category, int pageSize) {
+        this.loader = loader;
+        this.category = category;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * Requests the next page unless one is already loading or the feed is exhausted.
+     *
+     * @return true if a request was started
+     */
+    public boolean loadNextPage(@NonNull PageCallback callback) {
+        if (loading || endReached) {
+            return false;
+        }
+        loading = true;
+        requestPage(generation, callback);
+        return true;
+    }
+
+    private void requestPage(int requestGeneration, PageCallback callback) {
+        ArticleCursor requestCursor = cursor;
+        loader.loadPage(category, requestCursor, pageSize, new ArticleRepository.ArticleCallback() {
+            @Override
+            public void onSuccess(List<Article> articles) {
+                if (requestGeneration != generation) {
+                    return; // refresh() was called while this page was loading
+                }
+                List<Article> fresh = accept(requestCursor, articles);
+                boolean fullPage = articles != null && articles.size() >= pageSize;
+                if (fresh.isEmpty() && fullPage && cursor != requestCursor) {
+                    // Everything on this page was already shown; keep going past it
+                    requestPage(requestGeneration, callback);
+                    return;
+                }
+                loading = false;
+                endReached = !fullPage;
+                pagesLoaded++;
+                callback.onPageLoaded(fresh, endReached);
+            }
+
+            @Override
+            public void onRefreshed(List<Article> articles) {
+                if (requestGeneration != generation || requestCursor != null || pagesLoaded != 1 || loading) {
+                    // Later pages were built on the old first page; leave them be
+                    return;
+                }
+                seenIds.clear();
+                cursor = null;
+                List<Article> fresh = accept(null, articles);
+                endReached = articles == null || articles.size() < pageSize;
+                callback.onFirstPageRefreshed(fresh, endReached);
+            }
+
+            @Override
+            public void onError(String message) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                callback.onError(message);
+            }
+
+            @Override
+            public void onFirstArticles(List<Article> articles) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                List<Article> preview = new ArrayList<>();
+                for (Article article : articles) {
+                    if (article != null && article.getId() != null && !seenIds.contains(article.getId())
+                            && (requestCursor == null || requestCursor.precedes(article))) {
+                        preview.add(article);
+                    }
+                }
+                if (!preview.isEmpty()) {
+                    callback.onFirstArticles(preview);
+                }
+            }
+        });
+    }
+
+    /**
+     * Keeps articles that are new and lie after the requested cursor, and advances the cursor
+     * past the furthest article on the page, including ones that were already shown.
+     */
+    private List<Article> accept(ArticleCursor requestCursor, List<Article> page) {
+        List<Article> fresh = new ArrayList<>();
+        if (page == null) {
+            return fresh;
+        }
+        Article furthest = null;
+        for (Article article : page) {
+            if (article == null || article.getId() == null) continue;
+            if (requestCursor != null && !requestCursor.precedes(article)) continue;
+            if (furthest == null || ArticleCursor.NEWEST_FIRST.compare(article, furthest) > 0) {
+                furthest = article;
+            }
+            if (seenIds.add(article.getId())) {
+                fresh.add(article);
+            }
+        }
+        fresh.sort(ArticleCursor.NEWEST_FIRST);
+        if (furthest != null) {
+            cursor = ArticleCursor.after(furthest);
+        }
+        return fresh;
+    }
+
+    /**
+     * Forgets every loaded page so the next call starts again from the head of the feed.
+     * A page still in flight is discarded when it arrives.
+     */
+    public void refresh() {
+        generation++;
+        seenIds.clear();
+        cursor = null;
+        loading = false;
+        endReached = false;
+        pagesLoaded = 0;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public boolean hasMore() {
+        return !endReached;
+    }
+
+    /**
+     * @return Number of distinct articles delivered since the last refresh
+     */
+    public int getLoadedCount() {
+        return seenIds.size();
+    }
+}
@@ -1,17 +1,41 @@
 package com.rafdi.vitechasia.blog.repository;
 
 import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
 
-import androidx.lifecycle.MutableLiveData;
-
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
 import com.rafdi.vitechasia.blog.R;
 import com.rafdi.vitechasia.blog.api.ApiClient;
 import com.rafdi.vitechasia.blog.api.ArticleApiService;
+import com.rafdi.vitechasia.blog.api.JsonArrayStream;
+import com.rafdi.vitechasia.blog.api.NetworkMetrics;
+import com.rafdi.vitechasia.blog.database.AppDatabase;
+import com.rafdi.vitechasia.blog.database.ArticleDao;
+import com.rafdi.vitechasia.blog.database.ArticleEntity;
+import com.rafdi.vitechasia.blog.database.ArticleSummaryEntity;
 import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.models.ArticleChanges;
+import com.rafdi.vitechasia.blog.models.ArticleSummary;
+import com.rafdi.vitechasia.blog.utils.AppExecutors;
 import com.rafdi.vitechasia.blog.utils.NetworkUtils;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -21,26 +45,66 @@ import retrofit2.Response;
  * Serves as a single source of truth for all article-related data in the application.
  * 
  * <p>This class follows the repository pattern to abstract the data sources from the rest of the app.
- * It handles the communication between the API service and the ViewModel, and can be extended
- * to include local data caching in the future.
+ * It handles the communication between the API service, the local Room cache and the ViewModel.
+ * Reads are offline-first: cached rows are returned immediately and refreshed from the network
+ * in the background. A {@link CircuitBreaker} treats a failing or very slow API like being
+ * offline, so reads fall back to the cache at once instead of waiting out timeouts.
  * 
  * <p>Use {@link #getInstance(Context)} to get the singleton instance of this class.
  */
 
-public class ArticleRepository {
+public class ArticleRepository implements ArticleDataSource {
+    private static final String TAG = "ArticleRepository";
+    // SQLite caps bound parameters per statement, so cached id lookups go in chunks
+    private static final int CACHE_LOOKUP_CHUNK = 500;
+    private static final String SYNC_PREFS_NAME = "article_sync";
+    private static final String KEY_LAST_SYNCED_AT = "last_synced_at";
+    // A long-idle client gets at most this many change pages per refresh; the rest follow next time
+    private static final int MAX_SYNC_PAGES = 10;
+    /** Cached rows not refreshed from the network for this long are pruned. */
+    private static final long MAX_CACHE_AGE_MILLIS = 30L * 24 * 60 * 60 * 1000;
+    /** Most rows the cache keeps; the least recently refreshed are pruned first. */
+    private static final int MAX_CACHED_ARTICLES = 2_000;
+    // Enough rows to fill the first screen of a list
+    private static final int FIRST_ROWS = 5;
+    // Three failed or slow calls in a row stop API calls for 30 s, then one probe is let through
+    private static final int BREAKER_FAILURE_THRESHOLD = 3;
+    private static final long BREAKER_SLOW_CALL_MILLIS = 8_000;
+    private static final long BREAKER_OPEN_MILLIS = 30_000;
+    // Until enough article opens have been timed, hedge after this long
+    private static final long DEFAULT_HEDGE_DELAY_MILLIS = 800;
+    private static final long MIN_HEDGE_DELAY_MILLIS = 100;
+    private static final long MAX_HEDGE_DELAY_MILLIS = 2_000;
+    private static final int MIN_HEDGE_SAMPLES = 20;
     private static volatile ArticleRepository instance;
     private final ArticleApiService apiService;
+    private final ArticleDao articleDao;
+    private final AppExecutors executors;
     private final Context context;
+    private final InFlightRequests<List<Article>> articleListRequests = new InFlightRequests<>();
+    private final InFlightRequests<Article> articleRequests = new InFlightRequests<>();
+    private final InFlightRequests<ArticleChangeSet> syncRequests = new InFlightRequests<>();
+    private final TypeAdapter<ArticleSummary> summaryAdapter = ApiClient.getGson().getAdapter(ArticleSummary.class);
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker("article-api",
+            BREAKER_FAILURE_THRESHOLD, BREAKER_SLOW_CALL_MILLIS, BREAKER_OPEN_MILLIS);
+    private volatile RetryPolicy retryPolicy = new RetryPolicy(3, 250, 2_000);
+    private volatile boolean hedgingEnabled = true;
     
     /**
      * Private constructor to prevent direct instantiation.
-     * Initializes the API service using {@link ApiClient}.
+     * Initializes the API service using {@link ApiClient} and the local article cache.
      *
      * @param context The application context for checking network connectivity
      */
     private ArticleRepository(Context context) {
         this.context = context.getApplicationContext();
+        ApiClient.initialize(this.context);
         this.apiService = ApiClient.getArticleApiService();
+        this.articleDao = AppDatabase.getInstance(this.context).articleDao();
+        this.executors = AppExecutors.getInstance();
+        circuitBreaker.addStateListener((breaker, from, to) ->
+                Log.w(TAG, "Circuit " + breaker.getName() + " " + from + " -> " + to + " (" + breaker + ")"));
+        executors.diskIO().execute(this::pruneCache);
     }
     
     /**
@@ -61,65 +125,693 @@ public class ArticleRepository {
     }
 
     /**
-     * Fetches a list of articles from the API with pagination and optional category filtering.
-     * Checks for network connectivity before making the API call.
-     * 
+     * Fetches a list of articles with pagination and optional category filtering, choosing
+     * between the local cache and the API according to {@code policy}. Fetched rows are
+     * always written to the cache. The callback is always invoked on the main thread.
+     *
      * @param category The category to filter by, or null for all categories
      * @param page The page number for pagination (starting from 1)
      * @param limit The maximum number of articles to return per page
+     * @param policy Where to read from; see {@link CachePolicy}
      * @param callback The callback to handle the response or error
      */
-    public void getArticles(String category, int page, int limit, final ArticleCallback callback) {
-        if (!NetworkUtils.isNetworkAvailable(context)) {
-            if (callback != null) {
-                callback.onError(context.getString(R.string.error_no_internet_connection));
+    @Override
+    public void getArticles(String category, int page, int limit, CachePolicy policy,
+                            final ArticleCallback callback) {
+        int offset = Math.max(0, page - 1) * limit;
+        executors.diskIO().execute(() -> load(policy,
+                () -> articleDao.getArticles(category, limit, offset), false,
+                done -> fetchArticles(category, null, page, limit, done), callback));
+    }
+
+    /**
+     * Fetches one page of articles sorted by the API, choosing between the local cache and the
+     * API according to {@code policy}. Cached rows are read in the same order, so a cached
+     * answer only ranks the articles that happen to be cached. Fetched rows are always written
+     * to the cache. The callback is always invoked on the main thread.
+     *
+     * @param category The category to filter by, or null for all categories
+     * @param sort The order to page through
+     * @param page The page number for pagination (starting from 1)
+     * @param limit The maximum number of articles to return per page
+     * @param policy Where to read from; see {@link CachePolicy}
+     * @param callback The callback to handle the response or error
+     */
+    @Override
+    public void getSortedArticles(String category, ArticleSort sort, int page, int limit, CachePolicy policy,
+                                  final ArticleCallback callback) {
+        int offset = Math.max(0, page - 1) * limit;
+        executors.diskIO().execute(() -> load(policy,
+                () -> sort == ArticleSort.MOST_VIEWED
+                        ? articleDao.getMostViewedArticles(category, limit, offset)
+                        : articleDao.getArticles(category, limit, offset),
+                page > 1, done -> fetchArticles(category, sort, page, limit, done), callback));
+    }
+
+    /**
+     * Fetches the page of articles after {@code after} in newest-first order, choosing
+     * between the local cache and the API according to {@code policy}. Past the first page
+     * an empty cached result means the cached feed ends there, not an error.
+     * The callback is always invoked on the main thread.
+     *
+     * @param category The category to filter by, or null for all categories
+     * @param after Cursor of the last article already loaded, or null for the first page
+     * @param limit The maximum number of articles to return
+     * @param policy Where to read from; see {@link CachePolicy}
+     * @param callback The callback to handle the response or error
+     */
+    @Override
+    public void getArticlesPage(String category, ArticleCursor after, int limit, CachePolicy policy,
+                                final ArticleCallback callback) {
+        Long beforeDate = after != null ? after.publishDate : null;
+        String beforeId = after != null ? after.id : null;
+        executors.diskIO().execute(() -> load(policy,
+                () -> articleDao.getArticlesBefore(category, beforeDate, beforeId, limit), after != null,
+                done -> fetchArticlesPage(category, after, limit, done), callback));
+    }
+
+    /**
+     * Answers a list request from the cache, the API or both, as {@code policy} says.
+     * Must be called on the disk executor.
+     *
+     * @param cachedRows Reads the matching cached rows
+     * @param emptyCacheIsResult Whether an empty cache answers the request, rather than
+     *                           meaning there is nothing to show
+     * @param fetch Starts the API request, caching its result and reporting to the given callback
+     */
+    private void load(CachePolicy policy, Supplier<List<ArticleSummaryEntity>> cachedRows, boolean emptyCacheIsResult,
+                      Consumer<ArticleCallback> fetch, ArticleCallback callback) {
+        if (policy.getMode() == CachePolicy.Mode.CACHE_ONLY) {
+            postSuccess(callback, ArticleSummaryEntity.toArticles(cachedRows.get()));
+            return;
+        }
+
+        if (policy.servesCacheFirst()) {
+            List<ArticleSummaryEntity> rows = cachedRows.get();
+            if (!rows.isEmpty()) {
+                List<Article> cached = ArticleSummaryEntity.toArticles(rows);
+                postSuccess(callback, cached);
+                if (policy.needsRevalidation(oldestCachedAt(rows), System.currentTimeMillis())
+                        && apiUnavailableReason() == null) {
+                    fetch.accept(revalidation(cached, policy, callback));
+                }
+                return;
+            }
+        }
+
+        String unavailable = apiUnavailableReason();
+        if (policy.getMode() != CachePolicy.Mode.NETWORK_FIRST) {
+            if (unavailable != null) {
+                postError(callback, unavailable);
+            } else {
+                fetch.accept(callback);
             }
             return;
         }
-        apiService.getArticles(category, page, limit).enqueue(new Callback<List<Article>>() {
+        if (unavailable != null) {
+            serveCached(cachedRows, emptyCacheIsResult, unavailable, callback);
+            return;
+        }
+        fetch.accept(new ArticleCallback() {
             @Override
-            public void onResponse(Call<List<Article>> call, Response<List<Article>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    callback.onSuccess(response.body());
-                } else {
-                    callback.onError(response.message());
+            public void onSuccess(List<Article> articles) {
+                if (callback != null) {
+                    callback.onSuccess(articles);
                 }
             }
-            
+
             @Override
-            public void onFailure(Call<List<Article>> call, Throwable t) {
-                callback.onError(t.getMessage());
+            public void onError(String message) {
+                executors.diskIO().execute(() -> serveCached(cachedRows, emptyCacheIsResult, message, callback));
+            }
+
+            @Override
+            public void onFirstArticles(List<Article> articles) {
+                if (callback != null) {
+                    callback.onFirstArticles(articles);
+                }
             }
         });
     }
-    
+
     /**
-     * Fetches a single article by its ID from the API.
-     * Checks for network connectivity before making the API call.
+     * Delivers the cached rows, or {@code errorMessage} if there are none and an empty cache
+     * is not an answer. Must be called on the disk executor.
+     */
+    private void serveCached(Supplier<List<ArticleSummaryEntity>> cachedRows, boolean emptyCacheIsResult,
+                             String errorMessage, ArticleCallback callback) {
+        List<Article> cached = ArticleSummaryEntity.toArticles(cachedRows.get());
+        if (cached.isEmpty() && !emptyCacheIsResult) {
+            postError(callback, errorMessage);
+            return;
+        }
+        postSuccess(callback, cached);
+    }
+
+    /**
+     * Callback for the background request behind rows already served from the cache: passes
+     * the fresh rows on as a single {@link ArticleCallback#onRefreshed} follow-up, unless they
+     * match what was served and the policy only wants changes. Failures are dropped, since the
+     * caller already has data.
+     */
+    private static ArticleCallback revalidation(List<Article> cached, CachePolicy policy, ArticleCallback callback) {
+        return new ArticleCallback() {
+            @Override
+            public void onSuccess(List<Article> articles) {
+                if (callback != null && (policy.alwaysDeliversRefresh() || !sameArticles(cached, articles))) {
+                    callback.onRefreshed(articles);
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                Log.w(TAG, "Revalidation failed, keeping cached rows: " + message);
+            }
+        };
+    }
+
+    private static long oldestCachedAt(List<ArticleSummaryEntity> rows) {
+        long oldest = Long.MAX_VALUE;
+        for (ArticleSummaryEntity row : rows) {
+            oldest = Math.min(oldest, row.cachedAt);
+        }
+        return oldest;
+    }
+
+    /**
+     * Whether two lists show the same articles in the same order with the same list-level fields.
+     */
+    private static boolean sameArticles(List<Article> a, List<Article> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            Article x = a.get(i);
+            Article y = b.get(i);
+            if (!Objects.equals(x.getId(), y.getId())
+                    || !Objects.equals(x.getTitle(), y.getTitle())
+                    || !Objects.equals(x.getImageUrl(), y.getImageUrl())
+                    || !Objects.equals(x.getPublishDate(), y.getPublishDate())
+                    || x.getViewCount() != y.getViewCount()
+                    || x.getLikeCount() != y.getLikeCount()
+                    || x.getShareCount() != y.getShareCount()
+                    || x.getCommentCount() != y.getCommentCount()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resolves article ids to summaries with as few round trips as possible.
+     * Ids found in the local cache are served from it; only the missing ids are requested,
+     * in batches of {@link ArticleApiService#MAX_IDS_PER_BATCH}, all sent at once.
+     * When some batches fail the articles that did resolve are still delivered.
+     * The callback is always invoked on the main thread.
+     *
+     * @param ids The ids to look up; duplicates and nulls are ignored
+     * @param callback Receives the resolved articles in the order of {@code ids}
+     */
+    @Override
+    public void getArticlesByIds(List<String> ids, final ArticleCallback callback) {
+        executors.diskIO().execute(() -> {
+            List<String> order = new ArrayList<>(new LinkedHashSet<>(ids != null ? ids : Collections.emptyList()));
+            order.remove(null);
+
+            Map<String, Article> resolved = new HashMap<>();
+            for (List<String> chunk : chunk(order, CACHE_LOOKUP_CHUNK)) {
+                for (ArticleSummaryEntity entity : articleDao.getSummariesByIds(chunk)) {
+                    resolved.put(entity.id, entity.toArticle());
+                }
+            }
+            List<String> missing = new ArrayList<>();
+            for (String id : order) {
+                if (!resolved.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+
+            if (missing.isEmpty() || apiUnavailableReason() != null) {
+                postSuccess(callback, inIdOrder(order, resolved));
+                return;
+            }
+            fetchArticlesByIds(order, missing, resolved, callback);
+        });
+    }
+
+    /**
+     * Requests the missing ids in parallel batches and delivers everything once the last
+     * batch has answered.
+     */
+    private void fetchArticlesByIds(List<String> order, List<String> missing, Map<String, Article> resolved,
+                                    final ArticleCallback callback) {
+        List<List<String>> batches = chunk(missing, ArticleApiService.MAX_IDS_PER_BATCH);
+        AtomicInteger remaining = new AtomicInteger(batches.size());
+        Map<String, Article> merged = Collections.synchronizedMap(new HashMap<>(resolved));
+        AtomicReference<String> lastError = new AtomicReference<>();
+
+        for (List<String> batch : batches) {
+            String joinedIds = String.join(",", batch);
+            articleListRequests.execute("articles/batch?ids=" + joinedIds, done ->
+                    enqueue(apiService.getArticlesByIds(joinedIds, ArticleApiService.FIELDS_SUMMARY), 0,
+                            new SummaryListCallback(done, "Failed to fetch " + batch.size() + " articles by id")),
+                    new ArticleCallback() {
+                        @Override
+                        public void onSuccess(List<Article> articles) {
+                            for (Article article : articles) {
+                                merged.put(article.getId(), article);
+                            }
+                            onBatchDone();
+                        }
+
+                        @Override
+                        public void onError(String message) {
+                            lastError.set(message);
+                            onBatchDone();
+                        }
+
+                        private void onBatchDone() {
+                            if (remaining.decrementAndGet() > 0 || callback == null) return;
+                            List<Article> result;
+                            synchronized (merged) {
+                                result = inIdOrder(order, merged);
+                            }
+                            if (result.isEmpty() && lastError.get() != null) {
+                                callback.onError(lastError.get());
+                            } else {
+                                callback.onSuccess(result);
+                            }
+                        }
+                    });
+        }
+    }
+
+    private static List<List<String>> chunk(List<String> ids, int size) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += size) {
+            chunks.add(ids.subList(from, Math.min(from + size, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static List<Article> inIdOrder(List<String> order, Map<String, Article> articles) {
+        List<Article> result = new ArrayList<>(articles.size());
+        for (String id : order) {
+            Article article = articles.get(id);
+            if (article != null) {
+                result.add(article);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Fetches a single article, including its content, by its ID.
+     * Serves the cached copy from the local database first when its body has been cached and
+     * refreshes it from the API in the background. Rows cached from a list response have no
+     * body yet, so they are fetched from the network and only served as-is when offline.
+     * Network fetches are retried with backoff and, when someone is waiting, hedged: a second
+     * request starts if the first has not answered within the recent p95 latency.
+     * The callback is always invoked on the main thread.
      * 
      * @param id The ID of the article to fetch
      * @param callback The callback to handle the response or error
      */
+    @Override
     public void getArticleById(String id, final SingleArticleCallback callback) {
-        if (!NetworkUtils.isNetworkAvailable(context)) {
-            if (callback != null) {
-                callback.onError(context.getString(R.string.error_no_internet_connection));
+        executors.diskIO().execute(() -> {
+            ArticleEntity cached = articleDao.getById(id);
+            String unavailable = apiUnavailableReason();
+            boolean online = unavailable == null;
+
+            if (cached != null && (cached.content != null || !online)) {
+                Article article = cached.toArticle();
+                executors.mainThread().execute(() -> {
+                    if (callback != null) {
+                        callback.onSuccess(article);
+                    }
+                });
+                if (online) {
+                    fetchArticleById(id, null);
+                }
+                return;
             }
-            return;
-        }
-        apiService.getArticleById(id).enqueue(new Callback<Article>() {
+
+            if (!online) {
+                executors.mainThread().execute(() -> {
+                    if (callback != null) {
+                        callback.onError(unavailable);
+                    }
+                });
+                return;
+            }
+            fetchArticleById(id, callback);
+        });
+    }
+
+    /**
+     * Pulls the articles created, edited or deleted since the last sync and applies them to
+     * the local cache, so a refresh transfers only what changed instead of whole lists.
+     * Upserts only touch summary columns; cached bodies are revalidated when an article is
+     * opened. The first sync on a device just records the server's token to start from.
+     * Concurrent calls share one sync. The callback is always invoked on the main thread.
+     *
+     * @param callback Receives the changes that were applied, possibly none
+     */
+    @Override
+    public void syncChanges(final SyncCallback callback) {
+        executors.diskIO().execute(() -> {
+            String unavailable = apiUnavailableReason();
+            if (unavailable != null) {
+                executors.mainThread().execute(() -> {
+                    if (callback != null) {
+                        callback.onError(unavailable);
+                    }
+                });
+                return;
+            }
+            syncRequests.execute("articles/changes", done -> {
+                long lastSyncedAt = getSyncPreferences().getLong(KEY_LAST_SYNCED_AT, 0L);
+                fetchChanges(lastSyncedAt > 0 ? lastSyncedAt : null, ArticleChangeSet.empty(), 1, done);
+            }, callback);
+        });
+    }
+
+    /**
+     * Requests one page of changes after {@code since}, folds it into {@code changes} and
+     * either follows the next page or commits the result.
+     */
+    private void fetchChanges(Long since, ArticleChangeSet changes, int page,
+                              final InFlightRequests.Callback<ArticleChangeSet> done) {
+        enqueue(apiService.getArticleChanges(since, ArticleApiService.FIELDS_SUMMARY), 0, new Callback<ArticleChanges>() {
             @Override
-            public void onResponse(Call<Article> call, Response<Article> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    callback.onSuccess(response.body());
+            public void onResponse(Call<ArticleChanges> call, Response<ArticleChanges> response) {
+                ArticleChanges body = response.body();
+                if (!response.isSuccessful() || body == null) {
+                    // Changes from earlier pages are dropped too; the token stays put, so they are refetched
+                    done.onError(response.message());
+                    return;
+                }
+                ArticleChangeSet merged = changes.then(ArticleSummary.toArticles(body.upserted), body.deleted);
+                if (body.hasMore && page < MAX_SYNC_PAGES) {
+                    fetchChanges(body.syncedAt, merged, page + 1, done);
                 } else {
-                    callback.onError(response.message());
+                    executors.diskIO().execute(() -> commitChanges(merged, body.syncedAt, done));
                 }
             }
-            
+
             @Override
-            public void onFailure(Call<Article> call, Throwable t) {
-                callback.onError(t.getMessage());
+            public void onFailure(Call<ArticleChanges> call, Throwable t) {
+                Log.w(TAG, "Failed to sync article changes since " + since, t);
+                done.onError(t.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Writes the changes to the local cache, then advances the sync token so an interrupted
+     * write is simply replayed by the next sync, and prunes the cache now that it has grown.
+     * Must be called on the disk executor.
+     */
+    private void commitChanges(ArticleChangeSet changes, long syncedAt,
+                               InFlightRequests.Callback<ArticleChangeSet> done) {
+        List<ArticleSummaryEntity> upserts =
+                ArticleSummaryEntity.fromArticles(changes.getUpserted(), System.currentTimeMillis());
+        if (!upserts.isEmpty()) {
+            articleDao.upsertSummaries(upserts);
+        }
+        for (List<String> chunk : chunk(new ArrayList<>(changes.getDeletedIds()), CACHE_LOOKUP_CHUNK)) {
+            articleDao.deleteByIds(chunk);
+        }
+        getSyncPreferences().edit().putLong(KEY_LAST_SYNCED_AT, syncedAt).apply();
+        pruneCache();
+        executors.mainThread().execute(() -> done.onSuccess(changes));
+    }
+
+    /**
+     * Drops cached rows not refreshed within {@link #MAX_CACHE_AGE_MILLIS} and, past
+     * {@link #MAX_CACHED_ARTICLES}, the least recently refreshed ones. Pruned articles are
+     * fetched again like any other cache miss. Must be called on the disk executor.
+     */
+    private void pruneCache() {
+        articleDao.prune(System.currentTimeMillis() - MAX_CACHE_AGE_MILLIS, MAX_CACHED_ARTICLES);
+    }
+
+    private SharedPreferences getSyncPreferences() {
+        return context.getSharedPreferences(SYNC_PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Loads a page of articles from the API and writes the result to the local cache.
+     * Identical requests issued while one is still in flight share its result.
+     *
+     * @param sort Order the server sorts by, or null for its default
+     * @param callback The callback to notify, or null for a silent background refresh
+     */
+    private void fetchArticles(String category, ArticleSort sort, int page, int limit, final ArticleCallback callback) {
+        String key = "articles?category=" + category + "&sort=" + sort + "&page=" + page + "&limit=" + limit;
+        String sortParam = sort != null ? sort.apiValue : null;
+        String orderParam = sort != null ? ArticleApiService.ORDER_DESC : null;
+        articleListRequests.execute(key, done ->
+                enqueue(apiService.getArticles(category, sortParam, orderParam, page, limit,
+                                ArticleApiService.FIELDS_SUMMARY), 0,
+                        new SummaryListCallback(done, "Failed to fetch articles for category " + category)),
+                callback);
+    }
+
+    /**
+     * Loads a keyset page from the API and writes it to the local cache.
+     * The page is decoded while it downloads and its first rows are handed to
+     * {@link ArticleCallback#onFirstArticles} of every caller waiting on the request at that
+     * point, before the rest has arrived. A caller joining after that only gets the whole page.
+     */
+    private void fetchArticlesPage(String category, ArticleCursor after, int limit, final ArticleCallback callback) {
+        Long beforeDate = after != null ? after.publishDate : null;
+        String beforeId = after != null ? after.id : null;
+        String key = "articles?category=" + category + "&before=" + after + "&limit=" + limit;
+        articleListRequests.execute(key, done -> executors.networkIO().execute(() ->
+                        streamSummaries(apiService.getArticlesBefore(category, beforeDate, beforeId, limit,
+                                ArticleApiService.FIELDS_SUMMARY), first -> {
+                            for (InFlightRequests.Callback<List<Article>> waiter : articleListRequests.getWaiters(key)) {
+                                if (waiter instanceof ArticleCallback) {
+                                    ((ArticleCallback) waiter).onFirstArticles(first);
+                                }
+                            }
+                        }, done, "Failed to fetch article page after " + after)),
+                callback);
+    }
+
+    /**
+     * Executes a streaming summary list call on the current thread, decoding the JSON array as
+     * it downloads. Once {@link #FIRST_ROWS} rows are decoded they are posted to
+     * {@code firstRows} on the main thread, ahead of {@code done}, so the list can render them
+     * while the rest of the page is read. Must be called on the network executor.
+     */
+    private void streamSummaries(Call<ResponseBody> call, Consumer<List<Article>> firstRows,
+                                 InFlightRequests.Callback<List<Article>> done, String failureMessage) {
+        List<Article> articles = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        try {
+            Response<ResponseBody> response = call.execute();
+            recordAttempt(elapsedMillis(startedAt), response);
+            if (!response.isSuccessful() || response.body() == null) {
+                String message = response.message();
+                executors.mainThread().execute(() -> done.onError(message));
+                return;
+            }
+            try (ResponseBody body = response.body();
+                 JsonReader reader = ApiClient.getGson().newJsonReader(body.charStream())) {
+                JsonArrayStream.read(reader, summaryAdapter, summary -> {
+                    articles.add(summary.toArticle());
+                    if (articles.size() == FIRST_ROWS) {
+                        List<Article> first = new ArrayList<>(articles);
+                        executors.mainThread().execute(() -> firstRows.accept(first));
+                    }
+                });
+            }
+        } catch (IOException | RuntimeException e) {
+            // Gson reports malformed JSON as unchecked exceptions
+            recordAttempt(elapsedMillis(startedAt), null);
+            Log.w(TAG, failureMessage, e);
+            executors.mainThread().execute(() -> done.onError(e.getMessage()));
+            return;
+        }
+        cacheSummaries(articles);
+        executors.mainThread().execute(() -> done.onSuccess(articles));
+    }
+
+    /**
+     * Loads a single article from the API and writes it to the local cache.
+     * Identical requests issued while one is still in flight share its result.
+     *
+     * @param callback The callback to notify, or null for a silent background refresh
+     */
+    private void fetchArticleById(String id, final SingleArticleCallback callback) {
+        // Hedging only pays off when someone is waiting for the article
+        long hedgeAfterMillis = hedgingEnabled && callback != null ? hedgeDelayMillis() : 0;
+        articleRequests.execute("articles/" + id, done ->
+                enqueue(apiService.getArticleById(id), hedgeAfterMillis, new Callback<Article>() {
+                    @Override
+                    public void onResponse(Call<Article> call, Response<Article> response) {
+                        if (response.isSuccessful() && response.body() != null) {
+                            Article article = response.body();
+                            cacheArticles(Collections.singletonList(article));
+                            done.onSuccess(article);
+                        } else {
+                            done.onError(response.message());
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<Article> call, Throwable t) {
+                        Log.w(TAG, "Failed to fetch article " + id, t);
+                        done.onError(t.getMessage());
+                    }
+                }), callback);
+    }
+
+    /**
+     * Returns null when the API may be called now, otherwise the error to show: either there
+     * is no connection or the circuit breaker is open. A null result while the breaker is
+     * half-open makes the caller the probe, so it must go on to make its request.
+     */
+    private String apiUnavailableReason() {
+        if (!NetworkUtils.isNetworkAvailable(context)) {
+            return context.getString(R.string.error_no_internet_connection);
+        }
+        if (!circuitBreaker.allowRequest()) {
+            return context.getString(R.string.error_service_unavailable);
+        }
+        return null;
+    }
+
+    /**
+     * Runs an API call with the current {@link RetryPolicy}, reporting every attempt to the
+     * circuit breaker. Retries stop as soon as the breaker opens.
+     *
+     * @param hedgeAfterMillis Start a second copy of a slow attempt after this long, or 0
+     */
+    private <T> void enqueue(Call<T> call, long hedgeAfterMillis, Callback<T> callback) {
+        new ResilientCall<>(call, retryPolicy, hedgeAfterMillis, executors.scheduler(),
+                circuitBreaker::allowRequest,
+                () -> circuitBreaker.getState() == CircuitBreaker.State.CLOSED,
+                this::recordAttempt, callback).start();
+    }
+
+    /**
+     * The p95 latency of article detail calls, so roughly one open in twenty is hedged.
+     * Falls back to a fixed delay until enough calls have been measured.
+     */
+    private long hedgeDelayMillis() {
+        NetworkMetrics.EndpointStats stats = ApiClient.getNetworkMetrics().snapshot().get("getArticleById");
+        if (stats == null || stats.calls < MIN_HEDGE_SAMPLES) {
+            return DEFAULT_HEDGE_DELAY_MILLIS;
+        }
+        long p95 = stats.latencyPercentileMillis(95);
+        return Math.max(MIN_HEDGE_DELAY_MILLIS, Math.min(MAX_HEDGE_DELAY_MILLIS, p95));
+    }
+
+    /**
+     * Reports one API request to the circuit breaker; server errors count as failures.
+     *
+     * @param response The response, or null if the request failed without one
+     */
+    private void recordAttempt(long latencyMillis, Response<?> response) {
+        if (response == null || response.code() >= 500) {
+            circuitBreaker.onFailure(latencyMillis);
+        } else {
+            circuitBreaker.onSuccess(latencyMillis);
+        }
+    }
+
+    private static long elapsedMillis(long startedAtNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos);
+    }
+
+    /**
+     * Replaces the retry policy used for API calls started from now on.
+     * {@link RetryPolicy#NONE} disables retries.
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy != null ? retryPolicy : RetryPolicy.NONE;
+    }
+
+    /**
+     * Enables or disables hedged requests when opening an article.
+     */
+    public void setHedgingEnabled(boolean hedgingEnabled) {
+        this.hedgingEnabled = hedgingEnabled;
+    }
+
+    /**
+     * State and counters of the breaker guarding API calls.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Number of network calls avoided because an identical request was already in flight.
+     */
+    public long getCoalescedRequestCount() {
+        return articleListRequests.getCoalescedCount() + articleRequests.getCoalescedCount();
+    }
+
+    /**
+     * Converts a summary list response to articles without content and caches the rows
+     * without touching any stored bodies.
+     */
+    private class SummaryListCallback implements Callback<List<ArticleSummary>> {
+        private final InFlightRequests.Callback<List<Article>> done;
+        private final String failureMessage;
+
+        SummaryListCallback(InFlightRequests.Callback<List<Article>> done, String failureMessage) {
+            this.done = done;
+            this.failureMessage = failureMessage;
+        }
+
+        @Override
+        public void onResponse(Call<List<ArticleSummary>> call, Response<List<ArticleSummary>> response) {
+            if (response.isSuccessful() && response.body() != null) {
+                List<Article> articles = ArticleSummary.toArticles(response.body());
+                cacheSummaries(articles);
+                done.onSuccess(articles);
+            } else {
+                done.onError(response.message());
+            }
+        }
+
+        @Override
+        public void onFailure(Call<List<ArticleSummary>> call, Throwable t) {
+            Log.w(TAG, failureMessage, t);
+            done.onError(t.getMessage());
+        }
+    }
+
+    private void cacheSummaries(List<Article> articles) {
+        List<ArticleSummaryEntity> entities = ArticleSummaryEntity.fromArticles(articles, System.currentTimeMillis());
+        if (entities.isEmpty()) return;
+        executors.diskIO().execute(() -> articleDao.upsertSummaries(entities));
+    }
+
+    private void cacheArticles(List<Article> articles) {
+        List<ArticleEntity> entities = ArticleEntity.fromArticles(articles, System.currentTimeMillis());
+        if (entities.isEmpty()) return;
+        executors.diskIO().execute(() -> articleDao.upsertAll(entities));
+    }
+
+    private void postSuccess(ArticleCallback callback, List<Article> articles) {
+        executors.mainThread().execute(() -> {
+            if (callback != null) {
+                callback.onSuccess(articles);
+            }
+        });
+    }
+
+    private void postError(ArticleCallback callback, String message) {
+        executors.mainThread().execute(() -> {
+            if (callback != null) {
+                callback.onError(message);
             }
         });
     }
@@ -127,16 +819,38 @@ public class ArticleRepository {
     /**
      * Callback interface for handling article list responses.
      */
-    public interface ArticleCallback {
+    public interface ArticleCallback extends InFlightRequests.Callback<List<Article>> {
         void onSuccess(List<Article> articles);
         void onError(String message);
+
+        /**
+         * Optionally receives the first rows of a page that is still downloading.
+         * {@link #onSuccess} later delivers the whole page, including these rows.
+         */
+        default void onFirstArticles(List<Article> articles) {
+        }
+
+        /**
+         * Optionally receives fresh rows from the API after {@link #onSuccess} delivered
+         * cached ones; called at most once per request. See {@link CachePolicy}.
+         */
+        default void onRefreshed(List<Article> articles) {
+        }
     }
     
     /**
      * Callback interface for handling single article responses.
      */
-    public interface SingleArticleCallback {
+    public interface SingleArticleCallback extends InFlightRequests.Callback<Article> {
         void onSuccess(Article article);
         void onError(String message);
     }
+
+    /**
+     * Callback interface for handling delta sync results.
+     */
+    public interface SyncCallback extends InFlightRequests.Callback<ArticleChangeSet> {
+        void onSuccess(ArticleChangeSet changes);
+        void onError(String message);
+    }
 }
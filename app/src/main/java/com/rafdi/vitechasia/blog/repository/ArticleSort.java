@@ -0,0 +1,21 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import com.rafdi.vitechasia.blog.api.ArticleApiService;
+
+/**
+ * Orderings the API can sort article lists by, always best first.
+ * Sorting on the server means a screen only downloads the page it shows.
+ */
+public enum ArticleSort {
+    /** Publish date, newest first. */
+    NEWEST(ArticleApiService.SORT_PUBLISHED),
+    /** View count, most viewed first. */
+    MOST_VIEWED(ArticleApiService.SORT_VIEWS);
+
+    /** Value of the API's {@code sort} parameter. */
+    public final String apiValue;
+
+    ArticleSort(String apiValue) {
+        this.apiValue = apiValue;
+    }
+}
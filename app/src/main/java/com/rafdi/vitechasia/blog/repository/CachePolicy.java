@@ -0,0 +1,92 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call choice between the local article cache and the API.
+ *
+ * <p>Policies that answer from the cache first deliver cached rows through
+ * {@link ArticleRepository.ArticleCallback#onSuccess} and, once fresh data lands, at most one
+ * follow-up through {@link ArticleRepository.ArticleCallback#onRefreshed}. When nothing is
+ * cached they wait for the network like {@link #NETWORK_ONLY}.
+ */
+public final class CachePolicy {
+
+    public enum Mode {
+        /** Only the cache; an empty cache is an empty result. */
+        CACHE_ONLY,
+        /** Only the API; failures are reported as errors. */
+        NETWORK_ONLY,
+        /** The API, falling back to the cache when offline or when the request fails. */
+        NETWORK_FIRST,
+        /** The cache at once, then always the API, whose answer is delivered as a follow-up. */
+        CACHE_THEN_NETWORK,
+        /**
+         * The cache at once; the API is only asked when the cached rows are older than the max
+         * age, and its answer is delivered as a follow-up only if it differs.
+         */
+        STALE_WHILE_REVALIDATE
+    }
+
+    public static final CachePolicy CACHE_ONLY = new CachePolicy(Mode.CACHE_ONLY, 0);
+    public static final CachePolicy NETWORK_ONLY = new CachePolicy(Mode.NETWORK_ONLY, 0);
+    public static final CachePolicy NETWORK_FIRST = new CachePolicy(Mode.NETWORK_FIRST, 0);
+    public static final CachePolicy CACHE_THEN_NETWORK = new CachePolicy(Mode.CACHE_THEN_NETWORK, 0);
+
+    private final Mode mode;
+    private final long maxAgeMillis;
+
+    private CachePolicy(Mode mode, long maxAgeMillis) {
+        this.mode = mode;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Serves cached rows at once and revalidates them in the background once they are older
+     * than {@code maxAge}.
+     */
+    public static CachePolicy staleWhileRevalidate(long maxAge, TimeUnit unit) {
+        return new CachePolicy(Mode.STALE_WHILE_REVALIDATE, Math.max(0, unit.toMillis(maxAge)));
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Age after which cached rows are revalidated; only used by {@link Mode#STALE_WHILE_REVALIDATE}.
+     */
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    /**
+     * Whether cached rows are delivered before the network has answered.
+     */
+    boolean servesCacheFirst() {
+        return mode == Mode.CACHE_THEN_NETWORK || mode == Mode.STALE_WHILE_REVALIDATE;
+    }
+
+    /**
+     * Whether cached rows written at {@code oldestCachedAt} must be refreshed from the API,
+     * for a policy that {@link #servesCacheFirst() serves the cache first}.
+     */
+    boolean needsRevalidation(long oldestCachedAt, long now) {
+        return mode != Mode.STALE_WHILE_REVALIDATE || now - oldestCachedAt > maxAgeMillis;
+    }
+
+    /**
+     * Whether a follow-up must be delivered even when the fresh rows equal the cached ones.
+     */
+    boolean alwaysDeliversRefresh() {
+        return mode == Mode.CACHE_THEN_NETWORK;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return mode == Mode.STALE_WHILE_REVALIDATE ? mode + "(" + maxAgeMillis + " ms)" : mode.name();
+    }
+}
@@ -0,0 +1,182 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker that stops calling a backend which keeps failing, so callers fall back to
+ * cached data at once instead of waiting out a timeout per request.
+ *
+ * <p>While {@link State#CLOSED} every request is allowed. A run of consecutive failures trips
+ * it {@link State#OPEN}; calls slower than the slow-call threshold count as failures, since a
+ * backend that answers in 20 seconds is as unusable as one that does not answer. While open,
+ * {@link #allowRequest()} refuses everything until the open interval has passed. The breaker
+ * then goes {@link State#HALF_OPEN} and lets a single probe through: a fast success closes it,
+ * anything else opens it for another interval. All methods are thread-safe.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Notified after every state transition, on the thread that reported the outcome.
+     */
+    public interface StateListener {
+        void onStateChanged(CircuitBreaker breaker, State from, State to);
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long slowCallMillis;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private final CopyOnWriteArrayList<StateListener> listeners = new CopyOnWriteArrayList<>();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long probeStartedAt = -1;
+    private long tripCount;
+    private long rejectedCount;
+
+    /**
+     * @param name Shown in logs and {@link #toString()}
+     * @param failureThreshold Consecutive failed or slow calls that open the circuit
+     * @param slowCallMillis Calls taking longer than this count as failures
+     * @param openMillis How long the circuit stays open before a probe is allowed
+     */
+    public CircuitBreaker(String name, int failureThreshold, long slowCallMillis, long openMillis) {
+        this(name, failureThreshold, slowCallMillis, openMillis, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, long slowCallMillis, long openMillis, LongSupplier clock) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.slowCallMillis = slowCallMillis;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns whether a request may go to the backend now. Every request allowed must report
+     * its outcome with {@link #onSuccess(long)} or {@link #onFailure(long)}.
+     * While half-open only the probe is allowed; if the probe never reports back, another
+     * is allowed after the open interval.
+     */
+    public boolean allowRequest() {
+        State from;
+        synchronized (this) {
+            long now = clock.getAsLong();
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.OPEN && now - openedAt < openMillis
+                    || state == State.HALF_OPEN && now - probeStartedAt < openMillis) {
+                rejectedCount++;
+                return false;
+            }
+            from = state;
+            state = State.HALF_OPEN;
+            probeStartedAt = now;
+        }
+        if (from != State.HALF_OPEN) {
+            notifyListeners(from, State.HALF_OPEN);
+        }
+        return true;
+    }
+
+    /**
+     * Reports a request that got an answer from the backend. Answers slower than the
+     * slow-call threshold are treated as failures.
+     */
+    public void onSuccess(long latencyMillis) {
+        if (latencyMillis > slowCallMillis) {
+            onFailure(latencyMillis);
+            return;
+        }
+        State from;
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            from = state;
+            state = State.CLOSED;
+            probeStartedAt = -1;
+        }
+        notifyListeners(from, State.CLOSED);
+    }
+
+    /**
+     * Reports a request that failed, timed out or got a server error.
+     */
+    public void onFailure(long latencyMillis) {
+        State from;
+        synchronized (this) {
+            consecutiveFailures++;
+            if (state == State.OPEN
+                    || state == State.CLOSED && consecutiveFailures < failureThreshold) {
+                return;
+            }
+            from = state;
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            probeStartedAt = -1;
+            tripCount++;
+        }
+        notifyListeners(from, State.OPEN);
+    }
+
+    private void notifyListeners(State from, State to) {
+        for (StateListener listener : listeners) {
+            listener.onStateChanged(this, from, to);
+        }
+    }
+
+    public void addStateListener(@NonNull StateListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeStateListener(@NonNull StateListener listener) {
+        listeners.remove(listener);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Number of times the circuit has opened, including failed probes.
+     */
+    public synchronized long getTripCount() {
+        return tripCount;
+    }
+
+    /**
+     * Number of requests refused while the circuit was open.
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        return name + ": " + state + " failures=" + consecutiveFailures
+                + " trips=" + tripCount + " rejected=" + rejectedCount;
+    }
+}
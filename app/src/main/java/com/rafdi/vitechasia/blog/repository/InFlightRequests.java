@@ -0,0 +1,135 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight table that lets identical requests share one network call.
+ *
+ * <p>The first caller for a key starts the request; callers arriving with the same key before
+ * it completes are attached to it and receive the same result. The entry is removed as soon as
+ * the result arrives, so a later call for the key starts a fresh request.
+ *
+ * @param <T> The result type delivered to callers
+ */
+public class InFlightRequests<T> {
+
+    /**
+     * Receives the outcome of a shared request.
+     */
+    public interface Callback<T> {
+        void onSuccess(T result);
+        void onError(String message);
+    }
+
+    /**
+     * Starts the underlying request and reports its outcome exactly once to {@code done}.
+     */
+    public interface Request<T> {
+        void start(@NonNull Callback<T> done);
+    }
+
+    private final Map<String, List<Callback<T>>> pending = new HashMap<>();
+    private final AtomicLong startedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    /**
+     * Runs {@code request} unless one with the same key is already pending, in which case
+     * {@code callback} is attached to that request instead.
+     *
+     * @param key Identifies equivalent requests, e.g. the endpoint and its parameters
+     * @param request Starts the network call; only invoked for the first caller
+     * @param callback Receives the shared result, or null to just ensure the request runs
+     * @return true if this call started a new request, false if it joined a pending one
+     */
+    public boolean execute(@NonNull String key, @NonNull Request<T> request, @Nullable Callback<T> callback) {
+        synchronized (pending) {
+            List<Callback<T>> waiters = pending.get(key);
+            if (waiters != null) {
+                if (callback != null) {
+                    waiters.add(callback);
+                }
+                coalescedCount.incrementAndGet();
+                return false;
+            }
+            waiters = new ArrayList<>(2);
+            if (callback != null) {
+                waiters.add(callback);
+            }
+            pending.put(key, waiters);
+        }
+        startedCount.incrementAndGet();
+
+        try {
+            request.start(new Callback<T>() {
+                @Override
+                public void onSuccess(T result) {
+                    for (Callback<T> waiter : complete(key)) {
+                        waiter.onSuccess(result);
+                    }
+                }
+
+                @Override
+                public void onError(String message) {
+                    for (Callback<T> waiter : complete(key)) {
+                        waiter.onError(message);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // Do not leave callers attached to a request that never started
+            complete(key);
+            throw e;
+        }
+        return true;
+    }
+
+    private List<Callback<T>> complete(String key) {
+        synchronized (pending) {
+            List<Callback<T>> waiters = pending.remove(key);
+            return waiters != null ? waiters : new ArrayList<>();
+        }
+    }
+
+    /**
+     * Returns the callbacks attached to the pending request for {@code key}, e.g. to report
+     * progress before the result. Callers joining later are not in the returned copy.
+     *
+     * @return A copy of the waiting callbacks, empty if no request is pending
+     */
+    public List<Callback<T>> getWaiters(@NonNull String key) {
+        synchronized (pending) {
+            List<Callback<T>> waiters = pending.get(key);
+            return waiters != null ? new ArrayList<>(waiters) : new ArrayList<>();
+        }
+    }
+
+    /**
+     * @return Whether a request for {@code key} is currently pending
+     */
+    public boolean isPending(@NonNull String key) {
+        synchronized (pending) {
+            return pending.containsKey(key);
+        }
+    }
+
+    /**
+     * @return Number of requests that were actually started
+     */
+    public long getStartedCount() {
+        return startedCount.get();
+    }
+
+    /**
+     * @return Number of calls that joined a pending request instead of starting their own
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+}
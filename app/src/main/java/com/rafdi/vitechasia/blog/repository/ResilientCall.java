@@ -0,0 +1,187 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Runs an idempotent Retrofit call with retries and, optionally, hedging, and reports one
+ * final outcome to its callback.
+ *
+ * <p>Each attempt is a fresh clone of the template call. With hedging, if an attempt has not
+ * answered within the hedge delay a second copy is started and whichever answers first wins;
+ * the other is cancelled. An attempt only fails once every copy in it has failed, and is then
+ * retried after the {@link RetryPolicy} backoff if the failure is retryable and the
+ * {@code mayRetry} guard agrees. Cancelled copies are not reported to the attempt listener.
+ *
+ * @param <T> The response body type
+ */
+public class ResilientCall<T> {
+
+    /**
+     * Sees every individual request, e.g. to feed a {@link CircuitBreaker}.
+     */
+    public interface AttemptListener {
+        /**
+         * @param latencyMillis Time until the response or failure
+         * @param response The response, or null if the request failed without one
+         */
+        void onAttemptFinished(long latencyMillis, @Nullable Response<?> response);
+    }
+
+    private final Call<T> template;
+    private final RetryPolicy retryPolicy;
+    private final long hedgeAfterMillis;
+    private final ScheduledExecutorService scheduler;
+    private final BooleanSupplier mayRetry;
+    private final BooleanSupplier mayHedge;
+    private final AttemptListener attemptListener;
+    private final Callback<T> callback;
+    private volatile int hedgeCount;
+
+    /**
+     * @param template The call to run; only clones of it are executed
+     * @param hedgeAfterMillis Start a second copy after this long, or 0 to disable hedging
+     * @param mayRetry Checked before every retry
+     * @param mayHedge Checked before every hedge
+     */
+    public ResilientCall(Call<T> template, RetryPolicy retryPolicy, long hedgeAfterMillis,
+                         ScheduledExecutorService scheduler, BooleanSupplier mayRetry, BooleanSupplier mayHedge,
+                         AttemptListener attemptListener, Callback<T> callback) {
+        this.template = template;
+        this.retryPolicy = retryPolicy;
+        this.hedgeAfterMillis = hedgeAfterMillis;
+        this.scheduler = scheduler;
+        this.mayRetry = mayRetry;
+        this.mayHedge = mayHedge;
+        this.attemptListener = attemptListener;
+        this.callback = callback;
+    }
+
+    public void start() {
+        new Attempt(1).start();
+    }
+
+    /**
+     * Number of hedge requests started so far.
+     */
+    public int getHedgeCount() {
+        return hedgeCount;
+    }
+
+    /**
+     * One try, made of the original request and possibly a hedge.
+     */
+    private final class Attempt {
+        private final int number;
+        private final List<Call<T>> calls = new ArrayList<>();
+        private boolean finished;
+        private Response<T> lastResponse;
+        private Throwable lastError;
+
+        Attempt(int number) {
+            this.number = number;
+        }
+
+        void start() {
+            launch();
+            if (hedgeAfterMillis > 0) {
+                scheduler.schedule(this::hedge, hedgeAfterMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void hedge() {
+            synchronized (this) {
+                if (finished || calls.size() > 1 || !mayHedge.getAsBoolean()) {
+                    return;
+                }
+            }
+            hedgeCount++;
+            launch();
+        }
+
+        private void launch() {
+            Call<T> call = template.clone();
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                calls.add(call);
+            }
+            long startedAt = System.nanoTime();
+            call.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(@NonNull Call<T> call, @NonNull Response<T> response) {
+                    attemptListener.onAttemptFinished(elapsedMillis(startedAt), response);
+                    onResult(call, response, null);
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<T> call, @NonNull Throwable t) {
+                    if (!call.isCanceled()) {
+                        attemptListener.onAttemptFinished(elapsedMillis(startedAt), null);
+                    }
+                    onResult(call, null, t);
+                }
+            });
+        }
+
+        private void onResult(Call<T> call, @Nullable Response<T> response, @Nullable Throwable error) {
+            List<Call<T>> losers;
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                calls.remove(call);
+                if (!retryPolicy.isRetryable(response, error)) {
+                    // Success or a failure another try cannot fix: this copy's answer is final
+                    finished = true;
+                    losers = new ArrayList<>(calls);
+                } else {
+                    lastResponse = response;
+                    lastError = error;
+                    if (!calls.isEmpty()) {
+                        // The other copy may still succeed
+                        return;
+                    }
+                    finished = true;
+                    losers = null;
+                }
+            }
+            if (losers != null) {
+                for (Call<T> loser : losers) {
+                    loser.cancel();
+                }
+                deliver(call, response, error);
+                return;
+            }
+            if (number < retryPolicy.getMaxAttempts() && mayRetry.getAsBoolean()) {
+                scheduler.schedule(() -> new Attempt(number + 1).start(),
+                        retryPolicy.backoffMillis(number), TimeUnit.MILLISECONDS);
+            } else {
+                deliver(call, lastResponse, lastError);
+            }
+        }
+    }
+
+    private void deliver(Call<T> call, @Nullable Response<T> response, @Nullable Throwable error) {
+        if (response != null) {
+            callback.onResponse(call, response);
+        } else {
+            callback.onFailure(call, error);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
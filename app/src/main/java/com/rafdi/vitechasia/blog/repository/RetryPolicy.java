@@ -0,0 +1,76 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Random;
+
+import retrofit2.Response;
+
+/**
+ * How often and how soon a failed idempotent request is tried again.
+ *
+ * <p>Backoff is exponential with full jitter: before retry n the delay is drawn uniformly from
+ * {@code [0, min(maxDelay, baseDelay * 2^(n-1))]}, so clients that failed together do not all
+ * come back at the same moment. Only failures that another try can fix are retried: network
+ * errors, 408, 429 and 5xx other than 501.
+ */
+public class RetryPolicy {
+    /** A single attempt, no retries. */
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Random random;
+
+    /**
+     * @param maxAttempts Attempts in total, including the first one
+     * @param baseDelayMillis Upper bound of the delay before the first retry
+     * @param maxDelayMillis Cap on the upper bound as it doubles
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this(maxAttempts, baseDelayMillis, maxDelayMillis, new Random());
+    }
+
+    RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis, Random random) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = Math.max(0, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+        this.random = random;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Delay before the next attempt.
+     *
+     * @param failedAttempts Attempts that have failed so far, at least 1
+     */
+    public long backoffMillis(int failedAttempts) {
+        int doublings = Math.min(Math.max(0, failedAttempts - 1), 30);
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << doublings);
+        if (ceiling <= 0) {
+            return 0;
+        }
+        synchronized (random) {
+            return (long) (random.nextDouble() * (ceiling + 1));
+        }
+    }
+
+    /**
+     * Whether an attempt that ended this way is worth repeating.
+     *
+     * @param response The response, or null if the call failed without one
+     * @param error The failure, or null if there was a response
+     */
+    public boolean isRetryable(@Nullable Response<?> response, @Nullable Throwable error) {
+        if (response == null) {
+            return error instanceof IOException;
+        }
+        int code = response.code();
+        return code == 408 || code == 429 || (code >= 500 && code != 501);
+    }
+}
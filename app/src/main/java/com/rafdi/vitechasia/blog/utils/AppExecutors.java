@@ -0,0 +1,99 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Global executor pools for the whole application.
+ * Grouping tasks like this avoids the effects of task starvation
+ * (e.g. disk reads don't wait behind network requests).
+ */
+public class AppExecutors {
+    // OkHttp's dispatcher allows five concurrent calls per host; blocking reads need no more
+    private static final int NETWORK_THREADS = 4;
+    private static volatile AppExecutors instance;
+
+    private final ExecutorService diskIO;
+    private final ExecutorService networkIO;
+    private final ExecutorService background;
+    private final Executor mainThread;
+    private final ScheduledExecutorService scheduler;
+
+    private AppExecutors() {
+        this.diskIO = Executors.newSingleThreadExecutor();
+        this.networkIO = Executors.newFixedThreadPool(NETWORK_THREADS);
+        this.background = Executors.newFixedThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors() - 1));
+        this.mainThread = new MainThreadExecutor();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * Returns the singleton instance of AppExecutors.
+     *
+     * @return The shared AppExecutors instance
+     */
+    public static AppExecutors getInstance() {
+        if (instance == null) {
+            synchronized (AppExecutors.class) {
+                if (instance == null) {
+                    instance = new AppExecutors();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Single-threaded executor for database access, so writes are applied in order.
+     */
+    public ExecutorService diskIO() {
+        return diskIO;
+    }
+
+    /**
+     * Pool for blocking network calls, such as reading a streamed response body,
+     * so waiting on the network never holds up the CPU-bound {@link #background()} pool.
+     */
+    public ExecutorService networkIO() {
+        return networkIO;
+    }
+
+    /**
+     * Small pool for CPU-bound work such as diffing, indexing and sorting.
+     */
+    public ExecutorService background() {
+        return background;
+    }
+
+    /**
+     * Executor that posts work to the main (UI) thread.
+     */
+    public Executor mainThread() {
+        return mainThread;
+    }
+
+    /**
+     * Single thread for delayed work such as retry backoff and hedging timers.
+     * Tasks should only hand work off, not run it.
+     */
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    private static class MainThreadExecutor implements Executor {
+        private final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            mainThreadHandler.post(command);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Filters and orders one list of search results by category, subcategory and publish date
+ * without rescanning it.
+ *
+ * <p>Each category and subcategory maps to a bit set of positions in the list, so a filter
+ * combination is a bit set intersection. Dated positions are also kept sorted by publish
+ * date: a "published since" bound is a binary search plus the range after it, and the date
+ * and popularity orders are read off precomputed permutations instead of sorting the
+ * filtered list on every change. Category and subcategory keys are matched
+ * case-insensitively, like {@link ArticleIndex}.
+ *
+ * <p>The orderings are built on first use, so results that are never sorted never pay for
+ * them, or up front with {@link #buildOrders()}. Not thread-safe: it may be built on one
+ * thread and handed to another, e.g. through an executor, but only queried on one at a time.
+ */
+public final class ArticleFilterIndex {
+    /** Pass as {@code publishedSince} to keep every article, undated ones included. */
+    public static final long ANY_DATE = Long.MIN_VALUE;
+
+    /**
+     * Order of the selected articles. Ties keep the order of the original list, and articles
+     * without a publish date come last in the date orders.
+     */
+    public enum Order {
+        /** The order of the original list. */
+        RELEVANCE,
+        NEWEST,
+        OLDEST,
+        MOST_VIEWED
+    }
+
+    private final List<Article> articles;
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private final Map<String, BitSet> bySubcategory = new HashMap<>();
+
+    /** Positions of dated articles, oldest first; built on first use. */
+    private int[] byDate;
+    /** Publish times parallel to {@link #byDate}. */
+    private long[] dates;
+    private int[] undated;
+    /** All positions, most viewed first; built on first use. */
+    private int[] byViews;
+
+    public ArticleFilterIndex(List<Article> articles) {
+        this.articles = articles != null ? new ArrayList<>(articles) : new ArrayList<>();
+        for (int i = 0; i < this.articles.size(); i++) {
+            Article article = this.articles.get(i);
+            addToBucket(byCategory, lowerCase(article.getCategoryId()), i);
+            addToBucket(bySubcategory, lowerCase(article.getSubcategoryId()), i);
+        }
+    }
+
+    /**
+     * Returns the articles in the given category, subcategory and date range, in the given order.
+     *
+     * @param categoryId Category to keep, or null for any
+     * @param subcategoryId Subcategory to keep, or null for any
+     * @param publishedSince Earliest publish time to keep in epoch millis, or {@link #ANY_DATE}
+     * @param order Order of the result
+     */
+    public List<Article> select(String categoryId, String subcategoryId, long publishedSince, Order order) {
+        BitSet matches = filter(categoryId, subcategoryId, publishedSince);
+        List<Article> results = new ArrayList<>(matches.cardinality());
+        switch (order) {
+            case NEWEST:
+                ensureDateOrder();
+                // Newest group of equal dates first, each group in list order
+                for (int end = byDate.length; end > 0; ) {
+                    int start = end - 1;
+                    while (start > 0 && dates[start - 1] == dates[end - 1]) {
+                        start--;
+                    }
+                    addMatching(byDate, start, end, matches, results);
+                    end = start;
+                }
+                addMatching(undated, 0, undated.length, matches, results);
+                break;
+            case OLDEST:
+                ensureDateOrder();
+                addMatching(byDate, 0, byDate.length, matches, results);
+                addMatching(undated, 0, undated.length, matches, results);
+                break;
+            case MOST_VIEWED:
+                ensureViewOrder();
+                addMatching(byViews, 0, byViews.length, matches, results);
+                break;
+            case RELEVANCE:
+            default:
+                for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                    results.add(articles.get(i));
+                }
+                break;
+        }
+        return results;
+    }
+
+    public int size() {
+        return articles.size();
+    }
+
+    /**
+     * Builds the date and popularity orders now instead of on first use, so that a large
+     * index can be prepared off the thread that queries it.
+     */
+    public void buildOrders() {
+        ensureDateOrder();
+        ensureViewOrder();
+    }
+
+    /**
+     * Positions of the articles passing every filter.
+     */
+    BitSet filter(String categoryId, String subcategoryId, long publishedSince) {
+        BitSet matches = new BitSet(articles.size());
+        matches.set(0, articles.size());
+        if (categoryId != null) {
+            matches.and(bucket(byCategory, categoryId));
+        }
+        if (subcategoryId != null) {
+            matches.and(bucket(bySubcategory, subcategoryId));
+        }
+        if (publishedSince != ANY_DATE && !matches.isEmpty()) {
+            ensureDateOrder();
+            int from = lowerBound(dates, publishedSince);
+            if (byDate.length - from < from + undated.length) {
+                // Fewer articles in range than out of it: keep the range
+                BitSet inRange = new BitSet(articles.size());
+                for (int i = from; i < byDate.length; i++) {
+                    inRange.set(byDate[i]);
+                }
+                matches.and(inRange);
+            } else {
+                for (int i = 0; i < from; i++) {
+                    matches.clear(byDate[i]);
+                }
+                for (int position : undated) {
+                    matches.clear(position);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void addMatching(int[] order, int from, int to, BitSet matches, List<Article> results) {
+        for (int i = from; i < to; i++) {
+            if (matches.get(order[i])) {
+                results.add(articles.get(order[i]));
+            }
+        }
+    }
+
+    private void ensureDateOrder() {
+        if (byDate != null) return;
+        int datedCount = 0;
+        for (Article article : articles) {
+            if (article.getPublishDate() != null) datedCount++;
+        }
+        byDate = new int[datedCount];
+        undated = new int[articles.size() - datedCount];
+        long[] times = new long[articles.size()];
+        int d = 0;
+        int u = 0;
+        for (int i = 0; i < articles.size(); i++) {
+            Article article = articles.get(i);
+            if (article.getPublishDate() != null) {
+                times[i] = article.getPublishDate().getTime();
+                byDate[d++] = i;
+            } else {
+                undated[u++] = i;
+            }
+        }
+        sortByKey(byDate, times);
+        dates = new long[byDate.length];
+        for (int i = 0; i < byDate.length; i++) {
+            dates[i] = times[byDate[i]];
+        }
+    }
+
+    private void ensureViewOrder() {
+        if (byViews != null) return;
+        byViews = new int[articles.size()];
+        long[] negatedViews = new long[articles.size()];
+        for (int i = 0; i < byViews.length; i++) {
+            byViews[i] = i;
+            negatedViews[i] = -(long) articles.get(i).getViewCount();
+        }
+        sortByKey(byViews, negatedViews);
+    }
+
+    /**
+     * Stable bottom-up merge sort of positions by ascending {@code keys[position]}, on
+     * primitive arrays so large result sets sort without boxing.
+     */
+    static void sortByKey(int[] positions, long[] keys) {
+        int n = positions.length;
+        int[] source = positions;
+        int[] target = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + 2 * width, n);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    // Take from the left run on ties to stay stable
+                    target[k++] = keys[source[j]] < keys[source[i]] ? source[j++] : source[i++];
+                }
+                while (i < mid) target[k++] = source[i++];
+                while (j < hi) target[k++] = source[j++];
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != positions) {
+            System.arraycopy(source, 0, positions, 0, n);
+        }
+    }
+
+    /**
+     * Index of the first element of {@code sorted} that is at least {@code value}.
+     */
+    static int lowerBound(long[] sorted, long value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return -index - 1;
+        }
+        // binarySearch finds any of several equal elements
+        while (index > 0 && sorted[index - 1] == value) {
+            index--;
+        }
+        return index;
+    }
+
+    private static BitSet bucket(Map<String, BitSet> buckets, String key) {
+        BitSet bucket = buckets.get(lowerCase(key));
+        return bucket != null ? bucket : new BitSet();
+    }
+
+    private static void addToBucket(Map<String, BitSet> buckets, String key, int position) {
+        if (key == null) return;
+        BitSet bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new BitSet();
+            buckets.put(key, bucket);
+        }
+        bucket.set(position);
+    }
+
+    private static String lowerCase(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,198 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of a corpus of articles with hash lookups by id and pre-bucketed lists
+ * per category, subcategory and author.
+ *
+ * <p>Category and subcategory keys are matched case-insensitively, author ids exactly, in line
+ * with the scans this replaces. Buckets keep corpus order. A snapshot never changes after
+ * construction; publish a new one (see {@link #withArticles(Collection)}) to swap in new data
+ * atomically, so readers never see a half-built index.
+ */
+public final class ArticleIndex {
+    private static final ArticleIndex EMPTY = new ArticleIndex(Collections.emptyList());
+
+    private final List<Article> articles;
+    private final Map<String, Integer> positionsById;
+    private final Map<String, List<Article>> byCategory;
+    private final Map<String, List<Article>> bySubcategory;
+    private final Map<String, List<Article>> byAuthor;
+
+    private ArticleIndex(List<Article> articles) {
+        this.articles = Collections.unmodifiableList(articles);
+        Map<String, Integer> positions = new HashMap<>(articles.size() * 2);
+        Map<String, List<Article>> categories = new HashMap<>();
+        Map<String, List<Article>> subcategories = new HashMap<>();
+        Map<String, List<Article>> authors = new HashMap<>();
+        for (int i = 0; i < articles.size(); i++) {
+            Article article = articles.get(i);
+            positions.put(article.getId(), i);
+            addToBucket(categories, lowerCase(article.getCategoryId()), article);
+            addToBucket(subcategories, lowerCase(article.getSubcategoryId()), article);
+            addToBucket(authors, article.getAuthorId(), article);
+        }
+        this.positionsById = positions;
+        this.byCategory = freeze(categories);
+        this.bySubcategory = freeze(subcategories);
+        this.byAuthor = freeze(authors);
+    }
+
+    public static ArticleIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a snapshot of the given articles. Articles without an id are skipped;
+     * for duplicate ids the last one wins, at the position of the first.
+     */
+    public static ArticleIndex of(Collection<Article> articles) {
+        return EMPTY.withArticles(articles);
+    }
+
+    /**
+     * Returns a new snapshot with {@code updates} merged in: articles with a known id replace
+     * the indexed one in place, keeping its body if the update is a summary without one, and
+     * new ids are appended. Returns this snapshot if nothing changed.
+     */
+    public ArticleIndex withArticles(Collection<Article> updates) {
+        if (updates == null || updates.isEmpty()) {
+            return this;
+        }
+
+        boolean changed = false;
+        for (Article article : updates) {
+            if (article != null && article.getId() != null && getById(article.getId()) != article) {
+                changed = true;
+                break;
+            }
+        }
+        if (!changed) {
+            return this;
+        }
+
+        LinkedHashMap<String, Article> merged = new LinkedHashMap<>(articles.size() + updates.size());
+        for (Article article : articles) {
+            merged.put(article.getId(), article);
+        }
+        for (Article article : updates) {
+            if (article != null && article.getId() != null) {
+                merged.put(article.getId(), article.withContentFrom(merged.get(article.getId())));
+            }
+        }
+        return new ArticleIndex(new ArrayList<>(merged.values()));
+    }
+
+    /**
+     * Returns a new snapshot without the articles with the given ids, keeping the order of
+     * the rest. Returns this snapshot if none of the ids are indexed.
+     */
+    public ArticleIndex withoutIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return this;
+        }
+        Set<String> removed = new HashSet<>();
+        for (String id : ids) {
+            if (id != null && positionsById.containsKey(id)) {
+                removed.add(id);
+            }
+        }
+        if (removed.isEmpty()) {
+            return this;
+        }
+
+        List<Article> remaining = new ArrayList<>(articles.size() - removed.size());
+        for (Article article : articles) {
+            if (!removed.contains(article.getId())) {
+                remaining.add(article);
+            }
+        }
+        return new ArticleIndex(remaining);
+    }
+
+    /**
+     * All articles, in corpus order. The list is unmodifiable.
+     */
+    public List<Article> getAll() {
+        return articles;
+    }
+
+    public int size() {
+        return articles.size();
+    }
+
+    public Article getById(String id) {
+        Integer position = id != null ? positionsById.get(id) : null;
+        return position != null ? articles.get(position) : null;
+    }
+
+    /**
+     * Position of the article in corpus order, or -1 if it isn't indexed.
+     */
+    public int positionOf(String id) {
+        Integer position = id != null ? positionsById.get(id) : null;
+        return position != null ? position : -1;
+    }
+
+    /**
+     * Articles in the category, matched case-insensitively. The list is unmodifiable.
+     */
+    public List<Article> getByCategory(String categoryId) {
+        return bucket(byCategory, lowerCase(categoryId));
+    }
+
+    /**
+     * Articles in the subcategory, matched case-insensitively. The list is unmodifiable.
+     */
+    public List<Article> getBySubcategory(String subcategoryId) {
+        return bucket(bySubcategory, lowerCase(subcategoryId));
+    }
+
+    /**
+     * Articles by the author. The list is unmodifiable.
+     */
+    public List<Article> getByAuthor(String authorId) {
+        return bucket(byAuthor, authorId);
+    }
+
+    private static List<Article> bucket(Map<String, List<Article>> buckets, String key) {
+        if (key == null) {
+            return Collections.emptyList();
+        }
+        List<Article> bucket = buckets.get(key);
+        return bucket != null ? bucket : Collections.<Article>emptyList();
+    }
+
+    private static void addToBucket(Map<String, List<Article>> buckets, String key, Article article) {
+        if (key == null) return;
+        List<Article> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets.put(key, bucket);
+        }
+        bucket.add(article);
+    }
+
+    private static Map<String, List<Article>> freeze(Map<String, List<Article>> buckets) {
+        for (Map.Entry<String, List<Article>> entry : buckets.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return buckets;
+    }
+
+    private static String lowerCase(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+}
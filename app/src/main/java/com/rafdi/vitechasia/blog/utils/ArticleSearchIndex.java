@@ -0,0 +1,880 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over article titles, content and author names.
+ *
+ * <p>Text is split into lower-case alphanumeric tokens. Each token maps to a sorted posting
+ * list of document ids, and the term dictionary is kept sorted so prefix queries are a range
+ * lookup. A query matches an article when every query token is a prefix of some word in it,
+ * so the cost depends on the matching postings rather than on the corpus size.
+ *
+ * <p>{@link #searchRanked(String)} orders matches by BM25F: per-field term frequencies are
+ * weighted (title over author over content) and length-normalised against the field's average
+ * length before the usual BM25 saturation. Term frequencies, field lengths and document
+ * frequencies are recorded at index time, so ranking only walks the matching postings.
+ * The ranked list is ordered lazily: the first {@link #FIRST_PAGE} matches are picked with a
+ * bounded heap, and the rest are only sorted once something reads past them.
+ *
+ * <p>Articles are added incrementally and keyed by id: re-adding an article with changed text
+ * replaces the old entry, re-adding an unchanged one only refreshes the stored object. A list
+ * summary without a body keeps the body already indexed for its article.
+ * Deleted articles are dropped with {@link #removeArticles(Collection)}. Replaced and deleted
+ * entries are tombstoned first; once tombstones make up a quarter of the documents, the index
+ * is compacted: document ids are renumbered, postings and terms of dead documents are dropped
+ * and the correction vocabulary is rebuilt. All public methods are thread-safe.
+ *
+ * <p>{@link #refine(String, Matches)} answers a query that extends an earlier one, as when the
+ * user keeps typing, by narrowing the earlier matches instead of starting over.
+ *
+ * <p>Ranked searches tolerate typos: when fewer than {@link #MIN_EXACT_HITS} articles match
+ * exactly, words of five letters or more are also matched against title and author terms a
+ * small edit distance away, found through a {@link TrigramIndex}. Those articles follow the
+ * exact matches, and each corrected word scores less the more edits it took.
+ */
+public class ArticleSearchIndex {
+    static final int FIELD_TITLE = 0;
+    static final int FIELD_AUTHOR = 1;
+    static final int FIELD_CONTENT = 2;
+    private static final int FIELD_COUNT = 3;
+
+    private static final float[] FIELD_BOOSTS = {3.0f, 2.0f, 1.0f};
+    private static final float[] FIELD_LENGTH_NORMS = {0.75f, 0.5f, 0.75f};
+    private static final float K1 = 1.2f;
+
+    /** Below this many exact matches, ranked searches also correct misspelled words. */
+    static final int MIN_EXACT_HITS = 3;
+    /** Compact once at least this many documents are tombstones... */
+    static final int COMPACT_MIN_REMOVED = 256;
+    /** ...and they are at least this share of all documents. */
+    private static final double COMPACT_REMOVED_RATIO = 0.25;
+    /** Score factor of a corrected word, per edit. */
+    private static final float FUZZY_EDIT_WEIGHT = 0.5f;
+    /** Matches ranked up front; enough for the first screens of results. */
+    static final int FIRST_PAGE = 20;
+
+    private final List<Article> documents = new ArrayList<>();
+    private final Map<String, Integer> docIdsByArticleId = new HashMap<>();
+    private final BitSet removedDocs = new BitSet();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    /** Title and author terms, for correcting misspelled query words. */
+    private TrigramIndex fuzzyTerms = new TrigramIndex();
+    /** Token counts per field, {@code FIELD_COUNT} entries per document. */
+    private int[] fieldLengths = new int[FIELD_COUNT * 64];
+    /** Dense docId -> candidate position map for {@link #score}, all -1 between calls. */
+    private int[] scratchPositions = new int[0];
+    /** Sum of field lengths over live documents, for the average-length normalisation. */
+    private final long[] totalFieldLengths = new long[FIELD_COUNT];
+    /** Bumped whenever document ids are added or removed, so stale {@link Matches} are not reused. */
+    private long version;
+
+    /**
+     * Adds or updates the given articles.
+     *
+     * @param articles Articles to index; null entries and articles without an id are skipped
+     */
+    public synchronized void addArticles(Collection<Article> articles) {
+        if (articles == null) return;
+        for (Article article : articles) {
+            addArticleLocked(article);
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Adds or updates a single article.
+     */
+    public synchronized void addArticle(Article article) {
+        addArticleLocked(article);
+        compactIfNeeded();
+    }
+
+    /**
+     * Removes the articles with the given ids; unknown ids are ignored.
+     */
+    public synchronized void removeArticles(Collection<String> articleIds) {
+        if (articleIds == null) return;
+        for (String articleId : articleIds) {
+            Integer docId = articleId != null ? docIdsByArticleId.remove(articleId) : null;
+            if (docId != null) {
+                removeDocLocked(docId);
+            }
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Finds the articles matching every token of the query, in the order they were indexed.
+     *
+     * @param query Free-text query
+     * @return Matching articles, or an empty list if the query has no tokens
+     */
+    public synchronized List<Article> search(String query) {
+        int[] docIds = searchDocIds(query);
+        List<Article> results = new ArrayList<>(docIds.length);
+        for (int docId : docIds) {
+            results.add(documents.get(docId));
+        }
+        return results;
+    }
+
+    /**
+     * Finds the articles matching every token of the query, best BM25F score first.
+     * Ties keep the order the articles were indexed in. With fewer than
+     * {@link #MIN_EXACT_HITS} exact matches, articles matching once misspelled words are
+     * corrected follow them.
+     *
+     * @param query Free-text query
+     * @return Matching articles, or an empty list if the query has no tokens
+     */
+    public synchronized List<Article> searchRanked(String query) {
+        return rank(tokenize(query), searchDocIds(query));
+    }
+
+    /**
+     * Ranks the articles matching every token of {@code query}, best BM25F score first, like
+     * {@link #searchRanked(String)}. When {@code previous} came from this index since its last
+     * change and {@code query} only extends it, i.e. has the same tokens with the last one
+     * typed further and possibly more after it, only the earlier matches are narrowed and
+     * only the new or extended tokens are looked up.
+     *
+     * @param query Free-text query
+     * @param previous Result of an earlier call to refine, or null
+     * @return The matches, which can in turn be refined
+     */
+    public synchronized Matches refine(String query, Matches previous) {
+        List<String> tokens = tokenize(query);
+        int[] docIds;
+        if (previous != null && previous.version == version && extendsTokens(tokens, previous.tokens)) {
+            docIds = previous.docIds;
+            int first = previous.tokens.size() - 1;
+            for (int i = first; i < tokens.size() && docIds.length > 0; i++) {
+                if (i == first && tokens.get(i).equals(previous.tokens.get(i))) continue;
+                docIds = intersect(docIds, prefixPostings(tokens.get(i)));
+            }
+        } else {
+            docIds = searchDocIds(query);
+        }
+        return new Matches(tokens, docIds, version, rank(tokens, docIds));
+    }
+
+    /**
+     * Whether every document matching {@code tokens} also matches {@code previous}: all but the
+     * last previous token are repeated unchanged and the last one is a prefix of its counterpart.
+     */
+    static boolean extendsTokens(List<String> tokens, List<String> previous) {
+        if (previous.isEmpty() || tokens.size() < previous.size()) {
+            return false;
+        }
+        int last = previous.size() - 1;
+        for (int i = 0; i < last; i++) {
+            if (!tokens.get(i).equals(previous.get(i))) {
+                return false;
+            }
+        }
+        return tokens.get(last).startsWith(previous.get(last));
+    }
+
+    /**
+     * Number of live (non-replaced) articles in the index.
+     */
+    public synchronized int size() {
+        return documents.size() - removedDocs.cardinality();
+    }
+
+    public synchronized boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the sorted ids of live documents matching the query.
+     * Callers must hold the lock.
+     */
+    int[] searchDocIds(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new int[0];
+        }
+
+        int[][] perToken = new int[tokens.size()][];
+        for (int i = 0; i < tokens.size(); i++) {
+            perToken[i] = prefixPostings(tokens.get(i));
+            if (perToken[i].length == 0) {
+                return new int[0];
+            }
+        }
+
+        // Intersect starting with the rarest token to keep the working set small
+        Arrays.sort(perToken, (a, b) -> Integer.compare(a.length, b.length));
+        int[] result = perToken[0];
+        for (int i = 1; i < perToken.length && result.length > 0; i++) {
+            result = intersect(result, perToken[i]);
+        }
+        return withoutRemoved(result);
+    }
+
+    /**
+     * Orders the exact matches by score and, if there are too few, appends the fuzzy ones.
+     * Callers must hold the lock.
+     */
+    private List<Article> rank(List<String> tokens, int[] docIds) {
+        float[] scores = score(tokens, docIds);
+        if (docIds.length >= MIN_EXACT_HITS) {
+            return new RankedArticles(articlesOf(docIds), scores, docIds.length);
+        }
+        List<List<TrigramIndex.Similar>> corrections = new ArrayList<>(tokens.size());
+        int[] fuzzyDocIds = fuzzyDocIds(tokens, docIds, corrections);
+        float[] fuzzyScores = score(tokens, corrections, fuzzyDocIds);
+
+        int[] allDocIds = Arrays.copyOf(docIds, docIds.length + fuzzyDocIds.length);
+        System.arraycopy(fuzzyDocIds, 0, allDocIds, docIds.length, fuzzyDocIds.length);
+        float[] allScores = Arrays.copyOf(scores, allDocIds.length);
+        System.arraycopy(fuzzyScores, 0, allScores, docIds.length, fuzzyScores.length);
+        return new RankedArticles(articlesOf(allDocIds), allScores, docIds.length);
+    }
+
+    /**
+     * Returns the sorted ids of the live articles outside {@code exactDocIds} in which every
+     * token either prefixes a word or is a few edits from a title or author word, filling
+     * {@code corrections} with each token's corrections. Nothing is returned unless at least
+     * one token has such a correction.
+     */
+    private int[] fuzzyDocIds(List<String> tokens, int[] exactDocIds, List<List<TrigramIndex.Similar>> corrections) {
+        boolean corrected = false;
+        BitSet candidates = null;
+        for (String token : tokens) {
+            List<TrigramIndex.Similar> similar = fuzzyTerms.similar(token, maxEdits(token.length()));
+            corrections.add(similar);
+            corrected |= !similar.isEmpty();
+
+            BitSet tokenDocs = new BitSet(documents.size());
+            for (int docId : prefixPostings(token)) {
+                tokenDocs.set(docId);
+            }
+            for (TrigramIndex.Similar correction : similar) {
+                Postings postings = terms.get(correction.term);
+                for (int i = 0; i < postings.size; i++) {
+                    // Only the title and author were indexed for corrections
+                    if ((postings.freqs[i] & 0xFFFF) != 0) {
+                        tokenDocs.set(postings.ids[i]);
+                    }
+                }
+            }
+            if (candidates == null) {
+                candidates = tokenDocs;
+            } else {
+                candidates.and(tokenDocs);
+            }
+            if (candidates.isEmpty()) {
+                return new int[0];
+            }
+        }
+        if (!corrected || candidates == null) {
+            return new int[0];
+        }
+
+        candidates.andNot(removedDocs);
+        for (int docId : exactDocIds) {
+            candidates.clear(docId);
+        }
+        return candidates.stream().toArray();
+    }
+
+    private Article[] articlesOf(int[] docIds) {
+        Article[] articles = new Article[docIds.length];
+        for (int i = 0; i < docIds.length; i++) {
+            articles[i] = documents.get(docIds[i]);
+        }
+        return articles;
+    }
+
+    /**
+     * Edits allowed when correcting a word of the given length: none below five letters,
+     * where a single edit already makes a different common word, two from nine letters.
+     */
+    static int maxEdits(int length) {
+        if (length < 5) return 0;
+        return length < 9 ? 1 : 2;
+    }
+
+    /**
+     * Computes the BM25F score of each candidate document.
+     * A query token that prefixes several terms contributes its best-scoring term.
+     * Callers must hold the lock.
+     *
+     * @param tokens Query tokens
+     * @param docIds Sorted candidate document ids
+     * @return Scores, parallel to {@code docIds}
+     */
+    float[] score(List<String> tokens, int[] docIds) {
+        return score(tokens, null, docIds);
+    }
+
+    /**
+     * Like {@link #score(List, int[])}, with the corrections of each token also competing
+     * for its best term, their scores scaled down by {@link #FUZZY_EDIT_WEIGHT} per edit.
+     *
+     * @param corrections Corrections per token, parallel to {@code tokens}, or null
+     */
+    private float[] score(List<String> tokens, List<List<TrigramIndex.Similar>> corrections, int[] docIds) {
+        float[] scores = new float[docIds.length];
+        if (docIds.length == 0) {
+            return scores;
+        }
+
+        int liveDocs = size();
+        float[] averageLengths = new float[FIELD_COUNT];
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            averageLengths[field] = Math.max(1f, (float) totalFieldLengths[field] / Math.max(1, liveDocs));
+        }
+
+        // Dense docId -> candidate position map, so each posting is looked up in O(1);
+        // a prefix can expand to hundreds of terms, too many to merge against the candidates
+        if (scratchPositions.length < documents.size()) {
+            scratchPositions = new int[documents.size() * 2];
+            Arrays.fill(scratchPositions, -1);
+        }
+        int[] positions = scratchPositions;
+        // Boost divided by the length normalisation, per candidate and field
+        float[] fieldWeights = new float[docIds.length * FIELD_COUNT];
+        for (int i = 0; i < docIds.length; i++) {
+            positions[docIds[i]] = i;
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                float b = FIELD_LENGTH_NORMS[field];
+                float norm = 1 - b + b * fieldLengths[docIds[i] * FIELD_COUNT + field] / averageLengths[field];
+                fieldWeights[i * FIELD_COUNT + field] = FIELD_BOOSTS[field] / norm;
+            }
+        }
+
+        float[] tokenScores = new float[docIds.length];
+        for (int t = 0; t < tokens.size(); t++) {
+            String token = tokens.get(t);
+            Arrays.fill(tokenScores, 0f);
+            for (Postings postings : terms.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                scoreTerm(postings, idf(postings.size, liveDocs), positions, fieldWeights, tokenScores);
+            }
+            if (corrections != null) {
+                for (TrigramIndex.Similar correction : corrections.get(t)) {
+                    Postings postings = terms.get(correction.term);
+                    float weight = (float) Math.pow(FUZZY_EDIT_WEIGHT, correction.edits);
+                    scoreTerm(postings, weight * idf(postings.size, liveDocs), positions, fieldWeights, tokenScores);
+                }
+            }
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] += tokenScores[i];
+            }
+        }
+        for (int docId : docIds) {
+            positions[docId] = -1;
+        }
+        return scores;
+    }
+
+    /**
+     * Raises each candidate's token score to this term's score where that is higher.
+     */
+    private static void scoreTerm(Postings postings, float idf, int[] positions, float[] fieldWeights,
+                                  float[] tokenScores) {
+        for (int j = 0; j < postings.size; j++) {
+            int position = positions[postings.ids[j]];
+            if (position < 0) continue;
+            float termScore = idf * saturate(postings.freqs[j], fieldWeights, position * FIELD_COUNT);
+            if (termScore > tokenScores[position]) {
+                tokenScores[position] = termScore;
+            }
+        }
+    }
+
+    /**
+     * Combines the per-field frequencies into one length-normalised frequency and applies the
+     * BM25 saturation curve to it.
+     */
+    private static float saturate(int packedFreqs, float[] fieldWeights, int offset) {
+        float weighted = (packedFreqs & 0xFF) * fieldWeights[offset + FIELD_TITLE]
+                + ((packedFreqs >>> 8) & 0xFF) * fieldWeights[offset + FIELD_AUTHOR]
+                + (packedFreqs >>> 16) * fieldWeights[offset + FIELD_CONTENT];
+        return weighted / (K1 + weighted) * (K1 + 1);
+    }
+
+    /**
+     * BM25 inverse document frequency, kept positive for very common terms.
+     * Document frequencies include tombstoned entries until the index is compacted,
+     * which only matters for articles whose text changes often.
+     */
+    private static float idf(int documentFrequency, int liveDocs) {
+        int df = Math.min(documentFrequency, Math.max(liveDocs, 1));
+        return (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+    }
+
+    /**
+     * Returns positions into {@code scores} ordered by descending score, ties by position.
+     * Scores are non-negative, so their float bits order like the values and an LSD radix
+     * sort over the inverted bits does the job in four linear, stable passes.
+     */
+    static int[] orderByScore(float[] scores) {
+        int n = scores.length;
+        int[] keys = new int[n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = ~Float.floatToIntBits(scores[i]);
+            order[i] = i;
+        }
+
+        int[] sortedKeys = new int[n];
+        int[] sortedOrder = new int[n];
+        int[] counts = new int[257];
+        for (int shift = 0; shift < 32; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[((keys[i] >>> shift) & 0xFF) + 1]++;
+            }
+            if (n == 0 || counts[((keys[0] >>> shift) & 0xFF) + 1] == n) {
+                continue; // Every key shares this byte
+            }
+            for (int b = 0; b < 256; b++) {
+                counts[b + 1] += counts[b];
+            }
+            for (int i = 0; i < n; i++) {
+                int slot = counts[(keys[i] >>> shift) & 0xFF]++;
+                sortedKeys[slot] = keys[i];
+                sortedOrder[slot] = order[i];
+            }
+            int[] swap = keys;
+            keys = sortedKeys;
+            sortedKeys = swap;
+            swap = order;
+            order = sortedOrder;
+            sortedOrder = swap;
+        }
+        return order;
+    }
+
+    /**
+     * Returns the union of the posting lists of every term starting with {@code prefix}.
+     */
+    private int[] prefixPostings(String prefix) {
+        NavigableMap<String, Postings> range =
+                terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.isEmpty()) {
+            return new int[0];
+        }
+        if (range.size() == 1) {
+            return range.firstEntry().getValue().toArray();
+        }
+
+        // Union through a bit set: linear in the postings, and the result comes out sorted
+        BitSet union = new BitSet(documents.size());
+        for (Postings postings : range.values()) {
+            for (int i = 0; i < postings.size; i++) {
+                union.set(postings.ids[i]);
+            }
+        }
+        return union.stream().toArray();
+    }
+
+    private void addArticleLocked(Article article) {
+        if (article == null || article.getId() == null) return;
+
+        Integer existing = docIdsByArticleId.get(article.getId());
+        if (existing != null) {
+            Article indexed = documents.get(existing);
+            // A list summary has no body; keep indexing the one already known
+            article = article.withContentFrom(indexed);
+            if (hasSameText(indexed, article)) {
+                // Keep the freshest object (counters may have changed) without re-tokenizing
+                documents.set(existing, article);
+                return;
+            }
+            removeDocLocked(existing);
+        }
+
+        int docId = documents.size();
+        version++;
+        documents.add(article);
+        docIdsByArticleId.put(article.getId(), docId);
+
+        // Count each term per field first so every posting is written once, with its frequencies
+        Map<String, int[]> freqs = new HashMap<>();
+        String[] texts = {article.getTitle(), article.getAuthorName(), article.getContent()};
+        if ((docId + 1) * FIELD_COUNT > fieldLengths.length) {
+            fieldLengths = Arrays.copyOf(fieldLengths, fieldLengths.length * 2);
+        }
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            List<String> tokens = tokenize(texts[field]);
+            fieldLengths[docId * FIELD_COUNT + field] = tokens.size();
+            totalFieldLengths[field] += tokens.size();
+            for (String token : tokens) {
+                int[] counts = freqs.get(token);
+                if (counts == null) {
+                    counts = new int[FIELD_COUNT];
+                    freqs.put(token, counts);
+                }
+                counts[field]++;
+                if (field != FIELD_CONTENT) {
+                    fuzzyTerms.add(token);
+                }
+            }
+        }
+        for (Map.Entry<String, int[]> entry : freqs.entrySet()) {
+            Postings postings = terms.get(entry.getKey());
+            if (postings == null) {
+                postings = new Postings();
+                terms.put(entry.getKey(), postings);
+            }
+            postings.add(docId, packFreqs(entry.getValue()));
+        }
+    }
+
+    private void removeDocLocked(int docId) {
+        version++;
+        removedDocs.set(docId);
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            totalFieldLengths[field] -= fieldLengths[docId * FIELD_COUNT + field];
+        }
+    }
+
+    /**
+     * Compacts the index when tombstones exceed {@link #COMPACT_MIN_REMOVED} and
+     * {@link #COMPACT_REMOVED_RATIO} of the documents. Linear in the postings, without
+     * re-tokenizing any text. Callers must hold the lock.
+     */
+    private void compactIfNeeded() {
+        int removed = removedDocs.cardinality();
+        if (removed < COMPACT_MIN_REMOVED || removed < documents.size() * COMPACT_REMOVED_RATIO) {
+            return;
+        }
+        compact();
+    }
+
+    /**
+     * Renumbers the live documents densely, in their current order so postings stay sorted,
+     * drops the postings of tombstoned documents and terms left without any, and rebuilds
+     * the correction vocabulary from the title and author terms still in use.
+     * Callers must hold the lock.
+     */
+    private void compact() {
+        int[] newIds = new int[documents.size()];
+        List<Article> liveDocuments = new ArrayList<>(documents.size() - removedDocs.cardinality());
+        int[] liveFieldLengths = new int[Math.max(FIELD_COUNT * 64, newIds.length * FIELD_COUNT)];
+        for (int docId = 0; docId < documents.size(); docId++) {
+            if (removedDocs.get(docId)) {
+                newIds[docId] = -1;
+                continue;
+            }
+            int newId = liveDocuments.size();
+            newIds[docId] = newId;
+            liveDocuments.add(documents.get(docId));
+            System.arraycopy(fieldLengths, docId * FIELD_COUNT, liveFieldLengths, newId * FIELD_COUNT, FIELD_COUNT);
+        }
+
+        TrigramIndex liveTerms = new TrigramIndex();
+        for (Iterator<Map.Entry<String, Postings>> it = terms.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Postings> entry = it.next();
+            Postings postings = entry.getValue();
+            int size = 0;
+            boolean inTitleOrAuthor = false;
+            for (int i = 0; i < postings.size; i++) {
+                int newId = newIds[postings.ids[i]];
+                if (newId < 0) continue;
+                postings.ids[size] = newId;
+                postings.freqs[size] = postings.freqs[i];
+                inTitleOrAuthor |= (postings.freqs[i] & 0xFFFF) != 0;
+                size++;
+            }
+            postings.size = size;
+            if (size == 0) {
+                it.remove();
+            } else if (inTitleOrAuthor) {
+                liveTerms.add(entry.getKey());
+            }
+        }
+
+        documents.clear();
+        documents.addAll(liveDocuments);
+        for (Map.Entry<String, Integer> entry : docIdsByArticleId.entrySet()) {
+            entry.setValue(newIds[entry.getValue()]);
+        }
+        fieldLengths = liveFieldLengths;
+        removedDocs.clear();
+        fuzzyTerms = liveTerms;
+        version++;
+    }
+
+    /**
+     * Number of documents, tombstones included.
+     */
+    synchronized int documentCount() {
+        return documents.size();
+    }
+
+    /**
+     * Number of distinct terms, including those only in tombstoned documents.
+     */
+    synchronized int termCount() {
+        return terms.size();
+    }
+
+    /**
+     * Packs per-field term frequencies into one int: 8 bits for the title and author,
+     * 16 for the content. Frequencies beyond that are far into BM25's saturation range.
+     */
+    static int packFreqs(int[] counts) {
+        return Math.min(counts[FIELD_TITLE], 0xFF)
+                | Math.min(counts[FIELD_AUTHOR], 0xFF) << 8
+                | Math.min(counts[FIELD_CONTENT], 0xFFFF) << 16;
+    }
+
+    static int unpackFreq(int packed, int field) {
+        switch (field) {
+            case FIELD_TITLE:
+                return packed & 0xFF;
+            case FIELD_AUTHOR:
+                return (packed >>> 8) & 0xFF;
+            default:
+                return packed >>> 16;
+        }
+    }
+
+    private static boolean hasSameText(Article a, Article b) {
+        return Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getAuthorName(), b.getAuthorName())
+                && Objects.equals(a.getContent(), b.getContent());
+    }
+
+    private int[] withoutRemoved(int[] docIds) {
+        if (removedDocs.isEmpty()) {
+            return docIds;
+        }
+        int count = 0;
+        int[] live = new int[docIds.length];
+        for (int docId : docIds) {
+            if (!removedDocs.get(docId)) {
+                live[count++] = docId;
+            }
+        }
+        return count == docIds.length ? docIds : Arrays.copyOf(live, count);
+    }
+
+    /**
+     * Splits text into lower-case runs of letters and digits.
+     *
+     * @param text Text to split, may be null
+     * @return The tokens in order of appearance (duplicates included)
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Ranked result of {@link #refine(String, Matches)}. It remembers the exactly matching
+     * document ids so a longer query can start from them; fuzzy matches are recomputed.
+     */
+    public static final class Matches {
+        private final List<String> tokens;
+        private final int[] docIds;
+        private final long version;
+        private final List<Article> articles;
+
+        private Matches(List<String> tokens, int[] docIds, long version, List<Article> articles) {
+            this.tokens = tokens;
+            this.docIds = docIds;
+            this.version = version;
+            this.articles = Collections.unmodifiableList(articles);
+        }
+
+        /**
+         * The matching articles, best first.
+         */
+        public List<Article> getArticles() {
+            return articles;
+        }
+    }
+
+    /**
+     * Matches in rank order, ordered only as far as they are read. The first
+     * {@link #FIRST_PAGE} are picked with a bounded heap in O(n log k); reading past them
+     * sorts the rest once. Exact matches rank before fuzzy ones, then by descending score,
+     * ties by position.
+     */
+    private static final class RankedArticles extends AbstractList<Article> implements RandomAccess {
+        private final Article[] articles;
+        private final float[] scores;
+        /** Positions below this are exact matches. */
+        private final int exactCount;
+        /** Positions in rank order; only the first {@link #rankedCount} are final. */
+        private int[] order = new int[0];
+        private int rankedCount;
+
+        RankedArticles(Article[] articles, float[] scores, int exactCount) {
+            this.articles = articles;
+            this.scores = scores;
+            this.exactCount = exactCount;
+        }
+
+        @Override
+        public synchronized Article get(int index) {
+            if (index < 0 || index >= articles.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + articles.length);
+            }
+            if (index >= rankedCount) {
+                if (rankedCount == 0 && index < FIRST_PAGE && articles.length > 2 * FIRST_PAGE) {
+                    order = topRanked(FIRST_PAGE);
+                } else {
+                    order = sortAll();
+                }
+                rankedCount = order.length;
+            }
+            return articles[order[index]];
+        }
+
+        @Override
+        public int size() {
+            return articles.length;
+        }
+
+        private boolean ranksBefore(int a, int b) {
+            boolean aExact = a < exactCount;
+            if (aExact != b < exactCount) return aExact;
+            if (scores[a] != scores[b]) return scores[a] > scores[b];
+            return a < b;
+        }
+
+        /**
+         * The {@code k} best positions, best first, through a heap with the worst kept on top.
+         */
+        private int[] topRanked(int k) {
+            int[] heap = new int[k];
+            int size = 0;
+            for (int position = 0; position < articles.length; position++) {
+                if (size < k) {
+                    heap[size] = position;
+                    siftUp(heap, size++);
+                } else if (ranksBefore(position, heap[0])) {
+                    heap[0] = position;
+                    siftDown(heap, size);
+                }
+            }
+            int[] top = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                top[i] = heap[0];
+                heap[0] = heap[i];
+                siftDown(heap, i);
+            }
+            return top;
+        }
+
+        private void siftUp(int[] heap, int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!ranksBefore(heap[parent], heap[i])) return;
+                swap(heap, parent, i);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int size) {
+            int i = 0;
+            while (true) {
+                int worst = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && ranksBefore(heap[worst], heap[left])) worst = left;
+                if (right < size && ranksBefore(heap[worst], heap[right])) worst = right;
+                if (worst == i) return;
+                swap(heap, worst, i);
+                i = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int value = heap[a];
+            heap[a] = heap[b];
+            heap[b] = value;
+        }
+
+        private int[] sortAll() {
+            int[] all = orderByScore(Arrays.copyOf(scores, exactCount));
+            int[] fuzzy = orderByScore(Arrays.copyOfRange(scores, exactCount, scores.length));
+            all = Arrays.copyOf(all, articles.length);
+            for (int i = 0; i < fuzzy.length; i++) {
+                all[exactCount + i] = exactCount + fuzzy[i];
+            }
+            return all;
+        }
+    }
+
+    /**
+     * Growable, sorted list of document ids for one term, with the packed per-field
+     * frequencies alongside. Documents are indexed in increasing id order, so appending
+     * keeps it sorted.
+     */
+    private static class Postings {
+        int[] ids = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int docId, int packedFreqs) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            ids[size] = docId;
+            freqs[size] = packedFreqs;
+            size++;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -35,6 +35,13 @@ public class BookmarkManager {
         return bookmarks.contains(articleId);
     }
 
+    /**
+     * Returns a copy of the ids of all bookmarked articles.
+     */
+    public Set<String> getBookmarkedIds() {
+        return new HashSet<>(preferences.getStringSet(KEY_BOOKMARKS, new HashSet<>()));
+    }
+
     public void toggleBookmark(Article article) {
         if (article == null || article.getId() == null) return;
         
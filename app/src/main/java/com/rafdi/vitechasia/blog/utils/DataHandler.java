@@ -1,29 +1,50 @@
 package com.rafdi.vitechasia.blog.utils;
 
-import android.app.Application;
 import android.content.Context;
 
-import androidx.lifecycle.LiveData;
-import androidx.lifecycle.Observer;
-
 import com.rafdi.vitechasia.blog.models.Article;
 import com.rafdi.vitechasia.blog.models.Category;
-import com.rafdi.vitechasia.blog.viewmodel.ArticleViewModel;
+import com.rafdi.vitechasia.blog.repository.ArticleChangeSet;
+import com.rafdi.vitechasia.blog.repository.ArticleCursor;
+import com.rafdi.vitechasia.blog.repository.ArticleDataSource;
+import com.rafdi.vitechasia.blog.repository.ArticlePagingSource;
+import com.rafdi.vitechasia.blog.repository.ArticleRepository;
+import com.rafdi.vitechasia.blog.repository.ArticleSort;
+import com.rafdi.vitechasia.blog.repository.CachePolicy;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * Utility class for managing article data.
  * Tries to fetch data from the API first, falls back to dummy data if needed.
+ *
+ * <p>Every load is request-scoped: each call gets its own data source callback and its
+ * listener fires once with that request's result, so concurrent loads never see each other's
+ * data and nothing stays registered after completion. Loads with a {@link CachePolicy} that
+ * serves cached rows first may follow up with one {@link DataLoadListener#onDataRefreshed}.
  */
 public class DataHandler {
+    /**
+     * Cache policy for feed screens: cached articles show at once and are revalidated once
+     * they are a few minutes old.
+     */
+    public static final CachePolicy FEED_CACHE_POLICY = CachePolicy.staleWhileRevalidate(5, TimeUnit.MINUTES);
+
     private static volatile DataHandler instance;
-    private ArticleViewModel articleViewModel;
-    private boolean isViewModelInitialized = false;
+    private ArticleDataSource dataSource;
+    private boolean isDataSourceInitialized = false;
 
     /**
      * Interface for receiving data load callbacks
@@ -32,6 +53,13 @@ public class DataHandler {
         void onDataLoaded(List<Article> articles);
 
         void onError(String message);
+
+        /**
+         * Receives fresher articles after {@link #onDataLoaded} delivered cached ones;
+         * called at most once per load.
+         */
+        default void onDataRefreshed(List<Article> articles) {
+        }
     }
 
     /**
@@ -43,10 +71,35 @@ public class DataHandler {
         void onError(String message);
     }
 
+    /**
+     * Interface for being told which articles a sync created, edited or deleted
+     */
+    public interface ArticleChangeListener {
+        void onArticlesChanged(ArticleChangeSet changes);
+    }
+
+    /**
+     * Interface for receiving the outcome of a sync
+     */
+    public interface SyncListener {
+        void onSyncComplete(ArticleChangeSet changes);
+
+        void onError(String message);
+    }
+
     private DataHandler() {
         // Private constructor to prevent direct instantiation
     }
 
+    /**
+     * Creates a DataHandler backed by the given data source.
+     * Used by tests to supply a fake source instead of the network-backed repository.
+     */
+    DataHandler(ArticleDataSource dataSource) {
+        this.dataSource = dataSource;
+        this.isDataSourceInitialized = dataSource != null;
+    }
+
     /**
      * Initializes the DataHandler with a Context.
      * Must be called before using any other methods.
@@ -58,9 +111,9 @@ public class DataHandler {
             synchronized (DataHandler.class) {
                 if (instance == null) {
                     instance = new DataHandler();
-                    if (context != null && context.getApplicationContext() instanceof Application) {
-                        instance.articleViewModel = new ArticleViewModel((Application) context.getApplicationContext());
-                        instance.isViewModelInitialized = true;
+                    if (context != null && context.getApplicationContext() != null) {
+                        instance.dataSource = ArticleRepository.getInstance(context);
+                        instance.isDataSourceInitialized = true;
                     }
                 }
             }
@@ -113,111 +166,259 @@ public class DataHandler {
     public static final String SUBCATEGORY_POLITICS = "politics";
     public static final String SUBCATEGORY_ECONOMY = "economy";
 
-    private static List<Article> allArticles = null;
-    private boolean isLoading = false;
-    private DataLoadListener dataLoadListener;
+    // Snapshot of the local corpus; replaced as a whole when new articles arrive
+    private static volatile ArticleIndex articleIndex = null;
+    private static final ArticleSearchIndex searchIndex = new ArticleSearchIndex();
+    private static final SearchSuggestions searchSuggestions = new SearchSuggestions();
+    private static final AtomicBoolean suggestionsSeeding = new AtomicBoolean();
+    // Articles added to the suggestions per lock hold while seeding, so typing is never blocked long
+    private static final int SUGGESTION_SEED_CHUNK = 1_000;
+    // Home carousels ask for 5; keep some headroom so small changes don't force a rebuild
+    private static final TopArticles topArticles = new TopArticles(20);
+
+    private static final List<ArticleChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    static {
+        SocialInteractionManager.addCounterListener(topArticles::onArticleChanged);
+    }
 
     /**
-     * Get all bookmarked articles, synced with BookmarkManager
+     * Get bookmarked articles, newest first.
+     * Bookmark ids are resolved in one batched lookup: cached articles come from the local
+     * database and only the rest are requested from the API. Ids the API cannot resolve fall
+     * back to the local corpus. The articles delivered are copies flagged as bookmarked, so
+     * the shared instances in the local corpus are never flagged.
+     *
+     * @param context  The context needed for BookmarkManager
+     * @param callback Callback to receive the results asynchronously
      */
-    public static List<Article> getBookmarkedArticles(android.content.Context context) {
-        List<Article> allArticles = getDummyArticles();
-        BookmarkManager bookmarkManager = BookmarkManager.getInstance(context);
-        bookmarkManager.syncArticleBookmarkStatus(allArticles);
+    public void getBookmarkedArticles(Context context, DataLoadListener callback) {
+        List<String> bookmarkedIds = new ArrayList<>(BookmarkManager.getInstance(context).getBookmarkedIds());
+        getArticlesByIds(bookmarkedIds, new DataLoadListener() {
+            @Override
+            public void onDataLoaded(List<Article> articles) {
+                List<Article> bookmarked = new ArrayList<>(articles.size());
+                for (Article article : articles) {
+                    Article copy = new Article(article);
+                    copy.setBookmarked(true);
+                    bookmarked.add(copy);
+                }
+                bookmarked.sort(ArticleCursor.NEWEST_FIRST);
+                if (callback != null) {
+                    callback.onDataLoaded(bookmarked);
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                if (callback != null) {
+                    callback.onError(message);
+                }
+            }
+        });
+    }
 
-        List<Article> bookmarked = new ArrayList<>();
-        for (Article article : allArticles) {
-            if (article.isBookmarked()) {
-                bookmarked.add(article);
+    /**
+     * Resolves article ids to articles in one batched request, falling back to the local
+     * corpus for ids the data source cannot resolve.
+     *
+     * @param ids      The ids to look up
+     * @param callback Receives the resolved articles in the order of {@code ids}
+     */
+    public void getArticlesByIds(List<String> ids, DataLoadListener callback) {
+        if (!isDataSourceInitialized || ids.isEmpty()) {
+            if (callback != null) {
+                callback.onDataLoaded(resolveLocally(ids, Collections.emptyList()));
             }
+            return;
         }
-        return bookmarked;
+
+        dataSource.getArticlesByIds(ids, new ArticleRepository.ArticleCallback() {
+            @Override
+            public void onSuccess(List<Article> articles) {
+                if (callback != null) {
+                    callback.onDataLoaded(resolveLocally(ids, articles));
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                if (callback != null) {
+                    callback.onDataLoaded(resolveLocally(ids, Collections.emptyList()));
+                }
+            }
+        });
     }
 
     /**
-     * Get all dummy articles. The list is cached after first creation.
+     * Orders {@code found} by {@code ids}, filling ids it lacks from the local corpus.
      */
-    public static List<Article> getDummyArticles() {
-        if (allArticles == null) {
-            allArticles = generateDummyArticles();
+    private static List<Article> resolveLocally(List<String> ids, List<Article> found) {
+        Map<String, Article> byId = new HashMap<>();
+        for (Article article : found) {
+            byId.put(article.getId(), article);
+        }
+        ArticleIndex index = getArticleIndex();
+        List<Article> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Article article = byId.containsKey(id) ? byId.get(id) : index.getById(id);
+            if (article != null) {
+                result.add(article);
+            }
         }
-        return new ArrayList<>(allArticles); // Return a copy to prevent modification of cached list
+        return result;
     }
 
     /**
-     * Get articles filtered by subcategory ID, trying the API first and falling back to dummy data
+     * Get every article of the local corpus: the generated dummy articles merged with all
+     * articles loaded since.
+     */
+    public static List<Article> getLocalArticles() {
+        return new ArrayList<>(getArticleIndex().getAll()); // Return a copy to prevent modification of cached list
+    }
+
+    /**
+     * Returns the current snapshot of the local corpus, generating the dummy articles on first use.
+     */
+    public static ArticleIndex getArticleIndex() {
+        ArticleIndex index = articleIndex;
+        if (index == null) {
+            synchronized (DataHandler.class) {
+                index = articleIndex;
+                if (index == null) {
+                    index = ArticleIndex.of(generateDummyArticles());
+                    articleIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Merges newly loaded articles into the local corpus by publishing a new snapshot.
+     * Lookups running concurrently keep using the snapshot they started with.
+     */
+    private static void mergeIntoArticleIndex(List<Article> articles) {
+        synchronized (DataHandler.class) {
+            ArticleIndex current = getArticleIndex();
+            ArticleIndex updated = current.withArticles(articles);
+            if (updated != current) {
+                articleIndex = updated;
+                if (!topArticles.isEmpty()) {
+                    topArticles.addArticles(articles);
+                }
+            }
+        }
+        searchSuggestions.addArticles(articles);
+    }
+
+    /**
+     * Pulls only the articles created, edited or deleted since the last sync, merges them
+     * into the local corpus and search index, and tells the registered change listeners.
+     * Listeners are not called when nothing changed.
      *
-     * @param subcategoryId The subcategory ID to filter by
-     * @param callback     Callback to receive the results asynchronously
+     * @param listener Receives the applied changes, or an error if no delta could be fetched
+     *                 and callers should fall back to a full reload
      */
-    public void getArticlesBySubcategory(String subcategoryId, DataLoadListener callback) {
-        if (!isViewModelInitialized) {
-            // Fall back to dummy data if ViewModel isn't initialized
-            List<Article> dummyArticles = getDummyArticlesBySubcategory(subcategoryId);
-            if (callback != null) {
-                callback.onDataLoaded(dummyArticles);
+    public void syncChanges(SyncListener listener) {
+        if (!isDataSourceInitialized) {
+            if (listener != null) {
+                listener.onError("No data source to sync with");
             }
             return;
         }
 
-        // Try to get data from the API first using the subcategory as a category filter
-        articleViewModel.loadArticles(subcategoryId, 1, 20); // Default page 1, 20 items per page
-        articleViewModel.getArticlesLiveData().observeForever(new Observer<List<Article>>() {
+        dataSource.syncChanges(new ArticleRepository.SyncCallback() {
             @Override
-            public void onChanged(List<Article> articles) {
-                if (articles != null && !articles.isEmpty()) {
-                    if (callback != null) {
-                        callback.onDataLoaded(articles);
-                    }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
-                } else {
-                    // Fall back to dummy data if API returns empty
-                    List<Article> dummyArticles = getDummyArticlesBySubcategory(subcategoryId);
-                    if (callback != null) {
-                        callback.onDataLoaded(dummyArticles);
+            public void onSuccess(ArticleChangeSet changes) {
+                if (!changes.isEmpty()) {
+                    applyChanges(changes);
+                    for (ArticleChangeListener changeListener : changeListeners) {
+                        changeListener.onArticlesChanged(changes);
                     }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
+                }
+                if (listener != null) {
+                    listener.onSyncComplete(changes);
                 }
             }
-        });
 
-        // Set up error handling
-        articleViewModel.getErrorLiveData().observeForever(new Observer<String>() {
             @Override
-            public void onChanged(String error) {
-                if (error != null) {
-                    // On error, fall back to dummy data
-                    List<Article> dummyArticles = getDummyArticlesBySubcategory(subcategoryId);
-                    if (callback != null) {
-                        callback.onDataLoaded(dummyArticles);
-                    }
-                    articleViewModel.getErrorLiveData().removeObserver(this);
+            public void onError(String message) {
+                if (listener != null) {
+                    listener.onError(message);
                 }
             }
         });
     }
 
     /**
-     * Get dummy articles filtered by subcategory ID
-     *
-     * @param subcategoryId The subcategory ID to filter by
-     * @return List of articles in the specified subcategory, or empty list if none found
+     * Registers a listener for synced article changes. Listeners are invoked on the main thread;
+     * remove them when their views go away.
      */
-    public static List<Article> getDummyArticlesBySubcategory(String subcategoryId) {
-        if (subcategoryId == null) {
-            return new ArrayList<>();
+    public static void addChangeListener(ArticleChangeListener listener) {
+        if (listener != null && !changeListeners.contains(listener)) {
+            changeListeners.add(listener);
         }
-        
-        List<Article> allArticles = getDummyArticles();
-        List<Article> filteredArticles = new ArrayList<>();
-        
-        for (Article article : allArticles) {
-            if (subcategoryId.equalsIgnoreCase(article.getSubcategoryId())) {
-                filteredArticles.add(article);
+    }
+
+    public static void removeChangeListener(ArticleChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Publishes a corpus snapshot with the changes applied and updates the search index.
+     */
+    private static void applyChanges(ArticleChangeSet changes) {
+        searchIndex.addArticles(changes.getUpserted());
+        searchIndex.removeArticles(changes.getDeletedIds());
+        synchronized (DataHandler.class) {
+            ArticleIndex current = getArticleIndex();
+            ArticleIndex updated = current.withArticles(changes.getUpserted())
+                    .withoutIds(changes.getDeletedIds());
+            if (updated != current) {
+                articleIndex = updated;
+                if (!topArticles.isEmpty()) {
+                    topArticles.addArticles(changes.getUpserted());
+                    topArticles.removeArticles(changes.getDeletedIds());
+                }
             }
         }
-        
-        return filteredArticles;
+        searchSuggestions.addArticles(changes.getUpserted());
+        searchSuggestions.removeArticles(changes.getDeletedIds());
+    }
+
+    /**
+     * Get articles filtered by subcategory ID, trying the API first and falling back to dummy data
+     *
+     * @param subcategoryId The subcategory ID to filter by
+     * @param callback     Callback to receive the results asynchronously
+     */
+    public void getArticlesBySubcategory(String subcategoryId, DataLoadListener callback) {
+        // Use the subcategory as a category filter; default page 1, 20 items per page
+        loadWithFallback(subcategoryId, 1, 20, CachePolicy.CACHE_THEN_NETWORK,
+                () -> getLocalArticlesBySubcategory(subcategoryId), callback);
+    }
+
+    /**
+     * Get the local corpus' articles in a subcategory
+     *
+     * @param subcategoryId The subcategory ID to filter by
+     * @return List of articles in the specified subcategory, or empty list if none found
+     */
+    public static List<Article> getLocalArticlesBySubcategory(String subcategoryId) {
+        return new ArrayList<>(getArticleIndex().getBySubcategory(subcategoryId));
+    }
+
+    /**
+     * Get at most {@code limit} of the local corpus' articles in a subcategory, without copying the rest
+     *
+     * @param subcategoryId The subcategory ID to filter by
+     * @param limit Maximum number of articles to return
+     * @return The first articles in the subcategory, or an empty list if none found
+     */
+    public static List<Article> getLocalArticlesBySubcategory(String subcategoryId, int limit) {
+        List<Article> articles = getArticleIndex().getBySubcategory(subcategoryId);
+        return new ArrayList<>(articles.subList(0, Math.min(Math.max(limit, 0), articles.size())));
     }
     
     /**
@@ -262,68 +463,27 @@ public class DataHandler {
      * @param callback   Callback to receive the results asynchronously
      */
     public void getArticlesByCategory(String categoryId, DataLoadListener callback) {
-        if (!isViewModelInitialized) {
-            // Fall back to dummy data if ViewModel isn't initialized
-            List<Article> dummyArticles = getDummyArticlesByCategory(categoryId);
-            if (callback != null) {
-                callback.onDataLoaded(dummyArticles);
-            }
-            return;
-        }
-
-        // Try to get data from the API first
-        articleViewModel.loadArticles(categoryId, 1, 20); // Default page 1, 20 items per page
-        articleViewModel.getArticlesLiveData().observeForever(new Observer<List<Article>>() {
-            @Override
-            public void onChanged(List<Article> articles) {
-                if (articles != null && !articles.isEmpty()) {
-                    if (callback != null) {
-                        callback.onDataLoaded(articles);
-                    }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
-                } else {
-                    // Fall back to dummy data if API returns empty
-                    List<Article> dummyArticles = getDummyArticlesByCategory(categoryId);
-                    if (callback != null) {
-                        callback.onDataLoaded(dummyArticles);
-                    }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
-                }
-            }
-        });
+        getArticlesByCategory(categoryId, CachePolicy.CACHE_THEN_NETWORK, callback);
+    }
 
-        // Set up error handling
-        articleViewModel.getErrorLiveData().observeForever(new Observer<String>() {
-            @Override
-            public void onChanged(String error) {
-                if (error != null) {
-                    // On error, fall back to dummy data
-                    List<Article> dummyArticles = getDummyArticlesByCategory(categoryId);
-                    if (callback != null) {
-                        callback.onDataLoaded(dummyArticles);
-                    }
-                    articleViewModel.getErrorLiveData().removeObserver(this);
-                }
-            }
-        });
+    /**
+     * Get articles by category, reading from the cache and the API as {@code policy} says
+     *
+     * @param categoryId The category ID to filter by
+     * @param policy     Where to read from
+     * @param callback   Callback to receive the results asynchronously
+     */
+    public void getArticlesByCategory(String categoryId, CachePolicy policy, DataLoadListener callback) {
+        // Default page 1, 20 items per page
+        loadWithFallback(categoryId, 1, 20, policy, () -> getLocalArticlesByCategory(categoryId), callback);
     }
 
     /**
-     * Get articles filtered by category ID (dummy data fallback)
+     * Get the local corpus' articles in a category (offline fallback)
      */
-    public static List<Article> getDummyArticlesByCategory(String categoryId) {
-        List<Article> filtered = new ArrayList<>();
-        if (categoryId == null) {
-            return filtered; // Return empty list if categoryId is null
-        }
-        
-        for (Article article : getDummyArticles()) {
-            String articleCategoryId = article.getCategoryId();
-            if (articleCategoryId != null && categoryId.equalsIgnoreCase(articleCategoryId)) {
-                filtered.add(article);
-            }
-        }
-        return filtered;
+    public static List<Article> getLocalArticlesByCategory(String categoryId) {
+        // Unknown or null categories map to an empty bucket
+        return new ArrayList<>(getArticleIndex().getByCategory(categoryId));
     }
 
     /**
@@ -333,76 +493,37 @@ public class DataHandler {
      * @param callback Callback to receive the result asynchronously
      */
     public void getArticleById(String id, SingleArticleCallback callback) {
-        if (!isViewModelInitialized) {
-            // Fall back to dummy data if ViewModel isn't initialized
-            Article dummyArticle = getDummyArticleById(id);
+        if (!isDataSourceInitialized) {
+            // Fall back to dummy data if the data source isn't initialized
+            Article dummyArticle = getLocalArticleById(id);
             if (callback != null) {
                 callback.onArticleLoaded(dummyArticle);
             }
             return;
         }
 
-        // Try to get data from the API first
-        articleViewModel.loadArticleById(id);
-        articleViewModel.getArticleLiveData().observeForever(new Observer<Article>() {
-            @Override
-            public void onChanged(Article article) {
-                if (article != null) {
-                    if (callback != null) {
-                        callback.onArticleLoaded(article);
-                    }
-                    articleViewModel.getArticleLiveData().removeObserver(this);
-                } else {
-                    // Fall back to dummy data if API returns null
-                    Article dummyArticle = getDummyArticleById(id);
-                    if (callback != null) {
-                        callback.onArticleLoaded(dummyArticle);
-                    }
-                    articleViewModel.getArticleLiveData().removeObserver(this);
-                }
-            }
-        });
-
-        // Set up error handling
-        articleViewModel.getErrorLiveData().observeForever(new Observer<String>() {
-            @Override
-            public void onChanged(String error) {
-                if (error != null) {
-                    // On error, fall back to dummy data
-                    Article dummyArticle = getDummyArticleById(id);
-                    if (callback != null) {
-                        callback.onArticleLoaded(dummyArticle);
-                    }
-                    articleViewModel.getErrorLiveData().removeObserver(this);
-                }
+        // Try to get data from the API first, falling back to dummy data on a miss or error
+        loadArticle(id).whenComplete((article, error) -> {
+            Article result = error == null && article != null ? article : getLocalArticleById(id);
+            if (callback != null) {
+                callback.onArticleLoaded(result);
             }
         });
     }
 
     /**
-     * Get a single article by ID from dummy data (fallback method)
+     * Get a single article by ID from the local corpus (fallback method)
      */
-    private Article getDummyArticleById(String id) {
-        for (Article article : getDummyArticles()) {
-            if (id.equals(article.getId())) {
-                return article;
-            }
-        }
-        return null;
+    private Article getLocalArticleById(String id) {
+        return getArticleIndex().getById(id);
     }
 
 
     /**
-     * Get articles by author ID
+     * Get the local corpus' articles by an author
      */
-    public static List<Article> getDummyArticlesByAuthor(String authorId) {
-        List<Article> filtered = new ArrayList<>();
-        for (Article article : getDummyArticles()) {
-            if (authorId.equals(article.getAuthorId())) {
-                filtered.add(article);
-            }
-        }
-        return filtered;
+    public static List<Article> getLocalArticlesByAuthor(String authorId) {
+        return new ArrayList<>(getArticleIndex().getByAuthor(authorId));
     }
 
     /**
@@ -411,9 +532,7 @@ public class DataHandler {
      * @param limit Maximum number of articles to return
      */
     public static List<Article> getMostViewedArticles(int limit) {
-        List<Article> articles = new ArrayList<>(getDummyArticles());
-        articles.sort((a1, a2) -> Integer.compare(a2.getViewCount(), a1.getViewCount()));
-        return articles.subList(0, Math.min(limit, articles.size()));
+        return getTopArticles().top(TopArticles.Metric.VIEWS, limit);
     }
 
     /**
@@ -422,9 +541,7 @@ public class DataHandler {
      * @param limit Maximum number of articles to return
      */
     public static List<Article> getMostLikedArticles(int limit) {
-        List<Article> articles = new ArrayList<>(getDummyArticles());
-        articles.sort((a1, a2) -> Integer.compare(a2.getLikeCount(), a1.getLikeCount()));
-        return articles.subList(0, Math.min(limit, articles.size()));
+        return getTopArticles().top(TopArticles.Metric.LIKES, limit);
     }
 
     /**
@@ -433,61 +550,152 @@ public class DataHandler {
      * @param limit Maximum number of articles to return
      */
     public static List<Article> getNewestArticles(int limit) {
-        List<Article> articles = new ArrayList<>(getDummyArticles());
-        articles.sort((a1, a2) -> a2.getPublishDate().compareTo(a1.getPublishDate()));
-        return articles.subList(0, Math.min(limit, articles.size()));
+        return getTopArticles().top(TopArticles.Metric.NEWEST, limit);
     }
 
     /**
-     * Get articles that user has started reading but not completed (continue reading)
+     * Returns the top-K views over the local corpus, building them on first use.
+     * Merged snapshots are applied to them incrementally, and like and share changes made
+     * through SocialInteractionManager keep them current.
+     */
+    private static TopArticles getTopArticles() {
+        if (topArticles.isEmpty()) {
+            // Under the snapshot lock, so no merge is missed between reading and setting
+            synchronized (DataHandler.class) {
+                if (topArticles.isEmpty()) {
+                    topArticles.setArticles(getArticleIndex().getAll());
+                }
+            }
+        }
+        return topArticles;
+    }
+
+    /**
+     * Get articles that user has started reading but not completed (continue reading).
+     * Only the most recent {@code limit} ids are resolved, in one batched lookup. The articles
+     * delivered are copies carrying the reading progress, so shared instances are never changed.
      *
      * @param context  The context needed for ReadingProgressManager
      * @param limit    Maximum number of articles to return
-     * @return List of articles in progress, sorted by last read time
-     */
-    public static List<Article> getContinueReadingArticles(Context context, int limit) {
-        List<Article> allArticles = getDummyArticles();
-
-        // Initialize ReadingProgressManager if not already done
-        try {
-            com.rafdi.vitechasia.blog.utils.ReadingProgressManager.initialize(context.getApplicationContext());
-            com.rafdi.vitechasia.blog.utils.ReadingProgressManager readingProgressManager =
-                com.rafdi.vitechasia.blog.utils.ReadingProgressManager.getInstance();
-
-            return readingProgressManager.getContinueReadingArticles(allArticles)
-                .stream()
-                .limit(limit)
-                .collect(ArrayList::new, (list, item) -> list.add(item), (list1, list2) -> list1.addAll(list2));
-        } catch (Exception e) {
-            // If ReadingProgressManager fails, return empty list
-            return new ArrayList<>();
+     * @param callback Receives the articles in progress, most recently read first
+     */
+    public void getContinueReadingArticles(Context context, int limit, DataLoadListener callback) {
+        ReadingProgressManager.initialize(context.getApplicationContext());
+        ReadingProgressManager readingProgressManager = ReadingProgressManager.getInstance();
+        List<String> ids = readingProgressManager.getInProgressArticleIds();
+        if (ids.size() > limit) {
+            ids = new ArrayList<>(ids.subList(0, limit));
         }
+
+        getArticlesByIds(ids, new DataLoadListener() {
+            @Override
+            public void onDataLoaded(List<Article> articles) {
+                List<Article> inProgress = new ArrayList<>(articles.size());
+                for (Article article : articles) {
+                    Article copy = new Article(article);
+                    copy.setReadingProgress(readingProgressManager.getReadingProgress(article.getId()));
+                    inProgress.add(copy);
+                }
+                if (callback != null) {
+                    callback.onDataLoaded(inProgress);
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                if (callback != null) {
+                    callback.onError(message);
+                }
+            }
+        });
     }
 
     /**
-     * Search for articles that match the given query in title, content, or author name
+     * Search for articles that match the given query in title, content, or author name.
+     * Uses the shared inverted index, so the cost depends on the number of matches rather than
+     * on the corpus size. Every query word must be the start of a word in the article; when
+     * that finds almost nothing, misspelled words are matched to close title and author words.
+     * Results are ranked by BM25 relevance, title matches weighing most, then author, then
+     * content. If nothing has been indexed yet and there is no data source to load articles
+     * from, the local corpus is indexed first.
+     * Ranking large result sets takes a few milliseconds, so call this off the main thread.
      *
      * @param query The search query
-     * @return List of matching articles
+     * @return List of matching articles, most relevant first
      */
     public static List<Article> searchArticles(String query) {
         if (query == null || query.trim().isEmpty()) {
             return new ArrayList<>();
         }
 
-        String searchQuery = query.toLowerCase().trim();
-        List<Article> allArticles = getDummyArticles();
-        List<Article> results = new ArrayList<>();
+        seedSearchIndexIfOffline();
+        return searchIndex.searchRanked(query);
+    }
+
+    /**
+     * Returns the shared search index over every article loaded through {@link #getAllArticles}.
+     */
+    public static ArticleSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
 
-        for (Article article : allArticles) {
-            if ((article.getTitle() != null && article.getTitle().toLowerCase().contains(searchQuery)) ||
-                    (article.getContent() != null && article.getContent().toLowerCase().contains(searchQuery)) ||
-                    (article.getAuthorName() != null && article.getAuthorName().toLowerCase().contains(searchQuery))) {
-                results.add(article);
+    /**
+     * Returns the shared search box completions over article titles, authors and search history.
+     * Without a data source, the first call seeds them with the local corpus on a background
+     * thread, so completions from articles fill in shortly after. Articles loaded or synced are
+     * added as they arrive.
+     */
+    public static SearchSuggestions getSearchSuggestions() {
+        if (!hasDataSource() && suggestionsSeeding.compareAndSet(false, true)) {
+            AppExecutors.getInstance().background().execute(DataHandler::seedSearchSuggestions);
+        }
+        return searchSuggestions;
+    }
+
+    private static void seedSearchSuggestions() {
+        List<Article> all = getArticleIndex().getAll();
+        for (int from = 0; from < all.size(); from += SUGGESTION_SEED_CHUNK) {
+            List<Article> chunk = all.subList(from, Math.min(from + SUGGESTION_SEED_CHUNK, all.size()));
+            synchronized (searchSuggestions) {
+                // Add the current version of each article: a merge or deletion that published a
+                // newer snapshot meanwhile updates the suggestions after this, never before
+                ArticleIndex current = getArticleIndex();
+                List<Article> latest = new ArrayList<>(chunk.size());
+                for (Article article : chunk) {
+                    Article currentArticle = current.getById(article.getId());
+                    if (currentArticle != null) {
+                        latest.add(currentArticle);
+                    }
+                }
+                searchSuggestions.addArticles(latest);
             }
         }
+    }
+
+    /**
+     * Creates a debounced search-as-you-type pipeline over the shared search index,
+     * seeding the index with the local articles if nothing has been loaded yet and there is
+     * no data source.
+     */
+    public static SearchPipeline newSearchPipeline() {
+        seedSearchIndexIfOffline();
+        return new SearchPipeline(searchIndex);
+    }
+
+    /**
+     * Indexes the local corpus for search when nothing is indexed and no data source is
+     * configured. With a data source the index holds only articles actually loaded, so
+     * generated dummy articles never show up among real results.
+     */
+    private static void seedSearchIndexIfOffline() {
+        if (searchIndex.isEmpty() && !hasDataSource()) {
+            searchIndex.addArticles(getArticleIndex().getAll());
+        }
+    }
 
-        return results;
+    private static boolean hasDataSource() {
+        DataHandler handler = instance;
+        return handler != null && handler.isDataSourceInitialized;
     }
 
     /**
@@ -750,53 +958,152 @@ public class DataHandler {
      * @param callback Callback to receive the results asynchronously
      */
     public void getPopularArticles(int count, DataLoadListener callback) {
-        // For this example, we'll just get all articles and sort by view count
-        // In a real app, you might have a separate API endpoint for popular articles
-        getAllArticles(new DataLoadListener() {
+        getPopularArticles(count, CachePolicy.CACHE_THEN_NETWORK, callback);
+    }
+
+    /**
+     * Gets popular articles, reading from the cache and the API as {@code policy} says
+     *
+     * @param count    Maximum number of articles to return
+     * @param policy   Where to read from
+     * @param callback Callback to receive the results asynchronously
+     */
+    public void getPopularArticles(int count, CachePolicy policy, DataLoadListener callback) {
+        getPopularArticlesPage(1, count, policy, callback);
+    }
+
+    /**
+     * Gets one page of articles by view count, most viewed first. The API sorts, so only the
+     * requested page is transferred; further pages are fetched when they are asked for.
+     *
+     * @param page     The page number (starting from 1)
+     * @param pageSize Number of articles per page
+     * @param policy   Where to read from
+     * @param callback Callback to receive the results asynchronously
+     */
+    public void getPopularArticlesPage(int page, int pageSize, CachePolicy policy, DataLoadListener callback) {
+        loadSortedPage(ArticleSort.MOST_VIEWED, page, pageSize, policy, callback);
+    }
+
+    /**
+     * Gets latest articles, trying the API first and falling back to dummy data
+     *
+     * @param count    Maximum number of articles to return
+     * @param callback Callback to receive the results asynchronously
+     */
+    public void getLatestArticles(int count, DataLoadListener callback) {
+        getLatestArticles(count, CachePolicy.CACHE_THEN_NETWORK, callback);
+    }
+
+    /**
+     * Gets latest articles, reading from the cache and the API as {@code policy} says.
+     * The API sorts, so only {@code count} articles are transferred.
+     *
+     * @param count    Maximum number of articles to return
+     * @param policy   Where to read from
+     * @param callback Callback to receive the results asynchronously
+     */
+    public void getLatestArticles(int count, CachePolicy policy, DataLoadListener callback) {
+        loadSortedPage(ArticleSort.NEWEST, 1, count, policy, callback);
+    }
+
+    /**
+     * Loads one server-sorted page and merges it into the article and search indexes.
+     * Without a data source every page comes from the dummy data. Otherwise only the first
+     * page falls back to dummy data, when it fails or comes back empty; a later page that
+     * fails is reported through {@code onError}, so dummy rows never follow real ones.
+     */
+    private void loadSortedPage(ArticleSort sort, int page, int pageSize, CachePolicy policy,
+                                DataLoadListener callback) {
+        if (!isDataSourceInitialized) {
+            if (callback != null) {
+                callback.onDataLoaded(getDummySortedPage(sort, page, pageSize));
+            }
+            return;
+        }
+        dataSource.getSortedArticles(null, sort, page, pageSize, policy, new ArticleRepository.ArticleCallback() {
             @Override
-            public void onDataLoaded(List<Article> articles) {
-                if (articles != null) {
-                    // Sort by view count (descending) and limit to count
-                    articles.sort((a1, a2) -> Integer.compare(a2.getViewCount(), a1.getViewCount()));
-                    List<Article> result = articles.subList(0, Math.min(count, articles.size()));
-                    if (callback != null) {
-                        callback.onDataLoaded(result);
-                    }
-                } else if (callback != null) {
-                    callback.onError("Failed to load popular articles");
+            public void onSuccess(List<Article> articles) {
+                List<Article> result;
+                if (articles == null || (articles.isEmpty() && page == 1)) {
+                    result = getDummySortedPage(sort, page, pageSize);
+                } else {
+                    searchIndex.addArticles(articles);
+                    mergeIntoArticleIndex(articles);
+                    result = articles;
+                }
+                if (callback != null) {
+                    callback.onDataLoaded(result);
                 }
             }
 
             @Override
             public void onError(String message) {
-                if (callback != null) {
+                if (callback == null) {
+                    return;
+                }
+                if (page == 1) {
+                    callback.onDataLoaded(getDummySortedPage(sort, page, pageSize));
+                } else {
                     callback.onError(message);
                 }
             }
+
+            @Override
+            public void onRefreshed(List<Article> articles) {
+                if (articles == null || articles.isEmpty()) {
+                    return;
+                }
+                searchIndex.addArticles(articles);
+                mergeIntoArticleIndex(articles);
+                if (callback != null) {
+                    callback.onDataRefreshed(articles);
+                }
+            }
         });
     }
 
     /**
-     * Gets latest articles, trying the API first and falling back to dummy data
+     * One page of the dummy articles in the given order, selected locally.
+     */
+    private static List<Article> getDummySortedPage(ArticleSort sort, int page, int pageSize) {
+        int from = Math.max(0, page - 1) * pageSize;
+        List<Article> top = getTopArticles().top(sort == ArticleSort.MOST_VIEWED
+                ? TopArticles.Metric.VIEWS : TopArticles.Metric.NEWEST, from + pageSize);
+        if (from >= top.size()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(top.subList(from, top.size()));
+    }
+
+    /**
+     * Gets all articles, trying the API first and falling back to dummy data.
+     * The result is also added to the shared search index and merged into the article index.
      *
-     * @param count    Maximum number of articles to return
      * @param callback Callback to receive the results asynchronously
      */
-    public void getLatestArticles(int count, DataLoadListener callback) {
-        // For this example, we'll just get all articles and sort by date
-        // In a real app, you might have a separate API endpoint for latest articles
-        getAllArticles(new DataLoadListener() {
+    public void getAllArticles(DataLoadListener callback) {
+        getAllArticles(CachePolicy.CACHE_THEN_NETWORK, callback);
+    }
+
+    /**
+     * Gets all articles, reading from the cache and the API as {@code policy} says.
+     * Results, including refreshed ones, are also added to the shared search index and
+     * merged into the article index.
+     *
+     * @param policy   Where to read from
+     * @param callback Callback to receive the results asynchronously
+     */
+    public void getAllArticles(CachePolicy policy, DataLoadListener callback) {
+        // Assuming 100 is a reasonable max
+        loadWithFallback(null, 1, 100, policy, DataHandler::getLocalArticles, new DataLoadListener() {
             @Override
             public void onDataLoaded(List<Article> articles) {
-                if (articles != null) {
-                    // Sort by publish date (newest first) and limit to count
-                    articles.sort((a1, a2) -> a2.getPublishDate().compareTo(a1.getPublishDate()));
-                    List<Article> result = articles.subList(0, Math.min(count, articles.size()));
-                    if (callback != null) {
-                        callback.onDataLoaded(result);
-                    }
-                } else if (callback != null) {
-                    callback.onError("Failed to load latest articles");
+                // Keep the search index in step with the corpus; unchanged articles are skipped
+                searchIndex.addArticles(articles);
+                mergeIntoArticleIndex(articles);
+                if (callback != null) {
+                    callback.onDataLoaded(articles);
                 }
             }
 
@@ -806,61 +1113,162 @@ public class DataHandler {
                     callback.onError(message);
                 }
             }
+
+            @Override
+            public void onDataRefreshed(List<Article> articles) {
+                searchIndex.addArticles(articles);
+                mergeIntoArticleIndex(articles);
+                if (callback != null) {
+                    callback.onDataRefreshed(articles);
+                }
+            }
         });
     }
+
     /**
-     * Gets all articles, trying the API first and falling back to dummy data
+     * Creates a paging source over the newest-first feed that loads pages on demand.
+     * Pages come from the API through keyset cursors. Without a data source every page comes
+     * from the dummy data; otherwise only a failed or empty first page does, and a later page
+     * that fails is reported through {@code onError} so the feed never continues from a cursor
+     * the server did not issue. Loaded pages are merged into the article and search indexes.
      *
-     * @param callback Callback to receive the results asynchronously
+     * @param category Category or subcategory to page through, or null for all articles
+     * @param pageSize Number of articles per page
      */
-    public void getAllArticles(DataLoadListener callback) {
-        if (!isViewModelInitialized) {
-            // Fall back to dummy data if ViewModel isn't initialized
-            List<Article> dummyArticles = getDummyAllArticles();
-            if (callback != null) {
-                callback.onDataLoaded(dummyArticles);
-            }
+    public ArticlePagingSource newPagingSource(String category, int pageSize) {
+        return newPagingSource(category, pageSize, CachePolicy.NETWORK_FIRST);
+    }
+
+    /**
+     * Creates a paging source like {@link #newPagingSource(String, int)} whose first page is
+     * read as {@code firstPagePolicy} says, e.g. from the cache with a later refresh.
+     * Later pages always ask the API first.
+     */
+    public ArticlePagingSource newPagingSource(String category, int pageSize, CachePolicy firstPagePolicy) {
+        return new ArticlePagingSource((pageCategory, after, limit, callback) ->
+                loadFeedPage(pageCategory, after, limit,
+                        after == null ? firstPagePolicy : CachePolicy.NETWORK_FIRST, callback),
+                category, pageSize);
+    }
+
+    private void loadFeedPage(String category, ArticleCursor after, int limit, CachePolicy policy,
+                              ArticleRepository.ArticleCallback callback) {
+        if (!isDataSourceInitialized) {
+            callback.onSuccess(getDummyFeedPage(category, after, limit));
             return;
         }
+        dataSource.getArticlesPage(category, after, limit, policy, new ArticleRepository.ArticleCallback() {
+            @Override
+            public void onSuccess(List<Article> articles) {
+                if (articles == null || (articles.isEmpty() && after == null)) {
+                    callback.onSuccess(getDummyFeedPage(category, after, limit));
+                    return;
+                }
+                searchIndex.addArticles(articles);
+                mergeIntoArticleIndex(articles);
+                callback.onSuccess(articles);
+            }
 
-        // Try to get data from the API first
-        articleViewModel.loadArticles(null, 1, 100); // Assuming 100 is a reasonable max
-        articleViewModel.getArticlesLiveData().observeForever(new Observer<List<Article>>() {
             @Override
-            public void onChanged(List<Article> articles) {
-                if (articles != null && !articles.isEmpty()) {
-                    if (callback != null) {
-                        callback.onDataLoaded(articles);
-                    }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
+            public void onError(String message) {
+                if (after == null) {
+                    callback.onSuccess(getDummyFeedPage(category, after, limit));
                 } else {
-                    List<Article> dummyArticles = getDummyAllArticles();
-                    if (callback != null) {
-                        callback.onDataLoaded(dummyArticles);
-                    }
-                    articleViewModel.getArticlesLiveData().removeObserver(this);
+                    callback.onError(message);
+                }
+            }
+
+            @Override
+            public void onFirstArticles(List<Article> articles) {
+                callback.onFirstArticles(articles);
+            }
+
+            @Override
+            public void onRefreshed(List<Article> articles) {
+                if (articles == null || articles.isEmpty()) {
+                    return;
                 }
+                searchIndex.addArticles(articles);
+                mergeIntoArticleIndex(articles);
+                callback.onRefreshed(articles);
             }
         });
+    }
+
+    /**
+     * Keyset page over the dummy articles, in the same order the API uses.
+     */
+    private List<Article> getDummyFeedPage(String category, ArticleCursor after, int limit) {
+        List<Article> matching = new ArrayList<>();
+        for (Article article : getArticleIndex().getAll()) {
+            if (category != null && !category.equals(article.getCategoryId())
+                    && !category.equals(article.getSubcategoryId())) continue;
+            if (after != null && !after.precedes(article)) continue;
+            matching.add(article);
+        }
+        return TopArticles.select(matching, limit, ArticleCursor.NEWEST_FIRST.reversed());
+    }
 
-        // Set up error handling
-        articleViewModel.getErrorLiveData().observeForever(new Observer<String>() {
+    /**
+     * Loads a page of articles for this request only and delivers it to {@code callback}.
+     * Falls back to {@code fallback} when the data source is unavailable, fails,
+     * or returns an empty list. A non-empty refresh is passed on as is.
+     */
+    private void loadWithFallback(String category, int page, int limit, CachePolicy policy,
+                                  Supplier<List<Article>> fallback, DataLoadListener callback) {
+        if (!isDataSourceInitialized) {
+            // Fall back to dummy data if the data source isn't initialized
+            if (callback != null) {
+                callback.onDataLoaded(fallback.get());
+            }
+            return;
+        }
+
+        dataSource.getArticles(category, page, limit, policy, new ArticleRepository.ArticleCallback() {
             @Override
-            public void onChanged(String error) {
-                if (error != null && callback != null) {
-                    List<Article> dummyArticles = getDummyAllArticles();
-                    callback.onDataLoaded(dummyArticles);
-                    articleViewModel.getErrorLiveData().removeObserver(this);
+            public void onSuccess(List<Article> articles) {
+                List<Article> result = articles != null && !articles.isEmpty() ? articles : fallback.get();
+                if (callback != null) {
+                    callback.onDataLoaded(result);
+                }
+            }
+
+            @Override
+            public void onError(String message) {
+                if (callback != null) {
+                    callback.onDataLoaded(fallback.get());
+                }
+            }
+
+            @Override
+            public void onRefreshed(List<Article> articles) {
+                if (callback != null && articles != null && !articles.isEmpty()) {
+                    callback.onDataRefreshed(articles);
                 }
             }
         });
     }
 
     /**
-     * Gets all articles from dummy data (fallback method)
+     * Starts a request-scoped single article load.
+     *
+     * @return A future completed with the article, or exceptionally with the
+     *         data source's error message
      */
-    private List<Article> getDummyAllArticles() {
-        return getDummyArticles();
+    CompletableFuture<Article> loadArticle(String id) {
+        CompletableFuture<Article> future = new CompletableFuture<>();
+        dataSource.getArticleById(id, new ArticleRepository.SingleArticleCallback() {
+            @Override
+            public void onSuccess(Article article) {
+                future.complete(article);
+            }
+
+            @Override
+            public void onError(String message) {
+                future.completeExceptionally(new IllegalStateException(message));
+            }
+        });
+        return future;
     }
 
     private static Article createArticle(String id, String title, String content, String authorName,
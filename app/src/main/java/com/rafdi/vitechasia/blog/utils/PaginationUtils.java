@@ -94,6 +94,15 @@ public class PaginationUtils<T> {
         reset();
     }
     
+    /**
+     * Replaces the data but stays on the current page, or the last one if the data shrank.
+     */
+    public void replaceData(List<T> newData) {
+        this.fullList = newData != null ? new ArrayList<>(newData) : new ArrayList<>();
+        calculateTotalPages();
+        currentPage = Math.min(currentPage, totalPages);
+    }
+    
     public List<T> loadNextPage() {
         if (hasNextPage()) {
             currentPage++;
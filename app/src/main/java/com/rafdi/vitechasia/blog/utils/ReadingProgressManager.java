@@ -66,6 +66,26 @@ public class ReadingProgressManager {
         return preferences.getInt(KEY_ARTICLE_PREFIX + articleId + KEY_PROGRESS, 0);
     }
 
+    /**
+     * Get the ids of articles that are in progress, most recently read first
+     */
+    public List<String> getInProgressArticleIds() {
+        List<String> ids = new ArrayList<>();
+        for (Map.Entry<String, ?> entry : preferences.getAll().entrySet()) {
+            String key = entry.getKey();
+            if (key.startsWith(KEY_ARTICLE_PREFIX) && key.endsWith(KEY_IN_PROGRESS)
+                    && Boolean.TRUE.equals(entry.getValue())) {
+                ids.add(key.substring(KEY_ARTICLE_PREFIX.length(), key.length() - KEY_IN_PROGRESS.length()));
+            }
+        }
+        ids.sort((a, b) -> Long.compare(getLastReadTime(b), getLastReadTime(a)));
+        return ids;
+    }
+
+    private long getLastReadTime(String articleId) {
+        return preferences.getLong(KEY_ARTICLE_PREFIX + articleId + KEY_LAST_READ, 0);
+    }
+
     /**
      * Get articles that are in progress (partially read)
      */
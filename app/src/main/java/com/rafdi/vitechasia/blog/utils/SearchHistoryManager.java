@@ -12,19 +12,45 @@ import java.util.List;
 
 /**
  * Utility class for managing search history.
- * Stores and retrieves user's recent search queries using SharedPreferences.
+ * Stores the user's search queries with how often and when each was last used in
+ * SharedPreferences, and feeds them to the shared {@link SearchSuggestions}.
  */
 public class SearchHistoryManager {
     private static final String PREF_NAME = "SearchHistoryPreferences";
+    /** Recent queries only, as written by earlier versions; read once to migrate. */
     private static final String KEY_SEARCH_HISTORY = "search_history";
+    private static final String KEY_SEARCH_HISTORY_ENTRIES = "search_history_entries";
+    /** Number of recent queries shown as history. */
     private static final int MAX_HISTORY_SIZE = 5;
+    /** Number of distinct queries kept for suggestions; the least recently used are dropped. */
+    private static final int MAX_STORED_QUERIES = 500;
     private final Gson gson = new Gson();
 
     private static SearchHistoryManager instance;
     private SharedPreferences preferences;
+    /** Most recently used first. */
+    private final List<HistoryEntry> entries;
+
+    /**
+     * One stored query.
+     */
+    public static final class HistoryEntry {
+        public final String query;
+        /** Number of times the query was searched. */
+        public final int count;
+        public final long lastUsedAt;
+
+        public HistoryEntry(String query, int count, long lastUsedAt) {
+            this.query = query;
+            this.count = count;
+            this.lastUsedAt = lastUsedAt;
+        }
+    }
 
     private SearchHistoryManager(Context context) {
         preferences = context.getApplicationContext().getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        entries = loadEntries();
+        DataHandler.getSearchSuggestions().setHistory(new ArrayList<>(entries));
     }
 
     public static synchronized SearchHistoryManager getInstance(Context context) {
@@ -37,82 +63,134 @@ public class SearchHistoryManager {
     /**
      * Add a search query to history
      */
-    public void addSearchQuery(String query) {
+    public synchronized void addSearchQuery(String query) {
         if (query == null || query.trim().isEmpty()) {
             return;
         }
 
-        List<String> historyList = getSearchHistory();
+        // Remove if already exists (to move to top), keeping its count
+        HistoryEntry previous = removeEntry(query);
+        HistoryEntry entry = new HistoryEntry(query.trim(), previous != null ? previous.count + 1 : 1,
+                System.currentTimeMillis());
+        entries.add(0, entry);
 
-        // Remove if already exists (to move to top)
-        historyList.remove(query.trim());
+        // Keep only the queries used most recently
+        while (entries.size() > MAX_STORED_QUERIES) {
+            HistoryEntry dropped = entries.remove(entries.size() - 1);
+            DataHandler.getSearchSuggestions().removeHistory(dropped.query);
+        }
 
-        // Add to beginning
-        historyList.add(0, query.trim());
+        saveEntries();
+        DataHandler.getSearchSuggestions().addHistory(entry);
+    }
 
-        // Keep only latest searches
-        if (historyList.size() > MAX_HISTORY_SIZE) {
-            historyList = historyList.subList(0, MAX_HISTORY_SIZE);
+    /**
+     * Get the most recent searches, most recent first
+     */
+    public synchronized List<String> getSearchHistory() {
+        List<String> history = new ArrayList<>();
+        for (HistoryEntry entry : entries) {
+            if (history.size() == MAX_HISTORY_SIZE) break;
+            history.add(entry.query);
         }
-
-        // Save back to preferences
-        saveHistory(historyList);
+        return history;
     }
 
     /**
-     * Get search history as a list
+     * Get every stored query with its use count, most recently used first
      */
-    public List<String> getSearchHistory() {
+    public synchronized List<HistoryEntry> getHistoryEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    private List<HistoryEntry> loadEntries() {
         try {
-            String historyJson = preferences.getString(KEY_SEARCH_HISTORY, null);
-            if (historyJson != null && !historyJson.isEmpty()) {
-                Type type = new TypeToken<List<String>>() {}.getType();
-                List<String> history = gson.fromJson(historyJson, type);
-                if (history != null) {
-                    return history;
+            String entriesJson = preferences.getString(KEY_SEARCH_HISTORY_ENTRIES, null);
+            if (entriesJson != null && !entriesJson.isEmpty()) {
+                Type type = new TypeToken<List<HistoryEntry>>() {}.getType();
+                List<HistoryEntry> stored = gson.fromJson(entriesJson, type);
+                if (stored != null) {
+                    return new ArrayList<>(stored);
                 }
             }
-            return new ArrayList<>();
+            return migrateRecentQueries();
         } catch (Exception e) {
             e.printStackTrace();
             return new ArrayList<>();
         }
     }
-    
-    private void saveHistory(List<String> history) {
-        String historyJson = gson.toJson(history);
-        preferences.edit().putString(KEY_SEARCH_HISTORY, historyJson).apply();
+
+    /**
+     * Turns the plain recent-query list of earlier versions into entries, one use each,
+     * spaced a second apart so their order is kept.
+     */
+    private List<HistoryEntry> migrateRecentQueries() {
+        List<HistoryEntry> migrated = new ArrayList<>();
+        String historyJson = preferences.getString(KEY_SEARCH_HISTORY, null);
+        if (historyJson == null || historyJson.isEmpty()) {
+            return migrated;
+        }
+        Type type = new TypeToken<List<String>>() {}.getType();
+        List<String> history = gson.fromJson(historyJson, type);
+        long now = System.currentTimeMillis();
+        if (history != null) {
+            for (int i = 0; i < history.size(); i++) {
+                migrated.add(new HistoryEntry(history.get(i), 1, now - i * 1000L));
+            }
+        }
+        preferences.edit()
+                .putString(KEY_SEARCH_HISTORY_ENTRIES, gson.toJson(migrated))
+                .remove(KEY_SEARCH_HISTORY)
+                .apply();
+        return migrated;
+    }
+
+    private void saveEntries() {
+        String entriesJson = gson.toJson(entries);
+        preferences.edit().putString(KEY_SEARCH_HISTORY_ENTRIES, entriesJson).apply();
+    }
+
+    /**
+     * Removes the entry for {@code query}, matched the way suggestions key it: ignoring case
+     * and how the words are spaced.
+     */
+    private HistoryEntry removeEntry(String query) {
+        String key = SuggestionTrie.normalize(query);
+        for (int i = 0; i < entries.size(); i++) {
+            if (SuggestionTrie.normalize(entries.get(i).query).equals(key)) {
+                return entries.remove(i);
+            }
+        }
+        return null;
     }
 
     /**
      * Clear all search history
      */
-    public void clearSearchHistory() {
-        preferences.edit().remove(KEY_SEARCH_HISTORY).apply();
+    public synchronized void clearSearchHistory() {
+        entries.clear();
+        preferences.edit().remove(KEY_SEARCH_HISTORY_ENTRIES).remove(KEY_SEARCH_HISTORY).apply();
+        DataHandler.getSearchSuggestions().setHistory(null);
     }
 
     /**
      * Remove a specific search query from history
      */
-    public void removeSearchQuery(String query) {
+    public synchronized void removeSearchQuery(String query) {
         if (query == null) return;
 
-        List<String> history = getSearchHistory();
-        history.remove(query.trim());
-
-        // Save updated history
-        saveHistory(history);
+        HistoryEntry removed = removeEntry(query);
+        if (removed != null) {
+            // Save updated history
+            saveEntries();
+            DataHandler.getSearchSuggestions().removeHistory(removed.query);
+        }
     }
 
     /**
      * Check if search history is empty
      */
-    public boolean isHistoryEmpty() {
-        return getHistory().isEmpty();
-    }
-    
-    private List<String> getHistory() {
-        List<String> history = getSearchHistory();
-        return history != null ? history : new ArrayList<>();
+    public synchronized boolean isHistoryEmpty() {
+        return entries.isEmpty();
     }
 }
@@ -0,0 +1,153 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import androidx.annotation.NonNull;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Search-as-you-type over an {@link ArticleSearchIndex}.
+ *
+ * <p>Queries are debounced: a query only runs once no newer one has been submitted for the
+ * debounce window, and every submission supersedes the ones before it. A superseded query is
+ * dropped before it starts and, if it was already running, its results are never delivered.
+ * Matching and ranking run on a background executor; results are delivered on the main thread.
+ * When a query extends the previous one, e.g. "andr" after "and", the previous matches are
+ * narrowed with {@link ArticleSearchIndex#refine} instead of searching the whole corpus again.
+ * The results come with an {@link ArticleFilterIndex} built on the worker too, so filtering
+ * and sorting them on the main thread never starts with a pass over the whole list.
+ */
+public class SearchPipeline {
+    /** Default quiet period after the last keystroke before a query runs. */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 150;
+    /** From this many results the filter index's date and view orders are built on the worker. */
+    static final int PRESORT_MIN_RESULTS = 1_000;
+
+    /**
+     * Receives the results of the latest query, on the delivery executor.
+     */
+    public interface Listener {
+        /**
+         * @param query The query the results belong to, as submitted
+         * @param results Matching articles, best first
+         * @param filters Filter index over {@code results}, ready to query on the delivery thread
+         */
+        void onResults(String query, List<Article> results, ArticleFilterIndex filters);
+    }
+
+    private final ArticleSearchIndex index;
+    private final ScheduledExecutorService scheduler;
+    private final Executor worker;
+    private final Executor delivery;
+    private final long debounceMillis;
+    private final AtomicLong generation = new AtomicLong();
+
+    private ScheduledFuture<?> pending;
+    private ArticleSearchIndex.Matches lastMatches;
+
+    /**
+     * Creates a pipeline on the shared {@link AppExecutors} with the default debounce window.
+     */
+    public SearchPipeline(@NonNull ArticleSearchIndex index) {
+        this(index, AppExecutors.getInstance().scheduler(), AppExecutors.getInstance().background(),
+                AppExecutors.getInstance().mainThread(), DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    SearchPipeline(ArticleSearchIndex index, ScheduledExecutorService scheduler, Executor worker,
+                   Executor delivery, long debounceMillis) {
+        this.index = index;
+        this.scheduler = scheduler;
+        this.worker = worker;
+        this.delivery = delivery;
+        this.debounceMillis = Math.max(0, debounceMillis);
+    }
+
+    /**
+     * Runs {@code query} once the debounce window passes without another submission.
+     * A blank query cancels pending work and delivers no results right away.
+     */
+    public void submit(String query, @NonNull Listener listener) {
+        schedule(query, debounceMillis, listener);
+    }
+
+    /**
+     * Runs {@code query} without waiting, e.g. when the search button is pressed.
+     */
+    public void submitNow(String query, @NonNull Listener listener) {
+        schedule(query, 0, listener);
+    }
+
+    /**
+     * Drops the pending query, if any, and any results still in flight.
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private synchronized void schedule(String query, long delayMillis, Listener listener) {
+        long ticket = generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        if (query == null || query.trim().isEmpty()) {
+            List<Article> none = Collections.emptyList();
+            deliver(ticket, query, none, new ArticleFilterIndex(none), listener);
+            return;
+        }
+        if (delayMillis == 0) {
+            worker.execute(() -> run(ticket, query, listener));
+        } else {
+            pending = scheduler.schedule(() -> worker.execute(() -> run(ticket, query, listener)),
+                    delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void run(long ticket, String query, Listener listener) {
+        if (generation.get() != ticket) {
+            return; // Superseded while waiting for a worker
+        }
+        ArticleSearchIndex.Matches previous;
+        synchronized (this) {
+            previous = lastMatches;
+        }
+        ArticleSearchIndex.Matches matches = index.refine(query, previous);
+        synchronized (this) {
+            if (generation.get() == ticket) {
+                lastMatches = matches;
+            }
+        }
+        if (generation.get() != ticket) {
+            return;
+        }
+        List<Article> results = matches.getArticles();
+        ArticleFilterIndex filters = new ArticleFilterIndex(results);
+        if (filters.size() >= PRESORT_MIN_RESULTS) {
+            filters.buildOrders();
+        }
+        deliver(ticket, query, results, filters, listener);
+    }
+
+    private void deliver(long ticket, String query, List<Article> results, ArticleFilterIndex filters,
+                         Listener listener) {
+        if (generation.get() != ticket) {
+            return;
+        }
+        delivery.execute(() -> {
+            if (generation.get() == ticket) {
+                listener.onResults(query, results, filters);
+            }
+        });
+    }
+}
@@ -0,0 +1,218 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Search box completions drawn from article titles, author names and the user's search history.
+ *
+ * <p>Every source adds weight to its phrase in a {@link SuggestionTrie}: an article adds a
+ * recency weight to its title and to its author's name, so prolific and recently published
+ * authors rank higher; a past query adds its use count times the recency of its last use,
+ * boosted by {@link #HISTORY_BOOST}. Recency uses forward decay: a timestamp {@code t} weighs
+ * {@code 2^((t - anchor) / halfLife)}, which ranks like exponential decay from "now" without
+ * having to re-weight old entries as time passes.
+ *
+ * <p>Those weights double every half-life, so left alone they would overflow a double within
+ * decades, and phrase sums mixing weights more than 2^53 apart would lose the small ones on
+ * removal. Instead, once a timestamp lands {@link #REANCHOR_AFTER_MILLIS} past the anchor, the
+ * anchor moves to it and the trie is rebuilt from the stored timestamps, with fresh sums.
+ * Weights therefore stay at most {@code 2^26} times the boost, and the rebuild, linear in the
+ * number of articles, happens about once a year.
+ *
+ * <p>Articles are added incrementally and keyed by id, so re-adding an edited article moves
+ * its contribution to the new title. All public methods are thread-safe.
+ */
+public class SearchSuggestions {
+    /** Recency halves every two weeks. */
+    static final long HALF_LIFE_MILLIS = 14L * 24 * 60 * 60 * 1000;
+    /** A timestamp this far past the anchor, 26 half-lives or about a year, moves the anchor. */
+    static final long REANCHOR_AFTER_MILLIS = 26 * HALF_LIFE_MILLIS;
+    /** A query searched once outranks a title published at the same time this many times over. */
+    static final double HISTORY_BOOST = 8;
+
+    private SuggestionTrie trie = new SuggestionTrie();
+    /** Forward-decay anchor; starts at the epoch and moves to the first timestamp added. */
+    private long anchorMillis;
+    private final Map<String, ArticleEntry> articles = new HashMap<>();
+    /** Weight each history query contributed, by normalised query. */
+    private final Map<String, HistoryContribution> history = new HashMap<>();
+
+    /**
+     * Adds or updates the titles and authors of the given articles.
+     */
+    public synchronized void addArticles(Collection<Article> articles) {
+        if (articles == null) return;
+        for (Article article : articles) {
+            if (article == null || article.getId() == null) continue;
+            ArticleEntry entry = new ArticleEntry(article.getTitle(), article.getAuthorName(),
+                    article.getPublishDate() != null ? article.getPublishDate().getTime() : 0L);
+            ArticleEntry previous = this.articles.put(article.getId(), entry);
+            if (entry.equals(previous)) continue;
+            if (previous != null) {
+                unindex(previous);
+            }
+            if (!reanchorIfNeeded(entry.publishedAt)) {
+                index(entry);
+            }
+        }
+    }
+
+    /**
+     * Removes the articles with the given ids; unknown ids are ignored.
+     */
+    public synchronized void removeArticles(Collection<String> articleIds) {
+        if (articleIds == null) return;
+        for (String articleId : articleIds) {
+            ArticleEntry previous = articleId != null ? articles.remove(articleId) : null;
+            if (previous != null) {
+                unindex(previous);
+            }
+        }
+    }
+
+    /**
+     * Replaces the search history contribution with the given entries.
+     */
+    public synchronized void setHistory(List<SearchHistoryManager.HistoryEntry> entries) {
+        for (HistoryContribution contribution : history.values()) {
+            trie.remove(contribution.query, weight(contribution));
+        }
+        history.clear();
+        if (entries == null) return;
+        for (SearchHistoryManager.HistoryEntry entry : entries) {
+            addHistoryLocked(entry);
+        }
+    }
+
+    /**
+     * Adds or updates one search history entry.
+     */
+    public synchronized void addHistory(SearchHistoryManager.HistoryEntry entry) {
+        addHistoryLocked(entry);
+    }
+
+    public synchronized void removeHistory(String query) {
+        HistoryContribution previous = history.remove(SuggestionTrie.normalize(query));
+        if (previous != null) {
+            trie.remove(previous.query, weight(previous));
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} completions of {@code prefix}, best first.
+     */
+    public synchronized List<String> suggest(String prefix, int limit) {
+        return trie.top(prefix, limit);
+    }
+
+    /**
+     * Number of distinct phrases that can be suggested.
+     */
+    public synchronized int size() {
+        return trie.size();
+    }
+
+    private void addHistoryLocked(SearchHistoryManager.HistoryEntry entry) {
+        if (entry == null || entry.query == null) return;
+        String key = SuggestionTrie.normalize(entry.query);
+        if (key.isEmpty()) return;
+        HistoryContribution previous = history.remove(key);
+        if (previous != null) {
+            trie.remove(previous.query, weight(previous));
+        }
+        HistoryContribution contribution = new HistoryContribution(entry.query,
+                Math.max(1, entry.count), entry.lastUsedAt);
+        history.put(key, contribution);
+        if (!reanchorIfNeeded(contribution.lastUsedAt)) {
+            trie.add(contribution.query, weight(contribution));
+        }
+    }
+
+    private void index(ArticleEntry entry) {
+        double weight = recency(entry.publishedAt);
+        trie.add(entry.title, weight);
+        trie.add(entry.author, weight);
+    }
+
+    private void unindex(ArticleEntry entry) {
+        double weight = recency(entry.publishedAt);
+        trie.remove(entry.title, weight);
+        trie.remove(entry.author, weight);
+    }
+
+    private double weight(HistoryContribution contribution) {
+        return HISTORY_BOOST * contribution.count * recency(contribution.lastUsedAt);
+    }
+
+    /**
+     * Moves the anchor to {@code timeMillis} and rebuilds the trie from every stored entry when
+     * the timestamp is too far past the current anchor.
+     *
+     * @return Whether the trie was rebuilt, which already indexed every stored entry
+     */
+    private boolean reanchorIfNeeded(long timeMillis) {
+        if (timeMillis - anchorMillis <= REANCHOR_AFTER_MILLIS) {
+            return false;
+        }
+        anchorMillis = timeMillis;
+        trie = new SuggestionTrie();
+        for (ArticleEntry entry : articles.values()) {
+            index(entry);
+        }
+        for (HistoryContribution contribution : history.values()) {
+            trie.add(contribution.query, weight(contribution));
+        }
+        return true;
+    }
+
+    /**
+     * Forward-decay weight of a timestamp relative to the current anchor; later timestamps
+     * weigh more. Timestamps long before the anchor weigh zero.
+     */
+    double recency(long timeMillis) {
+        return Math.pow(2, (double) (timeMillis - anchorMillis) / HALF_LIFE_MILLIS);
+    }
+
+    private static final class ArticleEntry {
+        final String title;
+        final String author;
+        final long publishedAt;
+
+        ArticleEntry(String title, String author, long publishedAt) {
+            this.title = title;
+            this.author = author;
+            this.publishedAt = publishedAt;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ArticleEntry)) return false;
+            ArticleEntry other = (ArticleEntry) o;
+            return Objects.equals(title, other.title) && Objects.equals(author, other.author)
+                    && publishedAt == other.publishedAt;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(title, author, publishedAt);
+        }
+    }
+
+    private static final class HistoryContribution {
+        final String query;
+        final int count;
+        final long lastUsedAt;
+
+        HistoryContribution(String query, int count, long lastUsedAt) {
+            this.query = query;
+            this.count = count;
+            this.lastUsedAt = lastUsedAt;
+        }
+    }
+}
@@ -171,7 +171,10 @@ public class ShareUtils {
         if (content != null && content.length() > 150) {
             content = content.substring(0, 150) + "...";
         }
-        shareText.append(content).append("\n\n");
+        // Articles opened from a list may not have their body yet
+        if (content != null) {
+            shareText.append(content).append("\n\n");
+        }
 
         // Author and category info
         if (article.getAuthorName() != null) {
@@ -6,6 +6,9 @@ import android.preference.PreferenceManager;
 
 import com.rafdi.vitechasia.blog.models.Article;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * Utility class for managing social interactions (likes, shares, bookmarks)
  */
@@ -18,8 +21,16 @@ public class SocialInteractionManager {
     private static final String KEY_COMMENTS_COUNT_PREFIX = "comments_count_";
 
     private static SocialInteractionManager instance;
+    private static final List<CounterListener> counterListeners = new CopyOnWriteArrayList<>();
     private SharedPreferences preferences;
 
+    /**
+     * Interface for being told when an article's like or share count changes
+     */
+    public interface CounterListener {
+        void onCountersChanged(Article article);
+    }
+
     private SocialInteractionManager(Context context) {
         preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
     }
@@ -37,6 +48,26 @@ public class SocialInteractionManager {
         return instance;
     }
 
+    /**
+     * Registers a listener for counter changes. Listeners are kept across
+     * initialize() calls and are invoked on the thread that made the change.
+     */
+    public static void addCounterListener(CounterListener listener) {
+        if (listener != null && !counterListeners.contains(listener)) {
+            counterListeners.add(listener);
+        }
+    }
+
+    public static void removeCounterListener(CounterListener listener) {
+        counterListeners.remove(listener);
+    }
+
+    private static void notifyCountersChanged(Article article) {
+        for (CounterListener listener : counterListeners) {
+            listener.onCountersChanged(article);
+        }
+    }
+
     /**
      * Toggle like status for an article
      */
@@ -65,6 +96,7 @@ public class SocialInteractionManager {
         // Update article object
         article.setLikedByUser(isLikedNow);
         article.setLikeCount(currentLikes);
+        notifyCountersChanged(article);
 
         return isLikedNow;
     }
@@ -91,6 +123,7 @@ public class SocialInteractionManager {
             // Update article object
             article.setSharedByUser(true);
             article.setShareCount(currentShares);
+            notifyCountersChanged(article);
         }
     }
 
@@ -0,0 +1,237 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Weighted prefix trie of phrases for search suggestions.
+ *
+ * <p>Phrases are keyed by their normalised form (lower case, single spaces), so "Android"
+ * and "android " share an entry; the display text is the one most recently added. Each entry
+ * sums the weights of its contributions and counts them, so it disappears exactly when its
+ * last contribution is removed. Every node also stores the best weight in its subtree, which
+ * lets {@link #top} walk best-first and stop after {@code limit} phrases instead of visiting
+ * every completion of a short prefix.
+ *
+ * <p>Children are kept in sorted parallel arrays rather than maps to keep nodes small.
+ * Not thread-safe; {@link SearchSuggestions} guards it.
+ */
+final class SuggestionTrie {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node();
+    private int size;
+
+    /**
+     * Adds one contribution of {@code weight} to {@code phrase}.
+     */
+    void add(String phrase, double weight) {
+        String key = normalize(phrase);
+        if (key.isEmpty()) return;
+        Node[] path = new Node[key.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            path[i + 1] = node;
+        }
+        if (node.references == 0) {
+            size++;
+        }
+        node.phrase = phrase.trim();
+        node.weight += weight;
+        node.references++;
+        if (weight >= 0) {
+            // Weights only grew, so the maxima along the path can only rise to this entry's
+            for (Node onPath : path) {
+                onPath.best = Math.max(onPath.best, node.weight);
+            }
+        } else {
+            updateBest(path, key);
+        }
+    }
+
+    /**
+     * Removes one contribution of {@code weight} from {@code phrase}, as added before.
+     */
+    void remove(String phrase, double weight) {
+        String key = normalize(phrase);
+        if (key.isEmpty()) return;
+        Node[] path = new Node[key.length() + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.child(key.charAt(i));
+            if (node == null) return;
+            path[i + 1] = node;
+        }
+        if (node.references == 0) return;
+        // Rounding can leave a sum of positive weights slightly below zero
+        node.weight = Math.max(0, node.weight - weight);
+        node.references--;
+        if (node.references == 0) {
+            node.phrase = null;
+            node.weight = 0;
+            size--;
+        }
+        updateBest(path, key);
+    }
+
+    /**
+     * Returns up to {@code limit} phrases starting with {@code prefix}, best weight first;
+     * equal weights are ordered by normalised phrase.
+     */
+    List<String> top(String prefix, int limit) {
+        List<String> results = new ArrayList<>(Math.max(0, limit));
+        String key = normalize(prefix);
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null || limit <= 0) {
+            return results;
+        }
+
+        // Subtrees are ranked by their best entry, so the next entry popped is always the best left
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(node, key, false));
+        while (!queue.isEmpty() && results.size() < limit) {
+            Candidate candidate = queue.poll();
+            if (candidate.entry) {
+                results.add(candidate.node.phrase);
+                continue;
+            }
+            Node current = candidate.node;
+            if (current.references > 0) {
+                queue.add(new Candidate(current, candidate.key, true));
+            }
+            for (int i = 0; i < current.keys.length; i++) {
+                queue.add(new Candidate(current.children[i], candidate.key + current.keys[i], false));
+            }
+        }
+        return results;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Recomputes the subtree maxima bottom-up along {@code path} and prunes nodes left empty.
+     */
+    private static void updateBest(Node[] path, String key) {
+        for (int i = path.length - 1; i >= 0; i--) {
+            Node node = path[i];
+            if (i > 0 && node.references == 0 && node.keys.length == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+                continue;
+            }
+            double best = node.references > 0 ? node.weight : Double.NEGATIVE_INFINITY;
+            for (Node child : node.children) {
+                best = Math.max(best, child.best);
+            }
+            node.best = best;
+        }
+    }
+
+    /**
+     * Lower-cases and collapses whitespace, so suggestions match however the user spaces words.
+     */
+    static String normalize(String text) {
+        if (text == null) return "";
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) normalized.append(' ');
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        /** Display text of the phrase ending here, or null. */
+        String phrase;
+        double weight;
+        int references;
+        /** Greatest entry weight in this subtree, including this node. */
+        double best = Double.NEGATIVE_INFINITY;
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node childOrCreate(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) return;
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys.length == 0 ? NO_KEYS : newKeys;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+    }
+
+    /**
+     * Either a whole subtree, ranked by its best entry, or the entry at its root.
+     * On equal weight, candidates sort by key; a subtree's key is a prefix of every key in it,
+     * so tied entries come out in key order. An entry sorts before its own subtree.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+        final Node node;
+        /** Normalised path from the root to {@link #node}. */
+        final String key;
+        final boolean entry;
+        final double score;
+
+        Candidate(Node node, String key, boolean entry) {
+            this.node = node;
+            this.key = key;
+            this.entry = entry;
+            this.score = entry ? node.weight : node.best;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            int byScore = Double.compare(other.score, score);
+            if (byScore != 0) return byScore;
+            int byKey = key.compareTo(other.key);
+            if (byKey != 0) return byKey;
+            return entry == other.entry ? 0 : entry ? -1 : 1;
+        }
+    }
+}
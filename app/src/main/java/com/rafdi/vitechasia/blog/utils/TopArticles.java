@@ -0,0 +1,271 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Maintained top-K views of a corpus of articles: most viewed, most liked and newest.
+ *
+ * <p>Each view keeps the best {@code 2 * capacity} articles in ranked order, so that it can
+ * serve the top {@code capacity} after members drop out. Reading a view costs O(K). When an
+ * article changes, {@link #onArticleChanged(Article)} finds it by id and repositions it in
+ * each view in O(K); a member falling below the view's last article simply leaves it. Added
+ * and removed articles are applied the same way. Only when a view with articles outside it
+ * shrinks below {@code capacity} is it rebuilt from the corpus with a heap selection,
+ * O(n log K). All methods are thread-safe.
+ */
+public class TopArticles {
+
+    /**
+     * The orderings a view can be ranked by. Comparators sort ascending, so the top of a view
+     * holds the greatest elements.
+     */
+    public enum Metric {
+        VIEWS(Comparator.comparingInt(Article::getViewCount)),
+        LIKES(Comparator.comparingInt(Article::getLikeCount)),
+        NEWEST(Comparator.comparing(Article::getPublishDate,
+                Comparator.nullsFirst(Comparator.<Date>naturalOrder())));
+
+        final Comparator<Article> comparator;
+
+        Metric(Comparator<Article> comparator) {
+            this.comparator = comparator;
+        }
+    }
+
+    private final int capacity;
+    /** Articles kept per view: the capacity plus as much headroom again. */
+    private final int depth;
+    /** The corpus by id, in insertion order so selections break ties like a list would. */
+    private final Map<String, Article> corpus = new LinkedHashMap<>();
+    private final Map<Metric, View> views = new EnumMap<>(Metric.class);
+    private int rebuildCount;
+
+    /**
+     * @param capacity Number of articles served per view; larger requests fall back to a selection
+     */
+    public TopArticles(int capacity) {
+        this.capacity = capacity;
+        this.depth = capacity * 2;
+    }
+
+    /**
+     * Replaces the corpus and rebuilds every view.
+     */
+    public synchronized void setArticles(Collection<Article> articles) {
+        corpus.clear();
+        views.clear();
+        addArticles(articles);
+    }
+
+    /**
+     * Adds articles to the corpus, or replaces the ones with known ids, updating the views
+     * in place. Articles without an id are skipped.
+     */
+    public synchronized void addArticles(Collection<Article> articles) {
+        if (articles == null) return;
+        for (Article article : articles) {
+            if (article == null || article.getId() == null) continue;
+            corpus.put(article.getId(), article);
+            updateViews(article);
+        }
+    }
+
+    /**
+     * Removes the articles with the given ids; unknown ids are ignored.
+     */
+    public synchronized void removeArticles(Collection<String> ids) {
+        if (ids == null) return;
+        for (String id : ids) {
+            if (id == null || corpus.remove(id) == null) continue;
+            for (Iterator<View> it = views.values().iterator(); it.hasNext(); ) {
+                View view = it.next();
+                int index = indexOfId(view.ranked, id);
+                if (index >= 0) {
+                    view.ranked.remove(index);
+                    if (!view.isUsable()) {
+                        it.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return corpus.isEmpty();
+    }
+
+    /**
+     * Returns the best {@code limit} articles for the metric, best first.
+     */
+    public synchronized List<Article> top(Metric metric, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        if (limit > capacity) {
+            return select(corpus.values(), limit, metric.comparator);
+        }
+        View view = views.get(metric);
+        if (view == null) {
+            rebuildCount++;
+            view = new View(select(corpus.values(), depth, metric.comparator), corpus.size() > depth);
+            views.put(metric, view);
+        }
+        return new ArrayList<>(view.ranked.subList(0, Math.min(limit, view.ranked.size())));
+    }
+
+    /**
+     * Updates the views after an article's counters changed. The article is matched by id;
+     * if the given object is not the one in the corpus it replaces it.
+     */
+    public synchronized void onArticleChanged(Article article) {
+        if (article == null || article.getId() == null || !corpus.containsKey(article.getId())) return;
+        corpus.put(article.getId(), article);
+        updateViews(article);
+    }
+
+    /**
+     * Number of times a view was built from the whole corpus.
+     */
+    synchronized int getRebuildCount() {
+        return rebuildCount;
+    }
+
+    private void updateViews(Article article) {
+        for (Iterator<Map.Entry<Metric, View>> it = views.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Metric, View> entry = it.next();
+            View view = entry.getValue();
+            reposition(view, article, entry.getKey().comparator);
+            if (!view.isUsable()) {
+                // Something from outside the view should move up; find it on the next read
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Moves, inserts or evicts {@code article} so {@code view} stays the ranked top of the
+     * corpus, shrinking it when a member falls below every article it keeps.
+     */
+    private void reposition(View view, Article article, Comparator<Article> comparator) {
+        List<Article> ranked = view.ranked;
+        int index = indexOfId(ranked, article.getId());
+        if (index >= 0) {
+            ranked.remove(index);
+        }
+        if (view.truncated && (ranked.isEmpty()
+                || comparator.compare(article, ranked.get(ranked.size() - 1)) <= 0)) {
+            // Ranks with the articles outside the view, whose order is unknown
+            return;
+        }
+        ranked.add(insertionPoint(ranked, article, comparator), article);
+        if (ranked.size() > depth) {
+            ranked.remove(ranked.size() - 1);
+            view.truncated = true;
+        }
+    }
+
+    /**
+     * Position after every element ranked at least as high as {@code article},
+     * matching the order a stable selection would produce for ties.
+     */
+    private static int insertionPoint(List<Article> view, Article article, Comparator<Article> comparator) {
+        int low = 0, high = view.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(view.get(mid), article) >= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int indexOfId(List<Article> articles, String id) {
+        for (int i = 0; i < articles.size(); i++) {
+            if (id.equals(articles.get(i).getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Selects the {@code k} greatest elements with a bounded min-heap, in O(n log k),
+     * without touching the input.
+     *
+     * @return The selected elements, greatest first; ties keep input order
+     */
+    public static <T> List<T> select(Collection<? extends T> items, int k, Comparator<? super T> comparator) {
+        if (items == null || k <= 0 || items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Ranks by value, then by input position so earlier items win ties
+        Comparator<Ranked<T>> order = (a, b) -> {
+            int byValue = comparator.compare(a.item, b.item);
+            return byValue != 0 ? byValue : Integer.compare(b.position, a.position);
+        };
+        PriorityQueue<Ranked<T>> heap = new PriorityQueue<>(Math.min(k, items.size()) + 1, order);
+        int position = 0;
+        for (T item : items) {
+            Ranked<T> ranked = new Ranked<>(item, position++);
+            if (heap.size() < k) {
+                heap.add(ranked);
+            } else if (order.compare(ranked, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(ranked);
+            }
+        }
+
+        List<T> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().item);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * The top of the corpus for one metric, best first.
+     */
+    private final class View {
+        final List<Article> ranked;
+        /** Whether some corpus articles are not in {@link #ranked}. */
+        boolean truncated;
+
+        View(List<Article> ranked, boolean truncated) {
+            this.ranked = ranked;
+            this.truncated = truncated;
+        }
+
+        /**
+         * Whether the view can still serve a full top {@link #capacity}.
+         */
+        boolean isUsable() {
+            return !truncated || ranked.size() >= capacity;
+        }
+    }
+
+    private static final class Ranked<T> {
+        final T item;
+        final int position;
+
+        Ranked(T item, int position) {
+            this.item = item;
+            this.position = position;
+        }
+    }
+}
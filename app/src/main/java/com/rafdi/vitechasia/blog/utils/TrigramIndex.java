@@ -0,0 +1,195 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram index over a vocabulary of terms, for finding the terms a misspelled word was
+ * meant to be.
+ *
+ * <p>Each term is padded with a space on both sides and split into its distinct three-letter
+ * grams; every gram maps to the ids of the terms containing it. One edit, counting an adjacent
+ * transposition as one, changes at most four of a word's grams, so a term within {@code k}
+ * edits of a word shares at least {@code grams(word) - 4k} of its grams. Counting shared grams
+ * over the word's few posting lists narrows the vocabulary to a handful of candidates, and
+ * only those are checked with {@link #editDistance}.
+ *
+ * <p>Terms are only ever added; {@link ArticleSearchIndex} builds a new one when it compacts
+ * away terms no longer in use. Not thread-safe; {@link ArticleSearchIndex} guards it.
+ */
+final class TrigramIndex {
+    /** Edits that destroy at most this many grams each: a transposition touches four. */
+    private static final int GRAMS_PER_EDIT = 4;
+
+    private final List<String> terms = new ArrayList<>();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final Map<String, TermList> grams = new HashMap<>();
+    /** Shared-gram count per term id, all zero between lookups. */
+    private int[] counts = new int[64];
+    private int[] touched = new int[64];
+
+    /**
+     * A vocabulary term close to the looked-up word.
+     */
+    static final class Similar {
+        final String term;
+        final int edits;
+
+        Similar(String term, int edits) {
+            this.term = term;
+            this.edits = edits;
+        }
+    }
+
+    /**
+     * Adds a lower-case term; adding it again has no effect.
+     */
+    void add(String term) {
+        if (term == null || term.isEmpty() || termIds.containsKey(term)) return;
+        int termId = terms.size();
+        terms.add(term);
+        termIds.put(term, termId);
+        for (String gram : trigrams(term)) {
+            TermList list = grams.get(gram);
+            if (list == null) {
+                list = new TermList();
+                grams.put(gram, list);
+            }
+            list.add(termId);
+        }
+    }
+
+    /**
+     * Returns the terms within {@code maxEdits} of {@code word}, including the word itself if
+     * it is a term. Returns nothing when {@code word} is too short for {@code maxEdits}, i.e.
+     * when the gram filter would have to admit the whole vocabulary.
+     */
+    List<Similar> similar(String word, int maxEdits) {
+        List<Similar> results = new ArrayList<>();
+        if (word == null || maxEdits <= 0) {
+            return results;
+        }
+        // A padded word has one gram per letter; if the edits could destroy all of them,
+        // a match might share no gram at all
+        if (word.length() <= GRAMS_PER_EDIT * maxEdits) {
+            return results;
+        }
+        Set<String> wordGrams = trigrams(word);
+        // Repeated grams count once, so a word like "banana" may need fewer shared grams
+        int required = Math.max(1, wordGrams.size() - GRAMS_PER_EDIT * maxEdits);
+
+        if (counts.length < terms.size()) {
+            counts = new int[terms.size() * 2];
+            touched = new int[terms.size() * 2];
+        }
+        int touchedCount = 0;
+        for (String gram : wordGrams) {
+            TermList list = grams.get(gram);
+            if (list == null) continue;
+            for (int i = 0; i < list.size; i++) {
+                int termId = list.ids[i];
+                if (counts[termId]++ == 0) {
+                    touched[touchedCount++] = termId;
+                }
+            }
+        }
+
+        for (int i = 0; i < touchedCount; i++) {
+            int termId = touched[i];
+            int shared = counts[termId];
+            counts[termId] = 0;
+            if (shared < required) continue;
+            String term = terms.get(termId);
+            int edits = editDistance(word, term, maxEdits);
+            if (edits <= maxEdits) {
+                results.add(new Similar(term, edits));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Number of distinct terms.
+     */
+    int size() {
+        return terms.size();
+    }
+
+    /**
+     * Distinct trigrams of the space-padded word.
+     */
+    static Set<String> trigrams(String word) {
+        String padded = " " + word + " ";
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            result.add(padded.substring(i, i + 3));
+        }
+        return result;
+    }
+
+    /**
+     * Levenshtein distance where swapping two adjacent letters also counts as one edit
+     * (optimal string alignment), computed only as far as needed.
+     *
+     * @return The distance, or {@code max + 1} if it exceeds {@code max}
+     */
+    static int editDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        int previousMin = 0;
+        for (int i = 1; i <= n; i++) {
+            char ca = a.charAt(i - 1);
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int distance = Math.min(Math.min(previous[j], current[j - 1]) + 1,
+                        previous[j - 1] + (ca == cb ? 0 : 1));
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            // A transposition reaches back two rows, so both must be past the bound
+            if (rowMin > max && previousMin > max) {
+                return max + 1;
+            }
+            previousMin = rowMin;
+            int[] swap = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[m], max + 1);
+    }
+
+    /**
+     * Growable list of term ids, in increasing order since ids are assigned in order.
+     */
+    private static final class TermList {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int termId) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = termId;
+        }
+    }
+}
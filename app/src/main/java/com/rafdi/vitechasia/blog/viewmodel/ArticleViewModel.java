@@ -50,6 +50,11 @@ public void loadArticles(String category, int page, int limit) {
                 articlesLiveData.postValue(articles);
             }
 
+            @Override
+            public void onRefreshed(List<Article> articles) {
+                articlesLiveData.postValue(articles);
+            }
+
             @Override
             public void onError(String message) {
                 loadingLiveData.postValue(false);
@@ -0,0 +1,100 @@
+package com.rafdi.vitechasia.blog.adapters;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ArticleUiModel} and the formatting it relies on.
+ */
+public class ArticleUiModelTest {
+    private Locale defaultLocale;
+
+    @Before
+    public void setUp() {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void from_preformatsEveryDisplayedField() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2025, Calendar.JANUARY, 5, 10, 30);
+        Article article = new Article("1", "Title", words(450), "https://example.com/a.jpg",
+                " TECH ", "android", "author", "Jane", null, calendar.getTime(), 1_500, 12);
+
+        ArticleUiModel model = ArticleUiModel.from(article);
+
+        assertEquals("Jan 5, 2025", model.formattedDate);
+        assertEquals("Tech", model.categoryLabel);
+        assertEquals("Android", model.subcategoryLabel);
+        assertEquals("1.5K", model.viewCountText);
+        assertEquals("12", model.likeCountText);
+        assertEquals("3 min read", model.readingTimeText);
+    }
+
+    @Test
+    public void from_handlesMissingFields() {
+        Article article = new Article("1", null, null, null, null, null, null, null, null, null, 0, 0);
+
+        ArticleUiModel model = ArticleUiModel.from(article);
+
+        assertEquals("", model.title);
+        assertEquals("", model.formattedDate);
+        assertEquals("", model.subcategoryLabel);
+        assertEquals("Quick read", model.readingTimeText);
+    }
+
+    @Test
+    public void hasSameContent_tracksVisibleChangesOnly() {
+        Article article = new Article("1", "Title", "Body", null, "tech", null, "author", "Jane",
+                null, null, 100, 5);
+        ArticleUiModel before = ArticleUiModel.from(article);
+
+        article.setViewCount(101);
+        assertFalse(before.hasSameContent(ArticleUiModel.from(article)));
+
+        // Both round to "1.5K", so the card looks the same
+        article.setViewCount(1_510);
+        ArticleUiModel rounded = ArticleUiModel.from(article);
+        article.setViewCount(1_520);
+        assertTrue(rounded.hasSameContent(ArticleUiModel.from(article)));
+    }
+
+    @Test
+    public void formatDate_followsLocaleChanges() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2025, Calendar.MARCH, 1);
+        assertEquals("Mar 1, 2025", ArticleFormatter.formatDate(calendar.getTime()));
+
+        Locale.setDefault(Locale.FRANCE);
+        assertTrue(ArticleFormatter.formatDate(calendar.getTime()).startsWith("mars"));
+    }
+
+    @Test
+    public void estimateReadingMinutes_countsWords() {
+        assertEquals(0, ArticleFormatter.estimateReadingMinutes("   "));
+        assertEquals(1, ArticleFormatter.estimateReadingMinutes("one two\nthree"));
+        assertEquals(2, ArticleFormatter.estimateReadingMinutes(words(201)));
+    }
+
+    private static String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append("word ");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package com.rafdi.vitechasia.blog.api;
+
+import com.rafdi.vitechasia.blog.models.ArticleSummary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.Cache;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the HTTP disk cache configured by {@link ApiClient},
+ * run against a MockWebServer stand-in for the article API.
+ */
+public class ApiClientCacheTest {
+    private static final String ARTICLES_JSON = "[{\"id\":\"1\",\"title\":\"First\"},{\"id\":\"2\",\"title\":\"Second\"}]";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private HttpCacheStats stats;
+    private ArticleApiService service;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        stats = new HttpCacheStats();
+        Cache cache = new Cache(temporaryFolder.newFolder("http_cache"), 1024 * 1024);
+        service = ApiClient.createRetrofit(server.url("/api/v1/").toString(),
+                        ApiClient.buildHttpClient(cache, stats, new NetworkMetrics(), new NetworkConfig()))
+                .create(ArticleApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void unchangedPage_isRevalidatedWithEtagAndServedFrom304() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(ARTICLES_JSON));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+
+        Response<List<ArticleSummary>> first = fetch(null, 1);
+        Response<List<ArticleSummary>> second = fetch(null, 1);
+
+        assertEquals(2, first.body().size());
+        assertEquals(2, second.body().size());
+        assertEquals("Second", second.body().get(1).title);
+
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        RecordedRequest revalidation = server.takeRequest();
+        assertEquals("\"v1\"", revalidation.getHeader("If-None-Match"));
+
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getConditionalHitCount());
+        assertEquals(0, stats.getHitCount());
+    }
+
+    @Test
+    public void changedPage_replacesCachedBody() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(ARTICLES_JSON));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v2\"")
+                .setBody("[{\"id\":\"3\",\"title\":\"Third\"}]"));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v2\""));
+
+        fetch("tech", 1);
+        Response<List<ArticleSummary>> changed = fetch("tech", 1);
+        Response<List<ArticleSummary>> cached = fetch("tech", 1);
+
+        assertEquals("Third", changed.body().get(0).title);
+        assertEquals("Third", cached.body().get(0).title);
+        server.takeRequest();
+        server.takeRequest();
+        assertEquals("\"v2\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals(1, stats.getConditionalHitCount());
+    }
+
+    @Test
+    public void freshResponse_isServedWithoutNetwork() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "max-age=60").setBody(ARTICLES_JSON));
+
+        fetch(null, 1);
+        Response<List<ArticleSummary>> cached = fetch(null, 1);
+
+        assertEquals(2, cached.body().size());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(0.5, stats.getSavedRatio(), 0.0001);
+    }
+
+    @Test
+    public void differentPages_areCachedSeparately() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"p1\"").setBody(ARTICLES_JSON));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"p2\"").setBody(ARTICLES_JSON));
+
+        fetch(null, 1);
+        fetch(null, 2);
+
+        server.takeRequest();
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        assertEquals(2, stats.getMissCount());
+    }
+
+    private Response<List<ArticleSummary>> fetch(String category, int page) throws IOException {
+        return service.getArticles(category, null, null, page, 20, ArticleApiService.FIELDS_SUMMARY).execute();
+    }
+}
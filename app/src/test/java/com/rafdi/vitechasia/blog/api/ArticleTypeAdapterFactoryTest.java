@@ -0,0 +1,255 @@
+package com.rafdi.vitechasia.blog.api;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.models.ArticleSummary;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ArticleTypeAdapterFactory} and {@link JsonArrayStream}, with a
+ * benchmark against Gson's reflective adapter.
+ */
+public class ArticleTypeAdapterFactoryTest {
+    private static final Type ARTICLE_LIST = new TypeToken<List<Article>>() {}.getType();
+
+    private final Gson reflective = new Gson();
+    private final Gson streaming = new GsonBuilder()
+            .registerTypeAdapterFactory(new ArticleTypeAdapterFactory())
+            .create();
+
+    @Test
+    public void article_decodesLikeTheReflectiveAdapter() {
+        String json = reflective.toJson(page(3, 50));
+
+        List<Article> expected = reflective.fromJson(json, ARTICLE_LIST);
+        List<Article> actual = streaming.fromJson(json, ARTICLE_LIST);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameFields(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    public void summary_skipsUnknownFieldsAndNulls() {
+        ArticleSummary summary = streaming.fromJson("{\"id\":\"7\",\"title\":null,\"extra\":{\"a\":[1,2]},"
+                + "\"viewCount\":12,\"wordCount\":300,\"imageUrl\":\"https://example.com/7.jpg\"}", ArticleSummary.class);
+
+        assertEquals("7", summary.id);
+        assertNull(summary.title);
+        assertEquals(12, summary.viewCount);
+        assertEquals(300, summary.wordCount);
+        assertEquals("https://example.com/7.jpg", summary.imageUrl);
+    }
+
+    @Test
+    public void summary_roundTrips() {
+        ArticleSummary summary = new ArticleSummary();
+        summary.id = "1";
+        summary.title = "Title";
+        summary.publishDate = new Date(1_700_000_000_000L);
+        summary.commentCount = 4;
+
+        ArticleSummary copy = streaming.fromJson(streaming.toJson(summary), ArticleSummary.class);
+
+        assertEquals("1", copy.id);
+        assertEquals("Title", copy.title);
+        assertEquals(4, copy.commentCount);
+        // The default date format has second precision
+        assertEquals(summary.publishDate.getTime() / 1000, copy.publishDate.getTime() / 1000);
+    }
+
+    @Test
+    public void stream_handsOverItemsBeforeTheBodyEnds() {
+        String json = reflective.toJson(page(3, 10));
+        // Cut the body off in the middle of the fourth element
+        String truncated = json.substring(0, json.length() - 1) + ",{\"id\":\"late\",\"title\":\"Tit";
+        List<String> received = new ArrayList<>();
+
+        try {
+            JsonArrayStream.read(new JsonReader(new StringReader(truncated)),
+                    streaming.getAdapter(Article.class), article -> received.add(article.getId()));
+            fail("Expected the truncated body to fail");
+        } catch (IOException expected) {
+            // The three complete items were delivered before the failure
+        }
+
+        assertEquals(List.of("id0", "id1", "id2"), received);
+    }
+
+    @Test
+    public void streamingCall_deliversFirstRowsWhileDownloading() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.start();
+        try {
+            String json = reflective.toJson(summaries(200));
+            server.enqueue(new MockResponse()
+                    .setHeader("Content-Type", "application/json")
+                    .setBody(json)
+                    .throttleBody(2048, 10, TimeUnit.MILLISECONDS));
+            ArticleApiService service = ApiClient.createRetrofit(server.url("/api/v1/").toString(),
+                    ApiClient.buildHttpClient(null, new HttpCacheStats(), new NetworkMetrics(), new NetworkConfig()))
+                    .create(ArticleApiService.class);
+
+            Response<ResponseBody> response = service.getArticlesBefore(null, null, null, 200,
+                    ArticleApiService.FIELDS_SUMMARY).execute();
+            // Timed from the headers on, so connection setup and class loading don't count
+            long start = System.nanoTime();
+            long[] firstItemAt = {0};
+            int count;
+            try (ResponseBody body = response.body();
+                 JsonReader reader = streaming.newJsonReader(body.charStream())) {
+                count = JsonArrayStream.read(reader, streaming.getAdapter(ArticleSummary.class), summary -> {
+                    if (firstItemAt[0] == 0) {
+                        firstItemAt[0] = System.nanoTime();
+                    }
+                });
+            }
+            long end = System.nanoTime();
+
+            assertEquals(200, count);
+            assertTrue("first row should arrive well before the end of the body",
+                    firstItemAt[0] - start < (end - start) / 2);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test
+    @Ignore("Benchmark; run manually")
+    public void benchmark_againstReflectiveAdapter() throws IOException {
+        // 100 items with ~1,500-word bodies, the worst case for a full-article page
+        String json = reflective.toJson(page(100, 1500));
+        TypeAdapter<Article> adapter = streaming.getAdapter(Article.class);
+
+        for (int i = 0; i < 30; i++) {
+            reflective.fromJson(json, ARTICLE_LIST);
+            readStreaming(json, adapter);
+        }
+
+        int runs = 50;
+        long reflectiveBytes = allocatedBytes();
+        long reflectiveStart = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            reflective.fromJson(json, ARTICLE_LIST);
+        }
+        long reflectiveNanos = (System.nanoTime() - reflectiveStart) / runs;
+        reflectiveBytes = (allocatedBytes() - reflectiveBytes) / runs;
+
+        long streamingBytes = allocatedBytes();
+        long streamingStart = System.nanoTime();
+        long firstItemNanos = 0;
+        for (int i = 0; i < runs; i++) {
+            firstItemNanos += readStreaming(json, adapter);
+        }
+        long streamingNanos = (System.nanoTime() - streamingStart) / runs;
+        streamingBytes = (allocatedBytes() - streamingBytes) / runs;
+        firstItemNanos /= runs;
+
+        System.out.printf("100-item page (%d KB): reflective %.2f ms / %d KB allocated, "
+                        + "streaming adapter %.2f ms / %d KB allocated, first item after %.3f ms%n",
+                json.length() / 1024, reflectiveNanos / 1e6, reflectiveBytes / 1024,
+                streamingNanos / 1e6, streamingBytes / 1024, firstItemNanos / 1e6);
+        assertTrue("first item should be ready long before the page is decoded",
+                firstItemNanos * 10 < streamingNanos);
+    }
+
+    /**
+     * Decodes the page item by item.
+     *
+     * @return Nanoseconds until the first item was handed over
+     */
+    private static long readStreaming(String json, TypeAdapter<Article> adapter) throws IOException {
+        long start = System.nanoTime();
+        long[] firstItem = {-1};
+        List<Article> articles = new ArrayList<>();
+        JsonArrayStream.read(new JsonReader(new StringReader(json)), adapter, article -> {
+            if (firstItem[0] < 0) {
+                firstItem[0] = System.nanoTime() - start;
+            }
+            articles.add(article);
+        });
+        assertEquals(100, articles.size());
+        return firstItem[0];
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    private static List<Article> page(int size, int words) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            body.append("word").append(i % 97).append(' ');
+        }
+        List<Article> articles = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Article article = new Article("id" + i, "Title " + i, body.toString(),
+                    "https://example.com/" + i + ".jpg", "tech", "android", "author" + i,
+                    "Author " + i, null, new Date(1_700_000_000_000L - i * 60_000L), i * 10, i);
+            article.setShareCount(i % 7);
+            article.setCommentCount(i % 5);
+            article.setWordCount(words);
+            articles.add(article);
+        }
+        return articles;
+    }
+
+    private static List<ArticleSummary> summaries(int size) {
+        List<ArticleSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            ArticleSummary summary = new ArticleSummary();
+            summary.id = "id" + i;
+            summary.title = "A reasonably long headline for article number " + i;
+            summary.imageUrl = "https://example.com/images/" + i + ".jpg";
+            summary.authorName = "Author " + i;
+            summary.viewCount = i;
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    private static void assertSameFields(Article expected, Article actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getContent(), actual.getContent());
+        assertEquals(expected.getImageUrl(), actual.getImageUrl());
+        assertEquals(expected.getCategoryId(), actual.getCategoryId());
+        assertEquals(expected.getSubcategoryId(), actual.getSubcategoryId());
+        assertEquals(expected.getAuthorId(), actual.getAuthorId());
+        assertEquals(expected.getAuthorName(), actual.getAuthorName());
+        assertEquals(expected.getAuthorImageUrl(), actual.getAuthorImageUrl());
+        assertEquals(expected.getPublishDate(), actual.getPublishDate());
+        assertEquals(expected.getViewCount(), actual.getViewCount());
+        assertEquals(expected.getLikeCount(), actual.getLikeCount());
+        assertEquals(expected.getShareCount(), actual.getShareCount());
+        assertEquals(expected.getCommentCount(), actual.getCommentCount());
+        assertEquals(expected.getWordCount(), actual.getWordCount());
+    }
+}
@@ -0,0 +1,137 @@
+package com.rafdi.vitechasia.blog.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link NetworkConfig}, {@link EndpointTimeoutInterceptor} and the
+ * shared client built by {@link ApiClient}.
+ */
+public class NetworkConfigTest {
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void client_isBuiltFromConfig() {
+        NetworkConfig config = new NetworkConfig()
+                .setMaxRequests(32)
+                .setMaxRequestsPerHost(12)
+                .setHttp2Enabled(false)
+                .setTimeouts(NetworkConfig.EndpointClass.LIST, 1_000, 2_000, 3_000);
+
+        OkHttpClient client = ApiClient.buildHttpClient(null, new HttpCacheStats(), new NetworkMetrics(), config);
+
+        assertEquals(32, client.dispatcher().getMaxRequests());
+        assertEquals(12, client.dispatcher().getMaxRequestsPerHost());
+        assertEquals(Collections.singletonList(Protocol.HTTP_1_1), client.protocols());
+        assertEquals(1_000, client.connectTimeoutMillis());
+        assertEquals(2_000, client.readTimeoutMillis());
+        assertEquals(3_000, client.writeTimeoutMillis());
+        assertTrue(new NetworkConfig().isHttp2Enabled());
+    }
+
+    @Test
+    public void readTimeout_followsEndpointClass() throws Exception {
+        NetworkConfig config = new NetworkConfig()
+                .setTimeouts(NetworkConfig.EndpointClass.LIST, 5_000, 5_000, 5_000)
+                .setTimeouts(NetworkConfig.EndpointClass.DETAIL, 5_000, 200, 5_000);
+        ArticleApiService service = service(config);
+        server.enqueue(new MockResponse().setBody("[]").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("{\"id\":\"1\"}").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+
+        // getArticles is unannotated and uses the LIST timeouts
+        assertTrue(service.getArticles(null, null, null, 1, 20, ArticleApiService.FIELDS_SUMMARY).execute().isSuccessful());
+        try {
+            service.getArticleById("1").execute();
+            fail("Expected the DETAIL read timeout to fire");
+        } catch (InterruptedIOException expected) {
+            // SocketTimeoutException
+        }
+    }
+
+    @Test
+    public void parallelCalls_shareOnePooledConnection() throws Exception {
+        ArticleApiService service = service(new NetworkConfig());
+        int calls = 6;
+        for (int i = 0; i < calls; i++) {
+            server.enqueue(new MockResponse().setBody("[]"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < calls; i++) {
+                int page = i + 1;
+                Callable<Boolean> call = () -> service.getArticles(null, null, null, page, 20, ArticleApiService.FIELDS_SUMMARY)
+                        .execute().isSuccessful();
+                results.add(executor.submit(call));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int newConnections = 0;
+        for (int i = 0; i < calls; i++) {
+            if (server.takeRequest().getSequenceNumber() == 0) {
+                newConnections++;
+            }
+        }
+        // At most one connection per worker thread; the rest are reused from the pool
+        assertTrue("connections opened: " + newConnections, newConnections <= 2);
+    }
+
+    @Test
+    public void articleApiService_isCreatedOnce() throws Exception {
+        List<Future<ArticleApiService>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(ApiClient::getArticleApiService));
+            }
+            ArticleApiService first = results.get(0).get();
+            for (Future<ArticleApiService> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private ArticleApiService service(NetworkConfig config) throws IOException {
+        return ApiClient.createRetrofit(server.url("/api/v1/").toString(),
+                        ApiClient.buildHttpClient(null, new HttpCacheStats(), new NetworkMetrics(), config))
+                .create(ArticleApiService.class);
+    }
+}
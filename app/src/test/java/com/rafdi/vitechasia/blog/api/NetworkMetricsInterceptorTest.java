@@ -0,0 +1,143 @@
+package com.rafdi.vitechasia.blog.api;
+
+import com.rafdi.vitechasia.blog.models.ArticleSummary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Cache;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link NetworkMetricsInterceptor} and {@link NetworkMetrics}.
+ */
+public class NetworkMetricsInterceptorTest {
+    private static final String ARTICLES_JSON = "[{\"id\":\"1\",\"title\":\"First\"},{\"id\":\"2\",\"title\":\"Second\"}]";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private NetworkMetrics metrics;
+    private ArticleApiService service;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        metrics = new NetworkMetrics();
+        Cache cache = new Cache(temporaryFolder.newFolder("http_cache"), 1024 * 1024);
+        service = ApiClient.createRetrofit(server.url("/api/v1/").toString(),
+                        ApiClient.buildHttpClient(cache, new HttpCacheStats(), metrics, new NetworkConfig()))
+                .create(ArticleApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void calls_areGroupedByServiceMethodWithStatusAndSource() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody(ARTICLES_JSON));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        fetchArticles();
+        fetchArticles();
+        service.getArticleById("missing").execute();
+
+        Map<String, NetworkMetrics.EndpointStats> snapshot = metrics.snapshot();
+        NetworkMetrics.EndpointStats articles = snapshot.get("getArticles");
+        assertEquals(2, articles.calls);
+        assertEquals(Long.valueOf(2), articles.getStatusCodes().get(200));
+        assertEquals(1, articles.getCount(NetworkMetrics.Source.NETWORK));
+        assertEquals(1, articles.getCount(NetworkMetrics.Source.CONDITIONAL_CACHE));
+        // Both bodies were read in full, the second one from the cache
+        assertEquals(2L * ARTICLES_JSON.length(), articles.bytesIn);
+
+        NetworkMetrics.EndpointStats byId = snapshot.get("getArticleById");
+        assertEquals(1, byId.calls);
+        assertEquals(Map.of(404, 1L), byId.getStatusCodes());
+    }
+
+    @Test
+    public void freshCachedResponse_isCountedAsCache() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "max-age=60").setBody(ARTICLES_JSON));
+
+        fetchArticles();
+        fetchArticles();
+
+        NetworkMetrics.EndpointStats articles = metrics.snapshot().get("getArticles");
+        assertEquals(1, articles.getCount(NetworkMetrics.Source.NETWORK));
+        assertEquals(1, articles.getCount(NetworkMetrics.Source.CACHE));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void streamedBody_isCountedWhenClosed() throws Exception {
+        server.enqueue(new MockResponse().setBody(ARTICLES_JSON));
+
+        retrofit2.Response<ResponseBody> response = service.getArticlesBefore(null, null, null, 20,
+                ArticleApiService.FIELDS_SUMMARY).execute();
+        assertEquals(0, metrics.snapshot().get("getArticlesBefore").bytesIn);
+
+        try (ResponseBody body = response.body()) {
+            body.string();
+        }
+        assertEquals(ARTICLES_JSON.length(), metrics.snapshot().get("getArticlesBefore").bytesIn);
+    }
+
+    @Test
+    public void failedCall_isCountedAsFailure() {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+
+        try {
+            fetchArticles();
+            fail("Expected the dropped connection to fail");
+        } catch (IOException expected) {
+            // Recorded before being rethrown
+        }
+
+        NetworkMetrics.EndpointStats articles = metrics.snapshot().get("getArticles");
+        assertEquals(1, articles.calls);
+        assertEquals(1, articles.failures);
+        assertTrue(articles.getStatusCodes().isEmpty());
+    }
+
+    @Test
+    public void latencyPercentiles_resolveToBucketUpperBounds() {
+        for (int i = 0; i < 90; i++) {
+            metrics.recordResponse("e", 8, 0, 200, NetworkMetrics.Source.NETWORK);
+        }
+        for (int i = 0; i < 9; i++) {
+            metrics.recordResponse("e", 300, 0, 200, NetworkMetrics.Source.NETWORK);
+        }
+        metrics.recordResponse("e", 60_000, 0, 200, NetworkMetrics.Source.NETWORK);
+
+        NetworkMetrics.EndpointStats stats = metrics.snapshot().get("e");
+        assertEquals(10, stats.latencyPercentileMillis(50));
+        assertEquals(10, stats.latencyPercentileMillis(90));
+        assertEquals(500, stats.latencyPercentileMillis(95));
+        assertEquals(Long.MAX_VALUE, stats.latencyPercentileMillis(100));
+
+        metrics.reset();
+        assertTrue(metrics.snapshot().isEmpty());
+    }
+
+    private List<ArticleSummary> fetchArticles() throws IOException {
+        return service.getArticles(null, null, null, 1, 20, ArticleApiService.FIELDS_SUMMARY).execute().body();
+    }
+}
@@ -0,0 +1,122 @@
+package com.rafdi.vitechasia.blog.models;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.rafdi.vitechasia.blog.adapters.ArticleUiModel;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ArticleSummary} list payloads.
+ */
+public class ArticleSummaryTest {
+    private static final Type SUMMARY_LIST = new TypeToken<List<ArticleSummary>>() {}.getType();
+    private static final Type ARTICLE_LIST = new TypeToken<List<Article>>() {}.getType();
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void toArticle_carriesListFieldsWithoutContent() {
+        List<ArticleSummary> summaries = gson.fromJson("[{\"id\":\"7\",\"title\":\"Title\","
+                + "\"authorName\":\"Jane\",\"categoryId\":\"tech\",\"viewCount\":1200,"
+                + "\"likeCount\":30,\"commentCount\":4,\"wordCount\":650}]", SUMMARY_LIST);
+
+        Article article = ArticleSummary.toArticles(summaries).get(0);
+
+        assertEquals("7", article.getId());
+        assertEquals("Jane", article.getAuthorName());
+        assertEquals(1200, article.getViewCount());
+        assertEquals(4, article.getCommentCount());
+        assertEquals(650, article.getWordCount());
+        assertFalse(article.hasContent());
+    }
+
+    @Test
+    public void readingTime_usesWordCountWhenBodyIsMissing() {
+        ArticleSummary summary = new ArticleSummary();
+        summary.id = "1";
+        summary.wordCount = 450;
+
+        assertEquals("3 min read", ArticleUiModel.from(summary.toArticle()).readingTimeText);
+    }
+
+    @Test
+    public void summaryPage_isMuchSmallerThanFullPage() {
+        List<Article> full = fullPage();
+        String fullJson = gson.toJson(full);
+        String summaryJson = gson.toJson(summaryPage(full));
+
+        assertTrue("summary payload should be under a fifth of the full one",
+                summaryJson.length() * 5 < fullJson.length());
+    }
+
+    @Test
+    @Ignore("Benchmark; run manually")
+    public void benchmark_parseSummaryVersusFullPage() {
+        List<Article> full = fullPage();
+        String fullJson = gson.toJson(full);
+        String summaryJson = gson.toJson(summaryPage(full));
+
+        // Warm up, then compare parse time for a 100-item page
+        for (int i = 0; i < 50; i++) {
+            gson.fromJson(fullJson, ARTICLE_LIST);
+            gson.fromJson(summaryJson, SUMMARY_LIST);
+        }
+        long fullNanos = time(() -> gson.fromJson(fullJson, ARTICLE_LIST));
+        long summaryNanos = time(() -> gson.fromJson(summaryJson, SUMMARY_LIST));
+        System.out.printf("100-item page: full %d bytes / %.2f ms, summary %d bytes / %.2f ms%n",
+                fullJson.length(), fullNanos / 1e6, summaryJson.length(), summaryNanos / 1e6);
+    }
+
+    /**
+     * A 100-item page of full articles with 400-word bodies.
+     */
+    private static List<Article> fullPage() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 400; i++) {
+            body.append("word").append(i % 50).append(' ');
+        }
+        List<Article> full = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            full.add(new Article("id" + i, "Title " + i, body.toString(),
+                    "https://example.com/" + i + ".jpg", "tech", "android", "author" + i,
+                    "Author " + i, null, null, i * 10, i));
+        }
+        return full;
+    }
+
+    private static List<ArticleSummary> summaryPage(List<Article> full) {
+        List<ArticleSummary> summaries = new ArrayList<>();
+        for (Article article : full) {
+            ArticleSummary summary = new ArticleSummary();
+            summary.id = article.getId();
+            summary.title = article.getTitle();
+            summary.imageUrl = article.getImageUrl();
+            summary.categoryId = article.getCategoryId();
+            summary.subcategoryId = article.getSubcategoryId();
+            summary.authorId = article.getAuthorId();
+            summary.authorName = article.getAuthorName();
+            summary.viewCount = article.getViewCount();
+            summary.likeCount = article.getLikeCount();
+            summary.wordCount = 400;
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    private static long time(Runnable parse) {
+        int runs = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            parse.run();
+        }
+        return (System.nanoTime() - start) / runs;
+    }
+}
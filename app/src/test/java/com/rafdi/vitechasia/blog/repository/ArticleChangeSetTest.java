@@ -0,0 +1,103 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ArticleChangeSet}.
+ */
+public class ArticleChangeSetTest {
+
+    @Test
+    public void then_lastChangeToAnIdWins() {
+        ArticleChangeSet changes = ArticleChangeSet.of(List.of(article("a", 1L), article("b", 2L)),
+                Collections.emptyList());
+
+        changes = changes.then(Collections.emptyList(), List.of("a"))
+                .then(List.of(article("c", 3L)), List.of("c"))
+                .then(List.of(article("d", 4L)), Collections.emptyList());
+
+        assertEquals(List.of("b", "d"), ids(changes.getUpserted()));
+        assertEquals(Set.of("a", "c"), changes.getDeletedIds());
+    }
+
+    @Test
+    public void then_withNothingNew_returnsSameInstance() {
+        ArticleChangeSet changes = ArticleChangeSet.of(List.of(article("a", 1L)), null);
+
+        assertSame(changes, changes.then(null, Collections.emptyList()));
+        assertTrue(ArticleChangeSet.of(null, null).isEmpty());
+    }
+
+    @Test
+    public void applyTo_unaffectedList_returnsItUntouched() {
+        List<Article> shown = List.of(article("x", 30L), article("y", 20L));
+        ArticleChangeSet changes = ArticleChangeSet.of(List.of(article("old", 10L)), List.of("gone"));
+
+        assertSame(shown, changes.applyTo(shown, ArticleCursor.NEWEST_FIRST, null));
+        assertSame(shown, changes.applyTo(shown, null, null));
+    }
+
+    @Test
+    public void applyTo_replacesRemovesAndInsertsWithinLoadedRange() {
+        List<Article> shown = List.of(article("a", 50L), article("b", 40L), article("c", 30L));
+        Article editedB = article("b", 40L);
+        ArticleChangeSet changes = ArticleChangeSet.of(
+                List.of(editedB, article("newest", 60L), article("middle", 35L), article("older", 10L)),
+                List.of("a"));
+
+        List<Article> updated = changes.applyTo(shown, ArticleCursor.NEWEST_FIRST, null);
+
+        // "older" sorts after the last loaded article, so the next page brings it
+        assertEquals(List.of("newest", "b", "middle", "c"), ids(updated));
+        assertSame(editedB, updated.get(1));
+        assertEquals(3, shown.size());
+    }
+
+    @Test
+    public void applyTo_withoutOrder_onlyPatchesShownArticles() {
+        List<Article> shown = new ArrayList<>(List.of(article("a", 50L), article("b", 40L)));
+        ArticleChangeSet changes = ArticleChangeSet.of(List.of(article("a", 1L), article("z", 99L)),
+                List.of("b"));
+
+        List<Article> updated = changes.applyTo(shown, null, null);
+
+        assertEquals(List.of("a"), ids(updated));
+        assertEquals(1L, updated.get(0).getPublishDate().getTime());
+    }
+
+    @Test
+    public void applyTo_skipsNewArticlesRejectedByFilter() {
+        List<Article> shown = List.of(article("a", 50L), article("b", 40L));
+        Article sports = new Article("s", "Title", null, null, "sports", null, "author", "Author", null,
+                new Date(45L), 0, 0);
+        ArticleChangeSet changes = ArticleChangeSet.of(List.of(sports, article("t", 44L)), null);
+
+        List<Article> updated = changes.applyTo(shown, ArticleCursor.NEWEST_FIRST,
+                article -> "tech".equals(article.getCategoryId()));
+
+        assertEquals(List.of("a", "t", "b"), ids(updated));
+    }
+
+    private static List<String> ids(List<Article> articles) {
+        List<String> ids = new ArrayList<>();
+        for (Article article : articles) {
+            ids.add(article.getId());
+        }
+        return ids;
+    }
+
+    private static Article article(String id, long publishTime) {
+        return new Article(id, "Title " + id, null, null, "tech", null, "author", "Author", null,
+                new Date(publishTime), 0, 0);
+    }
+}
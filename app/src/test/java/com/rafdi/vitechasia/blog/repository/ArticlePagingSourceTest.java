@@ -0,0 +1,265 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ArticlePagingSource} and {@link ArticleCursor}.
+ */
+public class ArticlePagingSourceTest {
+
+    @Test
+    public void loadNextPage_walksTheWholeFeedOnce() {
+        FakeFeed feed = new FakeFeed();
+        for (int i = 0; i < 25; i++) {
+            feed.publish(article("a" + i, 1_000L * i));
+        }
+        ArticlePagingSource source = new ArticlePagingSource(feed, null, 10);
+        RecordingCallback callback = new RecordingCallback();
+
+        while (source.hasMore()) {
+            assertTrue(source.loadNextPage(callback));
+        }
+
+        assertEquals(3, callback.pages);
+        assertEquals(25, callback.articles.size());
+        assertEquals("a24", callback.articles.get(0).getId());
+        assertEquals("a0", callback.articles.get(24).getId());
+        assertFalse(source.loadNextPage(callback));
+    }
+
+    @Test
+    public void headInsertions_doNotShiftLaterPages() {
+        FakeFeed feed = new FakeFeed();
+        for (int i = 0; i < 20; i++) {
+            feed.publish(article("a" + i, 1_000L * i));
+        }
+        ArticlePagingSource source = new ArticlePagingSource(feed, null, 10);
+        RecordingCallback callback = new RecordingCallback();
+
+        source.loadNextPage(callback);
+        // Newer articles arrive while the user is reading the first page
+        for (int i = 0; i < 5; i++) {
+            feed.publish(article("new" + i, 100_000L + i));
+        }
+        source.loadNextPage(callback);
+
+        assertEquals(20, callback.articles.size());
+        assertEquals("a10", callback.articles.get(9).getId());
+        assertEquals("a9", callback.articles.get(10).getId());
+        for (Article article : callback.articles) {
+            assertFalse(article.getId().startsWith("new"));
+        }
+    }
+
+    @Test
+    public void sameTimestamp_usesIdAsTieBreaker() {
+        FakeFeed feed = new FakeFeed();
+        for (int i = 0; i < 7; i++) {
+            feed.publish(article("id" + i, 5_000L));
+        }
+        ArticlePagingSource source = new ArticlePagingSource(feed, null, 3);
+        RecordingCallback callback = new RecordingCallback();
+
+        while (source.hasMore()) {
+            source.loadNextPage(callback);
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (Article article : callback.articles) {
+            ids.add(article.getId());
+        }
+        assertEquals(List.of("id6", "id5", "id4", "id3", "id2", "id1", "id0"), ids);
+    }
+
+    @Test
+    public void duplicatesAcrossPages_areDropped() {
+        // A loader that ignores the cursor and keeps returning overlapping windows
+        List<Article> all = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            all.add(article("a" + i, 10_000L - i));
+        }
+        int[] calls = {0};
+        ArticlePagingSource.PageLoader overlapping = (category, after, limit, callback) -> {
+            int from = Math.min(calls[0]++ * 2, all.size());
+            callback.onSuccess(new ArrayList<>(all.subList(from, Math.min(from + limit, all.size()))));
+        };
+        ArticlePagingSource source = new ArticlePagingSource(overlapping, null, 4);
+        RecordingCallback callback = new RecordingCallback();
+
+        source.loadNextPage(callback);
+        source.loadNextPage(callback);
+
+        assertEquals(6, callback.articles.size());
+        assertEquals(6, source.getLoadedCount());
+    }
+
+    @Test
+    public void pageOfOnlySeenArticles_isSkipped() {
+        List<List<Article>> responses = new ArrayList<>();
+        responses.add(List.of(article("a0", 10_000L), article("a1", 9_999L)));
+        // The same ids show up again further down the feed, e.g. after being re-dated
+        responses.add(List.of(article("a0", 9_500L), article("a1", 9_400L)));
+        responses.add(List.of(article("a2", 9_000L)));
+        int[] calls = {0};
+        ArticlePagingSource source = new ArticlePagingSource(
+                (category, after, limit, callback) -> callback.onSuccess(new ArrayList<>(responses.get(calls[0]++))),
+                null, 2);
+        RecordingCallback callback = new RecordingCallback();
+
+        source.loadNextPage(callback);
+        source.loadNextPage(callback);
+
+        assertEquals(3, calls[0]);
+        assertEquals(2, callback.pages);
+        assertEquals(3, callback.articles.size());
+        assertEquals("a2", callback.articles.get(2).getId());
+        assertFalse(source.hasMore());
+    }
+
+    @Test
+    public void refresh_discardsPageInFlight() {
+        List<ArticleRepository.ArticleCallback> pending = new ArrayList<>();
+        ArticlePagingSource source = new ArticlePagingSource(
+                (category, after, limit, callback) -> pending.add(callback), null, 10);
+        RecordingCallback callback = new RecordingCallback();
+
+        source.loadNextPage(callback);
+        assertTrue(source.isLoading());
+        assertFalse(source.loadNextPage(callback));
+
+        source.refresh();
+        pending.get(0).onSuccess(List.of(article("stale", 1L)));
+
+        assertEquals(0, callback.pages);
+        assertEquals(0, source.getLoadedCount());
+        assertTrue(source.loadNextPage(callback));
+    }
+
+    @Test
+    public void firstArticles_areForwardedWithoutAlreadyShownOnes() {
+        List<List<Article>> pages = List.of(
+                List.of(article("a3", 3_000L), article("a2", 2_000L)),
+                List.of(article("a2", 2_000L), article("a1", 1_000L), article("a0", 500L)));
+        int[] calls = {0};
+        ArticlePagingSource source = new ArticlePagingSource((category, after, limit, callback) -> {
+            List<Article> page = pages.get(calls[0]++);
+            callback.onFirstArticles(page.subList(0, 2));
+            callback.onSuccess(page);
+        }, null, 2);
+        List<Article> previews = new ArrayList<>();
+        RecordingCallback callback = new RecordingCallback() {
+            @Override
+            public void onFirstArticles(List<Article> articles) {
+                previews.addAll(articles);
+            }
+        };
+
+        source.loadNextPage(callback);
+        previews.clear();
+        source.loadNextPage(callback);
+
+        assertEquals(1, previews.size());
+        assertEquals("a1", previews.get(0).getId());
+        assertEquals(4, callback.articles.size());
+    }
+
+    @Test
+    public void refreshedFirstPage_replacesItUntilAnotherPageLoads() {
+        List<ArticleRepository.ArticleCallback> pending = new ArrayList<>();
+        ArticlePagingSource source = new ArticlePagingSource((category, after, limit, callback) -> {
+            pending.add(callback);
+            callback.onSuccess(List.of(article("cached" + pending.size(), 2_000L),
+                    article("old" + pending.size(), 1_000L)));
+        }, null, 2);
+        List<Article> refreshed = new ArrayList<>();
+        RecordingCallback callback = new RecordingCallback() {
+            @Override
+            public void onFirstPageRefreshed(List<Article> articles, boolean endReached) {
+                refreshed.addAll(articles);
+                assertTrue(endReached);
+            }
+        };
+
+        source.loadNextPage(callback);
+        pending.get(0).onRefreshed(List.of(article("fresh", 3_000L)));
+
+        assertEquals(1, refreshed.size());
+        assertEquals("fresh", refreshed.get(0).getId());
+        assertFalse(source.hasMore());
+        assertEquals(1, source.getLoadedCount());
+
+        // Once a second page is shown, a late refresh of the first one is ignored
+        source.refresh();
+        refreshed.clear();
+        source.loadNextPage(callback);
+        source.loadNextPage(callback);
+        pending.get(1).onRefreshed(List.of(article("late", 4_000L)));
+
+        assertTrue(refreshed.isEmpty());
+    }
+
+    @Test
+    public void cursor_precedesOnlyLaterArticles() {
+        ArticleCursor cursor = ArticleCursor.after(article("m", 5_000L));
+
+        assertTrue(cursor.precedes(article("z", 4_000L)));
+        assertTrue(cursor.precedes(article("a", 5_000L)));
+        assertFalse(cursor.precedes(article("m", 5_000L)));
+        assertFalse(cursor.precedes(article("z", 5_000L)));
+        assertFalse(cursor.precedes(article("a", 6_000L)));
+    }
+
+    private static Article article(String id, long publishTime) {
+        return new Article(id, "Title " + id, "Body", null, "tech", null, "author", "Author", null,
+                new Date(publishTime), 0, 0);
+    }
+
+    /**
+     * In-memory feed answering keyset queries synchronously.
+     */
+    private static class FakeFeed implements ArticlePagingSource.PageLoader {
+        private final List<Article> articles = new ArrayList<>();
+
+        void publish(Article article) {
+            articles.add(article);
+            articles.sort(ArticleCursor.NEWEST_FIRST);
+        }
+
+        @Override
+        public void loadPage(String category, ArticleCursor after, int limit,
+                             ArticleRepository.ArticleCallback callback) {
+            List<Article> page = new ArrayList<>();
+            for (Article article : articles) {
+                if (page.size() == limit) break;
+                if (after == null || after.precedes(article)) {
+                    page.add(article);
+                }
+            }
+            callback.onSuccess(page);
+        }
+    }
+
+    private static class RecordingCallback implements ArticlePagingSource.PageCallback {
+        final List<Article> articles = new ArrayList<>();
+        int pages;
+
+        @Override
+        public void onPageLoaded(List<Article> page, boolean endReached) {
+            pages++;
+            articles.addAll(page);
+        }
+
+        @Override
+        public void onError(String message) {
+            fail(message);
+        }
+    }
+}
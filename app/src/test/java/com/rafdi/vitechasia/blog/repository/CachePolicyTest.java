@@ -0,0 +1,41 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link CachePolicy}.
+ */
+public class CachePolicyTest {
+
+    @Test
+    public void staleWhileRevalidate_onlyRevalidatesRowsOlderThanMaxAge() {
+        CachePolicy policy = CachePolicy.staleWhileRevalidate(5, TimeUnit.MINUTES);
+
+        assertTrue(policy.servesCacheFirst());
+        assertEquals(300_000L, policy.getMaxAgeMillis());
+        assertFalse(policy.needsRevalidation(1_000L, 1_000L + 300_000L));
+        assertTrue(policy.needsRevalidation(1_000L, 1_000L + 300_001L));
+        assertFalse(policy.alwaysDeliversRefresh());
+    }
+
+    @Test
+    public void cacheThenNetwork_alwaysRevalidatesAndDelivers() {
+        CachePolicy policy = CachePolicy.CACHE_THEN_NETWORK;
+
+        assertTrue(policy.servesCacheFirst());
+        assertTrue(policy.needsRevalidation(1_000L, 1_000L));
+        assertTrue(policy.alwaysDeliversRefresh());
+    }
+
+    @Test
+    public void networkPolicies_doNotServeTheCacheFirst() {
+        assertFalse(CachePolicy.NETWORK_ONLY.servesCacheFirst());
+        assertFalse(CachePolicy.NETWORK_FIRST.servesCacheFirst());
+        assertFalse(CachePolicy.CACHE_ONLY.servesCacheFirst());
+        assertEquals(0L, CachePolicy.staleWhileRevalidate(-1, TimeUnit.SECONDS).getMaxAgeMillis());
+    }
+}
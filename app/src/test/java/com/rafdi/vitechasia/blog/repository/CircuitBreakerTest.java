@@ -0,0 +1,115 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link CircuitBreaker}, driven by a fake clock.
+ */
+public class CircuitBreakerTest {
+    private static final long SLOW_MILLIS = 1_000;
+    private static final long OPEN_MILLIS = 30_000;
+
+    private long now = 0;
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 3, SLOW_MILLIS, OPEN_MILLIS, () -> now);
+
+    @Test
+    public void consecutiveFailures_openTheCircuit() {
+        breaker.onFailure(10);
+        breaker.onFailure(10);
+        breaker.onSuccess(10);
+        breaker.onFailure(10);
+        breaker.onFailure(10);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onFailure(10);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertEquals(1, breaker.getTripCount());
+        assertEquals(1, breaker.getRejectedCount());
+    }
+
+    @Test
+    public void slowSuccesses_countAsFailures() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.allowRequest());
+            breaker.onSuccess(SLOW_MILLIS + 1);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void afterOpenInterval_singleProbeClosesOnFastSuccess() {
+        trip();
+        now += OPEN_MILLIS;
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // Only the probe goes through
+        assertFalse(breaker.allowRequest());
+
+        breaker.onSuccess(50);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getConsecutiveFailures());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void failedProbe_reopensForAnotherInterval() {
+        trip();
+        now += OPEN_MILLIS;
+        assertTrue(breaker.allowRequest());
+
+        breaker.onSuccess(SLOW_MILLIS + 1);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getTripCount());
+        now += OPEN_MILLIS - 1;
+        assertFalse(breaker.allowRequest());
+        now += 1;
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void lostProbe_isReplacedAfterOpenInterval() {
+        trip();
+        now += OPEN_MILLIS;
+        assertTrue(breaker.allowRequest());
+
+        // The probe never reports back
+        now += OPEN_MILLIS;
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void listeners_seeEveryTransition() {
+        List<String> transitions = new ArrayList<>();
+        CircuitBreaker.StateListener listener = (b, from, to) -> transitions.add(from + "->" + to);
+        breaker.addStateListener(listener);
+
+        trip();
+        now += OPEN_MILLIS;
+        breaker.allowRequest();
+        breaker.onSuccess(10);
+        breaker.removeStateListener(listener);
+        trip();
+
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    private void trip() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure(10);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
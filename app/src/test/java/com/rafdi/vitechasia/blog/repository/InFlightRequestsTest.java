@@ -0,0 +1,165 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link InFlightRequests}.
+ */
+public class InFlightRequestsTest {
+
+    @Test
+    public void execute_attachesCallersToPendingRequest() {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+        List<InFlightRequests.Callback<String>> started = new ArrayList<>();
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+
+        assertTrue(requests.execute("page=1", started::add, first));
+        assertFalse(requests.execute("page=1", started::add, second));
+        assertEquals(1, started.size());
+
+        started.get(0).onSuccess("result");
+
+        assertEquals("result", first.result);
+        assertEquals("result", second.result);
+        assertFalse(requests.isPending("page=1"));
+        assertEquals(1, requests.getStartedCount());
+        assertEquals(1, requests.getCoalescedCount());
+    }
+
+    @Test
+    public void getWaiters_listsEveryAttachedCallerUntilCompletion() {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+        List<InFlightRequests.Callback<String>> started = new ArrayList<>();
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+
+        requests.execute("page=1", started::add, first);
+        requests.execute("page=1", started::add, second);
+
+        List<InFlightRequests.Callback<String>> waiters = requests.getWaiters("page=1");
+        assertEquals(2, waiters.size());
+        assertSame(first, waiters.get(0));
+        assertSame(second, waiters.get(1));
+
+        started.get(0).onSuccess("result");
+        assertTrue(requests.getWaiters("page=1").isEmpty());
+    }
+
+    @Test
+    public void execute_keepsDifferentKeysSeparate() {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+        List<InFlightRequests.Callback<String>> started = new ArrayList<>();
+
+        requests.execute("page=1", started::add, new RecordingCallback());
+        requests.execute("page=2", started::add, new RecordingCallback());
+
+        assertEquals(2, started.size());
+        assertEquals(0, requests.getCoalescedCount());
+    }
+
+    @Test
+    public void execute_fansOutErrorsAndStartsFreshAfterCompletion() {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+        List<InFlightRequests.Callback<String>> started = new ArrayList<>();
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+
+        requests.execute("page=1", started::add, first);
+        requests.execute("page=1", started::add, second);
+        started.get(0).onError("timeout");
+
+        assertEquals("timeout", first.error);
+        assertEquals("timeout", second.error);
+
+        // A call after completion hits the network again
+        assertTrue(requests.execute("page=1", started::add, new RecordingCallback()));
+        assertEquals(2, started.size());
+    }
+
+    @Test
+    public void execute_allowsSilentCallers() {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+        List<InFlightRequests.Callback<String>> started = new ArrayList<>();
+        RecordingCallback caller = new RecordingCallback();
+
+        requests.execute("page=1", started::add, null);
+        requests.execute("page=1", started::add, caller);
+        started.get(0).onSuccess("result");
+
+        assertEquals("result", caller.result);
+        assertEquals(1, started.size());
+    }
+
+    @Test
+    public void execute_startsOneRequestUnderConcurrentCallers() throws Exception {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+        AtomicInteger networkCalls = new AtomicInteger();
+        AtomicInteger delivered = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<InFlightRequests.Callback<String>> started = new ArrayList<>();
+        int callers = 16;
+        CountDownLatch ready = new CountDownLatch(callers);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        for (int i = 0; i < callers; i++) {
+            executor.execute(() -> {
+                ready.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                requests.execute("page=1", done -> {
+                    networkCalls.incrementAndGet();
+                    synchronized (started) {
+                        started.add(done);
+                    }
+                }, new InFlightRequests.Callback<String>() {
+                    @Override
+                    public void onSuccess(String result) {
+                        delivered.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                    }
+                });
+            });
+        }
+        ready.await();
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1, networkCalls.get());
+        started.get(0).onSuccess("result");
+        assertEquals(callers, delivered.get());
+        assertEquals(callers - 1, requests.getCoalescedCount());
+    }
+
+    private static class RecordingCallback implements InFlightRequests.Callback<String> {
+        String result;
+        String error;
+
+        @Override
+        public void onSuccess(String result) {
+            this.result = result;
+        }
+
+        @Override
+        public void onError(String message) {
+            this.error = message;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.rafdi.vitechasia.blog.repository;
+
+import com.rafdi.vitechasia.blog.api.ApiClient;
+import com.rafdi.vitechasia.blog.api.ArticleApiService;
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.SocketTimeoutException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ResilientCall} and {@link RetryPolicy}, run against a
+ * MockWebServer stand-in for the article API.
+ */
+public class ResilientCallTest {
+    private static final String ARTICLE_JSON = "{\"id\":\"1\",\"title\":\"First\"}";
+
+    private MockWebServer server;
+    private ArticleApiService service;
+    private ScheduledExecutorService scheduler;
+    private final List<Integer> attempts = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        service = new Retrofit.Builder()
+                .baseUrl(server.url("/api/v1/"))
+                .addConverterFactory(GsonConverterFactory.create(ApiClient.getGson()))
+                .build()
+                .create(ArticleApiService.class);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        scheduler.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void serverErrorsAndThrottling_areRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(429));
+        server.enqueue(new MockResponse().setBody(ARTICLE_JSON));
+
+        Response<Article> response = run(new RetryPolicy(3, 10, 50), 0, () -> true).get();
+
+        assertEquals("First", response.body().getTitle());
+        assertEquals(3, server.getRequestCount());
+        assertEquals(List.of(503, 429, 200), attempts);
+    }
+
+    @Test
+    public void clientErrors_areNotRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        Response<Article> response = run(new RetryPolicy(3, 10, 50), 0, () -> true).get();
+
+        assertEquals(404, response.code());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void retries_stopWhenGuardRefuses() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody(ARTICLE_JSON));
+
+        Response<Article> response = run(new RetryPolicy(3, 10, 50), 0, () -> false).get();
+
+        assertEquals(500, response.code());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void slowAttempt_isHedgedAndFasterCopyWins() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"id\":\"1\",\"title\":\"Slow\"}")
+                .setHeadersDelay(2, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setBody("{\"id\":\"1\",\"title\":\"Hedge\"}"));
+
+        long start = System.nanoTime();
+        Result result = run(RetryPolicy.NONE, 100, () -> true);
+        Response<Article> response = result.get();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("Hedge", response.body().getTitle());
+        assertEquals(1, result.call.getHedgeCount());
+        assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 1_500);
+        // The cancelled slow copy is not reported as a failed attempt
+        assertEquals(List.of(200), attempts);
+    }
+
+    @Test
+    public void fastAttempt_isNotHedged() throws Exception {
+        server.enqueue(new MockResponse().setBody(ARTICLE_JSON));
+
+        Result result = run(RetryPolicy.NONE, 1_000, () -> true);
+        result.get();
+        Thread.sleep(1_100);
+
+        assertEquals(0, result.call.getHedgeCount());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void backoff_isJitteredBelowAnExponentialCeiling() {
+        RetryPolicy policy = new RetryPolicy(5, 100, 1_000, new Random(42));
+        Set<Long> delays = new HashSet<>();
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(policy.backoffMillis(1) <= 100);
+            assertTrue(policy.backoffMillis(2) <= 200);
+            assertTrue(policy.backoffMillis(3) <= 400);
+            long capped = policy.backoffMillis(10);
+            assertTrue(capped <= 1_000);
+            delays.add(capped);
+        }
+        assertTrue("delays should be spread out, got " + delays.size(), delays.size() > 100);
+        assertEquals(0, RetryPolicy.NONE.backoffMillis(1));
+        assertTrue(policy.isRetryable(null, new SocketTimeoutException()));
+        assertFalse(policy.isRetryable(null, new IllegalStateException()));
+    }
+
+    private Result run(RetryPolicy policy, long hedgeAfterMillis, BooleanSupplier mayRetry) {
+        Result result = new Result();
+        result.call = new ResilientCall<>(service.getArticleById("1"), policy, hedgeAfterMillis, scheduler,
+                mayRetry, () -> true,
+                (latencyMillis, response) -> attempts.add(response != null ? response.code() : -1),
+                result);
+        result.call.start();
+        return result;
+    }
+
+    private static final class Result implements Callback<Article> {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<Response<Article>> response = new AtomicReference<>();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        ResilientCall<Article> call;
+
+        @Override
+        public void onResponse(Call<Article> call, Response<Article> response) {
+            this.response.set(response);
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Call<Article> call, Throwable t) {
+            error.set(t);
+            done.countDown();
+        }
+
+        Response<Article> get() throws Exception {
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            if (error.get() != null) {
+                throw new AssertionError(error.get());
+            }
+            return response.get();
+        }
+    }
+}
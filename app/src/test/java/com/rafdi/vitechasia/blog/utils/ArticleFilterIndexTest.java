@@ -0,0 +1,205 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests and a small benchmark for {@link ArticleFilterIndex}.
+ */
+public class ArticleFilterIndexTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long NOW = 1_750_000_000_000L;
+
+    @Test
+    public void select_filtersByCategorySubcategoryAndDate() {
+        ArticleFilterIndex index = new ArticleFilterIndex(Arrays.asList(
+                article("1", "tech", "mobile", NOW - DAY, 5),
+                article("2", "Tech", "ai", NOW - 10 * DAY, 50),
+                article("3", "sports", "football", NOW - 2 * DAY, 20),
+                article("4", "tech", "Mobile", null, 1)));
+
+        assertEquals(ids("1", "2", "4"), idsOf(index.select("TECH", null, ArticleFilterIndex.ANY_DATE,
+                ArticleFilterIndex.Order.RELEVANCE)));
+        assertEquals(ids("1", "4"), idsOf(index.select("tech", "mobile", ArticleFilterIndex.ANY_DATE,
+                ArticleFilterIndex.Order.RELEVANCE)));
+        // A date range drops undated articles
+        assertEquals(ids("1", "3"), idsOf(index.select(null, null, NOW - 7 * DAY,
+                ArticleFilterIndex.Order.RELEVANCE)));
+        assertTrue(index.select("health", null, ArticleFilterIndex.ANY_DATE,
+                ArticleFilterIndex.Order.RELEVANCE).isEmpty());
+    }
+
+    @Test
+    public void select_ordersWithoutResorting() {
+        ArticleFilterIndex index = new ArticleFilterIndex(Arrays.asList(
+                article("a", "tech", null, NOW - 5 * DAY, 5),
+                article("b", "tech", null, null, 50),
+                article("c", "tech", null, NOW, 20),
+                article("d", "tech", null, NOW - 5 * DAY, 20)));
+
+        assertEquals(ids("c", "a", "d", "b"), idsOf(index.select(null, null, ArticleFilterIndex.ANY_DATE,
+                ArticleFilterIndex.Order.NEWEST)));
+        assertEquals(ids("a", "d", "c", "b"), idsOf(index.select(null, null, ArticleFilterIndex.ANY_DATE,
+                ArticleFilterIndex.Order.OLDEST)));
+        assertEquals(ids("b", "c", "d", "a"), idsOf(index.select(null, null, ArticleFilterIndex.ANY_DATE,
+                ArticleFilterIndex.Order.MOST_VIEWED)));
+    }
+
+    @Test
+    public void lowerBound_findsTheFirstEqualOrGreater() {
+        long[] sorted = {1, 3, 3, 3, 7};
+        assertEquals(0, ArticleFilterIndex.lowerBound(sorted, 0));
+        assertEquals(1, ArticleFilterIndex.lowerBound(sorted, 3));
+        assertEquals(4, ArticleFilterIndex.lowerBound(sorted, 4));
+        assertEquals(5, ArticleFilterIndex.lowerBound(sorted, 8));
+    }
+
+    @Test
+    public void select_matchesALinearScanOnSyntheticCorpus() {
+        List<Article> corpus = SyntheticArticles.generate(3_000, 17);
+        ArticleFilterIndex index = new ArticleFilterIndex(corpus);
+        long now = System.currentTimeMillis();
+
+        for (String category : new String[]{null, DataHandler.CATEGORY_TECH, DataHandler.CATEGORY_SPORTS}) {
+            String subcategory = category == null ? null : DataHandler.getSubcategoriesForCategory(category).get(0);
+            for (long since : new long[]{ArticleFilterIndex.ANY_DATE, now - 7 * DAY, now - 365 * DAY}) {
+                for (ArticleFilterIndex.Order order : ArticleFilterIndex.Order.values()) {
+                    for (String sub : new String[]{null, subcategory}) {
+                        assertEquals(category + "/" + sub + "/" + since + "/" + order,
+                                scan(corpus, category, sub, since, order),
+                                index.select(category, sub, since, order));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @Ignore("Benchmark; run manually")
+    public void benchmark_filterToggles() {
+        List<Article> corpus = SyntheticArticles.generate(100_000, 42);
+        long now = System.currentTimeMillis();
+        String category = DataHandler.CATEGORY_TECH;
+        String subcategory = DataHandler.getSubcategoriesForCategory(category).get(0);
+        Object[][] toggles = {
+                {category, null, ArticleFilterIndex.ANY_DATE, ArticleFilterIndex.Order.RELEVANCE},
+                {category, subcategory, ArticleFilterIndex.ANY_DATE, ArticleFilterIndex.Order.RELEVANCE},
+                {category, subcategory, now - 30 * DAY, ArticleFilterIndex.Order.RELEVANCE},
+                {category, subcategory, now - 30 * DAY, ArticleFilterIndex.Order.NEWEST},
+                {null, null, now - 365 * DAY, ArticleFilterIndex.Order.MOST_VIEWED},
+                {null, null, ArticleFilterIndex.ANY_DATE, ArticleFilterIndex.Order.OLDEST},
+        };
+
+        // A new index per result set; the last build is timed once the JIT has warmed up
+        ArticleFilterIndex index = null;
+        long buildNanos = 0;
+        for (int round = 0; round < 3; round++) {
+            long buildStart = System.nanoTime();
+            index = new ArticleFilterIndex(corpus);
+            index.select(null, null, now, ArticleFilterIndex.Order.NEWEST);
+            index.select(null, null, ArticleFilterIndex.ANY_DATE, ArticleFilterIndex.Order.MOST_VIEWED);
+            buildNanos = System.nanoTime() - buildStart;
+        }
+
+        for (int round = 0; round < 5; round++) {
+            for (Object[] toggle : toggles) {
+                select(index, toggle);
+                scan(corpus, (String) toggle[0], (String) toggle[1], (long) toggle[2],
+                        (ArticleFilterIndex.Order) toggle[3]);
+            }
+        }
+
+        int runs = 10;
+        long start = System.nanoTime();
+        int indexed = 0;
+        for (int round = 0; round < runs; round++) {
+            for (Object[] toggle : toggles) {
+                indexed += select(index, toggle).size();
+            }
+        }
+        long indexNanos = (System.nanoTime() - start) / runs / toggles.length;
+
+        start = System.nanoTime();
+        int scanned = 0;
+        for (int round = 0; round < runs; round++) {
+            for (Object[] toggle : toggles) {
+                scanned += scan(corpus, (String) toggle[0], (String) toggle[1], (long) toggle[2],
+                        (ArticleFilterIndex.Order) toggle[3]).size();
+            }
+        }
+        long scanNanos = (System.nanoTime() - start) / runs / toggles.length;
+
+        System.out.printf("ArticleFilterIndex n=%d build+orders=%.1fms bitsets=%.2fms/toggle scan+sort=%.2fms/toggle%n",
+                corpus.size(), buildNanos / 1e6, indexNanos / 1e6, scanNanos / 1e6);
+        assertEquals(scanned, indexed);
+    }
+
+    private static List<Article> select(ArticleFilterIndex index, Object[] toggle) {
+        return index.select((String) toggle[0], (String) toggle[1], (long) toggle[2],
+                (ArticleFilterIndex.Order) toggle[3]);
+    }
+
+    /**
+     * The scan SearchResultsFragment.applyFilters did before the index, with stable sorts and
+     * undated articles last.
+     */
+    private static List<Article> scan(List<Article> corpus, String category, String subcategory, long since,
+                                      ArticleFilterIndex.Order order) {
+        List<Article> results = new ArrayList<>();
+        for (Article article : corpus) {
+            boolean matchesCategory = category == null ||
+                    (article.getCategoryId() != null && article.getCategoryId().equalsIgnoreCase(category));
+            boolean matchesSubcategory = subcategory == null ||
+                    (article.getSubcategoryId() != null && article.getSubcategoryId().equalsIgnoreCase(subcategory));
+            boolean matchesDate = since == ArticleFilterIndex.ANY_DATE ||
+                    (article.getPublishDate() != null && article.getPublishDate().getTime() >= since);
+            if (matchesCategory && matchesSubcategory && matchesDate) {
+                results.add(article);
+            }
+        }
+        Comparator<Article> undatedLast = Comparator.comparing(article -> article.getPublishDate() == null);
+        switch (order) {
+            case NEWEST:
+                results.sort(undatedLast.thenComparing(Article::getPublishDate,
+                        Comparator.nullsLast(Comparator.reverseOrder())));
+                break;
+            case OLDEST:
+                results.sort(undatedLast.thenComparing(Article::getPublishDate,
+                        Comparator.nullsLast(Comparator.naturalOrder())));
+                break;
+            case MOST_VIEWED:
+                results.sort((a1, a2) -> Integer.compare(a2.getViewCount(), a1.getViewCount()));
+                break;
+            default:
+                break;
+        }
+        return results;
+    }
+
+    private static Article article(String id, String category, String subcategory, Long publishedAt, int views) {
+        return new Article(id, "Title " + id, "Body", null, category, subcategory, "author", "Author", null,
+                publishedAt != null ? new Date(publishedAt) : null, views, 0);
+    }
+
+    private static List<String> ids(String... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static List<String> idsOf(List<Article> articles) {
+        List<String> ids = new ArrayList<>();
+        for (Article article : articles) {
+            ids.add(article.getId());
+        }
+        return ids;
+    }
+}
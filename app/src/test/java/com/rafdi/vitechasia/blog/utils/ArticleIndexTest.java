@@ -0,0 +1,126 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link ArticleIndex}.
+ */
+public class ArticleIndexTest {
+
+    @Test
+    public void lookups_matchFullScans() {
+        List<Article> corpus = SyntheticArticles.generate(2_000, 3);
+        ArticleIndex index = ArticleIndex.of(corpus);
+
+        assertEquals(corpus.size(), index.size());
+        for (String category : SyntheticArticles.CATEGORIES) {
+            assertEquals(scanCategory(corpus, category), index.getByCategory(category.toUpperCase()));
+            for (String subcategory : DataHandler.getSubcategoriesForCategory(category)) {
+                assertEquals(scanSubcategory(corpus, subcategory), index.getBySubcategory(subcategory));
+            }
+        }
+        Article sample = corpus.get(1234);
+        assertSame(sample, index.getById(sample.getId()));
+        assertEquals(1234, index.positionOf(sample.getId()));
+        assertTrue(index.getByAuthor(sample.getAuthorId()).contains(sample));
+    }
+
+    @Test
+    public void unknownKeys_returnEmptyLists() {
+        ArticleIndex index = ArticleIndex.of(Collections.singletonList(article("1", "tech", "ai", "x")));
+
+        assertNull(index.getById("missing"));
+        assertNull(index.getById(null));
+        assertEquals(-1, index.positionOf("missing"));
+        assertTrue(index.getByCategory(null).isEmpty());
+        assertTrue(index.getBySubcategory("web").isEmpty());
+        assertTrue(index.getByAuthor("y").isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void buckets_areUnmodifiable() {
+        ArticleIndex index = ArticleIndex.of(Collections.singletonList(article("1", "tech", "ai", "x")));
+        index.getByCategory("tech").clear();
+    }
+
+    @Test
+    public void withArticles_publishesNewSnapshotAndLeavesOldOneIntact() {
+        Article first = article("1", "tech", "ai", "x");
+        Article second = article("2", "sports", "football", "y");
+        ArticleIndex original = ArticleIndex.of(Arrays.asList(first, second));
+
+        Article moved = article("1", "health", "fitness", "x");
+        Article added = article("3", "tech", "web", "z");
+        ArticleIndex updated = original.withArticles(Arrays.asList(moved, added));
+
+        assertSame(moved, updated.getById("1"));
+        assertEquals(0, updated.positionOf("1"));
+        assertEquals(2, updated.positionOf("3"));
+        assertEquals(Collections.singletonList(added), updated.getByCategory("tech"));
+        assertEquals(Collections.singletonList(moved), updated.getByCategory("health"));
+
+        assertSame(first, original.getById("1"));
+        assertEquals(Collections.singletonList(first), original.getByCategory("tech"));
+        assertNull(original.getById("3"));
+    }
+
+    @Test
+    public void withArticles_keepsTheBodyWhenASummaryArrives() {
+        Article full = article("1", "tech", "ai", "x");
+        ArticleIndex index = ArticleIndex.of(Collections.singletonList(full));
+        Article summary = new Article("1", "New title", null, null, "tech", "ai", "x",
+                "Author", null, new Date(), 10, 0);
+
+        Article merged = index.withArticles(Collections.singletonList(summary)).getById("1");
+        assertEquals("New title", merged.getTitle());
+        assertEquals(10, merged.getViewCount());
+        assertEquals("Body", merged.getContent());
+        // Neither the summary nor the indexed article is modified
+        assertNull(summary.getContent());
+        assertEquals("Title 1", full.getTitle());
+    }
+
+    @Test
+    public void withArticles_returnsSameSnapshotWhenNothingChanged() {
+        Article first = article("1", "tech", "ai", "x");
+        ArticleIndex index = ArticleIndex.of(Collections.singletonList(first));
+
+        assertSame(index, index.withArticles(Collections.singletonList(first)));
+        assertSame(index, index.withArticles(null));
+    }
+
+    private static List<Article> scanCategory(List<Article> corpus, String category) {
+        List<Article> result = new ArrayList<>();
+        for (Article article : corpus) {
+            if (category.equalsIgnoreCase(article.getCategoryId())) {
+                result.add(article);
+            }
+        }
+        return result;
+    }
+
+    private static List<Article> scanSubcategory(List<Article> corpus, String subcategory) {
+        List<Article> result = new ArrayList<>();
+        for (Article article : corpus) {
+            if (subcategory.equalsIgnoreCase(article.getSubcategoryId())) {
+                result.add(article);
+            }
+        }
+        return result;
+    }
+
+    private static Article article(String id, String category, String subcategory, String authorId) {
+        return new Article(id, "Title " + id, "Body", null, category, subcategory, authorId,
+                "Author", null, new Date(), 0, 0);
+    }
+}
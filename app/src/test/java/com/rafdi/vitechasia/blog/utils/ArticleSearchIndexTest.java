@@ -0,0 +1,461 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests and a small benchmark for {@link ArticleSearchIndex}.
+ */
+public class ArticleSearchIndexTest {
+
+    @Test
+    public void search_matchesWordPrefixesAcrossFields() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(Arrays.asList(
+                article("1", "Android 15 released", "New privacy features", "Jane Doe"),
+                article("2", "Basketball finals", "The Lakers won", "John Smith"),
+                article("3", "Kotlin tips", "Coroutines on Android", "Jane Roe")));
+
+        assertEquals(ids("1", "3"), idsOf(index.search("andro")));
+        assertEquals(ids("2"), idsOf(index.search("SMITH")));
+        assertEquals(ids("1", "3"), idsOf(index.search("jane")));
+        assertTrue(index.search("droid").isEmpty());
+    }
+
+    @Test
+    public void search_requiresEveryToken() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(Arrays.asList(
+                article("1", "Android 15 released", "New privacy features", "Jane Doe"),
+                article("3", "Kotlin tips", "Coroutines on Android", "Jane Roe")));
+
+        assertEquals(ids("3"), idsOf(index.search("android kotlin")));
+        assertEquals(ids("1"), idsOf(index.search("jane, privacy!")));
+        assertTrue(index.search("android basketball").isEmpty());
+        assertTrue(index.search("  ,. ").isEmpty());
+        assertTrue(index.search(null).isEmpty());
+    }
+
+    @Test
+    public void addArticle_replacesChangedTextAndKeepsUnchangedEntries() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticle(article("1", "Old headline", "Body", "Jane"));
+        index.addArticle(article("2", "Other story", "Body", "John"));
+
+        index.addArticle(article("1", "New headline", "Body", "Jane"));
+        assertEquals(2, index.size());
+        assertTrue(index.search("old").isEmpty());
+        assertEquals(ids("1"), idsOf(index.search("new")));
+
+        Article refreshed = article("2", "Other story", "Body", "John");
+        index.addArticle(refreshed);
+        assertEquals(2, index.size());
+        assertSame(refreshed, index.search("other").get(0));
+    }
+
+    @Test
+    public void addArticle_summaryWithoutBodyKeepsTheIndexedBody() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticle(article("1", "Old headline", "Coroutines explained", "Jane"));
+
+        Article summary = article("1", "Old headline", null, "Jane");
+        index.addArticle(summary);
+        assertEquals(ids("1"), idsOf(index.search("coroutines")));
+
+        // A changed title is re-indexed together with the known body
+        index.addArticle(article("1", "New headline", null, "Jane"));
+        assertEquals(ids("1"), idsOf(index.search("coroutines new")));
+        assertTrue(index.search("old").isEmpty());
+        assertEquals("Coroutines explained", index.search("new").get(0).getContent());
+        assertNull(summary.getContent());
+    }
+
+    @Test
+    public void intersect_returnsCommonSortedIds() {
+        assertArrayEquals(new int[]{3, 7}, ArticleSearchIndex.intersect(
+                new int[]{1, 3, 5, 7}, new int[]{2, 3, 7, 9}));
+        assertArrayEquals(new int[0], ArticleSearchIndex.intersect(new int[]{1}, new int[0]));
+    }
+
+    @Test
+    public void search_matchesBruteForceOnSyntheticCorpus() {
+        List<Article> corpus = SyntheticArticles.generate(1_000, 7);
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(corpus);
+
+        for (String query : sampleQueries(corpus, 200, 11)) {
+            assertEquals("Query: " + query, bruteForce(corpus, query), index.search(query));
+        }
+    }
+
+    @Test
+    @Ignore("Benchmark; run manually")
+    public void benchmark_indexVersusLinearScan() {
+        for (int size : new int[]{10_000, 100_000}) {
+            List<Article> corpus = SyntheticArticles.generate(size, 42);
+            List<String> queries = sampleQueries(corpus, 50, 3);
+
+            long buildStart = System.nanoTime();
+            ArticleSearchIndex index = new ArticleSearchIndex();
+            index.addArticles(corpus);
+            long buildNanos = System.nanoTime() - buildStart;
+
+            // Warm up both paths before measuring
+            for (String query : queries) {
+                index.search(query);
+                containsScan(corpus, query);
+            }
+
+            long indexed = 0;
+            long indexStart = System.nanoTime();
+            for (String query : queries) {
+                indexed += index.search(query).size();
+            }
+            long indexNanos = System.nanoTime() - indexStart;
+
+            long scanned = 0;
+            long scanStart = System.nanoTime();
+            for (String query : queries) {
+                scanned += containsScan(corpus, query).size();
+            }
+            long scanNanos = System.nanoTime() - scanStart;
+
+            System.out.printf("ArticleSearchIndex n=%d build=%.1fms index=%.3fms/query "
+                            + "scan=%.3fms/query hits=%d/%d%n",
+                    size, buildNanos / 1e6, indexNanos / 1e6 / queries.size(),
+                    scanNanos / 1e6 / queries.size(), indexed, scanned);
+            assertEquals(size, index.size());
+        }
+    }
+
+    @Test
+    public void searchRanked_prefersTitleThenAuthorThenContent() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(Arrays.asList(
+                article("content", "Weekly roundup", "A note about kotlin coroutines", "Jane Doe"),
+                article("author", "Weekly roundup", "A note about coroutines", "Kotlin Smith"),
+                article("title", "Kotlin roundup", "A note about coroutines", "Jane Doe"),
+                article("none", "Weekly roundup", "A note about coroutines", "Jane Doe")));
+
+        assertEquals(ids("title", "author", "content"), idsOf(index.searchRanked("kotlin")));
+        // Same matches as the unranked search, only reordered
+        assertEquals(ids("content", "author", "title"), idsOf(index.search("kotlin")));
+    }
+
+    @Test
+    public void searchRanked_rareTermsAndShortFieldsScoreHigher() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(Arrays.asList(
+                article("common", "Market news", "Market market market", "Jane"),
+                article("rare", "Market news", "Quantum computing market", "Jane"),
+                article("long", "Market news and a very long headline about many unrelated things",
+                        "Market", "Jane"),
+                article("filler1", "Market news", "Market", "Jane"),
+                article("filler2", "Market news", "Market", "Jane")));
+
+        // "quantum" is rare, so it outweighs repeated occurrences of the common "market"
+        assertEquals("rare", index.searchRanked("market quantum").get(0).getId());
+        // Equal title matches: the longer title ranks last
+        List<Article> ranked = index.searchRanked("news");
+        assertEquals("long", ranked.get(ranked.size() - 1).getId());
+    }
+
+    @Test
+    public void orderByScore_sortsDescendingAndKeepsTiesStable() {
+        int[] order = ArticleSearchIndex.orderByScore(new float[]{1f, 3f, 0f, 3f, 2.5f});
+        assertArrayEquals(new int[]{1, 3, 4, 0, 2}, order);
+    }
+
+    @Test
+    public void packFreqs_roundTripsAndSaturates() {
+        int packed = ArticleSearchIndex.packFreqs(new int[]{2, 300, 70_000});
+        assertEquals(2, ArticleSearchIndex.unpackFreq(packed, ArticleSearchIndex.FIELD_TITLE));
+        assertEquals(255, ArticleSearchIndex.unpackFreq(packed, ArticleSearchIndex.FIELD_AUTHOR));
+        assertEquals(65_535, ArticleSearchIndex.unpackFreq(packed, ArticleSearchIndex.FIELD_CONTENT));
+    }
+
+    @Test
+    @Ignore("Benchmark; run manually")
+    public void benchmark_rankingLargeResultSet() {
+        List<Article> corpus = SyntheticArticles.generate(100_000, 42);
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(corpus);
+
+        // Two-letter prefixes of frequent words match a large share of the corpus
+        String[] queries = {"an", "dro", "ko", "ba", "fi", "ma"};
+        for (int round = 0; round < 5; round++) {
+            for (String query : queries) {
+                index.searchRanked(query).get(0);
+            }
+        }
+
+        for (String query : queries) {
+            long start = System.nanoTime();
+            int unranked = index.search(query).size();
+            long matchNanos = System.nanoTime() - start;
+
+            // What a results screen reads: the first page
+            start = System.nanoTime();
+            List<Article> ranked = index.searchRanked(query);
+            for (int i = 0; i < Math.min(ArticleSearchIndex.FIRST_PAGE, ranked.size()); i++) {
+                ranked.get(i);
+            }
+            long firstPageNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            ranked.get(ranked.size() - 1);
+            long restNanos = System.nanoTime() - start;
+
+            System.out.printf("ArticleSearchIndex ranked q=%s results=%d match=%.1fms "
+                            + "match+first page=%.1fms rest=%.1fms%n",
+                    query, ranked.size(), matchNanos / 1e6, firstPageNanos / 1e6, restNanos / 1e6);
+            assertEquals(unranked, ranked.size());
+        }
+    }
+
+    @Test
+    public void searchRanked_firstPageMatchesTheFullOrder() {
+        List<Article> corpus = SyntheticArticles.generate(1_000, 7);
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(corpus);
+
+        for (String query : new String[]{"a", "an", "dro", "ko"}) {
+            List<Article> firstPage = new ArrayList<>();
+            List<Article> lazily = index.searchRanked(query);
+            for (int i = 0; i < ArticleSearchIndex.FIRST_PAGE; i++) {
+                firstPage.add(lazily.get(i));
+            }
+            List<Article> sorted = index.searchRanked(query);
+            sorted.get(sorted.size() - 1);
+
+            assertTrue(sorted.size() > 2 * ArticleSearchIndex.FIRST_PAGE);
+            assertEquals("Query: " + query, sorted.subList(0, ArticleSearchIndex.FIRST_PAGE), firstPage);
+            assertEquals("Query: " + query, sorted, lazily);
+            int[] docIds = index.searchDocIds(query);
+            int[] order = ArticleSearchIndex.orderByScore(index.score(ArticleSearchIndex.tokenize(query), docIds));
+            for (int i = 0; i < order.length; i++) {
+                assertSame(corpus.get(docIds[order[i]]), sorted.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void refine_matchesAFreshRankedSearch() {
+        List<Article> corpus = SyntheticArticles.generate(1_000, 7);
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(corpus);
+
+        for (String query : sampleQueries(corpus, 100, 13)) {
+            // Type the query one character at a time, refining each step
+            ArticleSearchIndex.Matches matches = null;
+            for (int end = 1; end <= query.length(); end++) {
+                matches = index.refine(query.substring(0, end), matches);
+            }
+            assertEquals("Query: " + query, index.searchRanked(query), matches.getArticles());
+        }
+    }
+
+    @Test
+    public void refine_startsOverWhenTheIndexChanged() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticle(article("1", "Android tips", "Body", "Ann"));
+        ArticleSearchIndex.Matches matches = index.refine("and", null);
+        index.addArticle(article("2", "Android news", "Body", "Bob"));
+
+        assertEquals(2, index.refine("andr", matches).getArticles().size());
+    }
+
+    @Test
+    public void removedAndReplacedArticles_areCompactedAway() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        int count = ArticleSearchIndex.COMPACT_MIN_REMOVED * 2;
+        List<Article> articles = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            articles.add(article("a" + i, "Headline word" + i, "Body", "Author" + i));
+            if (i % 2 == 1) removed.add("a" + i);
+        }
+        index.addArticles(articles);
+        int termsBefore = index.termCount();
+
+        index.removeArticles(removed);
+        assertEquals(count / 2, index.documentCount());
+        assertEquals(count / 2, index.size());
+        assertTrue(index.termCount() < termsBefore);
+        // Prefix matching still finds word10, word12... but never the removed word1
+        assertFalse(idsOf(index.search("word1")).contains("a1"));
+        assertFalse(idsOf(index.searchRanked("author1")).contains("a1"));
+        assertTrue(idsOf(index.search("word2")).contains("a2"));
+
+        // Replacements tombstone the old entry; compaction keeps the new text reachable
+        List<Article> edited = new ArrayList<>();
+        for (int i = 0; i < count; i += 2) {
+            edited.add(article("a" + i, "Edited word" + i, "Body", "Author" + i));
+        }
+        index.addArticles(edited);
+        assertEquals(count / 2, index.documentCount());
+        assertTrue(index.search("headline").isEmpty());
+        assertEquals("a4", index.search("edited word4").get(0).getId());
+        // Corrections come from the rebuilt vocabulary
+        assertEquals("a4", index.searchRanked("editde word4").get(0).getId());
+    }
+
+    @Test
+    public void extendsTokens_onlyAcceptsNarrowerQueries() {
+        assertTrue(ArticleSearchIndex.extendsTokens(List.of("andr"), List.of("and")));
+        assertTrue(ArticleSearchIndex.extendsTokens(List.of("android", "ne"), List.of("android")));
+        assertTrue(ArticleSearchIndex.extendsTokens(List.of("a", "b"), List.of("a", "b")));
+        assertFalse(ArticleSearchIndex.extendsTokens(List.of("an"), List.of("and")));
+        assertFalse(ArticleSearchIndex.extendsTokens(List.of("ios", "android"), List.of("android")));
+        assertFalse(ArticleSearchIndex.extendsTokens(List.of("a"), List.of("a", "b")));
+        assertFalse(ArticleSearchIndex.extendsTokens(List.of("a"), List.of()));
+    }
+
+    @Test
+    public void searchRanked_correctsMisspelledTitleAndAuthorWords() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(Arrays.asList(
+                article("1", "Android 15 released", "New privacy features", "Jane Doe"),
+                article("2", "Basketball finals", "The Lakers won", "John Smith"),
+                article("3", "Kotlin tips", "Coroutines on Android", "Jane Roe"),
+                article("4", "Market update", "Coroutines everywhere", "Ann Lee")));
+
+        // Transposition, substitution and a word mixed with an exact one
+        assertEquals(ids("1"), idsOf(index.searchRanked("andorid")));
+        assertEquals(ids("2"), idsOf(index.searchRanked("baskedball")));
+        assertEquals(ids("2"), idsOf(index.searchRanked("finals smoth")));
+        // Corrections only look at titles and authors
+        assertTrue(index.searchRanked("coroutinez").isEmpty());
+        // Words under five letters are not corrected, and exact search stays exact
+        assertEquals(ids("3"), idsOf(index.searchRanked("kotln")));
+        assertTrue(index.searchRanked("tipz").isEmpty());
+        assertTrue(index.search("andorid").isEmpty());
+    }
+
+    @Test
+    public void searchRanked_appendsFuzzyMatchesOnlyBelowTheThreshold() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(Arrays.asList(
+                article("exact", "Marathon training", "Body", "Ann"),
+                article("typo", "Marathin results", "Body", "Bob"),
+                article("other", "Cooking", "Body", "Eve")));
+
+        // One exact hit is too few, so the close title follows it
+        assertEquals(ids("exact", "typo"), idsOf(index.searchRanked("marathon")));
+
+        index.addArticles(Arrays.asList(
+                article("exact2", "Marathon gear", "Body", "Ann"),
+                article("exact3", "Marathon diet", "Body", "Ann")));
+        List<String> found = idsOf(index.searchRanked("marathon"));
+        assertEquals(ArticleSearchIndex.MIN_EXACT_HITS, found.size());
+        assertFalse(found.contains("typo"));
+    }
+
+    @Test
+    public void refine_matchesAFreshRankedSearchWithTypos() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(Arrays.asList(
+                article("1", "Android news", "Body", "Ann"),
+                article("2", "Andorra travel", "Body", "Bob")));
+
+        ArticleSearchIndex.Matches matches = null;
+        String query = "andriod news";
+        for (int end = 1; end <= query.length(); end++) {
+            matches = index.refine(query.substring(0, end), matches);
+        }
+        assertEquals(index.searchRanked(query), matches.getArticles());
+        assertEquals(ids("1"), idsOf(matches.getArticles()));
+    }
+
+    /**
+     * Picks word prefixes and two-word queries from the corpus so most queries have hits.
+     */
+    private static List<String> sampleQueries(List<Article> corpus, int count, long seed) {
+        Random random = new Random(seed);
+        List<String> queries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Article article = corpus.get(random.nextInt(corpus.size()));
+            List<String> words = ArticleSearchIndex.tokenize(article.getTitle() + " " + article.getContent());
+            String first = words.get(random.nextInt(words.size()));
+            String query = first.substring(0, Math.min(first.length(), 3 + random.nextInt(4)));
+            if (i % 2 == 0) {
+                query += " " + words.get(random.nextInt(words.size()));
+            }
+            queries.add(query);
+        }
+        return queries;
+    }
+
+    /**
+     * Reference implementation of the index semantics: every query token prefixes a word.
+     */
+    private static List<Article> bruteForce(List<Article> corpus, String query) {
+        List<String> queryTokens = ArticleSearchIndex.tokenize(query);
+        List<Article> results = new ArrayList<>();
+        for (Article article : corpus) {
+            List<String> words = new ArrayList<>();
+            words.addAll(ArticleSearchIndex.tokenize(article.getTitle()));
+            words.addAll(ArticleSearchIndex.tokenize(article.getAuthorName()));
+            words.addAll(ArticleSearchIndex.tokenize(article.getContent()));
+            boolean all = !queryTokens.isEmpty();
+            for (String token : queryTokens) {
+                boolean found = false;
+                for (String word : words) {
+                    if (word.startsWith(token)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) results.add(article);
+        }
+        return results;
+    }
+
+    /**
+     * The substring scan DataHandler.searchArticles used before the index.
+     */
+    private static List<Article> containsScan(List<Article> corpus, String query) {
+        String lowerQuery = query.toLowerCase();
+        List<Article> results = new ArrayList<>();
+        for (Article article : corpus) {
+            if (article.getTitle().toLowerCase().contains(lowerQuery)
+                    || article.getContent().toLowerCase().contains(lowerQuery)
+                    || article.getAuthorName().toLowerCase().contains(lowerQuery)) {
+                results.add(article);
+            }
+        }
+        return results;
+    }
+
+    private static Article article(String id, String title, String content, String author) {
+        return new Article(id, title, content, null, "tech", null, "author", author, null,
+                new Date(), 0, 0);
+    }
+
+    private static List<String> ids(String... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static List<String> idsOf(List<Article> articles) {
+        List<String> ids = new ArrayList<>();
+        for (Article article : articles) {
+            ids.add(article.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,495 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+import com.rafdi.vitechasia.blog.repository.ArticleChangeSet;
+import com.rafdi.vitechasia.blog.repository.ArticleCursor;
+import com.rafdi.vitechasia.blog.repository.ArticleDataSource;
+import com.rafdi.vitechasia.blog.repository.ArticlePagingSource;
+import com.rafdi.vitechasia.blog.repository.ArticleRepository;
+import com.rafdi.vitechasia.blog.repository.ArticleSort;
+import com.rafdi.vitechasia.blog.repository.CachePolicy;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the request-scoped result delivery in {@link DataHandler}.
+ */
+public class DataHandlerTest {
+    private static final int REQUESTS = 100;
+
+    private final ExecutorService sourceExecutor = Executors.newFixedThreadPool(8);
+    private final ExecutorService callerExecutor = Executors.newFixedThreadPool(16);
+
+    @After
+    public void tearDown() {
+        sourceExecutor.shutdownNow();
+        callerExecutor.shutdownNow();
+    }
+
+    @Test
+    public void parallelCategoryLoads_eachCallbackGetsItsOwnResult() throws Exception {
+        FakeDataSource source = new FakeDataSource(-1);
+        DataHandler dataHandler = new DataHandler(source);
+
+        Map<String, List<List<Article>>> deliveries = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            String category = "category-" + i;
+            deliveries.put(category, Collections.synchronizedList(new ArrayList<>()));
+            callerExecutor.execute(() -> {
+                awaitQuietly(start);
+                dataHandler.getArticlesByCategory(category, new DataHandler.DataLoadListener() {
+                    @Override
+                    public void onDataLoaded(List<Article> articles) {
+                        deliveries.get(category).add(articles);
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        fail("Unexpected error for " + category + ": " + message);
+                    }
+                });
+            });
+        }
+
+        start.countDown();
+        assertTrue("Not all loads completed", done.await(10, TimeUnit.SECONDS));
+        // Give any stray duplicate deliveries a chance to show up
+        Thread.sleep(100);
+
+        assertEquals(REQUESTS, source.requestCount.get());
+        for (Map.Entry<String, List<List<Article>>> entry : deliveries.entrySet()) {
+            List<List<Article>> received = entry.getValue();
+            assertEquals("Callback for " + entry.getKey() + " fired more than once", 1, received.size());
+            List<Article> articles = received.get(0);
+            assertEquals(1, articles.size());
+            assertEquals(entry.getKey(), articles.get(0).getCategoryId());
+        }
+    }
+
+    @Test
+    public void cacheFirstLoad_forwardsTheRefreshedList() throws Exception {
+        FakeDataSource source = new FakeDataSource(-1);
+        Article fresher = new Article("fresh", "Fresh", "Body", null, "category-1", null,
+                "author", "Author", null, new Date(), 1, 1);
+        source.refreshWith = Collections.singletonList(fresher);
+        DataHandler dataHandler = new DataHandler(source);
+
+        List<List<Article>> loaded = Collections.synchronizedList(new ArrayList<>());
+        List<List<Article>> refreshed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        dataHandler.getArticlesByCategory("category-1", DataHandler.FEED_CACHE_POLICY,
+                new DataHandler.DataLoadListener() {
+                    @Override
+                    public void onDataLoaded(List<Article> articles) {
+                        loaded.add(articles);
+                    }
+
+                    @Override
+                    public void onDataRefreshed(List<Article> articles) {
+                        refreshed.add(articles);
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        fail(message);
+                    }
+                });
+
+        assertTrue("Refresh was not delivered", done.await(5, TimeUnit.SECONDS));
+        assertSame(DataHandler.FEED_CACHE_POLICY, source.lastPolicy);
+        assertEquals(1, loaded.size());
+        assertEquals("id-category-1", loaded.get(0).get(0).getId());
+        assertEquals(1, refreshed.size());
+        assertEquals("fresh", refreshed.get(0).get(0).getId());
+    }
+
+    @Test
+    public void popularPages_areSortedByTheDataSource() throws Exception {
+        FakeDataSource source = new FakeDataSource(-1);
+        source.sortedPageSize = 10;
+        DataHandler dataHandler = new DataHandler(source);
+
+        List<Article> page = awaitArticles(listener ->
+                dataHandler.getPopularArticlesPage(3, 10, CachePolicy.NETWORK_FIRST, listener));
+
+        assertEquals(List.of("MOST_VIEWED page=3 limit=10"), source.sortedRequests);
+        assertEquals(10, page.size());
+        assertEquals("sorted-3-0", page.get(0).getId());
+        assertEquals(0, source.requestCount.get());
+    }
+
+    @Test
+    public void popularArticles_fallBackToLocallyRankedDummyData() throws Exception {
+        FakeDataSource source = new FakeDataSource(-1);
+        DataHandler dataHandler = new DataHandler(source);
+
+        List<Article> popular = awaitArticles(listener -> dataHandler.getPopularArticles(5, listener));
+
+        assertEquals(List.of("MOST_VIEWED page=1 limit=5"), source.sortedRequests);
+        assertEquals(5, popular.size());
+        for (int i = 1; i < popular.size(); i++) {
+            assertTrue(popular.get(i - 1).getViewCount() >= popular.get(i).getViewCount());
+        }
+        assertEquals(DataHandler.getMostViewedArticles(5), popular);
+    }
+
+    @Test
+    public void failedLaterPopularPage_reportsTheErrorInsteadOfDummyData() throws Exception {
+        FakeDataSource source = new FakeDataSource(-1);
+        DataHandler dataHandler = new DataHandler(source);
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        List<List<Article>> loaded = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+
+        dataHandler.getPopularArticlesPage(2, 10, CachePolicy.NETWORK_FIRST, new DataHandler.DataLoadListener() {
+            @Override
+            public void onDataLoaded(List<Article> articles) {
+                loaded.add(articles);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String message) {
+                errors.add(message);
+                done.countDown();
+            }
+        });
+
+        assertTrue("Load did not complete", done.await(5, TimeUnit.SECONDS));
+        assertTrue(loaded.isEmpty());
+        assertEquals(List.of("offline"), errors);
+    }
+
+    @Test
+    public void failedLaterFeedPage_reportsTheErrorInsteadOfDummyData() throws Exception {
+        FakeDataSource source = new FakeDataSource(-1);
+        source.feedPageSize = 10;
+        DataHandler dataHandler = new DataHandler(source);
+        ArticlePagingSource paging = dataHandler.newPagingSource(null, 10);
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        List<List<Article>> loaded = Collections.synchronizedList(new ArrayList<>());
+
+        for (int page = 0; page < 2; page++) {
+            CountDownLatch done = new CountDownLatch(1);
+            assertTrue(paging.loadNextPage(new ArticlePagingSource.PageCallback() {
+                @Override
+                public void onPageLoaded(List<Article> articles, boolean endReached) {
+                    loaded.add(articles);
+                    done.countDown();
+                }
+
+                @Override
+                public void onError(String message) {
+                    errors.add(message);
+                    done.countDown();
+                }
+            }));
+            assertTrue("Load did not complete", done.await(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, loaded.size());
+        assertEquals("feed-0", loaded.get(0).get(0).getId());
+        assertEquals(List.of("offline"), errors);
+        assertEquals(10, paging.getLoadedCount());
+    }
+
+    @Test
+    public void failedLoads_fallBackWithoutAffectingOtherRequests() throws Exception {
+        // Every third request fails; failures fall back to dummy data for that category only
+        FakeDataSource source = new FakeDataSource(3);
+        DataHandler dataHandler = new DataHandler(source);
+
+        Map<String, List<Article>> results = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            String category = "category-" + i;
+            callerExecutor.execute(() -> dataHandler.getArticlesByCategory(category,
+                    new DataHandler.DataLoadListener() {
+                        @Override
+                        public void onDataLoaded(List<Article> articles) {
+                            results.put(category, articles);
+                            done.countDown();
+                        }
+
+                        @Override
+                        public void onError(String message) {
+                            fail("Unexpected error for " + category + ": " + message);
+                        }
+                    }));
+        }
+
+        assertTrue("Not all loads completed", done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < REQUESTS; i++) {
+            String category = "category-" + i;
+            List<Article> articles = results.get(category);
+            assertNotNull(articles);
+            if (i % 3 == 0) {
+                // No dummy articles exist for synthetic categories
+                assertTrue(articles.isEmpty());
+            } else {
+                assertEquals(category, articles.get(0).getCategoryId());
+            }
+        }
+    }
+
+    @Test
+    public void getArticlesByIds_resolvesInOneCallAndKeepsRequestedOrder() throws Exception {
+        FakeDataSource source = new FakeDataSource(-1);
+        DataHandler dataHandler = new DataHandler(source);
+        String localId = DataHandler.getLocalArticles().get(0).getId();
+        List<String> ids = List.of("remote-1", localId, "missing", "remote-2");
+
+        List<List<Article>> delivered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        dataHandler.getArticlesByIds(ids, new DataHandler.DataLoadListener() {
+            @Override
+            public void onDataLoaded(List<Article> articles) {
+                delivered.add(articles);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String message) {
+                fail(message);
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, source.batchRequests.size());
+        List<Article> articles = delivered.get(0);
+        assertEquals(3, articles.size());
+        assertEquals("remote-1", articles.get(0).getId());
+        // Ids the source cannot resolve fall back to the local corpus
+        assertEquals(localId, articles.get(1).getId());
+        assertEquals("remote-2", articles.get(2).getId());
+    }
+
+    @Test
+    public void syncChanges_mergesDeltaAndNotifiesOnlyWhenSomethingChanged() throws Exception {
+        FakeDataSource source = new FakeDataSource(-1);
+        DataHandler dataHandler = new DataHandler(source);
+        List<Article> corpus = DataHandler.getLocalArticles();
+        Article removed = corpus.get(corpus.size() - 1);
+        Article edited = corpus.get(corpus.size() - 2);
+        Article editedCopy = new Article(edited.getId(), "Zyxwvu retitled", null, edited.getImageUrl(),
+                edited.getCategoryId(), edited.getSubcategoryId(), edited.getAuthorId(),
+                edited.getAuthorName(), null, edited.getPublishDate(), edited.getViewCount(), 0);
+        Article created = new Article("synced-new", "Qwertyuiop arrives", null, null, "tech", null,
+                "author", "Author", null, new Date(), 1, 1);
+
+        List<ArticleChangeSet> notified = Collections.synchronizedList(new ArrayList<>());
+        DataHandler.ArticleChangeListener listener = notified::add;
+        DataHandler.addChangeListener(listener);
+        try {
+            source.pendingChanges = ArticleChangeSet.of(List.of(editedCopy, created),
+                    List.of(removed.getId()));
+            syncAndWait(dataHandler);
+
+            ArticleIndex index = DataHandler.getArticleIndex();
+            assertNull(index.getById(removed.getId()));
+            assertSame(editedCopy, index.getById(edited.getId()));
+            assertSame(created, index.getById("synced-new"));
+            assertEquals(1, DataHandler.searchArticles("zyxwvu").size());
+            assertEquals(1, DataHandler.searchArticles("qwertyuiop").size());
+            assertTrue(DataHandler.searchArticles(removed.getTitle()).stream()
+                    .noneMatch(article -> article.getId().equals(removed.getId())));
+            assertEquals(1, notified.size());
+
+            source.pendingChanges = ArticleChangeSet.empty();
+            syncAndWait(dataHandler);
+            assertEquals(1, notified.size());
+        } finally {
+            DataHandler.removeChangeListener(listener);
+            // Restore the shared corpus for the other tests
+            source.pendingChanges = ArticleChangeSet.of(List.of(edited, removed), List.of("synced-new"));
+            syncAndWait(dataHandler);
+        }
+    }
+
+    private static void syncAndWait(DataHandler dataHandler) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        dataHandler.syncChanges(new DataHandler.SyncListener() {
+            @Override
+            public void onSyncComplete(ArticleChangeSet changes) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String message) {
+                fail(message);
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<Article> awaitArticles(Consumer<DataHandler.DataLoadListener> load)
+            throws InterruptedException {
+        List<List<Article>> result = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+        load.accept(new DataHandler.DataLoadListener() {
+            @Override
+            public void onDataLoaded(List<Article> articles) {
+                result.add(articles);
+                done.countDown();
+            }
+
+            @Override
+            public void onError(String message) {
+                fail(message);
+            }
+        });
+        assertTrue("Load did not complete", done.await(5, TimeUnit.SECONDS));
+        return result.get(0);
+    }
+
+    /**
+     * Completes each request on a worker thread after a short random delay,
+     * returning a single article tagged with the requested category.
+     */
+    private class FakeDataSource implements ArticleDataSource {
+        private final int failEvery;
+        final AtomicInteger requestCount = new AtomicInteger();
+        final List<List<String>> batchRequests = Collections.synchronizedList(new ArrayList<>());
+        volatile ArticleChangeSet pendingChanges = ArticleChangeSet.empty();
+        /** When set, every successful load is followed by this refreshed list. */
+        volatile List<Article> refreshWith;
+        volatile CachePolicy lastPolicy;
+        final List<String> sortedRequests = Collections.synchronizedList(new ArrayList<>());
+        /** Number of articles each sorted page request answers with; 0 fails the request. */
+        volatile int sortedPageSize = 0;
+        /** Number of articles the first feed page answers with; later pages always fail. */
+        volatile int feedPageSize = 0;
+
+        FakeDataSource(int failEvery) {
+            this.failEvery = failEvery;
+        }
+
+        @Override
+        public void getArticles(String category, int page, int limit, CachePolicy policy,
+                                ArticleRepository.ArticleCallback callback) {
+            requestCount.incrementAndGet();
+            lastPolicy = policy;
+            int index = Integer.parseInt(category.substring(category.indexOf('-') + 1));
+            sourceExecutor.execute(() -> {
+                sleepQuietly(ThreadLocalRandom.current().nextInt(5));
+                if (failEvery > 0 && index % failEvery == 0) {
+                    callback.onError("boom " + category);
+                    return;
+                }
+                Article article = new Article("id-" + category, "Title " + category, "Body",
+                        null, category, null, "author", "Author", null, new Date(), 1, 1);
+                callback.onSuccess(Collections.singletonList(article));
+                List<Article> refreshed = refreshWith;
+                if (refreshed != null) {
+                    callback.onRefreshed(refreshed);
+                }
+            });
+        }
+
+        @Override
+        public void getArticlesPage(String category, ArticleCursor after, int limit, CachePolicy policy,
+                                    ArticleRepository.ArticleCallback callback) {
+            int size = feedPageSize;
+            if (size == 0) {
+                sourceExecutor.execute(() -> callback.onError("not supported"));
+                return;
+            }
+            sourceExecutor.execute(() -> {
+                if (after != null) {
+                    callback.onError("offline");
+                    return;
+                }
+                List<Article> articles = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    articles.add(new Article("feed-" + i, "Title", null, null, "tech", null,
+                            "author", "Author", null, new Date(1_000_000L - i), 1, 1));
+                }
+                callback.onSuccess(articles);
+            });
+        }
+
+        @Override
+        public void getSortedArticles(String category, ArticleSort sort, int page, int limit, CachePolicy policy,
+                                      ArticleRepository.ArticleCallback callback) {
+            sortedRequests.add(sort + " page=" + page + " limit=" + limit);
+            int size = sortedPageSize;
+            sourceExecutor.execute(() -> {
+                if (size == 0) {
+                    callback.onError("offline");
+                    return;
+                }
+                List<Article> articles = new ArrayList<>();
+                for (int i = 0; i < size; i++) {
+                    articles.add(new Article("sorted-" + page + "-" + i, "Title", null, null, "tech", null,
+                            "author", "Author", null, new Date(), 1000 - i, 1));
+                }
+                callback.onSuccess(articles);
+            });
+        }
+
+        @Override
+        public void getArticlesByIds(List<String> ids, ArticleRepository.ArticleCallback callback) {
+            batchRequests.add(new ArrayList<>(ids));
+            sourceExecutor.execute(() -> {
+                // Only knows "remote-" ids and answers in reverse order
+                List<Article> found = new ArrayList<>();
+                for (String id : ids) {
+                    if (id.startsWith("remote-")) {
+                        found.add(0, new Article(id, "Title " + id, null, null, "tech", null,
+                                "author", "Author", null, new Date(), 1, 1));
+                    }
+                }
+                callback.onSuccess(found);
+            });
+        }
+
+        @Override
+        public void getArticleById(String id, ArticleRepository.SingleArticleCallback callback) {
+            sourceExecutor.execute(() -> callback.onError("not supported"));
+        }
+
+        @Override
+        public void syncChanges(ArticleRepository.SyncCallback callback) {
+            ArticleChangeSet changes = pendingChanges;
+            sourceExecutor.execute(() -> callback.onSuccess(changes));
+        }
+
+        private void sleepQuietly(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
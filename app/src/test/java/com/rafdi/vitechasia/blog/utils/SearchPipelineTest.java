@@ -0,0 +1,158 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.After;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests and a typing benchmark for {@link SearchPipeline}.
+ */
+public class SearchPipelineTest {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void submit_onlyRunsTheLastQueryOfABurst() throws Exception {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(SyntheticArticles.generate(1_000, 5));
+        SearchPipeline pipeline = new SearchPipeline(index, scheduler, Runnable::run, Runnable::run, 50);
+        List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+
+        for (String query : new String[]{"a", "an", "and"}) {
+            pipeline.submit(query, (q, results, filters) -> {
+                delivered.add(q);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(List.of("and"), delivered);
+    }
+
+    @Test
+    public void supersededQuery_isNeverDelivered() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(SyntheticArticles.generate(1_000, 5));
+        Queue<Runnable> worker = new ArrayDeque<>();
+        SearchPipeline pipeline = new SearchPipeline(index, scheduler, worker::add, Runnable::run, 0);
+        List<String> delivered = new ArrayList<>();
+
+        pipeline.submitNow("an", (q, results, filters) -> delivered.add(q));
+        pipeline.submitNow("ko", (q, results, filters) -> delivered.add(q));
+        while (!worker.isEmpty()) {
+            worker.poll().run();
+        }
+        pipeline.submitNow("ba", (q, results, filters) -> delivered.add(q));
+        pipeline.cancel();
+        while (!worker.isEmpty()) {
+            worker.poll().run();
+        }
+
+        assertEquals(List.of("ko"), delivered);
+    }
+
+    @Test
+    public void blankQuery_deliversNoResultsAtOnce() {
+        SearchPipeline pipeline = new SearchPipeline(new ArticleSearchIndex(), scheduler,
+                Runnable::run, Runnable::run, 1_000);
+        List<List<Article>> delivered = new ArrayList<>();
+
+        pipeline.submit("  ", (q, results, filters) -> delivered.add(results));
+
+        assertEquals(1, delivered.size());
+        assertTrue(delivered.get(0).isEmpty());
+    }
+
+    @Test
+    public void results_comeWithAFilterIndexOverThem() {
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(SyntheticArticles.generate(3_000, 5));
+        SearchPipeline pipeline = new SearchPipeline(index, scheduler, Runnable::run, Runnable::run, 0);
+        List<Article> delivered = new ArrayList<>();
+        List<ArticleFilterIndex> indexes = new ArrayList<>();
+
+        pipeline.submitNow("a", (q, results, filters) -> {
+            delivered.addAll(results);
+            indexes.add(filters);
+        });
+
+        assertTrue(delivered.size() >= SearchPipeline.PRESORT_MIN_RESULTS);
+        assertEquals(delivered, indexes.get(0).select(null, null, ArticleFilterIndex.ANY_DATE,
+                ArticleFilterIndex.Order.RELEVANCE));
+    }
+
+    @Test
+    @Ignore("Benchmark; run manually")
+    public void benchmark_typingOnLargeCorpus() {
+        List<Article> corpus = SyntheticArticles.generate(50_000, 42);
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        index.addArticles(corpus);
+        String[] words = SyntheticArticles.vocabulary(5000, 42);
+        // Frequent words, typed one character at a time, then a second word
+        String[] queries = {words[0] + " " + words[1], words[3] + " " + words[7], words[10] + " " + words[2]};
+
+        for (int round = 0; round < 3; round++) {
+            for (String query : queries) {
+                type(index, query, true);
+                type(index, query, false);
+            }
+        }
+
+        long refinedNanos = 0;
+        long freshNanos = 0;
+        long slowestRefined = 0;
+        int keystrokes = 0;
+        for (String query : queries) {
+            long[] refined = type(index, query, true);
+            long[] fresh = type(index, query, false);
+            assertEquals("Query: " + query, fresh[2], refined[2]);
+            refinedNanos += refined[0];
+            freshNanos += fresh[0];
+            slowestRefined = Math.max(slowestRefined, refined[1]);
+            keystrokes += query.length();
+        }
+
+        System.out.printf("SearchPipeline n=%d keystrokes=%d refined=%.2fms/keystroke (max %.2fms) "
+                        + "fresh=%.2fms/keystroke%n", corpus.size(), keystrokes,
+                refinedNanos / 1e6 / keystrokes, slowestRefined / 1e6, freshNanos / 1e6 / keystrokes);
+    }
+
+    /**
+     * Runs every prefix of {@code query} as a keystroke would.
+     *
+     * @return Total and slowest nanoseconds per keystroke, and the number of final results
+     */
+    private static long[] type(ArticleSearchIndex index, String query, boolean refine) {
+        long total = 0;
+        long slowest = 0;
+        ArticleSearchIndex.Matches matches = null;
+        for (int end = 1; end <= query.length(); end++) {
+            long start = System.nanoTime();
+            matches = index.refine(query.substring(0, end), refine ? matches : null);
+            long nanos = System.nanoTime() - start;
+            total += nanos;
+            slowest = Math.max(slowest, nanos);
+        }
+        return new long[]{total, slowest, matches.getArticles().size()};
+    }
+}
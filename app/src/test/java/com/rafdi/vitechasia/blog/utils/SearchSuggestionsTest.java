@@ -0,0 +1,91 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link SearchSuggestions}.
+ */
+public class SearchSuggestionsTest {
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final long NOW = 1_750_000_000_000L;
+
+    @Test
+    public void recentArticlesAndProlificAuthorsRankFirst() {
+        SearchSuggestions suggestions = new SearchSuggestions();
+        suggestions.addArticles(List.of(
+                article("1", "Market outlook", "Maria Lopez", NOW - 60 * DAY),
+                article("2", "Marathon training", "Mark Chan", NOW),
+                article("3", "Mobile payments", "Maria Lopez", NOW - 60 * DAY),
+                article("4", "Maple syrup", "Maria Lopez", NOW - 60 * DAY)));
+
+        List<String> top = suggestions.suggest("mar", 5);
+
+        assertEquals("Marathon training", top.get(0));
+        assertEquals("Mark Chan", top.get(1));
+        // Three older articles together outweigh one of them alone
+        assertEquals("Maria Lopez", top.get(2));
+        assertEquals("Market outlook", top.get(3));
+    }
+
+    @Test
+    public void history_outranksTitlesAndFollowsUseCount() {
+        SearchSuggestions suggestions = new SearchSuggestions();
+        suggestions.addArticles(List.of(article("1", "Android tips", "Ann", NOW)));
+        suggestions.setHistory(List.of(
+                new SearchHistoryManager.HistoryEntry("android studio", 1, NOW - DAY),
+                new SearchHistoryManager.HistoryEntry("android widgets", 4, NOW - DAY)));
+
+        assertEquals(List.of("android widgets", "android studio", "Android tips"),
+                suggestions.suggest("andr", 5));
+
+        suggestions.addHistory(new SearchHistoryManager.HistoryEntry("Android Studio", 9, NOW));
+        assertEquals("Android Studio", suggestions.suggest("andr", 1).get(0));
+
+        suggestions.removeHistory("android widgets");
+        suggestions.setHistory(null);
+        assertEquals(List.of("Android tips"), suggestions.suggest("andr", 5));
+    }
+
+    @Test
+    public void editedArticles_moveTheirContribution() {
+        SearchSuggestions suggestions = new SearchSuggestions();
+        suggestions.addArticles(List.of(article("1", "Old headline", "Ann", NOW)));
+        suggestions.addArticles(List.of(article("1", "New headline", "Ann", NOW)));
+
+        assertTrue(suggestions.suggest("old", 5).isEmpty());
+        assertEquals(List.of("New headline"), suggestions.suggest("new", 5));
+
+        suggestions.removeArticles(List.of("1"));
+        assertEquals(0, suggestions.size());
+    }
+
+    @Test
+    public void decadesOfArticles_keepFiniteWeightsAndRankByRecency() {
+        SearchSuggestions suggestions = new SearchSuggestions();
+        long year = 365 * DAY;
+        // A century of yearly articles by one author, then the newest is deleted
+        for (int i = 0; i <= 100; i++) {
+            suggestions.addArticles(List.of(article("a" + i, "Topic " + (1000 + i), "Ann Author", NOW + i * year)));
+        }
+        suggestions.addArticles(List.of(article("old", "Topic of old times", "Bob Writer", NOW)));
+        suggestions.removeArticles(List.of("a100"));
+
+        assertEquals(List.of("Topic 1099", "Topic 1098", "Topic 1097"), suggestions.suggest("topic", 3));
+        assertEquals(List.of("Ann Author"), suggestions.suggest("ann", 5));
+        // Outweighed by the century of newer titles, but still there after removals
+        assertEquals(List.of("Topic of old times"), suggestions.suggest("topic of", 5));
+        assertEquals(List.of("Bob Writer"), suggestions.suggest("bob", 5));
+    }
+
+    private static Article article(String id, String title, String author, long publishedAt) {
+        return new Article(id, title, "Body", null, "tech", null, "author", author, null,
+                new Date(publishedAt), 0, 0);
+    }
+}
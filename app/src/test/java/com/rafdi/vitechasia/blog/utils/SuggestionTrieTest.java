@@ -0,0 +1,127 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests and a small benchmark for {@link SuggestionTrie}.
+ */
+public class SuggestionTrieTest {
+
+    @Test
+    public void top_returnsBestCompletionsFirst() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add("Android tips", 1);
+        trie.add("Android news", 5);
+        trie.add("Anna Smith", 3);
+        trie.add("Basketball", 10);
+
+        assertEquals(List.of("Android news", "Anna Smith", "Android tips"), trie.top("an", 10));
+        assertEquals(List.of("Android news"), trie.top("AN", 1));
+        assertEquals(List.of("Basketball", "Android news"), trie.top("", 2));
+        assertTrue(trie.top("x", 5).isEmpty());
+    }
+
+    @Test
+    public void add_accumulatesAndNormalisesPhrases() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add("Jane Doe", 1);
+        trie.add("  jane   doe ", 1);
+        trie.add("Jack", 1.5);
+
+        assertEquals(1, trie.top("jane d", 5).size());
+        assertEquals("jane   doe", trie.top("jane d", 5).get(0));
+        assertEquals(List.of("jane   doe", "Jack"), trie.top("ja", 5));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    public void remove_dropsAPhraseWithItsLastContribution() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.add("Android", 4);
+        trie.add("Android", 1);
+        trie.add("Andes", 3);
+
+        trie.remove("Android", 4);
+        assertEquals(List.of("Andes", "Android"), trie.top("and", 5));
+
+        trie.remove("Android", 1);
+        trie.remove("Unknown", 1);
+        assertEquals(List.of("Andes"), trie.top("and", 5));
+        assertEquals(1, trie.size());
+
+        trie.remove("Andes", 3);
+        assertTrue(trie.top("", 5).isEmpty());
+        assertEquals(0, trie.size());
+    }
+
+    @Test
+    public void top_matchesBruteForceOnSyntheticTitles() {
+        List<Article> corpus = SyntheticArticles.generate(2_000, 3);
+        SuggestionTrie trie = new SuggestionTrie();
+        Map<String, Double> weights = new HashMap<>();
+        Map<String, String> display = new HashMap<>();
+        Random random = new Random(9);
+        for (Article article : corpus) {
+            double weight = random.nextInt(1000);
+            trie.add(article.getTitle(), weight);
+            String key = SuggestionTrie.normalize(article.getTitle());
+            weights.merge(key, weight, Double::sum);
+            display.put(key, article.getTitle());
+        }
+
+        for (String prefix : new String[]{"a", "an", "ko", "dro", "ba", "fin", "z"}) {
+            List<String> expected = new ArrayList<>();
+            weights.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(8)
+                    .forEach(entry -> expected.add(display.get(entry.getKey())));
+            assertEquals("Prefix: " + prefix, expected, trie.top(prefix, 8));
+        }
+    }
+
+    @Test
+    @Ignore("Benchmark; run manually")
+    public void benchmark_topCompletions() {
+        List<Article> corpus = SyntheticArticles.generate(20_000, 42);
+        SuggestionTrie trie = new SuggestionTrie();
+        long buildStart = System.nanoTime();
+        for (Article article : corpus) {
+            trie.add(article.getTitle(), article.getViewCount());
+            trie.add(article.getAuthorName(), article.getViewCount());
+        }
+        long buildNanos = System.nanoTime() - buildStart;
+
+        String[] prefixes = {"a", "an", "ko", "bas", "fi", "mar", "tra", "dis"};
+        for (int round = 0; round < 2_000; round++) {
+            for (String prefix : prefixes) {
+                trie.top(prefix, 5);
+            }
+        }
+        int runs = 10_000;
+        long start = System.nanoTime();
+        for (int round = 0; round < runs; round++) {
+            for (String prefix : prefixes) {
+                trie.top(prefix, 5);
+            }
+        }
+        long perQuery = (System.nanoTime() - start) / runs / prefixes.length;
+
+        System.out.printf("SuggestionTrie phrases=%d build=%.1fms top5=%.2fus/prefix%n",
+                trie.size(), buildNanos / 1e6, perQuery / 1e3);
+        assertEquals(5, trie.top("a", 5).size());
+    }
+}
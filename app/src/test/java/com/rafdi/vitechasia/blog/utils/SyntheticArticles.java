@@ -0,0 +1,88 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of synthetic articles for local benchmarks.
+ */
+final class SyntheticArticles {
+    static final String[] CATEGORIES = {
+            DataHandler.CATEGORY_TECH, DataHandler.CATEGORY_HEALTH, DataHandler.CATEGORY_LIFESTYLE,
+            DataHandler.CATEGORY_BUSINESS, DataHandler.CATEGORY_SPORTS, DataHandler.CATEGORY_NEWS
+    };
+
+    private static final String[] SYLLABLES = {
+            "an", "dro", "id", "ko", "tlin", "we", "bas", "ket", "ball", "fi", "nan", "ce",
+            "mar", "ket", "po", "li", "tics", "tra", "vel", "foo", "dis", "cov", "er", "sum"
+    };
+
+    private SyntheticArticles() {
+    }
+
+    /**
+     * Builds a vocabulary of pseudo-words made of 2-4 syllables.
+     */
+    static String[] vocabulary(int size, long seed) {
+        Random random = new Random(seed);
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            // Suffix keeps words distinct
+            word.append(Integer.toString(i, 36));
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    static List<Article> generate(int count, long seed) {
+        Random random = new Random(seed);
+        String[] words = vocabulary(5000, seed);
+        long now = System.currentTimeMillis();
+        List<Article> articles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            List<String> subcategories = DataHandler.getSubcategoriesForCategory(category);
+            String subcategory = subcategories.get(random.nextInt(subcategories.size()));
+            String author = capitalize(words[random.nextInt(200)]) + " " + capitalize(words[random.nextInt(200)]);
+            Article article = new Article(
+                    "a" + i,
+                    sentence(random, words, 6),
+                    sentence(random, words, 40),
+                    "https://example.com/images/" + i + ".jpg",
+                    category,
+                    subcategory,
+                    "author_" + random.nextInt(500),
+                    author,
+                    null,
+                    new Date(now - random.nextInt(400) * 24L * 60 * 60 * 1000 - random.nextInt(86_400_000)),
+                    random.nextInt(100_000),
+                    random.nextInt(10_000));
+            articles.add(article);
+        }
+        return articles;
+    }
+
+    private static String sentence(Random random, String[] words, int length) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            if (i > 0) sentence.append(' ');
+            // Skewed towards the head of the vocabulary, like natural text
+            int index = (int) (Math.pow(random.nextDouble(), 2) * words.length);
+            sentence.append(i == 0 ? capitalize(words[index]) : words[index]);
+        }
+        return sentence.toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,188 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link TopArticles}.
+ */
+public class TopArticlesTest {
+
+    @Test
+    public void select_returnsGreatestFirstWithoutTouchingInput() {
+        List<Integer> items = Arrays.asList(5, 1, 9, 3, 9, 7);
+        List<Integer> copy = new ArrayList<>(items);
+
+        assertEquals(Arrays.asList(9, 9, 7), TopArticles.select(items, 3, Comparator.<Integer>naturalOrder()));
+        assertEquals(Arrays.asList(9, 9, 7, 5, 3, 1),
+                TopArticles.select(items, 10, Comparator.<Integer>naturalOrder()));
+        assertTrue(TopArticles.select(items, 0, Comparator.<Integer>naturalOrder()).isEmpty());
+        assertEquals(copy, items);
+    }
+
+    @Test
+    public void select_keepsInputOrderForTies() {
+        List<Article> articles = Arrays.asList(article("a", 1, 0, 0), article("b", 2, 0, 0),
+                article("c", 2, 0, 0), article("d", 2, 0, 0));
+
+        assertEquals(Arrays.asList("b", "c"),
+                ids(TopArticles.select(articles, 2, TopArticles.Metric.VIEWS.comparator)));
+    }
+
+    @Test
+    public void top_ranksEachMetric() {
+        TopArticles top = new TopArticles(3);
+        top.setArticles(Arrays.asList(article("a", 10, 1, 100), article("b", 30, 5, 300),
+                article("c", 20, 9, 200), article("d", 5, 3, 400)));
+
+        assertEquals(Arrays.asList("b", "c"), ids(top.top(TopArticles.Metric.VIEWS, 2)));
+        assertEquals(Arrays.asList("c", "b", "d"), ids(top.top(TopArticles.Metric.LIKES, 3)));
+        assertEquals(Arrays.asList("d", "b", "c", "a"), ids(top.top(TopArticles.Metric.NEWEST, 4)));
+    }
+
+    @Test
+    public void onArticleChanged_movesArticlesInAndOutOfTheView() {
+        Article a = article("a", 10, 0, 0);
+        Article b = article("b", 30, 0, 0);
+        Article c = article("c", 20, 0, 0);
+        Article d = article("d", 5, 0, 0);
+        TopArticles top = new TopArticles(2);
+        top.setArticles(Arrays.asList(a, b, c, d));
+        assertEquals(Arrays.asList("b", "c"), ids(top.top(TopArticles.Metric.VIEWS, 2)));
+
+        // An outsider overtakes both
+        d.setViewCount(50);
+        top.onArticleChanged(d);
+        assertEquals(Arrays.asList("d", "b"), ids(top.top(TopArticles.Metric.VIEWS, 2)));
+
+        // A member drops below an outsider
+        d.setViewCount(1);
+        top.onArticleChanged(d);
+        assertEquals(Arrays.asList("b", "c"), ids(top.top(TopArticles.Metric.VIEWS, 2)));
+
+        // A different object with the same id replaces the corpus entry
+        top.onArticleChanged(article("a", 40, 0, 0));
+        assertEquals(Arrays.asList("a", "b"), ids(top.top(TopArticles.Metric.VIEWS, 2)));
+    }
+
+    @Test
+    public void randomUpdates_matchFullSort() {
+        Random random = new Random(5);
+        List<Article> corpus = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            corpus.add(article("a" + i, random.nextInt(1_000_000), random.nextInt(1_000_000), i));
+        }
+        TopArticles top = new TopArticles(10);
+        top.setArticles(corpus);
+
+        for (int round = 0; round < 2_000; round++) {
+            Article changed = corpus.get(random.nextInt(corpus.size()));
+            if (random.nextBoolean()) {
+                changed.setLikeCount(random.nextInt(1_000_000));
+            } else {
+                changed.setViewCount(random.nextInt(1_000_000));
+            }
+            top.onArticleChanged(changed);
+
+            for (TopArticles.Metric metric : TopArticles.Metric.values()) {
+                List<Article> sorted = new ArrayList<>(corpus);
+                sorted.sort(metric.comparator.reversed());
+                List<Article> expected = sorted.subList(0, 5);
+                assertEquals(metric + " after round " + round, values(expected, metric),
+                        values(top.top(metric, 5), metric));
+            }
+        }
+    }
+
+    @Test
+    public void addAndRemove_matchFullSortWithoutRebuildingOnEveryDropOut() {
+        Random random = new Random(9);
+        Map<String, Article> corpus = new LinkedHashMap<>();
+        for (int i = 0; i < 500; i++) {
+            corpus.put("a" + i, article("a" + i, random.nextInt(1_000_000), random.nextInt(1_000_000), i));
+        }
+        TopArticles top = new TopArticles(10);
+        top.setArticles(corpus.values());
+        for (TopArticles.Metric metric : TopArticles.Metric.values()) {
+            top.top(metric, 5);
+        }
+
+        int next = 500;
+        for (int round = 0; round < 2_000; round++) {
+            int action = random.nextInt(3);
+            if (action == 0) {
+                Article added = article("a" + next, random.nextInt(1_000_000), random.nextInt(1_000_000), next);
+                next++;
+                corpus.put(added.getId(), added);
+                top.addArticles(Collections.singletonList(added));
+            } else if (action == 1) {
+                String id = new ArrayList<>(corpus.keySet()).get(random.nextInt(corpus.size()));
+                corpus.remove(id);
+                top.removeArticles(Collections.singletonList(id));
+            } else {
+                // A changed copy replaces the article, as a synced snapshot does
+                Article old = new ArrayList<>(corpus.values()).get(random.nextInt(corpus.size()));
+                Article changed = article(old.getId(), random.nextInt(1_000_000), old.getLikeCount(), 0);
+                changed.setPublishDate(old.getPublishDate());
+                corpus.put(changed.getId(), changed);
+                top.addArticles(Collections.singletonList(changed));
+            }
+
+            for (TopArticles.Metric metric : TopArticles.Metric.values()) {
+                List<Article> sorted = new ArrayList<>(corpus.values());
+                sorted.sort(metric.comparator.reversed());
+                assertEquals(metric + " after round " + round, values(sorted.subList(0, 5), metric),
+                        values(top.top(metric, 5), metric));
+            }
+        }
+        // Three initial builds; the headroom absorbs drop-outs almost always
+        assertTrue("rebuilds: " + top.getRebuildCount(), top.getRebuildCount() <= 3 + 10);
+    }
+
+    private static Article article(String id, int views, int likes, long publishedAt) {
+        Article article = new Article(id, "Title " + id, "Body", null, "tech", null,
+                "author", "Author", null, new Date(publishedAt), views, likes);
+        return article;
+    }
+
+    private static List<String> ids(List<Article> articles) {
+        List<String> ids = new ArrayList<>();
+        for (Article article : articles) {
+            ids.add(article.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Compares by ranking key so ties between equal counters don't matter.
+     */
+    private static List<Object> values(List<Article> articles, TopArticles.Metric metric) {
+        List<Object> values = new ArrayList<>();
+        for (Article article : articles) {
+            switch (metric) {
+                case VIEWS:
+                    values.add(article.getViewCount());
+                    break;
+                case LIKES:
+                    values.add(article.getLikeCount());
+                    break;
+                default:
+                    values.add(article.getPublishDate());
+            }
+        }
+        return values;
+    }
+}
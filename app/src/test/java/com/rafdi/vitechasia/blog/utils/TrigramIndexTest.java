@@ -0,0 +1,159 @@
+package com.rafdi.vitechasia.blog.utils;
+
+import com.rafdi.vitechasia.blog.models.Article;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests and a small benchmark for {@link TrigramIndex}.
+ */
+public class TrigramIndexTest {
+
+    @Test
+    public void editDistance_countsTranspositionsAsOneEdit() {
+        assertEquals(0, TrigramIndex.editDistance("android", "android", 2));
+        assertEquals(1, TrigramIndex.editDistance("andorid", "android", 2));
+        assertEquals(1, TrigramIndex.editDistance("androd", "android", 2));
+        assertEquals(1, TrigramIndex.editDistance("anxroid", "android", 2));
+        assertEquals(1, TrigramIndex.editDistance("kitten", "sitten", 0));
+        assertEquals(3, TrigramIndex.editDistance("kitten", "sitting", 3));
+        // Past the bound, the bound plus one
+        assertEquals(3, TrigramIndex.editDistance("kitten", "sitting", 2));
+        assertEquals(2, TrigramIndex.editDistance("a", "abcd", 1));
+    }
+
+    @Test
+    public void similar_findsCloseTermsOnly() {
+        TrigramIndex index = new TrigramIndex();
+        for (String term : new String[]{"android", "androids", "andorra", "basketball", "kotlin"}) {
+            index.add(term);
+        }
+        index.add("android");
+
+        assertEquals(set("android"), terms(index.similar("andriod", 1)));
+        assertEquals(set("android", "androids"), terms(index.similar("androidz", 1)));
+        assertEquals(set("basketball"), terms(index.similar("baskteball", 2)));
+        assertTrue(index.similar("kotln", 0).isEmpty());
+        // Too short for the gram filter to prune anything
+        assertTrue(index.similar("kot", 1).isEmpty());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    public void similar_matchesAFullVocabularyScan() {
+        List<String> vocabulary = vocabulary(SyntheticArticles.generate(2_000, 5));
+        TrigramIndex index = new TrigramIndex();
+        vocabulary.forEach(index::add);
+
+        for (String typo : typos(vocabulary, 300, 11)) {
+            int maxEdits = ArticleSearchIndex.maxEdits(typo.length());
+            assertEquals("Word: " + typo, scan(vocabulary, typo, maxEdits), terms(index.similar(typo, maxEdits)));
+        }
+    }
+
+    @Test
+    @Ignore("Benchmark; run manually")
+    public void benchmark_trigramsVersusVocabularyScan() {
+        List<Article> corpus = SyntheticArticles.generate(50_000, 42);
+        List<String> vocabulary = vocabulary(corpus);
+        TrigramIndex index = new TrigramIndex();
+        vocabulary.forEach(index::add);
+        List<String> typos = typos(vocabulary, 200, 3);
+
+        for (int round = 0; round < 5; round++) {
+            for (String typo : typos) {
+                index.similar(typo, ArticleSearchIndex.maxEdits(typo.length()));
+                scan(vocabulary, typo, ArticleSearchIndex.maxEdits(typo.length()));
+            }
+        }
+
+        long start = System.nanoTime();
+        int indexed = 0;
+        for (String typo : typos) {
+            indexed += index.similar(typo, ArticleSearchIndex.maxEdits(typo.length())).size();
+        }
+        long indexNanos = (System.nanoTime() - start) / typos.size();
+
+        start = System.nanoTime();
+        int scanned = 0;
+        for (String typo : typos) {
+            scanned += scan(vocabulary, typo, ArticleSearchIndex.maxEdits(typo.length())).size();
+        }
+        long scanNanos = (System.nanoTime() - start) / typos.size();
+
+        System.out.printf("TrigramIndex terms=%d trigrams=%.3fms/word scan=%.3fms/word corrections=%d/%d%n",
+                vocabulary.size(), indexNanos / 1e6, scanNanos / 1e6, indexed, scanned);
+        assertEquals(scanned, indexed);
+        assertTrue("gram filter should beat scanning the vocabulary", indexNanos < scanNanos);
+    }
+
+    /**
+     * Distinct title and author words, as the search index feeds them.
+     */
+    private static List<String> vocabulary(List<Article> corpus) {
+        Set<String> words = new LinkedHashSet<>();
+        for (Article article : corpus) {
+            words.addAll(ArticleSearchIndex.tokenize(article.getTitle()));
+            words.addAll(ArticleSearchIndex.tokenize(article.getAuthorName()));
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * Vocabulary words with one random substitution, deletion or adjacent swap.
+     */
+    private static List<String> typos(List<String> vocabulary, int count, long seed) {
+        Random random = new Random(seed);
+        List<String> typos = new ArrayList<>(count);
+        while (typos.size() < count) {
+            String word = vocabulary.get(random.nextInt(vocabulary.size()));
+            if (word.length() < 5) continue;
+            int at = random.nextInt(word.length() - 1);
+            switch (random.nextInt(3)) {
+                case 0:
+                    typos.add(word.substring(0, at) + (char) ('a' + random.nextInt(26)) + word.substring(at + 1));
+                    break;
+                case 1:
+                    typos.add(word.substring(0, at) + word.substring(at + 1));
+                    break;
+                default:
+                    typos.add(word.substring(0, at) + word.charAt(at + 1) + word.charAt(at) + word.substring(at + 2));
+                    break;
+            }
+        }
+        return typos;
+    }
+
+    private static Set<String> scan(List<String> vocabulary, String word, int maxEdits) {
+        Set<String> found = new TreeSet<>();
+        if (maxEdits == 0) return found;
+        for (String term : vocabulary) {
+            if (TrigramIndex.editDistance(word, term, maxEdits) <= maxEdits) {
+                found.add(term);
+            }
+        }
+        return found;
+    }
+
+    private static Set<String> terms(List<TrigramIndex.Similar> similar) {
+        Set<String> terms = new TreeSet<>();
+        for (TrigramIndex.Similar match : similar) {
+            terms.add(match.term);
+        }
+        return terms;
+    }
+
+    private static Set<String> set(String... terms) {
+        return new TreeSet<>(List.of(terms));
+    }
+}